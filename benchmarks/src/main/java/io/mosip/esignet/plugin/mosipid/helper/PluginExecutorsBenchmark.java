@@ -0,0 +1,122 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time taken to complete a burst of blocking kyc-auth calls against a local stub answering after 50ms, on the
+ * call executor with virtual threads and with 200 platform threads. Virtual threads are used only on Java 21+,
+ * on older runtimes both the modes run on platform threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PluginExecutorsBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    @Param({"1000", "5000", "10000"})
+    private int concurrency;
+
+    @Param({"true", "false"})
+    private boolean virtualThreads;
+
+    private HttpServer stubServer;
+
+    private ExecutorService stubExecutor;
+
+    private ExecutorService callExecutor;
+
+    private RestTemplate restTemplate;
+
+    private String url;
+
+    @Setup
+    public void setup() throws IOException {
+        PluginExecutors virtualThreadExecutors = new PluginExecutors();
+        setField(virtualThreadExecutors, "virtualThreadsEnabled", true);
+        virtualThreadExecutors.init();
+
+        stubExecutor = virtualThreadExecutors.newCallExecutor("ida-stub", PLATFORM_THREADS);
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 10000);
+        stubServer.setExecutor(stubExecutor);
+        stubServer.createContext("/kyc-auth", exchange -> {
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(50);
+                byte[] response = "{\"response\":{\"kycStatus\":true}}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, response.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(response);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        stubServer.start();
+        url = "http://localhost:" + stubServer.getAddress().getPort() + "/kyc-auth";
+        restTemplate = new RestTemplate();
+
+        PluginExecutors pluginExecutors = virtualThreads ? virtualThreadExecutors : new PluginExecutors();
+        callExecutor = pluginExecutors.newCallExecutor("ida-call", PLATFORM_THREADS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        callExecutor.shutdownNow();
+        stubServer.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int blockingCalls() throws Exception {
+        List<Future<String>> results = new ArrayList<>(concurrency);
+        for(int i = 0; i < concurrency; i++)
+            results.add(callExecutor.submit(() -> restTemplate.postForObject(url, "{}", String.class)));
+
+        int length = 0;
+        for(Future<String> result : results)
+            length += result.get(5, TimeUnit.MINUTES).length();
+        return length;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.api.dto.AuthChallenge;
+import io.mosip.esignet.plugin.mosipid.dto.IdaKycAuthRequest;
+import io.mosip.esignet.plugin.mosipid.helper.IdaCertificateHolder;
+import io.mosip.esignet.plugin.mosipid.helper.IdaRequestSigner;
+import io.mosip.esignet.plugin.mosipid.helper.IdaSessionKeyPool;
+import io.mosip.kernel.core.util.CryptoUtil;
+import io.mosip.kernel.core.util.HMACUtils2;
+import io.mosip.kernel.crypto.jce.core.CryptoCore;
+import io.mosip.kernel.keygenerator.bouncycastle.util.KeyGeneratorUtils;
+import io.mosip.kernel.keymanagerservice.dto.CertificateEntry;
+import io.mosip.kernel.keymanagerservice.dto.SignatureCertificate;
+import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
+import io.mosip.kernel.partnercertservice.util.PartnerCertificateManagerUtil;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+import javax.security.auth.x500.X500Principal;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cost of building a kyc-auth request on the plugin side before it reaches the network. Collaborators of
+ * {@link HelperService} are the plugin classes with the keymanager replaced by an in-memory RSA key and
+ * certificate, the session key pool is disabled so that every kyc-auth generates and wraps its session key.
+ * The benchmarks suffixed Baseline run the implementation the plugin had before the request-path optimizations,
+ * copied here: certificate validity and thumbprint computed per request, and the request signed per request with a
+ * new signature instance and header as the keymanager signature service does, without its key store lookup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HelperServiceBenchmark {
+
+    private static final String RSA_OAEP_TRANSFORMATION = "RSA/ECB/OAEPWITHSHA-256ANDMGF1PADDING";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private HelperService helperService;
+
+    private List<AuthChallenge> challengeList;
+
+    private IdaKycAuthRequest idaKycAuthRequest;
+
+    private String requestBody;
+
+    private final String[] langCodes = {"en", "fr", "ar"};
+
+    private final CryptoCore cryptoCore = new RsaOaepCryptoCore();
+
+    private PrivateKey signingKey;
+
+    private X509Certificate certificate;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPair keyPair = generateKeyPair();
+        certificate = getCertificate(keyPair);
+        signingKey = keyPair.getPrivate();
+
+        IdaSessionKeyPool sessionKeyPool = new IdaSessionKeyPool();
+        setField(sessionKeyPool, "symmetricAlgorithm", "AES");
+        setField(sessionKeyPool, "symmetricKeyLength", 256);
+        setField(sessionKeyPool, "cryptoCore", cryptoCore);
+
+        IdaCertificateHolder idaCertificateHolder = new IdaCertificateHolder();
+        getField(idaCertificateHolder, "current", AtomicReference.class).set(newPartnerCertificate(certificate));
+
+        IdaRequestSigner idaRequestSigner = new IdaRequestSigner();
+        setField(idaRequestSigner, "enabled", true);
+        setField(idaRequestSigner, "keyRefreshIntervalSeconds", TimeUnit.DAYS.toSeconds(1));
+        setField(idaRequestSigner, "keymanagerService", getKeymanagerService(keyPair, certificate));
+
+        helperService = new HelperService();
+        setField(helperService, "objectMapper", objectMapper);
+        setField(helperService, "sessionKeyPool", sessionKeyPool);
+        setField(helperService, "idaCertificateHolder", idaCertificateHolder);
+        setField(helperService, "idaRequestSigner", idaRequestSigner);
+
+        AuthChallenge authChallenge = new AuthChallenge();
+        authChallenge.setAuthFactorType("OTP");
+        authChallenge.setChallenge("111111");
+        challengeList = List.of(authChallenge);
+
+        idaKycAuthRequest = newKycAuthRequest();
+        helperService.setAuthRequest(challengeList, idaKycAuthRequest);
+        requestBody = objectMapper.writeValueAsString(idaKycAuthRequest);
+    }
+
+    @Benchmark
+    public IdaKycAuthRequest setAuthRequest() throws Exception {
+        IdaKycAuthRequest request = newKycAuthRequest();
+        helperService.setAuthRequest(challengeList, request);
+        return request;
+    }
+
+    @Benchmark
+    public IdaKycAuthRequest setAuthRequestBaseline() throws Exception {
+        IdaKycAuthRequest.AuthRequest authRequest = new IdaKycAuthRequest.AuthRequest();
+        authRequest.setTimestamp(HelperService.getUTCDateTime());
+        authRequest.setOtp(challengeList.get(0).getChallenge());
+
+        IdaKycAuthRequest request = newKycAuthRequest();
+        SecretKey symmetricKey = KeyGeneratorUtils.getKeyGenerator("AES", 256).generateKey();
+        String authRequestJson = objectMapper.writeValueAsString(authRequest);
+        String hexEncodedHash = HMACUtils2.digestAsPlainText(authRequestJson.getBytes(StandardCharsets.UTF_8));
+        request.setRequest(HelperService.b64Encode(CryptoUtil.symmetricEncrypt(symmetricKey,
+                authRequestJson.getBytes(StandardCharsets.UTF_8))));
+        request.setRequestHMAC(HelperService.b64Encode(CryptoUtil.symmetricEncrypt(symmetricKey,
+                hexEncodedHash.getBytes(StandardCharsets.UTF_8))));
+        if(!PartnerCertificateManagerUtil.isCertificateDatesValid(certificate))
+            throw new IllegalStateException("Benchmark certificate is not valid");
+        request.setThumbprint(HelperService.b64Encode(DigestUtils.sha256(certificate.getEncoded())));
+        request.setRequestSessionKey(HelperService.b64Encode(
+                cryptoCore.asymmetricEncrypt(certificate.getPublicKey(), symmetricKey.getEncoded())));
+        return request;
+    }
+
+    @Benchmark
+    public String getRequestSignature() {
+        return helperService.getRequestSignature(requestBody);
+    }
+
+    @Benchmark
+    public String getRequestSignatureBaseline() throws Exception {
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("x5c", List.of(Base64.getEncoder().encodeToString(certificate.getEncoded())));
+        header.put("alg", "RS256");
+        String encodedHeader = HelperService.b64Encode(objectMapper.writeValueAsString(header));
+        String payload = new String(HelperService.b64Decode(HelperService.b64Encode(requestBody)), StandardCharsets.UTF_8);
+
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initSign(signingKey);
+        signature.update((encodedHeader + "." + HelperService.b64Encode(payload)).getBytes(StandardCharsets.UTF_8));
+        return encodedHeader + ".." + HelperService.b64Encode(signature.sign());
+    }
+
+    @Benchmark
+    public String serializeKycAuthRequest() throws Exception {
+        return objectMapper.writeValueAsString(idaKycAuthRequest);
+    }
+
+    @Benchmark
+    public String generateHash() {
+        return HelperService.generateHash("8267411571");
+    }
+
+    @Benchmark
+    public String generateTransactionId() {
+        return HelperService.generateTransactionId(10);
+    }
+
+    @Benchmark
+    public List<String> convertLangCodesToISO3LanguageCodes() {
+        return helperService.convertLangCodesToISO3LanguageCodes(langCodes);
+    }
+
+    private IdaKycAuthRequest newKycAuthRequest() {
+        IdaKycAuthRequest request = new IdaKycAuthRequest();
+        request.setId("mosip.identity.kycauth");
+        request.setVersion("1.0");
+        request.setRequestTime(HelperService.getUTCDateTime());
+        request.setDomainUri("https://esignet.mosip.net");
+        request.setEnv("Staging");
+        request.setConsentObtained(true);
+        request.setIndividualId("8267411571");
+        request.setTransactionID("1234567890");
+        return request;
+    }
+
+    private static KeymanagerService getKeymanagerService(KeyPair keyPair, X509Certificate certificate) {
+        CertificateEntry<X509Certificate, PrivateKey> certificateEntry = new CertificateEntry<>();
+        certificateEntry.setPrivateKey(keyPair.getPrivate());
+        certificateEntry.setChain(new X509Certificate[]{certificate});
+        SignatureCertificate signatureCertificate = new SignatureCertificate();
+        signatureCertificate.setCertificateEntry(certificateEntry);
+        return (KeymanagerService) Proxy.newProxyInstance(KeymanagerService.class.getClassLoader(),
+                new Class[]{KeymanagerService.class}, (proxy, method, args) -> {
+                    if("getSignatureCertificate".equals(method.getName()))
+                        return signatureCertificate;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Object newPartnerCertificate(Certificate certificate) throws Exception {
+        Constructor<IdaCertificateHolder.PartnerCertificate> constructor =
+                IdaCertificateHolder.PartnerCertificate.class.getDeclaredConstructor(Certificate.class);
+        constructor.setAccessible(true);
+        return constructor.newInstance(certificate);
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private static X509Certificate getCertificate(KeyPair keyPair) throws Exception {
+        X509V3CertificateGenerator generator = new X509V3CertificateGenerator();
+        X500Principal dnName = new X500Principal("CN=Benchmark");
+        generator.setSubjectDN(dnName);
+        generator.setIssuerDN(dnName);
+        generator.setNotBefore(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(1)));
+        generator.setNotAfter(new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(30)));
+        generator.setPublicKey(keyPair.getPublic());
+        generator.setSignatureAlgorithm("SHA256WITHRSA");
+        generator.setSerialNumber(BigInteger.valueOf(System.nanoTime()));
+        return generator.generate(keyPair.getPrivate());
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static <T> T getField(Object target, String name, Class<T> type) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        return type.cast(ReflectionUtils.getField(field, target));
+    }
+
+    /**
+     * Wraps the session key with RSA-OAEP (SHA-256, MGF1) as done by the keymanager CryptoCore, without
+     * requiring the keymanager configuration.
+     */
+    private static class RsaOaepCryptoCore extends CryptoCore {
+        @Override
+        public byte[] asymmetricEncrypt(PublicKey key, byte[] data) {
+            try {
+                Cipher cipher = Cipher.getInstance(RSA_OAEP_TRANSFORMATION);
+                cipher.init(Cipher.ENCRYPT_MODE, key, new OAEPParameterSpec("SHA-256", "MGF1",
+                        MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT));
+                return cipher.doFinal(data);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building the KBI registry search request in sunbird-rc-plugin from the challenge. buildWithObjectMapper
+ * is the request built before the search template, reading the challenge to a map and serializing the filter maps
+ * of every field for every request. buildWithTemplate streams the filter values from the challenge and writes them
+ * into the pre-serialized request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RegistrySearchTemplateBenchmark {
+
+    private static final String CHALLENGE = "{\"fullName\":\"Zaid Siddique\",\"dob\":\"2000-07-26\",\"gender\":\"Male\"," +
+            "\"email\":\"zaid.siddique@example.com\"}";
+
+    private static final String INDIVIDUAL_ID = "100-2345-6789";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<Map<String, String>> fieldDetails = List.of(
+            Map.of("id", "policyNumber", "type", "text", "format", ""),
+            Map.of("id", "fullName", "type", "text", "format", ""),
+            Map.of("id", "dob", "type", "date", "format", "dd/mm/yyyy"),
+            Map.of("id", "gender", "type", "text", "format", ""),
+            Map.of("id", "email", "type", "text", "format", ""));
+
+    private final String idField = "policyNumber";
+
+    private byte[] challengeBytes;
+
+    private RegistrySearchTemplate registrySearchTemplate;
+
+    private final ByteArrayOutputStream requestBody = new ByteArrayOutputStream(256);
+
+    @Setup
+    public void setup() {
+        challengeBytes = CHALLENGE.getBytes(StandardCharsets.UTF_8);
+        registrySearchTemplate = RegistrySearchTemplate.compile(fieldDetails, idField);
+    }
+
+    @Benchmark
+    public String buildWithObjectMapper() throws Exception {
+        Map<String, String> challengeMap = objectMapper.readValue(new String(challengeBytes, StandardCharsets.UTF_8), Map.class);
+        Map<String, Map<String, String>> filters = new HashMap<>();
+        for (Map<String, String> fieldDetail : fieldDetails) {
+            Map<String, String> filter = new HashMap<>();
+            filter.put("eq", fieldDetail.get("id").equals(idField) ? INDIVIDUAL_ID : challengeMap.get(fieldDetail.get("id")));
+            filters.put(fieldDetail.get("id"), filter);
+        }
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("offset", 0);
+        request.put("limit", 2);
+        request.put("filters", filters);
+        return objectMapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public int buildWithTemplate() throws Exception {
+        requestBody.reset();
+        registrySearchTemplate.write(registrySearchTemplate.getFilterValues(challengeBytes, INDIVIDUAL_ID), requestBody);
+        return requestBody.size();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.plugin.mosipid.dto.Password;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of hashing a password with Argon2id in the plugin for the memory and iteration parameters. generateHash
+ * hashes on the benchmark thread, hash goes through the bounded hashing pool of the default size of 4 threads,
+ * run it with -t to measure the pool under concurrent sign-ups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class Argon2PasswordHasherBenchmark {
+
+    @Param({"19456", "65536"})
+    private int memoryKib;
+
+    @Param({"2", "3"})
+    private int iterations;
+
+    private final byte[] salt = new byte[16];
+
+    private Argon2PasswordHasher argon2PasswordHasher;
+
+    @Setup
+    public void setup() {
+        argon2PasswordHasher = new Argon2PasswordHasher();
+        setField(argon2PasswordHasher, "mode", Argon2PasswordHasher.LOCAL_MODE);
+        setField(argon2PasswordHasher, "iterations", iterations);
+        setField(argon2PasswordHasher, "memoryKib", memoryKib);
+        setField(argon2PasswordHasher, "parallelism", 1);
+        setField(argon2PasswordHasher, "hashLength", 32);
+        setField(argon2PasswordHasher, "saltLength", 16);
+        setField(argon2PasswordHasher, "poolSize", 4);
+        setField(argon2PasswordHasher, "queueCapacity", 500);
+        setField(argon2PasswordHasher, "timeoutMillis", 60000L);
+        setField(argon2PasswordHasher, "idrepoPluginExecutors", new PluginExecutors());
+        argon2PasswordHasher.init();
+    }
+
+    @TearDown
+    public void tearDown() {
+        argon2PasswordHasher.destroy();
+    }
+
+    @Benchmark
+    public byte[] generateHash() {
+        return argon2PasswordHasher.generateHash("Password@123", salt);
+    }
+
+    @Benchmark
+    public Password hash() {
+        return argon2PasswordHasher.hash("Password@123");
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.signup.api.exception.InvalidProfileException;
+import io.mosip.signup.plugin.mosipid.dto.SchemaFieldValidator;
+import io.mosip.signup.plugin.mosipid.dto.SimpleType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating a signup identity against the ID schema in idschema.json. validateWithSchemaJson is the
+ * validation done before the schema was compiled into a {@link SchemaValidationPlan}, walking the schema json
+ * and converting the validators and the multi-lingual values for every field of every request.
+ * validateParsedTree and validateStream compare validating the identity json read from the request bytes by
+ * parsing it to a tree first and in a single pass over the json tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SchemaValidationPlanBenchmark {
+
+    private static final String IDENTITY = "{\"IDSchemaVersion\":0.2,\"phone\":\"+91841987567\",\"email\":\"john.doe@example.com\"," +
+            "\"fullName\":[{\"language\":\"eng\",\"value\":\"John Doe\"},{\"language\":\"ara\",\"value\":\"\\u062c\\u0648\\u0646 \\u062f\\u0648\"}]," +
+            "\"gender\":[{\"language\":\"eng\",\"value\":\"Male\"},{\"language\":\"ara\",\"value\":\"\\u0630\\u0643\\u0631\"}]," +
+            "\"dateOfBirth\":\"1990/05/21\",\"addressLine1\":[{\"language\":\"eng\",\"value\":\"12, Main Street\"}]," +
+            "\"city\":[{\"language\":\"eng\",\"value\":\"Bengaluru\"}],\"postalCode\":\"56001\",\"preferredLang\":\"eng\"," +
+            "\"registrationType\":\"L1\",\"phoneVerified\":true,\"updatedAt\":1700000000}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<String> mandatoryLanguages = List.of("eng");
+
+    private final List<String> optionalLanguages = List.of("ara");
+
+    private JsonNode schemaJson;
+
+    private JsonNode identity;
+
+    private byte[] identityBytes;
+
+    private SchemaValidationPlan validationPlan;
+
+    @Setup
+    public void setup() throws Exception {
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("idschema.json")) {
+            schemaJson = objectMapper.readTree(inputStream);
+        }
+        identity = objectMapper.readTree(IDENTITY);
+        identityBytes = IDENTITY.getBytes(StandardCharsets.UTF_8);
+        validationPlan = SchemaValidationPlan.compile(schemaJson);
+    }
+
+    @Benchmark
+    public SchemaValidationPlan compile() {
+        return SchemaValidationPlan.compile(schemaJson);
+    }
+
+    @Benchmark
+    public JsonNode validateWithPlan() {
+        validationPlan.validateRequiredFields(identity);
+        validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages);
+        return identity;
+    }
+
+    @Benchmark
+    public JsonNode validateParsedTree() throws IOException {
+        JsonNode parsedIdentity = objectMapper.readTree(identityBytes);
+        validationPlan.validateRequiredFields(parsedIdentity);
+        validationPlan.validateFields(parsedIdentity, mandatoryLanguages, optionalLanguages);
+        return parsedIdentity;
+    }
+
+    @Benchmark
+    public JsonParser validateStream() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(identityBytes)) {
+            validationPlan.validate(parser, true, mandatoryLanguages, optionalLanguages);
+            return parser;
+        }
+    }
+
+    @Benchmark
+    public JsonNode validateWithSchemaJson() {
+        for (JsonNode requiredField : schemaJson.at("/properties/identity/required")) {
+            if (identity.get(requiredField.textValue()) == null)
+                throw new InvalidProfileException("invalid_".concat(requiredField.textValue().toLowerCase()));
+        }
+
+        JsonNode schemaFields = schemaJson.at("/properties/identity/properties");
+        Iterator<Map.Entry<String, JsonNode>> itr = identity.fields();
+        while (itr.hasNext()) {
+            Map.Entry<String, JsonNode> entry = itr.next();
+            JsonNode schemaField = schemaFields.get(entry.getKey());
+            if (schemaField == null)
+                throw new InvalidProfileException(ErrorConstants.UNKNOWN_FIELD);
+            if (!schemaField.hasNonNull("validators"))
+                continue;
+
+            SchemaFieldValidator[] validators = objectMapper.convertValue(schemaField.get("validators"), SchemaFieldValidator[].class);
+            if (validators == null || validators.length == 0)
+                continue;
+
+            String datatype = schemaField.get("type") == null ? schemaField.get("$ref").textValue() : schemaField.get("type").textValue();
+            switch (datatype) {
+                case "string":
+                    validateValue(entry.getKey(), validators[0], entry.getValue().textValue());
+                    break;
+                case "#/definitions/simpleType":
+                    SimpleType[] values = objectMapper.convertValue(entry.getValue(), SimpleType[].class);
+                    if (Arrays.stream(values).noneMatch(v -> mandatoryLanguages.contains(v.getLanguage())))
+                        throw new InvalidProfileException(ErrorConstants.INVALID_LANGUAGE);
+
+                    for (SimpleType value : values) {
+                        if (!mandatoryLanguages.contains(value.getLanguage()) && !optionalLanguages.contains(value.getLanguage()))
+                            throw new InvalidProfileException(ErrorConstants.INVALID_LANGUAGE);
+                        Optional<SchemaFieldValidator> result = Arrays.stream(validators)
+                                .filter(v -> value.getLanguage().equals(v.getLangCode())).findFirst();
+                        if (result.isEmpty())
+                            result = Arrays.stream(validators).filter(v -> v.getLangCode() == null).findFirst();
+                        result.ifPresent(validator -> validateValue(entry.getKey(), validator, value.getValue()));
+                    }
+                    break;
+                default:
+            }
+        }
+        return identity;
+    }
+
+    private void validateValue(String keyName, SchemaFieldValidator validator, String value) {
+        if (value == null || value.trim().isEmpty())
+            throw new InvalidProfileException("invalid_".concat(keyName.toLowerCase()));
+        if ("regex".equalsIgnoreCase(validator.getType()) && !value.matches(validator.getValidator()))
+            throw new InvalidProfileException("invalid_".concat(keyName.toLowerCase()));
+    }
+}
@@ -15,6 +15,8 @@ import io.mosip.esignet.api.spi.Authenticator;
 import io.mosip.esignet.api.util.ErrorConstants;
 import io.mosip.esignet.plugin.mock.dto.KycExchangeRequestDto;
 import io.mosip.esignet.plugin.mock.dto.VerifiedKycExchangeRequestDto;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import io.mosip.kernel.core.http.ResponseWrapper;
 import io.mosip.kernel.core.util.StringUtils;
 import io.mosip.kernel.keymanagerservice.dto.AllCertificatesDataResponseDto;
@@ -22,6 +24,7 @@ import io.mosip.kernel.keymanagerservice.dto.CertificateDataResponseDto;
 import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.ParameterizedTypeReference;
@@ -34,6 +37,7 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -46,6 +50,9 @@ import java.util.*;
 public class MockAuthenticationService implements Authenticator {
 
     private static final String APPLICATION_ID = "MOCK_AUTHENTICATION_SERVICE";
+    private static final String OPERATION_KYC_EXCHANGE = "kyc-exchange";
+    private static final String OPERATION_VERIFIED_KYC_EXCHANGE = "verified-kyc-exchange";
+    private static final String OPERATION_KYC_SIGNING_CERTIFICATES = "kyc-signing-certificates";
 
     @Value("${mosip.esignet.mock.authenticator.kyc-exchange-url}")
     private String kycExchangeUrl;
@@ -65,6 +72,18 @@ public class MockAuthenticationService implements Authenticator {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("mockRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Autowired
+    @Qualifier("mockPluginMetrics")
+    private PluginMetrics pluginMetrics;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+    }
 
     @Validated
     @Override
@@ -78,6 +97,7 @@ public class MockAuthenticationService implements Authenticator {
             throws KycExchangeException {
         log.info("Started to build kyc-exchange request with transactionId : {} && clientId : {}",
                 kycExchangeDto.getTransactionId(), clientId);
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_EXCHANGE, relyingPartyId, PluginMetrics.NONE);
         try {
             KycExchangeRequestDto kycExchangeRequestDto = new KycExchangeRequestDto();
             kycExchangeRequestDto.setRequestDateTime(MockHelperService.getUTCDateTime());
@@ -87,32 +107,23 @@ public class MockAuthenticationService implements Authenticator {
             kycExchangeRequestDto.setAcceptedClaims(kycExchangeDto.getAcceptedClaims());
             kycExchangeRequestDto.setClaimLocales(Arrays.asList(kycExchangeDto.getClaimsLocales()));
 
-            String requestBody = objectMapper.writeValueAsString(kycExchangeRequestDto);
+            String requestBody = call.time(PluginMetrics.STAGE_REQUEST_BUILD, () -> objectMapper.writeValueAsString(kycExchangeRequestDto));
             RequestEntity requestEntity = RequestEntity
                     .post(UriComponentsBuilder.fromUriString(kycExchangeUrl).pathSegment(relyingPartyId,
                             clientId).build().toUri())
                     .contentType(MediaType.APPLICATION_JSON_UTF8)
                     .body(requestBody);
-            ResponseEntity<ResponseWrapper<KycExchangeResponseDto>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<>() {
-                    });
-
-            if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                ResponseWrapper<KycExchangeResponseDto> responseWrapper = responseEntity.getBody();
-                if (responseWrapper.getResponse() != null && responseWrapper.getResponse().getKyc() != null) {
-                    return new KycExchangeResult(responseWrapper.getResponse().getKyc());
-                }
-                log.error("Errors in response received from IDA Kyc Exchange: {}", responseWrapper.getErrors());
-                throw new KycExchangeException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
-                        ErrorConstants.DATA_EXCHANGE_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
-            }
-
-            log.error("Error response received from IDA (Kyc-exchange) with status : {}", responseEntity.getStatusCode());
+            ResponseEntity<ResponseWrapper<KycExchangeResponseDto>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity, new ParameterizedTypeReference<>() {
+                    }));
+            return call.success(call.time(PluginMetrics.STAGE_RESPONSE_PARSE, () -> getKycExchangeResult(responseEntity)));
         } catch (KycExchangeException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("IDA Kyc-exchange failed with clientId : {}", clientId, e);
         }
+        call.failure("mock-ida-005");
         throw new KycExchangeException("mock-ida-005", "Failed to build kyc data");
     }
 
@@ -133,14 +144,20 @@ public class MockAuthenticationService implements Authenticator {
 
     @Override
     public List<KycSigningCertificateData> getAllKycSigningCertificates() {
-        List<KycSigningCertificateData> certs = new ArrayList<>();
-        AllCertificatesDataResponseDto allCertificatesDataResponseDto = keymanagerService.getAllCertificates(APPLICATION_ID,
-                Optional.empty());
-        for (CertificateDataResponseDto dto : allCertificatesDataResponseDto.getAllCertificates()) {
-            certs.add(new KycSigningCertificateData(dto.getKeyId(), dto.getCertificateData(),
-                    dto.getExpiryAt(), dto.getIssuedAt()));
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_SIGNING_CERTIFICATES, null, PluginMetrics.NONE);
+        try {
+            List<KycSigningCertificateData> certs = new ArrayList<>();
+            AllCertificatesDataResponseDto allCertificatesDataResponseDto = keymanagerService.getAllCertificates(APPLICATION_ID,
+                    Optional.empty());
+            for (CertificateDataResponseDto dto : allCertificatesDataResponseDto.getAllCertificates()) {
+                certs.add(new KycSigningCertificateData(dto.getKeyId(), dto.getCertificateData(),
+                        dto.getExpiryAt(), dto.getIssuedAt()));
+            }
+            return call.success(certs);
+        } catch (RuntimeException e) {
+            call.failure(null);
+            throw e;
         }
-        return certs;
     }
 
     @Override
@@ -152,36 +169,43 @@ public class MockAuthenticationService implements Authenticator {
     public KycExchangeResult doVerifiedKycExchange(String relyingPartyId, String clientId, VerifiedKycExchangeDto kycExchangeDto) throws KycExchangeException {
         log.info("Started to build verified kyc-exchange request with transactionId : {} && clientId : {}",
                 kycExchangeDto.getTransactionId(), clientId);
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_VERIFIED_KYC_EXCHANGE, relyingPartyId, PluginMetrics.NONE);
         try {
-            VerifiedKycExchangeRequestDto verifiedKycExchangeRequestDto = buildVerifiedKycExchangeRequestDto(kycExchangeDto);
-
             //set signature header, body and invoke kyc exchange endpoint
-            String requestBody = objectMapper.writeValueAsString(verifiedKycExchangeRequestDto);
+            String requestBody = call.time(PluginMetrics.STAGE_REQUEST_BUILD,
+                    () -> objectMapper.writeValueAsString(buildVerifiedKycExchangeRequestDto(kycExchangeDto)));
             RequestEntity requestEntity = RequestEntity
                     .post(UriComponentsBuilder.fromUriString(kycExchangeV2Url).pathSegment(relyingPartyId,
                             clientId).build().toUri())
                     .contentType(MediaType.APPLICATION_JSON_UTF8)
                     .body(requestBody);
-            ResponseEntity<ResponseWrapper<KycExchangeResponseDto>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<>() {
-                    });
-
-            if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                ResponseWrapper<KycExchangeResponseDto> responseWrapper = responseEntity.getBody();
-                if (responseWrapper.getResponse() != null && responseWrapper.getResponse().getKyc() != null) {
-                    return new KycExchangeResult(responseWrapper.getResponse().getKyc());
-                }
-                log.error("Errors in response received from IDA Kyc Exchange: {}", responseWrapper.getErrors());
-                throw new KycExchangeException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
-                        ErrorConstants.DATA_EXCHANGE_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
-            }
-
-            log.error("Error response received from IDA (Kyc-exchange) with status : {}", responseEntity.getStatusCode());
+            ResponseEntity<ResponseWrapper<KycExchangeResponseDto>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity, new ParameterizedTypeReference<>() {
+                    }));
+            return call.success(call.time(PluginMetrics.STAGE_RESPONSE_PARSE, () -> getKycExchangeResult(responseEntity)));
         } catch (KycExchangeException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("IDA Kyc-exchange failed with clientId : {}", clientId, e);
         }
+        call.failure("mock-ida-005");
+        throw new KycExchangeException("mock-ida-005", "Failed to build kyc data");
+    }
+
+    private KycExchangeResult getKycExchangeResult(ResponseEntity<ResponseWrapper<KycExchangeResponseDto>> responseEntity)
+            throws KycExchangeException {
+        if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
+            ResponseWrapper<KycExchangeResponseDto> responseWrapper = responseEntity.getBody();
+            if (responseWrapper.getResponse() != null && responseWrapper.getResponse().getKyc() != null) {
+                return new KycExchangeResult(responseWrapper.getResponse().getKyc());
+            }
+            log.error("Errors in response received from IDA Kyc Exchange: {}", responseWrapper.getErrors());
+            throw new KycExchangeException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
+                    ErrorConstants.DATA_EXCHANGE_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
+        }
+
+        log.error("Error response received from IDA (Kyc-exchange) with status : {}", responseEntity.getStatusCode());
         throw new KycExchangeException("mock-ida-005", "Failed to build kyc data");
     }
 
@@ -12,12 +12,15 @@ import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.esignet.api.util.ErrorConstants;
 import io.mosip.esignet.plugin.mock.dto.KycAuthRequestDto;
 import io.mosip.esignet.plugin.mock.dto.KycAuthResponseDtoV2;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import io.mosip.kernel.core.http.ResponseWrapper;
 import io.mosip.kernel.signature.dto.JWTSignatureRequestDto;
 import io.mosip.kernel.signature.dto.JWTSignatureResponseDto;
 import io.mosip.kernel.signature.service.SignatureService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
@@ -28,6 +31,7 @@ import org.springframework.util.CollectionUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
@@ -42,6 +46,10 @@ public class MockHelperService {
 
     private static final Base64.Encoder urlSafeEncoder = Base64.getUrlEncoder().withoutPadding();
 
+    private static final String OPERATION_KYC_AUTH = "kyc-auth";
+    private static final String OPERATION_SEND_OTP = "send-otp";
+    private static final String OTP_AUTH_FACTOR = "OTP";
+
     @Value("${mosip.esignet.mock.authenticator.send-otp}")
     private String sendOtpUrl;
 
@@ -60,6 +68,14 @@ public class MockHelperService {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    @Qualifier("mockRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Autowired
+    @Qualifier("mockPluginMetrics")
+    private PluginMetrics pluginMetrics;
+
     private static final Map<String, List<String>> supportedKycAuthFormats = new HashMap<>();
 
     static {
@@ -71,6 +87,11 @@ public class MockHelperService {
         supportedKycAuthFormats.put("KBI", List.of("base64url-encoded-json"));
     }
 
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+    }
+
 
     public static String b64Encode(String value) {
         return urlSafeEncoder.encodeToString(value.getBytes(StandardCharsets.UTF_8));
@@ -103,99 +124,120 @@ public class MockHelperService {
 
     public SendOtpResult sendOtpMock(String transactionId, String individualId, List<String> otpChannels, String relyingPartyId, String clientId)
             throws SendOtpException {
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_SEND_OTP, relyingPartyId, OTP_AUTH_FACTOR);
         try {
             var sendOtpDto = new SendOtpDto();
             sendOtpDto.setTransactionId(transactionId);
             sendOtpDto.setIndividualId(individualId);
             sendOtpDto.setOtpChannels(otpChannels);
-            String requestBody = objectMapper.writeValueAsString(sendOtpDto);
+            String requestBody = call.time(PluginMetrics.STAGE_REQUEST_BUILD, () -> objectMapper.writeValueAsString(sendOtpDto));
             RequestEntity requestEntity = RequestEntity
                     .post(UriComponentsBuilder.fromUriString(sendOtpUrl).pathSegment(relyingPartyId,
                             clientId).build().toUri())
                     .contentType(MediaType.APPLICATION_JSON_UTF8)
                     .body(requestBody);
-            ResponseEntity<ResponseWrapper<SendOtpResult>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<>() {
-                    });
-
-            if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                ResponseWrapper<SendOtpResult> responseWrapper = responseEntity.getBody();
-                if (responseWrapper.getResponse() != null) {
-                    return responseWrapper.getResponse();
-                }
-                log.error("Errors in response received from IDA send Otp: {}", responseWrapper.getErrors());
-                if (!CollectionUtils.isEmpty(responseWrapper.getErrors())) {
-                    throw new SendOtpException(responseWrapper.getErrors().get(0).getErrorCode());
-                }
-            }
-            throw new SendOtpException(ErrorConstants.SEND_OTP_FAILED);
+            ResponseEntity<ResponseWrapper<SendOtpResult>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity, new ParameterizedTypeReference<>() {
+                    }));
+            return call.success(call.time(PluginMetrics.STAGE_RESPONSE_PARSE, () -> getSendOtpResult(responseEntity)));
         } catch (SendOtpException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("send otp failed", e);
+            call.failure("send_otp_failed");
             throw new SendOtpException("send_otp_failed");
         }
     }
 
+    private SendOtpResult getSendOtpResult(ResponseEntity<ResponseWrapper<SendOtpResult>> responseEntity)
+            throws SendOtpException {
+        if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
+            ResponseWrapper<SendOtpResult> responseWrapper = responseEntity.getBody();
+            if (responseWrapper.getResponse() != null) {
+                return responseWrapper.getResponse();
+            }
+            log.error("Errors in response received from IDA send Otp: {}", responseWrapper.getErrors());
+            if (!CollectionUtils.isEmpty(responseWrapper.getErrors())) {
+                throw new SendOtpException(responseWrapper.getErrors().get(0).getErrorCode());
+            }
+        }
+        throw new SendOtpException(ErrorConstants.SEND_OTP_FAILED);
+    }
+
     public KycAuthResult doKycAuthMock(String relyingPartyId, String clientId, KycAuthDto kycAuthDto,boolean isClaimsMetadataRequired)
             throws KycAuthException {
         log.info("Started to build kyc-auth request with transactionId : {} && clientId : {} && isClaimsMetadataRequired: {}",
                 kycAuthDto.getTransactionId(), clientId, isClaimsMetadataRequired);
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_AUTH, relyingPartyId,
+                PluginMetrics.getAuthFactors(kycAuthDto.getChallengeList()));
         try {
-            KycAuthRequestDto kycAuthRequestDto = new KycAuthRequestDto();
-            kycAuthRequestDto.setTransactionId(kycAuthDto.getTransactionId());
-            kycAuthRequestDto.setIndividualId(kycAuthDto.getIndividualId());
-            kycAuthRequestDto.setClaimMetadataRequired(isClaimsMetadataRequired);
-
-            for (AuthChallenge authChallenge : kycAuthDto.getChallengeList()) {
-                if (Objects.equals(authChallenge.getAuthFactorType(), "PIN")) {
-                    kycAuthRequestDto.setPin(authChallenge.getChallenge());
-                } else if (Objects.equals(authChallenge.getAuthFactorType(), "OTP")) {
-                    kycAuthRequestDto.setOtp(authChallenge.getChallenge());
-                } else if (Objects.equals(authChallenge.getAuthFactorType(), "BIO")) {
-                    kycAuthRequestDto.setBiometrics(authChallenge.getChallenge());
-                } else if (Objects.equals(authChallenge.getAuthFactorType(), "WLA")) {
-                    kycAuthRequestDto.setTokens(List.of(authChallenge.getChallenge()));
-                } else if(Objects.equals(authChallenge.getAuthFactorType(),"KBI")){
-                    kycAuthRequestDto.setKbi(authChallenge.getChallenge());
-                } else if(Objects.equals(authChallenge.getAuthFactorType(),"PWD")){
-                    kycAuthRequestDto.setPassword(authChallenge.getChallenge());
-                }
-                else {
-                    throw new KycAuthException("invalid_auth_challenge");
-                }
-
-                if (!isKycAuthFormatSupported(authChallenge.getAuthFactorType(), authChallenge.getFormat())) {
-                    throw new KycAuthException("invalid_challenge_format");
-                }
-            }
-
-            //set signature header, body and invoke kyc auth endpoint
-            String requestBody = objectMapper.writeValueAsString(kycAuthRequestDto);
+            String requestBody = call.time(PluginMetrics.STAGE_REQUEST_BUILD,
+                    () -> buildKycAuthRequestBody(kycAuthDto, isClaimsMetadataRequired));
             RequestEntity requestEntity = RequestEntity
                     .post(UriComponentsBuilder.fromUriString(kycAuthUrl).pathSegment(relyingPartyId, clientId).build().toUri())
                     .contentType(MediaType.APPLICATION_JSON_UTF8)
                     .body(requestBody);
-            ResponseEntity<ResponseWrapper<KycAuthResponseDtoV2>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<>() {
-                    });
-
-            if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                ResponseWrapper<KycAuthResponseDtoV2> responseWrapper = responseEntity.getBody();
-                if (responseWrapper.getResponse() != null && responseWrapper.getResponse().isAuthStatus() && responseWrapper.getResponse().getKycToken() != null) {
-                    return buildKycAuthResult(responseWrapper.getResponse());
-                }
-                log.error("Error response received from IDA, Errors: {}", responseWrapper.getErrors());
-                throw new KycAuthException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
-                        ErrorConstants.AUTH_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
-            }
-            log.error("Error response received from IDA (Kyc-auth) with status : {}", responseEntity.getStatusCode());
+            ResponseEntity<ResponseWrapper<KycAuthResponseDtoV2>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity, new ParameterizedTypeReference<>() {
+                    }));
+            return call.success(call.time(PluginMetrics.STAGE_RESPONSE_PARSE, () -> getKycAuthResult(responseEntity)));
         } catch (KycAuthException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("KYC-auth failed with transactionId : {} && clientId : {}", kycAuthDto.getTransactionId(),
                     clientId, e);
         }
+        call.failure(ErrorConstants.AUTH_FAILED);
+        throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+    }
+
+    private String buildKycAuthRequestBody(KycAuthDto kycAuthDto, boolean isClaimsMetadataRequired) throws Exception {
+        KycAuthRequestDto kycAuthRequestDto = new KycAuthRequestDto();
+        kycAuthRequestDto.setTransactionId(kycAuthDto.getTransactionId());
+        kycAuthRequestDto.setIndividualId(kycAuthDto.getIndividualId());
+        kycAuthRequestDto.setClaimMetadataRequired(isClaimsMetadataRequired);
+
+        for (AuthChallenge authChallenge : kycAuthDto.getChallengeList()) {
+            if (Objects.equals(authChallenge.getAuthFactorType(), "PIN")) {
+                kycAuthRequestDto.setPin(authChallenge.getChallenge());
+            } else if (Objects.equals(authChallenge.getAuthFactorType(), "OTP")) {
+                kycAuthRequestDto.setOtp(authChallenge.getChallenge());
+            } else if (Objects.equals(authChallenge.getAuthFactorType(), "BIO")) {
+                kycAuthRequestDto.setBiometrics(authChallenge.getChallenge());
+            } else if (Objects.equals(authChallenge.getAuthFactorType(), "WLA")) {
+                kycAuthRequestDto.setTokens(List.of(authChallenge.getChallenge()));
+            } else if(Objects.equals(authChallenge.getAuthFactorType(),"KBI")){
+                kycAuthRequestDto.setKbi(authChallenge.getChallenge());
+            } else if(Objects.equals(authChallenge.getAuthFactorType(),"PWD")){
+                kycAuthRequestDto.setPassword(authChallenge.getChallenge());
+            }
+            else {
+                throw new KycAuthException("invalid_auth_challenge");
+            }
+
+            if (!isKycAuthFormatSupported(authChallenge.getAuthFactorType(), authChallenge.getFormat())) {
+                throw new KycAuthException("invalid_challenge_format");
+            }
+        }
+
+        //set body and invoke kyc auth endpoint
+        return objectMapper.writeValueAsString(kycAuthRequestDto);
+    }
+
+    private KycAuthResult getKycAuthResult(ResponseEntity<ResponseWrapper<KycAuthResponseDtoV2>> responseEntity)
+            throws KycAuthException {
+        if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
+            ResponseWrapper<KycAuthResponseDtoV2> responseWrapper = responseEntity.getBody();
+            if (responseWrapper.getResponse() != null && responseWrapper.getResponse().isAuthStatus() && responseWrapper.getResponse().getKycToken() != null) {
+                return buildKycAuthResult(responseWrapper.getResponse());
+            }
+            log.error("Error response received from IDA, Errors: {}", responseWrapper.getErrors());
+            throw new KycAuthException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
+                    ErrorConstants.AUTH_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
+        }
+        log.error("Error response received from IDA (Kyc-auth) with status : {}", responseEntity.getStatusCode());
         throw new KycAuthException(ErrorConstants.AUTH_FAILED);
     }
 
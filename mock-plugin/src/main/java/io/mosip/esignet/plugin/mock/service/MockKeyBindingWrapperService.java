@@ -17,6 +17,7 @@ import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.esignet.api.spi.KeyBinder;
 import io.mosip.esignet.api.util.ErrorConstants;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import io.mosip.kernel.core.http.ResponseWrapper;
 import io.mosip.kernel.core.util.DateUtils;
 import io.mosip.kernel.keymanagerservice.dto.KeyPairGenerateRequestDto;
@@ -26,6 +27,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.bouncycastle.openssl.jcajce.JcaPEMWriter;
 import org.bouncycastle.x509.X509V3CertificateGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.RequestEntity;
@@ -33,6 +35,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import javax.annotation.PostConstruct;
 import javax.security.auth.x500.X500Principal;
 import java.io.StringWriter;
 import java.math.BigInteger;
@@ -72,6 +75,10 @@ public class MockKeyBindingWrapperService implements KeyBinder {
     @Autowired
     private MockHelperService mockHelperService;
 
+    @Autowired
+    @Qualifier("mockRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
     private static final Map<String, List<String>> supportedKeyBindingFormats = new HashMap<>();
 
     static {
@@ -82,6 +89,11 @@ public class MockKeyBindingWrapperService implements KeyBinder {
 
     }
 
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+    }
+
 
     @Override
     public SendOtpResult sendBindingOtp(String individualId, List<String> otpChannels,
@@ -7,11 +7,11 @@ package io.mosip.signup.plugin.mock.service;
 
 import static io.mosip.signup.api.util.ErrorConstants.SERVER_UNREACHABLE;
 
+import javax.annotation.PostConstruct;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
@@ -32,6 +32,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.mosip.esignet.core.dto.RequestWrapper;
 import io.mosip.esignet.core.dto.ResponseWrapper;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import io.mosip.signup.api.dto.ProfileDto;
 import io.mosip.signup.api.dto.ProfileResult;
 import io.mosip.signup.api.exception.InvalidProfileException;
@@ -40,6 +41,7 @@ import io.mosip.signup.api.spi.ProfileRegistryPlugin;
 import io.mosip.signup.api.util.ProfileCreateUpdateStatus;
 import io.mosip.signup.plugin.mock.dto.MockIdentityResponse;
 import io.mosip.signup.plugin.mock.util.ErrorConstants;
+import io.mosip.signup.plugin.util.IdentityMatcher;
 import lombok.extern.slf4j.Slf4j;
 
 @ConditionalOnProperty(value = "mosip.signup.integration.profile-registry-plugin", havingValue = "MockProfileRegistryPluginImpl")
@@ -78,6 +80,19 @@ public class MockProfileRegistryPluginImpl implements ProfileRegistryPlugin {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    @Qualifier("mockIdentityRestTemplateFactory")
+    private PooledRestTemplateFactory mockIdentityRestTemplateFactory;
+
+    @Autowired
+    @Qualifier("mockIdentityMatcher")
+    private IdentityMatcher identityMatcher;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = mockIdentityRestTemplateFactory.wrap(restTemplate);
+    }
+
     @Override
     public void validate(String action, ProfileDto profileDto) throws InvalidProfileException {
     	if (!ACTIONS.contains(action)) {
@@ -155,24 +170,7 @@ public class MockProfileRegistryPluginImpl implements ProfileRegistryPlugin {
 
     @Override
     public boolean isMatch(JsonNode identity, JsonNode inputChallenge) {
-    	int matchCount = 0;
-        Iterator<String> itr = inputChallenge.deepCopy().fieldNames();
-        while(itr.hasNext()) {
-            String fieldName = itr.next();
-            if(!identity.hasNonNull(fieldName))
-                break;
-
-            if(identity.get(fieldName).isArray()) {
-                for (JsonNode jsonNode : identity.get(fieldName)) {
-                    //As of now assumption is we take user input only in single language
-                    matchCount = matchCount + ((jsonNode.equals(inputChallenge.get(fieldName).get(0))) ? 1 : 0);
-                }
-            }
-            else {
-                matchCount = matchCount + ((identity.get(fieldName).equals(inputChallenge.get(fieldName))) ? 1 : 0);
-            }
-        }
-        return !inputChallenge.isEmpty() && matchCount >= inputChallenge.size();
+        return identityMatcher.isMatch(identity, inputChallenge);
     }
     
     private <T> ResponseWrapper<T> request(String url, HttpMethod method, Object request,
@@ -0,0 +1,35 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mock.util;
+
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
+import io.mosip.signup.plugin.util.IdentityMatcher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Registers the plugin helpers used by the signup plugin, as the signup service scans only the signup plugin
+ * package. Beans are qualified so they do not clash with the helpers registered by the esignet plugin.
+ */
+@Configuration
+public class MockIdentityPluginConfig {
+
+    @Bean("mockIdentityRestTemplateFactory")
+    public PooledRestTemplateFactory mockIdentityRestTemplateFactory() {
+        return new PooledRestTemplateFactory();
+    }
+
+    @Bean("mockIdentityMatcher")
+    public IdentityMatcher mockIdentityMatcher(@Value("${mosip.signup.mock.match.unicode-nfc:true}") boolean unicodeNfc,
+                                               @Value("${mosip.signup.mock.match.normalize-whitespace:false}") boolean normalizeWhitespace,
+                                               @Value("${mosip.signup.mock.match.ignore-case:false}") boolean ignoreCase,
+                                               @Value("#{'${mosip.signup.mock.match.sensitive-fields:}'.split(',')}") List<String> sensitiveFields) {
+        return new IdentityMatcher(unicodeNfc, normalizeWhitespace, ignoreCase, sensitiveFields);
+    }
+}
@@ -3,6 +3,7 @@ package io.mosip.esignet.plugin.mock.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.mosip.esignet.api.dto.*;
 import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.exception.SendOtpException;
@@ -10,16 +11,19 @@ import io.mosip.esignet.plugin.mock.dto.KycExchangeResponseDto;
 import io.mosip.esignet.api.exception.KycExchangeException;
 import io.mosip.esignet.api.util.ErrorConstants;
 import io.mosip.esignet.plugin.mock.dto.VerifiedKycExchangeRequestDto;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
 import io.mosip.kernel.core.http.ResponseWrapper;
 import io.mosip.kernel.keymanagerservice.dto.AllCertificatesDataResponseDto;
 import io.mosip.kernel.keymanagerservice.dto.CertificateDataResponseDto;
 import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
@@ -50,6 +54,18 @@ public class MockAuthenticationServiceTest {
     @Mock
     ObjectMapper objectMapper;
 
+    @Spy
+    PluginMetrics pluginMetrics = new PluginMetrics("mock-plugin");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(pluginMetrics, "enabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "stagesEnabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "meterRegistry", meterRegistry);
+    }
+
     @Test
     public void doKycExchange_withValidDetails_thenPass() throws KycExchangeException {
         ReflectionTestUtils.setField(mockAuthenticationService, "kycExchangeUrl", "http://localhost:8080/kyc/exchange");
@@ -78,6 +94,11 @@ public class MockAuthenticationServiceTest {
 
         KycExchangeResult kycExchangeResult = mockAuthenticationService.doKycExchange("RP", "CL", kycExchangeDto);
         Assert.assertEquals(kycExchangeResponseDto.getKyc(), kycExchangeResult.getEncryptedKyc());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("plugin", "mock-plugin")
+                .tag("operation", "kyc-exchange").tag("relying_party", "RP").tag("outcome", "success").timer().count());
+        for (String stage : List.of(PluginMetrics.STAGE_REQUEST_BUILD, PluginMetrics.STAGE_HTTP, PluginMetrics.STAGE_RESPONSE_PARSE))
+            Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("operation", "kyc-exchange")
+                    .tag("stage", stage).tag("outcome", "success").timer().count());
     }
 
     @Test
@@ -109,6 +130,10 @@ public class MockAuthenticationServiceTest {
         } catch (KycExchangeException e) {
             Assert.assertEquals(e.getErrorCode(), ErrorConstants.DATA_EXCHANGE_FAILED);
         }
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("operation", "kyc-exchange")
+                .tag("outcome", "failure").tag("error_code", ErrorConstants.DATA_EXCHANGE_FAILED).timer().count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_RESPONSE_PARSE)
+                .tag("outcome", "failure").timer().count());
     }
 
     @Test
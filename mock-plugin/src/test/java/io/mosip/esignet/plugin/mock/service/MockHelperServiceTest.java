@@ -4,11 +4,13 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.mosip.esignet.api.dto.*;
 import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.esignet.api.util.ErrorConstants;
 import io.mosip.esignet.plugin.mock.dto.KycAuthResponseDtoV2;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
 import io.mosip.kernel.core.exception.ServiceError;
 import io.mosip.kernel.core.http.ResponseWrapper;
 import io.mosip.kernel.signature.dto.JWTSignatureResponseDto;
@@ -20,6 +22,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
@@ -49,11 +52,20 @@ public class MockHelperServiceTest {
     @Mock
     SignatureService signatureService;
 
+    @Spy
+    PluginMetrics pluginMetrics = new PluginMetrics("mock-plugin");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private ObjectMapper objectMapper = new ObjectMapper();
 
 
     @Before
     public void setUp() throws Exception {
+        ReflectionTestUtils.setField(pluginMetrics, "enabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "stagesEnabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "meterRegistry", meterRegistry);
+
         // Create the map you want to set
         Map<String, List<String>> supportedKycAuthFormats = new HashMap<>();
         supportedKycAuthFormats.put("OTP", List.of("alpha-numeric"));
@@ -122,6 +134,12 @@ public class MockHelperServiceTest {
         Assert.assertNotNull(result);
         Assert.assertEquals("test_token", result.getKycToken());
         Assert.assertEquals("partner_token", result.getPartnerSpecificUserToken());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("plugin", "mock-plugin")
+                .tag("operation", "kyc-auth").tag("auth_factor", "OTP").tag("outcome", "success").timer().count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_HTTP)
+                .tag("outcome", "success").timer().count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_RESPONSE_PARSE)
+                .tag("outcome", "success").timer().count());
     }
 
     @Test
@@ -361,6 +379,12 @@ public class MockHelperServiceTest {
         }catch (KycAuthException e){
             Assert.assertEquals(ErrorConstants.AUTH_FAILED,e.getErrorCode());
         }
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("operation", "kyc-auth")
+                .tag("outcome", "failure").tag("error_code", ErrorConstants.AUTH_FAILED).timer().count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_HTTP)
+                .tag("outcome", "success").timer().count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_RESPONSE_PARSE)
+                .tag("outcome", "failure").timer().count());
     }
 
 
@@ -14,6 +14,7 @@ import io.mosip.signup.api.exception.ProfileException;
 import io.mosip.signup.api.util.ProfileCreateUpdateStatus;
 import io.mosip.signup.plugin.mock.dto.MockIdentityResponse;
 import io.mosip.signup.plugin.mock.util.ErrorConstants;
+import io.mosip.signup.plugin.util.IdentityMatcher;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -21,6 +22,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
@@ -44,6 +46,9 @@ public class MockProfileRegistryPluginImplTest {
     @Mock
     RestTemplate restTemplate;
 
+    @Spy
+    IdentityMatcher identityMatcher = new IdentityMatcher(true, false, false, List.of());
+
     ObjectMapper objectMapper=new ObjectMapper();
 
     @Before
@@ -0,0 +1,202 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of audit records backed by memory-mapped segment files of fixed size.
+ * Each record is stored as a 4 byte length followed by the record bytes, a zero length marks the end of the
+ * written records in a segment. The length is written after the record bytes, so a partially written record
+ * is never read back. Offset of the last acknowledged record is kept in a memory-mapped checkpoint file,
+ * records are read from the checkpoint in the order they were appended and segments before the checkpoint
+ * are deleted.
+ */
+@Slf4j
+public class AuditJournal implements Closeable {
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int CHECKPOINT_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final MappedByteBuffer checkpoint;
+
+    private long writeSegment;
+    private int writeOffset;
+    private long ackSegment;
+    private int ackOffset;
+
+    public AuditJournal(Path directory, int segmentSize, int maxSegments) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(SEGMENT_SUFFIX))
+                    segments.put(Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length())),
+                            map(file, segmentSize));
+            }
+        }
+        if (segments.isEmpty())
+            segments.put(0L, map(getSegmentPath(0), segmentSize));
+
+        writeSegment = segments.lastKey();
+        writeOffset = 0;
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        int length;
+        while ((length = getLength(buffer, writeOffset)) > 0)
+            writeOffset += Integer.BYTES + length;
+
+        checkpoint = map(directory.resolve(CHECKPOINT_FILE), CHECKPOINT_SIZE);
+        ackSegment = checkpoint.getLong(0);
+        ackOffset = checkpoint.getInt(Long.BYTES);
+        if (!segments.containsKey(ackSegment)) {
+            ackSegment = segments.firstKey();
+            ackOffset = 0;
+        }
+        log.info("Opened audit journal at {} with {} segment(s), checkpoint : {}/{}", directory, segments.size(),
+                ackSegment, ackOffset);
+    }
+
+    /**
+     * Appends the record to the journal.
+     * @param data record bytes
+     * @return false if the record is larger than a segment or the journal is full
+     */
+    public synchronized boolean append(byte[] data) throws IOException {
+        int required = Integer.BYTES + data.length;
+        if (required > segmentSize) {
+            log.error("Audit record of {} bytes is larger than the journal segment size", data.length);
+            return false;
+        }
+
+        if (writeOffset + required > segmentSize) {
+            if (segments.size() >= maxSegments) {
+                log.error("Audit journal is full with {} segments", segments.size());
+                return false;
+            }
+            writeSegment++;
+            writeOffset = 0;
+            segments.put(writeSegment, map(getSegmentPath(writeSegment), segmentSize));
+        }
+
+        MappedByteBuffer buffer = segments.get(writeSegment);
+        ByteBuffer target = buffer.duplicate();
+        target.position(writeOffset + Integer.BYTES);
+        target.put(data);
+        buffer.putInt(writeOffset, data.length);
+        writeOffset += required;
+        return true;
+    }
+
+    /**
+     * Reads the records after the last acknowledged record in the order they were appended.
+     * @param maxRecords maximum number of records to read
+     * @return journal entries, empty if there are no pending records
+     */
+    public synchronized List<Entry> read(int maxRecords) {
+        List<Entry> records = new ArrayList<>();
+        long segment = ackSegment;
+        int offset = ackOffset;
+        while (records.size() < maxRecords) {
+            MappedByteBuffer buffer = segments.get(segment);
+            int length = getLength(buffer, offset);
+            if (length <= 0) {
+                Long nextSegment = segments.higherKey(segment);
+                if (nextSegment == null)
+                    break;
+                segment = nextSegment;
+                offset = 0;
+                continue;
+            }
+
+            byte[] data = new byte[length];
+            ByteBuffer source = buffer.duplicate();
+            source.position(offset + Integer.BYTES);
+            source.get(data);
+            offset += Integer.BYTES + length;
+            records.add(new Entry(data, segment, offset));
+        }
+        return records;
+    }
+
+    /**
+     * Moves the checkpoint past the provided entry and deletes the segments before the checkpoint.
+     */
+    public synchronized void acknowledge(Entry entry) throws IOException {
+        ackSegment = entry.segment;
+        ackOffset = entry.nextOffset;
+        checkpoint.putLong(0, ackSegment);
+        checkpoint.putInt(Long.BYTES, ackOffset);
+        checkpoint.force();
+
+        Map<Long, MappedByteBuffer> consumed = segments.headMap(ackSegment);
+        for (Long segment : new ArrayList<>(consumed.keySet())) {
+            consumed.remove(segment);
+            Files.deleteIfExists(getSegmentPath(segment));
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return ackSegment == writeSegment && ackOffset == writeOffset;
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.values().forEach(MappedByteBuffer::force);
+        checkpoint.force();
+    }
+
+    private int getLength(MappedByteBuffer buffer, int offset) {
+        return offset + Integer.BYTES > segmentSize ? 0 : buffer.getInt(offset);
+    }
+
+    private Path getSegmentPath(long segment) {
+        return directory.resolve(String.format("%020d%s", segment, SEGMENT_SUFFIX));
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    @Getter
+    public static class Entry {
+        private final byte[] data;
+        private final long segment;
+        private final int nextOffset;
+
+        Entry(byte[] data, long segment, int nextOffset) {
+            this.data = data;
+            this.segment = segment;
+            this.nextOffset = nextOffset;
+        }
+    }
+}
@@ -5,18 +5,36 @@
  */
 package io.mosip.esignet.plugin.mosipid.helper;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import io.mosip.esignet.plugin.mosipid.dto.ClientIdSecretKeyRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -24,14 +42,26 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.mosip.kernel.core.http.RequestWrapper;
 import io.mosip.kernel.core.http.ResponseWrapper;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Holds the auth-token used to invoke the kernel services. Expiry of the token is read from the "exp" claim
+ * of the token, if the token is not a JWT the configured default ttl is used. Token is refreshed by a
+ * background thread ahead of its expiry, request thread fetches the token only when no valid token is held
+ * and in that case only one thread fetches while the others wait for its result.
+ */
 @Component
 @Slf4j
 public class AuthTransactionHelper {
 	
     private static final String AUTH_TOKEN_CACHE = "authtokens";
 	
+    /**
+     * @deprecated auth-token is no longer held in the authtokens cache but in this helper, the key is not used.
+     * {@link #purgeAuthTokenCache()} still evicts the cache for the entries left by the older versions.
+     */
+    @Deprecated
     public static final String AUTH_TOKEN_CACHE_KEY = "auth_token";
 
     @Autowired
@@ -39,6 +69,13 @@ public class AuthTransactionHelper {
 	
     @Autowired
     private RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("idaRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Autowired
+    private PluginExecutors pluginExecutors;
 	
     @Value("${mosip.esignet.authenticator.ida.auth-token-url}")
     private String authTokenUrl;
@@ -52,8 +89,137 @@ public class AuthTransactionHelper {
     @Value("${mosip.esignet.authenticator.ida.app-id}")
     private String appId;
 	
-    @Cacheable(value = AUTH_TOKEN_CACHE, key = "#root.target.AUTH_TOKEN_CACHE_KEY")
+    @Value("${mosip.esignet.authenticator.ida.auth-token.default-ttl-seconds:1800}")
+    private long defaultTtlSeconds;
+
+    @Value("${mosip.esignet.authenticator.ida.auth-token.refresh-ahead-seconds:120}")
+    private long refreshAheadSeconds;
+
+    @Value("${mosip.esignet.authenticator.ida.auth-token.refresh-check-interval-seconds:30}")
+    private long refreshCheckIntervalSeconds;
+
+    @Value("${mosip.esignet.authenticator.ida.auth-token.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${mosip.esignet.authenticator.ida.auth-token.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final AtomicReference<AuthToken> current = new AtomicReference<>();
+
+    private final AtomicReference<CompletableFuture<AuthToken>> inFlight = new AtomicReference<>();
+
+    private ScheduledExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+        refreshExecutor = pluginExecutors.newSingleThreadScheduledExecutor("ida-auth-token-refresh");
+        refreshExecutor.scheduleWithFixedDelay(this::refreshIfRequired, refreshCheckIntervalSeconds,
+                refreshCheckIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if(refreshExecutor != null)
+            refreshExecutor.shutdownNow();
+    }
+
     public String getAuthToken() throws Exception {
+        AuthToken authToken = current.get();
+        if(authToken != null && !authToken.isExpired())
+            return authToken.getToken();
+
+        authToken = fetchOnce(authToken);
+        return authToken == null ? null : authToken.getToken();
+    }
+
+    @CacheEvict(value = AUTH_TOKEN_CACHE, allEntries = true)
+    public void purgeAuthTokenCache() {
+    	log.info("Evicting the held auth-token and the entries of AUTH_TOKEN_CACHE");
+    	current.set(null);
+    }
+
+    /**
+     * Refreshes the held token if it is about to expire, token is not fetched if no token is held as it
+     * was either never used or purged.
+     */
+    protected void refreshIfRequired() {
+        AuthToken authToken = current.get();
+        if(authToken == null || !authToken.isRefreshDue(refreshAheadSeconds))
+            return;
+
+        try {
+            fetchOnce(authToken);
+        } catch (Exception e) {
+            log.error("Failed to refresh auth-token ahead of its expiry", e);
+        }
+    }
+
+    /**
+     * Fetches the token unless another thread replaced the held token meanwhile. Concurrent callers wait on the
+     * fetch in progress instead of on a monitor, so waiting virtual threads do not pin their carrier threads.
+     * @param held token held when the caller decided to fetch
+     */
+    private AuthToken fetchOnce(AuthToken held) throws Exception {
+        CompletableFuture<AuthToken> fetching = new CompletableFuture<>();
+        CompletableFuture<AuthToken> existing = inFlight.compareAndExchange(null, fetching);
+        if(existing != null)
+            return join(existing);
+
+        try {
+            AuthToken authToken = current.get();
+            if(authToken == null || authToken == held)
+                authToken = fetch();
+            fetching.complete(authToken);
+            return authToken;
+        } catch (Exception e) {
+            fetching.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.compareAndSet(fetching, null);
+        }
+    }
+
+    private static AuthToken join(CompletableFuture<AuthToken> fetching) throws Exception {
+        try {
+            return fetching.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof Exception)
+                throw (Exception) e.getCause();
+            throw e;
+        }
+    }
+
+    private AuthToken fetch() throws Exception {
+        for(int attempt = 1; ; attempt++) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                String token = requestAuthToken();
+                sample.stop(meterRegistry.timer("ida.auth.token.fetch", "outcome", "success"));
+                if(StringUtils.isEmpty(token)) {
+                    log.error("auth-token not found in the authmanager response");
+                    return null;
+                }
+                AuthToken authToken = new AuthToken(token, getExpiresAt(token));
+                current.set(authToken);
+                return authToken;
+            } catch (Exception e) {
+                sample.stop(meterRegistry.timer("ida.auth.token.fetch", "outcome", "failure"));
+                meterRegistry.counter("ida.auth.token.refresh.failures").increment();
+                if(attempt >= maxAttempts)
+                    throw e;
+                long backoff = retryBackoffMs * (1L << (attempt - 1));
+                long delay = backoff + ThreadLocalRandom.current().nextLong(backoff + 1);
+                log.warn("Failed to fetch auth-token in attempt {}, retrying in {}ms", attempt, delay, e);
+                Thread.sleep(delay);
+            }
+        }
+    }
+
+    private String requestAuthToken() throws Exception {
     	log.info("Started to get auth-token with appId : {} && clientId : {}",
                 appId, clientId);
     	
@@ -73,10 +239,41 @@ public class AuthTransactionHelper {
         String authToken = responseEntity.getHeaders().getFirst("authorization");
         return authToken;
      }
-    
-    @CacheEvict(value = AUTH_TOKEN_CACHE, allEntries = true)
-    public void purgeAuthTokenCache() {
-    	log.info("Evicting entry from AUTH_TOKEN_CACHE");
+
+    private long getExpiresAt(String token) {
+        long defaultExpiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(defaultTtlSeconds);
+        String[] parts = token.split("\\.");
+        if(parts.length != 3)
+            return defaultExpiresAt;
+
+        try {
+            JsonNode claims = objectMapper.readTree(new String(Base64.getUrlDecoder().decode(parts[1]),
+                    StandardCharsets.UTF_8));
+            if(claims != null && claims.hasNonNull("exp"))
+                return TimeUnit.SECONDS.toMillis(claims.get("exp").asLong());
+        } catch (Exception e) {
+            log.warn("Failed to read expiry from the auth-token, using default ttl", e);
+        }
+        return defaultExpiresAt;
+    }
+
+    @Getter
+    static class AuthToken {
+        private final String token;
+        private final long expiresAt;
+
+        AuthToken(String token, long expiresAt) {
+            this.token = token;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        boolean isRefreshDue(long refreshAheadSeconds) {
+            return System.currentTimeMillis() >= expiresAt - TimeUnit.SECONDS.toMillis(refreshAheadSeconds);
+        }
     }
 
 }
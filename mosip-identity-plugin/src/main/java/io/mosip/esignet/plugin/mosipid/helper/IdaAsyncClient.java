@@ -0,0 +1,149 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Non-blocking client for the IDA endpoints built on the JDK {@link HttpClient}. Requests are sent
+ * asynchronously and the responses are read and parsed on a fixed pool sized to the number of CPUs, so the
+ * number of threads does not grow with the number of in-flight IDA calls. With virtual threads enabled the
+ * responses are handled on virtual threads instead.
+ * <p>
+ * Requests do not go through the host RestTemplate, so compared to the blocking path the async path does not get:
+ * <ul>
+ *     <li>the interceptors of the host RestTemplate, e.g. the tracing headers and the http.client.requests metrics,
+ *     requests are timed as ida.async.client.requests instead</li>
+ *     <li>the error handler of the host RestTemplate, non-2xx responses are returned without body and a non-standard
+ *     status fails the call with {@link UnknownHttpStatusCodeException} as the default error handler does</li>
+ *     <li>the per-destination connection limits, timeouts and pool metrics of the pooled http client, connections are
+ *     held by the JDK client and the async-client timeouts apply</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class IdaAsyncClient {
+
+    @Value("${mosip.esignet.authenticator.ida.async-client.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.esignet.authenticator.ida.async-client.threads:0}")
+    private int threads;
+
+    @Value("${mosip.esignet.authenticator.ida.async-client.connect-timeout-ms:2000}")
+    private long connectTimeoutMs;
+
+    @Value("${mosip.esignet.authenticator.ida.async-client.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PluginExecutors pluginExecutors;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ExecutorService executor;
+
+    private HttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        if(!enabled)
+            return;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = pluginExecutors.newCallExecutor("ida-async-client", poolSize);
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        log.info("Started IDA async client with {}", pluginExecutors.isVirtualThreadsEnabled() ? "virtual threads" :
+                poolSize + " thread(s)");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if(executor != null)
+            executor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sends the request without blocking the calling thread.
+     * @param operation name of the IDA operation the request is timed with, e.g. kyc-auth. The url path is not used
+     *                  as a tag, it holds the MISP license key and the partner and client ids.
+     * @param requestEntity request with the url, headers and the json body
+     * @param responseType type of the json response body
+     * @return future completed with the response, body is set only for the 2xx responses
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> exchange(String operation, RequestEntity<String> requestEntity,
+                                                             ParameterizedTypeReference<T> responseType) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(requestEntity.getUrl())
+                .timeout(Duration.ofMillis(requestTimeoutMs))
+                .method(requestEntity.getMethod().name(), requestEntity.getBody() == null ?
+                        HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(requestEntity.getBody()));
+        requestEntity.getHeaders().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+
+        JavaType javaType = objectMapper.getTypeFactory().constructType(responseType.getType());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((response, error) -> sample.stop(meterRegistry.timer("ida.async.client.requests",
+                        "operation", operation,
+                        "status", response == null ? "IO_ERROR" : String.valueOf(response.statusCode()))))
+                .thenApply(response -> toResponseEntity(response, javaType));
+    }
+
+    private <T> ResponseEntity<T> toResponseEntity(HttpResponse<byte[]> response, JavaType javaType) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        HttpStatus status = HttpStatus.resolve(response.statusCode());
+        if(status == null)
+            throw new UnknownHttpStatusCodeException(response.statusCode(), "", headers, response.body(),
+                    StandardCharsets.UTF_8);
+        if(!status.is2xxSuccessful() || response.body() == null || response.body().length == 0)
+            return new ResponseEntity<>(headers, status);
+
+        try {
+            T body = objectMapper.readValue(response.body(), javaType);
+            return new ResponseEntity<>(body, headers, status);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
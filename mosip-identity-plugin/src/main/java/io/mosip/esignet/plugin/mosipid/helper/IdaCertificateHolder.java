@@ -0,0 +1,204 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
+import io.mosip.esignet.plugin.mosipid.service.HelperService;
+import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
+import io.mosip.kernel.partnercertservice.util.PartnerCertificateManagerUtil;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the IDA partner certificate used to wrap the kyc-auth session keys. The certificate is downloaded
+ * by a background thread ahead of its expiry and swapped atomically, the request path only reads the
+ * current certificate. Request thread downloads the certificate only when no valid certificate is held,
+ * and in that case only one thread downloads while the others wait for its result. Waiting is done on a
+ * {@link ReentrantLock} rather than a monitor so the waiting virtual threads do not pin their carrier threads.
+ */
+@Component
+@Slf4j
+public class IdaCertificateHolder {
+
+    private static final int MAX_DOWNLOAD_ATTEMPTS = 2;
+    private static final Base64.Encoder urlSafeEncoder = Base64.getUrlEncoder().withoutPadding();
+
+    @Value("${mosip.esignet.authenticator.ida.cert-url}")
+    private String idaPartnerCertificateUrl;
+
+    @Value("${mosip.esignet.authenticator.ida.cert-refresh.interval-seconds:3600}")
+    private long refreshIntervalSeconds;
+
+    @Value("${mosip.esignet.authenticator.ida.cert-refresh.ahead-seconds:86400}")
+    private long refreshAheadSeconds;
+
+    @Value("${mosip.esignet.authenticator.ida.cert-refresh.check-interval-seconds:60}")
+    private long checkIntervalSeconds;
+
+    @Autowired
+    private KeymanagerUtil keymanagerUtil;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    @Qualifier("idaRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Autowired
+    private PluginExecutors pluginExecutors;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final AtomicReference<PartnerCertificate> current = new AtomicReference<>();
+
+    private final ReentrantLock downloadLock = new ReentrantLock();
+
+    private volatile long lastRefreshedAt;
+
+    private ScheduledExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+        Gauge.builder("ida.partner.cert.expiry", this, IdaCertificateHolder::getSecondsToExpiry)
+                .baseUnit("seconds")
+                .description("Seconds left for the held IDA partner certificate to expire")
+                .register(meterRegistry);
+
+        refreshExecutor = pluginExecutors.newSingleThreadScheduledExecutor("ida-partner-cert-refresh");
+        refreshExecutor.scheduleWithFixedDelay(this::refreshIfRequired, 0, checkIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if(refreshExecutor != null)
+            refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the valid IDA partner certificate.
+     * @return {@link PartnerCertificate}
+     * @throws KycAuthException when no valid partner certificate could be downloaded
+     */
+    public PartnerCertificate get() throws KycAuthException {
+        PartnerCertificate partnerCertificate = current.get();
+        if(partnerCertificate != null && partnerCertificate.isValid())
+            return partnerCertificate;
+
+        downloadLock.lock();
+        try {
+            partnerCertificate = current.get();
+            if(partnerCertificate != null && partnerCertificate.isValid())
+                return partnerCertificate;
+
+            log.info("No valid IDA partner certificate found, downloading the certificate on request thread");
+            for(int attempt = 1; attempt <= MAX_DOWNLOAD_ATTEMPTS; attempt++) {
+                if(refresh())
+                    return current.get();
+            }
+        } finally {
+            downloadLock.unlock();
+        }
+        throw new KycAuthException(HelperService.INVALID_PARTNER_CERTIFICATE);
+    }
+
+    protected void refreshIfRequired() {
+        PartnerCertificate partnerCertificate = current.get();
+        boolean refreshDue = System.currentTimeMillis() - lastRefreshedAt >= TimeUnit.SECONDS.toMillis(refreshIntervalSeconds);
+        if(partnerCertificate == null || refreshDue || getSecondsToExpiry() <= refreshAheadSeconds) {
+            refresh();
+        }
+    }
+
+    /**
+     * Downloads the IDA partner certificate and swaps it with the held certificate only if the downloaded
+     * certificate is valid.
+     * @return true if the downloaded certificate is valid
+     */
+    protected boolean refresh() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            log.info("Fetching IDA partner certificate from : {}", idaPartnerCertificateUrl);
+            Certificate certificate = keymanagerUtil.convertToCertificate(restTemplate.getForObject(idaPartnerCertificateUrl,
+                    String.class));
+            PartnerCertificate partnerCertificate = new PartnerCertificate(certificate);
+            if(!partnerCertificate.isValid()) {
+                log.error("PARTNER CERTIFICATE IS NOT VALID, downloaded certificate is expired or not yet valid");
+                countRefresh("invalid");
+                return false;
+            }
+            PartnerCertificate previous = current.getAndSet(partnerCertificate);
+            if(previous == null || !previous.getCertificate().equals(certificate))
+                log.info("IDA partner certificate updated, thumbprint : {}", partnerCertificate.getEncodedThumbprint());
+            lastRefreshedAt = System.currentTimeMillis();
+            countRefresh("success");
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to fetch IDA partner certificate", e);
+            countRefresh("failure");
+        } finally {
+            sample.stop(meterRegistry.timer("ida.partner.cert.fetch"));
+        }
+        return false;
+    }
+
+    private double getSecondsToExpiry() {
+        PartnerCertificate partnerCertificate = current.get();
+        return partnerCertificate == null ? 0 :
+                TimeUnit.MILLISECONDS.toSeconds(partnerCertificate.getNotAfter() - System.currentTimeMillis());
+    }
+
+    private void countRefresh(String outcome) {
+        Counter.builder("ida.partner.cert.refresh")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Getter
+    public static class PartnerCertificate {
+        private final Certificate certificate;
+        private final byte[] thumbprint;
+        private final String encodedThumbprint;
+        private final long notAfter;
+
+        PartnerCertificate(Certificate certificate) throws CertificateEncodingException {
+            this.certificate = certificate;
+            this.thumbprint = DigestUtils.sha256(certificate.getEncoded());
+            this.encodedThumbprint = urlSafeEncoder.encodeToString(thumbprint);
+            this.notAfter = ((X509Certificate) certificate).getNotAfter().getTime();
+        }
+
+        public boolean isValid() {
+            return PartnerCertificateManagerUtil.isCertificateDatesValid((X509Certificate) certificate);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the plugin helpers shared with the other plugins, see plugin-commons. Beans are qualified so they do not
+ * clash with the helpers registered by another plugin deployed on the same host.
+ */
+@Configuration
+public class IdaPluginConfig {
+
+    @Bean("idaPluginMetrics")
+    public PluginMetrics idaPluginMetrics() {
+        return new PluginMetrics("mosip-identity-plugin");
+    }
+
+    @Bean("idaRestTemplateFactory")
+    public PooledRestTemplateFactory idaRestTemplateFactory() {
+        return new PooledRestTemplateFactory();
+    }
+}
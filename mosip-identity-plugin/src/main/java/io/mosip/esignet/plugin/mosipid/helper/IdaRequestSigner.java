@@ -0,0 +1,168 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import io.mosip.kernel.core.util.DateUtils;
+import io.mosip.kernel.keymanagerservice.dto.SignatureCertificate;
+import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Signs the IDA requests as detached JWS with the OIDC_PARTNER key. The private key and the certificate
+ * chain are resolved from the keymanager once and re-resolved every key-refresh-interval-seconds to pick up
+ * key rotation, the JWS header with the x5c chain is encoded once per resolved key and each thread reuses
+ * its own {@link Signature} instance initialised with the key.
+ */
+@Component
+@Slf4j
+public class IdaRequestSigner {
+
+    private static final String OIDC_PARTNER_APP_ID = "OIDC_PARTNER";
+    private static final String JWS_ALGORITHM = "RS256";
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+    private static final Base64.Encoder urlSafeEncoder = Base64.getUrlEncoder().withoutPadding();
+
+    @Value("${mosip.esignet.authenticator.ida.request-signer.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mosip.esignet.authenticator.ida.request-signer.key-refresh-interval-seconds:300}")
+    private long keyRefreshIntervalSeconds;
+
+    @Autowired
+    private KeymanagerService keymanagerService;
+
+    private final AtomicReference<SigningKey> current = new AtomicReference<>();
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private final ReentrantLock resolveLock = new ReentrantLock();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the detached JWS of the request, header..signature
+     * @param request request body
+     * @return detached JWS
+     * @throws GeneralSecurityException when signing fails
+     */
+    public String sign(String request) throws GeneralSecurityException {
+        SigningKey signingKey = getSigningKey();
+        byte[] payload = urlSafeEncoder.encode(request.getBytes(StandardCharsets.UTF_8));
+        Signature signature = signingKey.getSignature();
+        signature.update(signingKey.getSigningInputPrefix());
+        signature.update(payload);
+        return signingKey.getEncodedHeader() + ".." + urlSafeEncoder.encodeToString(signature.sign());
+    }
+
+    private SigningKey getSigningKey() throws GeneralSecurityException {
+        SigningKey signingKey = current.get();
+        if(signingKey != null && signingKey.isValid()) {
+            //Stale key is still used by the other threads while one thread re-resolves the key
+            if(signingKey.isStale(keyRefreshIntervalSeconds) && refreshing.compareAndSet(false, true)) {
+                try {
+                    return resolve();
+                } catch (Exception e) {
+                    log.error("Failed to re-resolve {} signing key, continuing with the held key", OIDC_PARTNER_APP_ID, e);
+                } finally {
+                    refreshing.set(false);
+                }
+            }
+            return signingKey;
+        }
+
+        resolveLock.lock();
+        try {
+            signingKey = current.get();
+            if(signingKey != null && signingKey.isValid())
+                return signingKey;
+            return resolve();
+        } finally {
+            resolveLock.unlock();
+        }
+    }
+
+    private SigningKey resolve() throws GeneralSecurityException {
+        SignatureCertificate signatureCertificate = keymanagerService.getSignatureCertificate(OIDC_PARTNER_APP_ID,
+                Optional.of(""), DateUtils.getUTCCurrentDateTimeString());
+        SigningKey signingKey = new SigningKey(signatureCertificate.getCertificateEntry().getPrivateKey(),
+                signatureCertificate.getCertificateEntry().getChain(), signatureCertificate.getProviderName());
+        SigningKey previous = current.getAndSet(signingKey);
+        if(previous == null || !previous.getCertificate().equals(signingKey.getCertificate()))
+            log.info("Resolved {} signing key with certificate serial : {}", OIDC_PARTNER_APP_ID,
+                    signingKey.getCertificate().getSerialNumber());
+        return signingKey;
+    }
+
+    @Getter
+    static class SigningKey {
+        private final X509Certificate certificate;
+        private final String encodedHeader;
+        private final byte[] signingInputPrefix;
+        private final long resolvedAt;
+        private final ThreadLocal<Signature> signatures;
+
+        SigningKey(PrivateKey privateKey, X509Certificate[] chain, String providerName) throws GeneralSecurityException {
+            this.certificate = chain[0];
+            StringBuilder x5c = new StringBuilder();
+            for(X509Certificate x509Certificate : chain) {
+                x5c.append(x5c.length() == 0 ? "\"" : ",\"")
+                        .append(Base64.getEncoder().encodeToString(x509Certificate.getEncoded()))
+                        .append("\"");
+            }
+            String header = "{\"x5c\":[" + x5c + "],\"alg\":\"" + JWS_ALGORITHM + "\"}";
+            this.encodedHeader = urlSafeEncoder.encodeToString(header.getBytes(StandardCharsets.UTF_8));
+            this.signingInputPrefix = (encodedHeader + ".").getBytes(StandardCharsets.US_ASCII);
+            this.resolvedAt = System.currentTimeMillis();
+            //fail fast if the signature could not be initialised with the resolved key
+            newSignature(privateKey, providerName);
+            this.signatures = ThreadLocal.withInitial(() -> {
+                try {
+                    return newSignature(privateKey, providerName);
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        Signature getSignature() {
+            return signatures.get();
+        }
+
+        boolean isValid() {
+            return System.currentTimeMillis() < certificate.getNotAfter().getTime();
+        }
+
+        boolean isStale(long keyRefreshIntervalSeconds) {
+            return System.currentTimeMillis() - resolvedAt >= TimeUnit.SECONDS.toMillis(keyRefreshIntervalSeconds);
+        }
+
+        private static Signature newSignature(PrivateKey privateKey, String providerName) throws GeneralSecurityException {
+            Signature signature = StringUtils.isEmpty(providerName) ? Signature.getInstance(SIGNATURE_ALGORITHM) :
+                    Signature.getInstance(SIGNATURE_ALGORITHM, providerName);
+            signature.initSign(privateKey);
+            return signature;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import io.mosip.kernel.crypto.jce.core.CryptoCore;
+import io.mosip.kernel.keygenerator.bouncycastle.util.KeyGeneratorUtils;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.SecretKey;
+import java.security.cert.Certificate;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pool of pre-generated IDA request session keys. Each pooled entry holds the symmetric key along with
+ * the same key already wrapped with the IDA partner certificate, so that the request path only has to do
+ * the symmetric encryption. The pool is filled by a background thread and is bound to the certificate
+ * last seen on the request path, any change in the certificate discards the pooled keys.
+ */
+@Component
+@Slf4j
+public class IdaSessionKeyPool {
+
+    @Value("${mosip.esignet.authenticator.ida.session-key-pool.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mosip.esignet.authenticator.ida.session-key-pool.size:200}")
+    private int poolSize;
+
+    @Value("${mosip.esignet.authenticator.ida.session-key-pool.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${mosip.esignet.authenticator.ida.session-key-pool.refill-interval-ms:200}")
+    private long refillIntervalMs;
+
+    @Value("${mosip.kernel.keygenerator.symmetric-algorithm-name}")
+    private String symmetricAlgorithm;
+
+    @Value("${mosip.kernel.keygenerator.symmetric-key-length}")
+    private int symmetricKeyLength;
+
+    @Autowired
+    private CryptoCore cryptoCore;
+
+    private final AtomicReference<Certificate> currentCertificate = new AtomicReference<>();
+
+    private BlockingQueue<SessionKey> pool;
+
+    private ScheduledExecutorService refillExecutor;
+
+    @PostConstruct
+    public void init() {
+        if(!enabled)
+            return;
+
+        log.info("Starting IDA session key pool with size : {} and ttl : {}s", poolSize, ttlSeconds);
+        pool = new ArrayBlockingQueue<>(poolSize);
+        refillExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ida-session-key-pool");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refillExecutor.scheduleWithFixedDelay(this::refill, refillIntervalMs, refillIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if(refillExecutor != null)
+            refillExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns a session key wrapped with the provided certificate. Pooled key is returned if available,
+     * otherwise a new key is generated on the caller thread.
+     * @param certificate IDA partner certificate used to wrap the session key
+     * @return {@link SessionKey}
+     * @throws Exception when key generation or key wrapping fails
+     */
+    public SessionKey take(Certificate certificate) throws Exception {
+        if(pool != null) {
+            Certificate previous = currentCertificate.getAndSet(certificate);
+            if(previous != null && !previous.equals(certificate)) {
+                log.info("IDA partner certificate changed, discarding pooled session keys");
+                pool.clear();
+            }
+
+            SessionKey sessionKey;
+            while((sessionKey = pool.poll()) != null) {
+                if(sessionKey.getCertificate().equals(certificate) && !isExpired(sessionKey))
+                    return sessionKey;
+            }
+            log.debug("Session key pool is empty, generating session key on the request thread");
+        }
+        return generate(certificate);
+    }
+
+    public int size() {
+        return pool == null ? 0 : pool.size();
+    }
+
+    protected void refill() {
+        Certificate certificate = currentCertificate.get();
+        if(certificate == null)
+            return;
+
+        try {
+            pool.removeIf(this::isExpired);
+            while(pool.remainingCapacity() > 0 && certificate == currentCertificate.get()) {
+                if(!pool.offer(generate(certificate)))
+                    break;
+            }
+        } catch (Exception e) {
+            log.error("Failed to refill IDA session key pool", e);
+        }
+    }
+
+    private SessionKey generate(Certificate certificate) throws Exception {
+        SecretKey secretKey = KeyGeneratorUtils.getKeyGenerator(symmetricAlgorithm, symmetricKeyLength).generateKey();
+        byte[] encryptedKey = cryptoCore.asymmetricEncrypt(certificate.getPublicKey(), secretKey.getEncoded());
+        return new SessionKey(secretKey, encryptedKey, certificate, System.currentTimeMillis());
+    }
+
+    private boolean isExpired(SessionKey sessionKey) {
+        return System.currentTimeMillis() - sessionKey.getCreatedAt() > TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    @Getter
+    public static class SessionKey {
+        private final SecretKey secretKey;
+        private final byte[] encryptedKey;
+        private final Certificate certificate;
+        private final long createdAt;
+
+        SessionKey(SecretKey secretKey, byte[] encryptedKey, Certificate certificate, long createdAt) {
+            this.secretKey = secretKey;
+            this.encryptedKey = encryptedKey;
+            this.certificate = certificate;
+            this.createdAt = createdAt;
+        }
+    }
+}
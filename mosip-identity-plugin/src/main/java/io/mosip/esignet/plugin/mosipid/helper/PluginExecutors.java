@@ -0,0 +1,136 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the threads and executors used by the plugin. With virtual-threads enabled and the plugin running
+ * on Java 21+, threads are created as virtual threads and the executors for outbound calls start a virtual
+ * thread per task, so the number of in-flight calls is not bound by the number of platform threads. On older
+ * runtimes daemon platform threads are created. Virtual thread API is looked up reflectively as the plugin
+ * is built for Java 11.
+ */
+@Component
+@Slf4j
+public class PluginExecutors {
+
+    @Value("${mosip.plugin.virtual-threads.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    private Method ofVirtual;
+    private Method name;
+    private Method factory;
+    private Method newThreadPerTaskExecutor;
+
+    @PostConstruct
+    public void init() {
+        if(!virtualThreadsEnabled)
+            return;
+
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            log.info("Plugin threads are created as virtual threads");
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads are not supported in Java {}, using platform threads",
+                    System.getProperty("java.specification.version"));
+            virtualThreadsEnabled = false;
+        }
+    }
+
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    /**
+     * @param name thread name, a sequence number is appended if more than one thread is created
+     * @return factory creating virtual threads or daemon platform threads
+     */
+    public ThreadFactory threadFactory(String name) {
+        if(virtualThreadsEnabled) {
+            try {
+                return (ThreadFactory) factory.invoke(this.name.invoke(ofVirtual.invoke(null), name + "-", 1L));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread factory", e);
+            }
+        }
+
+        return platformThreadFactory(name);
+    }
+
+    public ScheduledExecutorService newSingleThreadScheduledExecutor(String name) {
+        return Executors.newSingleThreadScheduledExecutor(threadFactory(name));
+    }
+
+    /**
+     * Executor for the outbound calls, starts a virtual thread per task when virtual threads are enabled,
+     * otherwise a fixed pool of the provided number of platform threads.
+     */
+    public ExecutorService newCallExecutor(String name, int platformThreads) {
+        if(virtualThreadsEnabled) {
+            try {
+                return (ExecutorService) newThreadPerTaskExecutor.invoke(null, threadFactory(name));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread executor", e);
+            }
+        }
+        return Executors.newFixedThreadPool(platformThreads, threadFactory(name));
+    }
+
+    /**
+     * Executor for the outbound calls, like {@link #newCallExecutor(String, int)} but the platform threads take
+     * tasks from a queue of the provided capacity. Task submitted when the queue is full runs on the submitting
+     * thread, slowing down the callers instead of queueing without bound. Tasks submitted after shutdown are rejected.
+     */
+    public ExecutorService newCallExecutor(String name, int platformThreads, int queueCapacity) {
+        if(virtualThreadsEnabled)
+            return newCallExecutor(name, platformThreads);
+
+        return new ThreadPoolExecutor(platformThreads, platformThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory(name), (runnable, executor) -> {
+            if(executor.isShutdown())
+                throw new RejectedExecutionException("Executor " + name + " is shut down");
+            runnable.run();
+        });
+    }
+
+    /**
+     * Executor for the CPU-bound work, always a fixed pool of daemon platform threads with a bounded queue, tasks
+     * submitted when the queue is full are rejected.
+     */
+    public ExecutorService newComputeExecutor(String name, int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), platformThreadFactory(name));
+    }
+
+    private ThreadFactory platformThreadFactory(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            int count = threadCount.incrementAndGet();
+            Thread thread = new Thread(runnable, count == 1 ? name : name + "-" + count);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
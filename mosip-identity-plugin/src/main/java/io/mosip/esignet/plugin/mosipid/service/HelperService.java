@@ -12,25 +12,27 @@ import io.mosip.esignet.plugin.mosipid.dto.IdaKycAuthRequest;
 import io.mosip.esignet.plugin.mosipid.dto.IdaSendOtpRequest;
 import io.mosip.esignet.plugin.mosipid.dto.IdaSendOtpResponse;
 import io.mosip.esignet.plugin.mosipid.dto.KeyBindedToken;
+import io.mosip.esignet.plugin.mosipid.helper.IdaAsyncClient;
+import io.mosip.esignet.plugin.mosipid.helper.IdaCertificateHolder;
+import io.mosip.esignet.plugin.mosipid.helper.IdaRequestSigner;
+import io.mosip.esignet.plugin.mosipid.helper.IdaSessionKeyPool;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import io.mosip.esignet.api.dto.AuthChallenge;
 import io.mosip.esignet.api.dto.SendOtpResult;
 import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.kernel.core.util.CryptoUtil;
 import io.mosip.kernel.core.util.HMACUtils2;
-import io.mosip.kernel.crypto.jce.core.CryptoCore;
-import io.mosip.kernel.keygenerator.bouncycastle.util.KeyGeneratorUtils;
-import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
-import io.mosip.kernel.partnercertservice.util.PartnerCertificateManagerUtil;
 import io.mosip.kernel.signature.dto.JWTSignatureRequestDto;
 import io.mosip.kernel.signature.dto.JWTSignatureResponseDto;
 import io.mosip.kernel.signature.service.SignatureService;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
@@ -39,19 +41,18 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import javax.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.cert.Certificate;
-import java.security.cert.CertificateEncodingException;
-import java.security.cert.X509Certificate;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 @Service
@@ -68,6 +69,9 @@ public class HelperService {
     private static Base64.Encoder urlSafeEncoder;
     private static Base64.Decoder urlSafeDecoder;
     private static SecureRandom secureRandom;
+    private static final String OPERATION_SEND_OTP = "send-otp";
+    private static final ParameterizedTypeReference<IdaSendOtpResponse> SEND_OTP_RESPONSE_TYPE =
+            new ParameterizedTypeReference<IdaSendOtpResponse>() {};
 
     static {
         urlSafeEncoder = Base64.getUrlEncoder().withoutPadding();
@@ -81,34 +85,38 @@ public class HelperService {
     @Value("${mosip.esignet.authenticator.ida-send-otp-version:1.0}")
     private String idaVersion;
 
-    @Value("${mosip.esignet.authenticator.ida.cert-url}")
-    private String idaPartnerCertificateUrl;
-
     @Value("${mosip.esignet.authenticator.ida.send-otp-url}")
     private String sendOtpUrl;
 
-    @Value("${mosip.kernel.keygenerator.symmetric-algorithm-name}")
-    private String symmetricAlgorithm;
+    @Autowired
+    private SignatureService signatureService;
 
-    @Value("${mosip.kernel.keygenerator.symmetric-key-length}")
-    private int symmetricKeyLength;
+    @Autowired
+    private RestTemplate restTemplate;
 
     @Autowired
-    private KeymanagerUtil keymanagerUtil;
+    @Qualifier("idaRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
 
     @Autowired
-    private SignatureService signatureService;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private IdaSessionKeyPool sessionKeyPool;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private IdaCertificateHolder idaCertificateHolder;
 
     @Autowired
-    private CryptoCore cryptoCore;
+    private IdaRequestSigner idaRequestSigner;
 
-    private Certificate idaPartnerCertificate;
+    @Autowired
+    private IdaAsyncClient idaAsyncClient;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+    }
 
     @Cacheable(value = BINDING_TRANSACTION, key = "#idHash")
     public String getTransactionId(String idHash) {
@@ -122,37 +130,67 @@ public class HelperService {
                 .filter( auth -> auth != null &&  auth.getAuthFactorType() != null)
                 .forEach( auth -> { buildAuthRequest(auth, authRequest); });
 
-        KeyGenerator keyGenerator = KeyGeneratorUtils.getKeyGenerator(symmetricAlgorithm, symmetricKeyLength);
-        final SecretKey symmetricKey = keyGenerator.generateKey();
+        IdaCertificateHolder.PartnerCertificate partnerCertificate = idaCertificateHolder.get();
+        //session key is taken from the pool, where it is already wrapped with the IDA partner certificate
+        IdaSessionKeyPool.SessionKey sessionKey = sessionKeyPool.take(partnerCertificate.getCertificate());
         String request = objectMapper.writeValueAsString(authRequest);
         String hexEncodedHash = HMACUtils2.digestAsPlainText(request.getBytes(StandardCharsets.UTF_8));
-        idaKycAuthRequest.setRequest(HelperService.b64Encode(CryptoUtil.symmetricEncrypt(symmetricKey,
+        idaKycAuthRequest.setRequest(HelperService.b64Encode(CryptoUtil.symmetricEncrypt(sessionKey.getSecretKey(),
                 request.getBytes(StandardCharsets.UTF_8))));
-        idaKycAuthRequest.setRequestHMAC(HelperService.b64Encode(CryptoUtil.symmetricEncrypt(symmetricKey,
+        idaKycAuthRequest.setRequestHMAC(HelperService.b64Encode(CryptoUtil.symmetricEncrypt(sessionKey.getSecretKey(),
                 hexEncodedHash.getBytes(StandardCharsets.UTF_8))));
-        Certificate certificate = getIdaPartnerCertificate();
-        idaKycAuthRequest.setThumbprint(HelperService.b64Encode(getCertificateThumbprint(certificate)));
+        idaKycAuthRequest.setThumbprint(partnerCertificate.getEncodedThumbprint());
         log.info("IDA certificate thumbprint {}", idaKycAuthRequest.getThumbprint());
-        idaKycAuthRequest.setRequestSessionKey(HelperService.b64Encode(
-                cryptoCore.asymmetricEncrypt(certificate.getPublicKey(), symmetricKey.getEncoded())));
+        idaKycAuthRequest.setRequestSessionKey(HelperService.b64Encode(sessionKey.getEncryptedKey()));
     }
 
 
     protected SendOtpResult sendOTP(String partnerId, String clientId, IdaSendOtpRequest idaSendOtpRequest)
             throws SendOtpException, JsonProcessingException {
+        RequestEntity<String> requestEntity = buildSendOtpRequest(partnerId, clientId, idaSendOtpRequest);
+        ResponseEntity<IdaSendOtpResponse> responseEntity = restTemplate.exchange(requestEntity, IdaSendOtpResponse.class);
+        return getSendOtpResult(idaSendOtpRequest, responseEntity);
+    }
+
+    /**
+     * Non-blocking send-otp, the IDA response is handled on the {@link IdaAsyncClient} threads.
+     * @return future completed with the result or completed exceptionally with {@link SendOtpException}
+     */
+    protected CompletableFuture<SendOtpResult> sendOTPAsync(String partnerId, String clientId,
+                                                            IdaSendOtpRequest idaSendOtpRequest) {
+        try {
+            return idaAsyncClient.exchange(OPERATION_SEND_OTP, buildSendOtpRequest(partnerId, clientId, idaSendOtpRequest),
+                    SEND_OTP_RESPONSE_TYPE).thenApply(responseEntity -> {
+                try {
+                    return getSendOtpResult(idaSendOtpRequest, responseEntity);
+                } catch (SendOtpException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to build send-otp request with clientId : {}", clientId, e);
+            return CompletableFuture.failedFuture(new SendOtpException());
+        }
+    }
+
+    private RequestEntity<String> buildSendOtpRequest(String partnerId, String clientId,
+                                                      IdaSendOtpRequest idaSendOtpRequest) throws JsonProcessingException {
         idaSendOtpRequest.setId(sendOtpId);
         idaSendOtpRequest.setVersion(idaVersion);
         idaSendOtpRequest.setRequestTime(getUTCDateTime());
 
         //set signature header, body and invoke kyc exchange endpoint
         String requestBody = objectMapper.writeValueAsString(idaSendOtpRequest);
-        RequestEntity requestEntity = RequestEntity
+        return RequestEntity
                 .post(UriComponentsBuilder.fromUriString(sendOtpUrl).pathSegment(partnerId, clientId).build().toUri())
                 .contentType(MediaType.APPLICATION_JSON_UTF8)
                 .header(SIGNATURE_HEADER_NAME, getRequestSignature(requestBody))
                 .header(AUTHORIZATION_HEADER_NAME, AUTHORIZATION_HEADER_NAME)
                 .body(requestBody);
-        ResponseEntity<IdaSendOtpResponse> responseEntity = restTemplate.exchange(requestEntity, IdaSendOtpResponse.class);
+    }
+
+    private SendOtpResult getSendOtpResult(IdaSendOtpRequest idaSendOtpRequest,
+                                           ResponseEntity<IdaSendOtpResponse> responseEntity) throws SendOtpException {
         if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
             IdaSendOtpResponse idaSendOtpResponse = responseEntity.getBody();
             if(idaSendOtpRequest.getTransactionID().equals(idaSendOtpResponse.getTransactionID()) && idaSendOtpResponse.getResponse() != null){
@@ -168,6 +206,14 @@ public class HelperService {
     }
 
     protected String getRequestSignature(String request) {
+        if(idaRequestSigner.isEnabled()) {
+            try {
+                return idaRequestSigner.sign(request);
+            } catch (Exception e) {
+                log.error("Failed to sign the request with request signer, falling back to signature service", e);
+            }
+        }
+
         JWTSignatureRequestDto jwtSignatureRequestDto = new JWTSignatureRequestDto();
         jwtSignatureRequestDto.setApplicationId(OIDC_PARTNER_APP_ID);
         jwtSignatureRequestDto.setReferenceId("");
@@ -180,30 +226,7 @@ public class HelperService {
     }
 
     protected Certificate getIdaPartnerCertificate() throws KycAuthException {
-        if(StringUtils.isEmpty(idaPartnerCertificate)) {
-            log.info("Fetching IDA partner certificate from : {}", idaPartnerCertificateUrl);
-            idaPartnerCertificate = keymanagerUtil.convertToCertificate(restTemplate.getForObject(idaPartnerCertificateUrl,
-                    String.class));
-        }
-        if(PartnerCertificateManagerUtil.isCertificateDatesValid((X509Certificate)idaPartnerCertificate))
-            return idaPartnerCertificate;
-
-        log.info("PARTNER CERTIFICATE IS NOT VALID, Downloading the certificate again");
-        idaPartnerCertificate = keymanagerUtil.convertToCertificate(restTemplate.getForObject(idaPartnerCertificateUrl,
-                String.class));
-        if(PartnerCertificateManagerUtil.isCertificateDatesValid((X509Certificate)idaPartnerCertificate))
-            return idaPartnerCertificate;
-
-        throw new KycAuthException(INVALID_PARTNER_CERTIFICATE);
-    }
-
-    protected byte[] getCertificateThumbprint(Certificate certificate) {
-        try {
-            return DigestUtils.sha256(certificate.getEncoded());
-        } catch (CertificateEncodingException e) {
-            log.error("Failed to get cert thumbprint", e);
-        }
-        return new byte[]{};
+        return idaCertificateHolder.get().getCertificate();
     }
 
     /**
@@ -5,12 +5,20 @@
  */
 package io.mosip.esignet.plugin.mosipid.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.mosip.esignet.plugin.mosipid.dto.AuditRequest;
 import io.mosip.esignet.plugin.mosipid.dto.AuditResponse;
+import io.mosip.esignet.plugin.mosipid.helper.AuditJournal;
 import io.mosip.esignet.plugin.mosipid.helper.AuthTransactionHelper;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.ParameterizedTypeReference;
@@ -31,6 +39,17 @@ import io.mosip.kernel.core.http.ResponseWrapper;
 import io.mosip.kernel.core.util.DateUtils;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 @ConditionalOnProperty(value = "mosip.esignet.integration.audit-plugin", havingValue = "IdaAuditPluginImpl")
 @Component
 @Slf4j
@@ -40,6 +59,17 @@ public class IdaAuditPluginImpl implements AuditPlugin {
 
 	private static final String TRANSACTION = "transaction";
 
+	/**
+	 * Action taken when the audit queue is full.
+	 * DROP - audit event is dropped.
+	 * BLOCK - caller waits for the configured block timeout, event is dropped if the queue is still full.
+	 * CALLER_RUNS - audit event is sent on the caller thread.
+	 * SPILL - audit event is written to the audit journal, event is dropped if the journal is not enabled.
+	 */
+	public enum OverflowPolicy {
+		DROP, BLOCK, CALLER_RUNS, SPILL
+	}
+
 	@Autowired
 	private AuthTransactionHelper authTransactionHelper;
 
@@ -49,9 +79,114 @@ public class IdaAuditPluginImpl implements AuditPlugin {
 	@Autowired
 	private RestTemplate restTemplate;
 
+	@Autowired
+	@Qualifier("idaRestTemplateFactory")
+	private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+	@Autowired
+	private PluginExecutors pluginExecutors;
+
 	@Value("${mosip.esignet.authenticator.ida.audit-manager-url}")
 	private String auditManagerUrl;
 
+	@Value("${mosip.esignet.authenticator.ida.audit.async.enabled:true}")
+	private boolean asyncEnabled;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.async.queue-capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.async.flush-size:50}")
+	private int flushSize;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.async.flush-interval-ms:1000}")
+	private long flushIntervalMs;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.async.overflow-policy:DROP}")
+	private OverflowPolicy overflowPolicy;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.async.block-timeout-ms:50}")
+	private long blockTimeoutMs;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.journal.enabled:false}")
+	private boolean journalEnabled;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.journal.directory:audit-journal}")
+	private String journalDirectory;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.journal.segment-size-bytes:8388608}")
+	private int journalSegmentSize;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.journal.max-segments:16}")
+	private int journalMaxSegments;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.journal.replay-interval-ms:5000}")
+	private long replayIntervalMs;
+
+	@Value("${mosip.esignet.authenticator.ida.audit.journal.replay-rate-per-second:20}")
+	private int replayRatePerSecond;
+
+	@Autowired(required = false)
+	private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+	private AuditJournal auditJournal;
+
+	private ScheduledExecutorService journalReplayExecutor;
+
+	private BlockingQueue<AuditRequest> auditQueue;
+
+	private Thread auditSender;
+
+	private volatile boolean running;
+
+	@PostConstruct
+	public void init() throws IOException {
+		restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+		if(journalEnabled) {
+			auditJournal = new AuditJournal(Paths.get(journalDirectory), journalSegmentSize, journalMaxSegments);
+			journalReplayExecutor = pluginExecutors.newSingleThreadScheduledExecutor("ida-audit-journal-replay");
+			journalReplayExecutor.scheduleWithFixedDelay(this::replayJournal, replayIntervalMs, replayIntervalMs,
+					TimeUnit.MILLISECONDS);
+		}
+
+		if(!asyncEnabled)
+			return;
+
+		log.info("Starting async audit sender with queue capacity : {}, flush size : {} and overflow policy : {}",
+				queueCapacity, flushSize, overflowPolicy);
+		auditQueue = new ArrayBlockingQueue<>(queueCapacity);
+		Gauge.builder("ida.audit.queue.size", auditQueue, BlockingQueue::size).register(meterRegistry);
+		running = true;
+		auditSender = pluginExecutors.threadFactory("ida-audit-sender").newThread(this::drainAuditQueue);
+		auditSender.start();
+	}
+
+	/**
+	 * Stops the sender once the queue is drained, the sender is interrupted if the queue is not drained in 5 seconds
+	 * and spills the remaining events to the journal. Journal is closed only after the sender and the replay exited.
+	 */
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		if(journalReplayExecutor != null) {
+			journalReplayExecutor.shutdownNow();
+			if(!journalReplayExecutor.awaitTermination(5, TimeUnit.SECONDS))
+				log.warn("Audit journal replay did not stop in 5 seconds");
+		}
+
+		if(auditSender != null) {
+			running = false;
+			auditSender.join(TimeUnit.SECONDS.toMillis(5));
+			if(auditSender.isAlive()) {
+				log.warn("Audit sender did not drain the queue in 5 seconds, {} audit events left in the queue",
+						auditQueue.size());
+				auditSender.interrupt();
+				auditSender.join();
+			}
+		}
+
+		if(auditJournal != null)
+			auditJournal.close();
+	}
+
 	@Override
 	public void logAudit(Action action, ActionStatus status, AuditDTO audit, Throwable t) {
 		audit(null, action, status, audit);
@@ -63,61 +198,253 @@ public class IdaAuditPluginImpl implements AuditPlugin {
 	}
 
 	private void audit(String username, Action action, ActionStatus status, AuditDTO audit) {
+		AuditRequest auditRequest = null;
 		try {
-			String authToken = authTransactionHelper.getAuthToken();
-
-			RequestWrapper<AuditRequest> request = new RequestWrapper<>();
-
-			AuditRequest auditRequest = new AuditRequest();
-			auditRequest.setEventId(action.name());
-			auditRequest.setEventName(action.name());
-			auditRequest.setEventType(status.name());
-			auditRequest.setActionTimeStamp(DateUtils.getUTCCurrentDateTime());
-			auditRequest.setHostName("localhost");
-			auditRequest.setHostIp("localhost");
-			auditRequest.setApplicationId(ESIGNET);
-			auditRequest.setApplicationName(ESIGNET);
-			auditRequest.setSessionUserId(StringUtils.isEmpty(username)?"no-user":username);
-			auditRequest.setSessionUserName(StringUtils.isEmpty(username)?"no-user":username);
-			auditRequest.setIdType(audit.getIdType());
-			auditRequest.setCreatedBy(this.getClass().getSimpleName());
-			auditRequest.setModuleName(action.getModule());
-			auditRequest.setModuleId(action.getModule());
-			auditRequest.setDescription(getAuditDescription(audit));
-			auditRequest.setId(audit.getTransactionId());
-
-			request.setRequest(auditRequest);
-			request.setId("ida");
-			request.setRequesttime(DateUtils.getUTCCurrentDateTime());
-
-			String requestBody = objectMapper.writeValueAsString(request);
-			RequestEntity requestEntity = RequestEntity
-					.post(UriComponentsBuilder.fromUriString(auditManagerUrl).build().toUri())
-					.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.COOKIE, "Authorization=" + authToken)
-					.body(requestBody);
-			ResponseEntity<ResponseWrapper> responseEntity = restTemplate.exchange(requestEntity,
-					new ParameterizedTypeReference<ResponseWrapper>() {
-					});
-
-			if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-				ResponseWrapper<AuditResponse> responseWrapper = responseEntity.getBody();
-				if (responseWrapper.getErrors() != null && !responseWrapper.getErrors().isEmpty()) {
-					log.error("Error response received from audit service with errors: {}",
-							responseWrapper.getErrors());
+			auditRequest = buildAuditRequest(username, action, status, audit);
+			if(auditQueue != null) {
+				enqueue(auditRequest);
+				return;
+			}
+			if(send(auditRequest, authTransactionHelper.getAuthToken()))
+				return;
+		} catch (Exception e) {
+			log.error("LogAudit failed with error : {}", e);
+		}
+		if(auditRequest != null)
+			spill(auditRequest);
+	}
+
+	private AuditRequest buildAuditRequest(String username, Action action, ActionStatus status, AuditDTO audit)
+			throws JSONException {
+		AuditRequest auditRequest = new AuditRequest();
+		auditRequest.setEventId(action.name());
+		auditRequest.setEventName(action.name());
+		auditRequest.setEventType(status.name());
+		auditRequest.setActionTimeStamp(DateUtils.getUTCCurrentDateTime());
+		auditRequest.setHostName("localhost");
+		auditRequest.setHostIp("localhost");
+		auditRequest.setApplicationId(ESIGNET);
+		auditRequest.setApplicationName(ESIGNET);
+		auditRequest.setSessionUserId(StringUtils.isEmpty(username)?"no-user":username);
+		auditRequest.setSessionUserName(StringUtils.isEmpty(username)?"no-user":username);
+		auditRequest.setIdType(audit.getIdType());
+		auditRequest.setCreatedBy(this.getClass().getSimpleName());
+		auditRequest.setModuleName(action.getModule());
+		auditRequest.setModuleId(action.getModule());
+		auditRequest.setDescription(getAuditDescription(audit));
+		auditRequest.setId(audit.getTransactionId());
+		return auditRequest;
+	}
+
+	/**
+	 * Posts the audit event to the audit manager.
+	 * @return true if the audit manager accepted the event
+	 */
+	private boolean send(AuditRequest auditRequest, String authToken) throws Exception {
+		RequestWrapper<AuditRequest> request = new RequestWrapper<>();
+		request.setRequest(auditRequest);
+		request.setId("ida");
+		request.setRequesttime(DateUtils.getUTCCurrentDateTime());
+
+		String requestBody = objectMapper.writeValueAsString(request);
+		RequestEntity requestEntity = RequestEntity
+				.post(UriComponentsBuilder.fromUriString(auditManagerUrl).build().toUri())
+				.contentType(MediaType.APPLICATION_JSON).header(HttpHeaders.COOKIE, "Authorization=" + authToken)
+				.body(requestBody);
+		ResponseEntity<ResponseWrapper> responseEntity = restTemplate.exchange(requestEntity,
+				new ParameterizedTypeReference<ResponseWrapper>() {
+				});
+
+		if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
+			ResponseWrapper<AuditResponse> responseWrapper = responseEntity.getBody();
+			if (responseWrapper.getErrors() != null && !responseWrapper.getErrors().isEmpty()) {
+				log.error("Error response received from audit service with errors: {}",
+						responseWrapper.getErrors());
+				return false;
+			}
+			return true;
+		}
+
+		if(responseEntity.getStatusCode() == HttpStatus.FORBIDDEN ||
+				responseEntity.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+			log.error("Audit call failed with error: {}, issue with auth-token hence purging the auth-token-cache",
+					responseEntity.getStatusCode());
+			authTransactionHelper.purgeAuthTokenCache();
+		}
+		return false;
+	}
+
+	private void enqueue(AuditRequest auditRequest) throws InterruptedException {
+		boolean queued;
+		switch (overflowPolicy) {
+			case BLOCK:
+				queued = auditQueue.offer(auditRequest, blockTimeoutMs, TimeUnit.MILLISECONDS);
+				break;
+			case CALLER_RUNS:
+				queued = auditQueue.offer(auditRequest);
+				if(!queued) {
+					sendBatch(List.of(auditRequest));
+					return;
+				}
+				break;
+			case SPILL:
+				queued = auditQueue.offer(auditRequest);
+				if(!queued && spill(auditRequest))
+					return;
+				break;
+			case DROP:
+			default:
+				queued = auditQueue.offer(auditRequest);
+		}
+		countEvent(queued ? "queued" : "dropped");
+		if(!queued)
+			log.warn("Audit queue is full, dropped audit event {} of transaction {}", auditRequest.getEventId(),
+					auditRequest.getId());
+	}
+
+	private void drainAuditQueue() {
+		List<AuditRequest> batch = new ArrayList<>(flushSize);
+		while (running || !auditQueue.isEmpty()) {
+			try {
+				AuditRequest auditRequest = auditQueue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+				if(auditRequest == null)
+					continue;
+
+				batch.add(auditRequest);
+				long flushDeadline = System.currentTimeMillis() + flushIntervalMs;
+				while (batch.size() < flushSize) {
+					auditQueue.drainTo(batch, flushSize - batch.size());
+					long waitTime = flushDeadline - System.currentTimeMillis();
+					if(batch.size() >= flushSize || waitTime <= 0 || !running)
+						break;
+					auditRequest = auditQueue.poll(waitTime, TimeUnit.MILLISECONDS);
+					if(auditRequest == null)
+						break;
+					batch.add(auditRequest);
 				}
+				sendBatch(batch);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				running = false;
+				spillRemaining(batch);
+				return;
+			} catch (Exception e) {
+				log.error("Failed to ship audit batch", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Sends the batch, after the first failed send the remaining events are spilled to the journal without being
+	 * sent, so that the events do not each wait for a failing audit manager. Events are still sent one by one if
+	 * the journal is not enabled or is full.
+	 */
+	private void sendBatch(List<AuditRequest> batch) {
+		String authToken = null;
+		boolean failed = false;
+		for(AuditRequest auditRequest : batch) {
+			if(failed && spill(auditRequest)) {
+				countEvent("failed");
+				continue;
+			}
+
+			boolean sent = false;
+			try {
+				if(authToken == null)
+					authToken = authTransactionHelper.getAuthToken();
+				sent = send(auditRequest, authToken);
+			} catch (Exception e) {
+				log.error("Failed to send audit event {} of transaction {}", auditRequest.getEventId(),
+						auditRequest.getId(), e);
+			}
+			if(!sent) {
+				failed = true;
+				authToken = null;
+				spill(auditRequest);
+			}
+			countEvent(sent ? "sent" : "failed");
+		}
+	}
+
+	/**
+	 * Spills the batch being built and the queued events to the journal when the sender is interrupted.
+	 */
+	private void spillRemaining(List<AuditRequest> batch) {
+		auditQueue.drainTo(batch);
+		long lost = batch.stream().filter(auditRequest -> !spill(auditRequest)).count();
+		if(lost > 0)
+			log.warn("Audit sender stopped, {} audit events could not be written to the journal and are lost", lost);
+	}
+
+	/**
+	 * Writes the audit event to the audit journal to be replayed once the audit manager is reachable.
+	 * @return true if the event is written to the journal
+	 */
+	private boolean spill(AuditRequest auditRequest) {
+		if(auditJournal == null)
+			return false;
+
+		try {
+			if(auditJournal.append(objectMapper.writeValueAsBytes(auditRequest))) {
+				countEvent("spilled");
+				return true;
 			}
+		} catch (Exception e) {
+			log.error("Failed to write audit event {} of transaction {} to the journal", auditRequest.getEventId(),
+					auditRequest.getId(), e);
+		}
+		return false;
+	}
 
-			if(responseEntity.getStatusCode() == HttpStatus.FORBIDDEN ||
-					responseEntity.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-				log.error("Audit call failed with error: {}, issue with auth-token hence purging the auth-token-cache",
-						responseEntity.getStatusCode());
-				authTransactionHelper.purgeAuthTokenCache();
+	/**
+	 * Sends the journaled audit events in the order they were written, at most replay-rate-per-second events
+	 * per second. Replay stops at the first failure and is retried in the next run from the last acknowledged
+	 * event.
+	 */
+	private void replayJournal() {
+		long pauseMs = TimeUnit.SECONDS.toMillis(1) / Math.max(1, replayRatePerSecond);
+		try {
+			List<AuditJournal.Entry> entries;
+			while (!(entries = auditJournal.read(Math.max(1, replayRatePerSecond))).isEmpty()) {
+				String authToken = authTransactionHelper.getAuthToken();
+				AuditJournal.Entry lastAcknowledged = null;
+				try {
+					for(AuditJournal.Entry entry : entries) {
+						AuditRequest auditRequest;
+						try {
+							auditRequest = objectMapper.readValue(entry.getData(), AuditRequest.class);
+						} catch (IOException e) {
+							log.error("Skipping unreadable audit journal entry", e);
+							lastAcknowledged = entry;
+							continue;
+						}
+						if(!send(auditRequest, authToken))
+							return;
+						lastAcknowledged = entry;
+						countEvent("replayed");
+						Thread.sleep(pauseMs);
+					}
+				} finally {
+					if(lastAcknowledged != null)
+						auditJournal.acknowledge(lastAcknowledged);
+				}
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		} catch (Exception e) {
-			log.error("LogAudit failed with error : {}", e);
+			log.error("Failed to replay audit journal", e);
 		}
 	}
 
+	private void countEvent(String outcome) {
+		Counter.builder("ida.audit.events")
+				.tag("outcome", outcome)
+				.register(meterRegistry)
+				.increment();
+	}
+
 	private String getAuditDescription(AuditDTO audit) throws JSONException {
 		JSONObject json = new JSONObject();
 		json.put("clientId", audit.getClientId());
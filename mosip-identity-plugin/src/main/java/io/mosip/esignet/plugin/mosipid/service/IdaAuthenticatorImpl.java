@@ -6,12 +6,21 @@
 package io.mosip.esignet.plugin.mosipid.service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
 
 import io.mosip.esignet.api.dto.*;
 import io.mosip.esignet.plugin.mosipid.dto.*;
 import io.mosip.esignet.plugin.mosipid.helper.AuthTransactionHelper;
+import io.mosip.esignet.plugin.mosipid.helper.IdaAsyncClient;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.ParameterizedTypeReference;
@@ -45,6 +54,17 @@ public class IdaAuthenticatorImpl implements Authenticator {
     public static final String AUTHORIZATION_HEADER_NAME = "Authorization";
     public static final String KYC_EXCHANGE_TYPE = "oidc";
 
+    private static final String OPERATION_KYC_AUTH = "kyc-auth";
+    private static final String OPERATION_KYC_EXCHANGE = "kyc-exchange";
+    private static final String OPERATION_SEND_OTP = "send-otp";
+    private static final String OPERATION_KYC_SIGNING_CERTIFICATES = "kyc-signing-certificates";
+    private static final String OTP_AUTH_FACTOR = "OTP";
+
+    private static final ParameterizedTypeReference<IdaResponseWrapper<IdaKycAuthResponse>> KYC_AUTH_RESPONSE_TYPE =
+            new ParameterizedTypeReference<IdaResponseWrapper<IdaKycAuthResponse>>() {};
+    private static final ParameterizedTypeReference<IdaResponseWrapper<IdaKycExchangeResponse>> KYC_EXCHANGE_RESPONSE_TYPE =
+            new ParameterizedTypeReference<IdaResponseWrapper<IdaKycExchangeResponse>>() {};
+
     @Value("${mosip.esignet.authenticator.ida-auth-id:mosip.identity.kycauth}")
     private String kycAuthId;
 
@@ -96,6 +116,22 @@ public class IdaAuthenticatorImpl implements Authenticator {
     @Autowired
     private AuthTransactionHelper authTransactionHelper;
 
+    @Autowired
+    @Qualifier("idaRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Autowired
+    private IdaAsyncClient idaAsyncClient;
+
+    @Autowired
+    @Qualifier("idaPluginMetrics")
+    private PluginMetrics pluginMetrics;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+    }
+
     @Override
     public KycAuthResult doKycAuth(String relyingPartyId, String clientId, KycAuthDto kycAuthDto)
             throws KycAuthException {
@@ -105,69 +141,145 @@ public class IdaAuthenticatorImpl implements Authenticator {
     @Override
     public KycExchangeResult doKycExchange(String relyingPartyId, String clientId, KycExchangeDto kycExchangeDto)
             throws KycExchangeException {
-        log.info("Started to build kyc-exchange request with transactionId : {} && clientId : {}",
-                kycExchangeDto.getTransactionId(), clientId);
-        try {
-            IdaKycExchangeRequest idaKycExchangeRequest = new IdaKycExchangeRequest();
-            idaKycExchangeRequest.setId(kycExchangeId);
-            idaKycExchangeRequest.setVersion(idaVersion);
-            idaKycExchangeRequest.setRequestTime(HelperService.getUTCDateTime());
-            idaKycExchangeRequest.setTransactionID(kycExchangeDto.getTransactionId());
-            idaKycExchangeRequest.setKycToken(kycExchangeDto.getKycToken());
-	    if (!CollectionUtils.isEmpty(kycExchangeDto.getAcceptedClaims())) {
-                idaKycExchangeRequest.setConsentObtained(kycExchangeDto.getAcceptedClaims());
-            } else {
-                idaKycExchangeRequest.setConsentObtained(List.of("sub"));
-            }
-            idaKycExchangeRequest.setLocales(helperService.convertLangCodesToISO3LanguageCodes(kycExchangeDto.getClaimsLocales()));
-            idaKycExchangeRequest.setRespType(kycExchangeDto.getUserInfoResponseType()); //may be either JWT or JWE
-            idaKycExchangeRequest.setIndividualId(kycExchangeDto.getIndividualId());
+        if(idaAsyncClient.isEnabled())
+            return await(doKycExchangeAsync(relyingPartyId, clientId, kycExchangeDto), KycExchangeException.class,
+                    KycExchangeException::new);
 
-            //set signature header, body and invoke kyc exchange endpoint
-            String requestBody = objectMapper.writeValueAsString(idaKycExchangeRequest);
-            RequestEntity requestEntity = RequestEntity
-                    .post(UriComponentsBuilder.fromUriString(kycExchangeUrl).pathSegment(relyingPartyId,
-                            clientId).build().toUri())
-                    .contentType(MediaType.APPLICATION_JSON_UTF8)
-                    .header(SIGNATURE_HEADER_NAME, helperService.getRequestSignature(requestBody))
-                    .header(AUTHORIZATION_HEADER_NAME, AUTHORIZATION_HEADER_NAME)
-                    .body(requestBody);
-            ResponseEntity<IdaResponseWrapper<IdaKycExchangeResponse>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<IdaResponseWrapper<IdaKycExchangeResponse>>() {});
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_EXCHANGE, relyingPartyId, PluginMetrics.NONE);
+        try {
+            RequestEntity<String> requestEntity = buildKycExchangeRequest(call, relyingPartyId, clientId, kycExchangeDto);
+            ResponseEntity<IdaResponseWrapper<IdaKycExchangeResponse>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity, KYC_EXCHANGE_RESPONSE_TYPE));
+            return call.success(call.time(PluginMetrics.STAGE_RESPONSE_PARSE, () -> getKycExchangeResult(responseEntity)));
+        } catch (KycExchangeException e) {
+            call.failure(e.getErrorCode());
+            throw e;
+        } catch (Exception e) {
+            log.error("IDA Kyc-exchange failed with clientId : {}", clientId, e);
+        }
+        KycExchangeException exception = new KycExchangeException();
+        call.failure(exception.getErrorCode());
+        throw exception;
+    }
 
-            if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                IdaResponseWrapper<IdaKycExchangeResponse> responseWrapper = responseEntity.getBody();
-                if(responseWrapper.getResponse() != null && responseWrapper.getResponse().getEncryptedKyc() != null) {
-                    return new KycExchangeResult(responseWrapper.getResponse().getEncryptedKyc());
+    /**
+     * Non-blocking kyc-exchange, the request is built and signed on the calling thread and the IDA response is
+     * handled on the {@link IdaAsyncClient} threads.
+     * @return future completed with the result or completed exceptionally with {@link KycExchangeException}
+     */
+    public CompletableFuture<KycExchangeResult> doKycExchangeAsync(String relyingPartyId, String clientId,
+                                                                   KycExchangeDto kycExchangeDto) {
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_EXCHANGE, relyingPartyId, PluginMetrics.NONE);
+        try {
+            RequestEntity<String> requestEntity = buildKycExchangeRequest(call, relyingPartyId, clientId, kycExchangeDto);
+            return call.complete(call.timeAsync(PluginMetrics.STAGE_HTTP,
+                    () -> idaAsyncClient.exchange(OPERATION_KYC_EXCHANGE, requestEntity, KYC_EXCHANGE_RESPONSE_TYPE)).thenApply(responseEntity -> {
+                try {
+                    return call.time(PluginMetrics.STAGE_RESPONSE_PARSE, () -> getKycExchangeResult(responseEntity));
+                } catch (KycExchangeException e) {
+                    throw new CompletionException(e);
                 }
-                log.error("Errors in response received from IDA Kyc Exchange: {}", responseWrapper.getErrors());
-                throw new KycExchangeException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
-                		ErrorConstants.DATA_EXCHANGE_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
-            }
+            }), e -> e instanceof KycExchangeException ? ((KycExchangeException) e).getErrorCode() :
+                    ErrorConstants.DATA_EXCHANGE_FAILED);
+        } catch (Exception e) {
+            log.error("Failed to build kyc-exchange request with clientId : {}", clientId, e);
+            KycExchangeException exception = new KycExchangeException();
+            call.failure(exception.getErrorCode());
+            return CompletableFuture.failedFuture(exception);
+        }
+    }
 
-            log.error("Error response received from IDA (Kyc-exchange) with status : {}", responseEntity.getStatusCode());
-        } catch (KycExchangeException e) { throw e; } catch (Exception e) {
-            log.error("IDA Kyc-exchange failed with clientId : {}", clientId, e);
+    private RequestEntity<String> buildKycExchangeRequest(PluginMetrics.Call call, String relyingPartyId, String clientId,
+                                                          KycExchangeDto kycExchangeDto) throws Exception {
+        log.info("Started to build kyc-exchange request with transactionId : {} && clientId : {}",
+                kycExchangeDto.getTransactionId(), clientId);
+        IdaKycExchangeRequest idaKycExchangeRequest = new IdaKycExchangeRequest();
+        idaKycExchangeRequest.setId(kycExchangeId);
+        idaKycExchangeRequest.setVersion(idaVersion);
+        idaKycExchangeRequest.setRequestTime(HelperService.getUTCDateTime());
+        idaKycExchangeRequest.setTransactionID(kycExchangeDto.getTransactionId());
+        idaKycExchangeRequest.setKycToken(kycExchangeDto.getKycToken());
+        if (!CollectionUtils.isEmpty(kycExchangeDto.getAcceptedClaims())) {
+            idaKycExchangeRequest.setConsentObtained(kycExchangeDto.getAcceptedClaims());
+        } else {
+            idaKycExchangeRequest.setConsentObtained(List.of("sub"));
+        }
+        idaKycExchangeRequest.setLocales(helperService.convertLangCodesToISO3LanguageCodes(kycExchangeDto.getClaimsLocales()));
+        idaKycExchangeRequest.setRespType(kycExchangeDto.getUserInfoResponseType()); //may be either JWT or JWE
+        idaKycExchangeRequest.setIndividualId(kycExchangeDto.getIndividualId());
+
+        //set signature header, body and invoke kyc exchange endpoint
+        String requestBody = call.time(PluginMetrics.STAGE_REQUEST_BUILD, () -> objectMapper.writeValueAsString(idaKycExchangeRequest));
+        String signature = call.time(PluginMetrics.STAGE_SIGN, () -> helperService.getRequestSignature(requestBody));
+        return RequestEntity
+                .post(UriComponentsBuilder.fromUriString(kycExchangeUrl).pathSegment(relyingPartyId,
+                        clientId).build().toUri())
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(SIGNATURE_HEADER_NAME, signature)
+                .header(AUTHORIZATION_HEADER_NAME, AUTHORIZATION_HEADER_NAME)
+                .body(requestBody);
+    }
+
+    private KycExchangeResult getKycExchangeResult(ResponseEntity<IdaResponseWrapper<IdaKycExchangeResponse>> responseEntity)
+            throws KycExchangeException {
+        if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
+            IdaResponseWrapper<IdaKycExchangeResponse> responseWrapper = responseEntity.getBody();
+            if(responseWrapper.getResponse() != null && responseWrapper.getResponse().getEncryptedKyc() != null) {
+                return new KycExchangeResult(responseWrapper.getResponse().getEncryptedKyc());
+            }
+            log.error("Errors in response received from IDA Kyc Exchange: {}", responseWrapper.getErrors());
+            throw new KycExchangeException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
+                    ErrorConstants.DATA_EXCHANGE_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
         }
+
+        log.error("Error response received from IDA (Kyc-exchange) with status : {}", responseEntity.getStatusCode());
         throw new KycExchangeException();
     }
 
     @Override
     public SendOtpResult sendOtp(String relyingPartyId, String clientId, SendOtpDto sendOtpDto)  throws SendOtpException {
+        if(idaAsyncClient.isEnabled())
+            return await(sendOtpAsync(relyingPartyId, clientId, sendOtpDto), SendOtpException.class,
+                    SendOtpException::new);
+
         log.info("Started to build send-otp request with transactionId : {} && clientId : {}",
                 sendOtpDto.getTransactionId(), clientId);
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_SEND_OTP, relyingPartyId, OTP_AUTH_FACTOR);
         try {
             IdaSendOtpRequest idaSendOtpRequest = new IdaSendOtpRequest();
             idaSendOtpRequest.setOtpChannel(sendOtpDto.getOtpChannels());
             idaSendOtpRequest.setIndividualId(sendOtpDto.getIndividualId());
             idaSendOtpRequest.setTransactionID(sendOtpDto.getTransactionId());
-            return helperService.sendOTP(relyingPartyId, clientId, idaSendOtpRequest);
+            //request is built, signed and sent by the helper service, timed as the http stage
+            return call.success(call.time(PluginMetrics.STAGE_HTTP,
+                    () -> helperService.sendOTP(relyingPartyId, clientId, idaSendOtpRequest)));
         } catch (SendOtpException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("send-otp failed with clientId : {}", clientId, e);
         }
-        throw new SendOtpException();
+        SendOtpException exception = new SendOtpException();
+        call.failure(exception.getErrorCode());
+        throw exception;
+    }
+
+    /**
+     * Non-blocking send-otp, the IDA response is handled on the {@link IdaAsyncClient} threads.
+     * @return future completed with the result or completed exceptionally with {@link SendOtpException}
+     */
+    public CompletableFuture<SendOtpResult> sendOtpAsync(String relyingPartyId, String clientId, SendOtpDto sendOtpDto) {
+        log.info("Started to build send-otp request with transactionId : {} && clientId : {}",
+                sendOtpDto.getTransactionId(), clientId);
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_SEND_OTP, relyingPartyId, OTP_AUTH_FACTOR);
+        IdaSendOtpRequest idaSendOtpRequest = new IdaSendOtpRequest();
+        idaSendOtpRequest.setOtpChannel(sendOtpDto.getOtpChannels());
+        idaSendOtpRequest.setIndividualId(sendOtpDto.getIndividualId());
+        idaSendOtpRequest.setTransactionID(sendOtpDto.getTransactionId());
+        return call.complete(call.timeAsync(PluginMetrics.STAGE_HTTP,
+                () -> helperService.sendOTPAsync(relyingPartyId, clientId, idaSendOtpRequest)),
+                e -> e instanceof SendOtpException ? ((SendOtpException) e).getErrorCode() :
+                        ErrorConstants.SEND_OTP_FAILED);
     }
 
     @Override
@@ -177,6 +289,7 @@ public class IdaAuthenticatorImpl implements Authenticator {
 
     @Override
     public List<KycSigningCertificateData> getAllKycSigningCertificates() throws KycSigningCertificateException {
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_SIGNING_CERTIFICATES, null, PluginMetrics.NONE);
     	try {
     		String authToken = authTransactionHelper.getAuthToken();
 
@@ -186,13 +299,14 @@ public class IdaAuthenticatorImpl implements Authenticator {
                      .header(HttpHeaders.COOKIE, "Authorization=" + authToken)
                      .build();
             
-            ResponseEntity<ResponseWrapper<GetAllCertificatesResponse>> responseEntity = restTemplate.exchange(requestEntity,
-                     new ParameterizedTypeReference<ResponseWrapper<GetAllCertificatesResponse>>() {});
+            ResponseEntity<ResponseWrapper<GetAllCertificatesResponse>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity,
+                            new ParameterizedTypeReference<ResponseWrapper<GetAllCertificatesResponse>>() {}));
             
             if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
             	ResponseWrapper<GetAllCertificatesResponse> responseWrapper = responseEntity.getBody();
                 if(responseWrapper.getResponse() != null && responseWrapper.getResponse().getAllCertificates() != null) {
-                    return responseWrapper.getResponse().getAllCertificates();
+                    return call.success(responseWrapper.getResponse().getAllCertificates());
                 }
                 log.error("Error response received from getAllSigningCertificates with errors: {}",
                         responseWrapper.getErrors());
@@ -200,10 +314,15 @@ public class IdaAuthenticatorImpl implements Authenticator {
                 		ErrorConstants.KYC_SIGNING_CERTIFICATE_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
             }
             log.error("Error response received from getAllSigningCertificates with status : {}", responseEntity.getStatusCode());
-    	} catch (KycSigningCertificateException e) { throw e; } catch (Exception e) {
+    	} catch (KycSigningCertificateException e) {
+            call.failure(e.getErrorCode());
+            throw e;
+        } catch (Exception e) {
             log.error("getAllKycSigningCertificates failed with clientId : {}", clientId, e);
         }
-    	throw new KycSigningCertificateException();
+        KycSigningCertificateException exception = new KycSigningCertificateException();
+        call.failure(exception.getErrorCode());
+    	throw exception;
     }
 
     @Override
@@ -224,47 +343,102 @@ public class IdaAuthenticatorImpl implements Authenticator {
      */
     private KycAuthResult doKycAuthentication(String relyingPartyId, String clientId, KycAuthDto kycAuthDto,
                                               boolean claimsMetadataRequired) throws KycAuthException {
-        log.info("Started to build kyc-auth request with transactionId : {} && clientId : {}",
-                kycAuthDto.getTransactionId(), clientId);
+        if(idaAsyncClient.isEnabled())
+            return await(doKycAuthAsync(relyingPartyId, clientId, kycAuthDto, claimsMetadataRequired),
+                    KycAuthException.class, () -> new KycAuthException(ErrorConstants.AUTH_FAILED));
+
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_AUTH, relyingPartyId,
+                PluginMetrics.getAuthFactors(kycAuthDto.getChallengeList()));
         try {
-            IdaKycAuthRequest idaKycAuthRequest = getIdaKycAuthRequest(kycAuthDto, claimsMetadataRequired);
-            helperService.setAuthRequest(kycAuthDto.getChallengeList(), idaKycAuthRequest);
-
-            //set signature header, body and invoke kyc auth endpoint
-            String requestBody = objectMapper.writeValueAsString(idaKycAuthRequest);
-            RequestEntity<String> requestEntity = RequestEntity
-                    .post(UriComponentsBuilder.fromUriString(claimsMetadataRequired ? kycAuthUrlV2 : kycAuthUrl)
-                            .pathSegment(relyingPartyId, clientId).build().toUri())
-                    .contentType(MediaType.APPLICATION_JSON_UTF8)
-                    .header(SIGNATURE_HEADER_NAME, helperService.getRequestSignature(requestBody))
-                    .header(AUTHORIZATION_HEADER_NAME, AUTHORIZATION_HEADER_NAME)
-                    .body(requestBody);
-            ResponseEntity<IdaResponseWrapper<IdaKycAuthResponse>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<>() {
-                    });
+            RequestEntity<String> requestEntity = buildKycAuthRequest(call, relyingPartyId, clientId, kycAuthDto,
+                    claimsMetadataRequired);
+            ResponseEntity<IdaResponseWrapper<IdaKycAuthResponse>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity, KYC_AUTH_RESPONSE_TYPE));
+            return call.success(call.time(PluginMetrics.STAGE_RESPONSE_PARSE,
+                    () -> getKycAuthResult(responseEntity, claimsMetadataRequired)));
+        } catch (KycAuthException e) {
+            call.failure(e.getErrorCode());
+            throw e;
+        } catch (Exception e) {
+            log.error("KYC-auth failed with transactionId : {} && clientId : {}", kycAuthDto.getTransactionId(),
+                    clientId, e);
+        }
+        call.failure(ErrorConstants.AUTH_FAILED);
+        throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+    }
 
-            if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                IdaResponseWrapper<IdaKycAuthResponse> responseWrapper = responseEntity.getBody();
-                if(responseWrapper.getResponse() != null && responseWrapper.getResponse().isKycStatus() &&
-                        responseWrapper.getResponse().getKycToken() != null) {
-                    return claimsMetadataRequired ? (new KycAuthResult(responseEntity.getBody().getResponse().getKycToken(),
-                            responseEntity.getBody().getResponse().getAuthToken(),
-                            responseEntity.getBody().getResponse().getVerifiedClaims()))
-                            : (new KycAuthResult(responseEntity.getBody().getResponse().getKycToken(),
-                            responseEntity.getBody().getResponse().getAuthToken()));
+    /**
+     * Non-blocking kyc-auth, the request is encrypted and signed on the calling thread and the IDA response is
+     * handled on the {@link IdaAsyncClient} threads.
+     * @param relyingPartyId relyingPartyId required for the request
+     * @param clientId clientId required for the request
+     * @param kycAuthDto {@link KycAuthDto} required for the request with authorization details
+     * @param claimsMetadataRequired boolean flag to recognize v2 or existing flow
+     * @return future completed with the result or completed exceptionally with {@link KycAuthException}
+     */
+    public CompletableFuture<KycAuthResult> doKycAuthAsync(String relyingPartyId, String clientId, KycAuthDto kycAuthDto,
+                                                           boolean claimsMetadataRequired) {
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_AUTH, relyingPartyId,
+                PluginMetrics.getAuthFactors(kycAuthDto.getChallengeList()));
+        try {
+            RequestEntity<String> requestEntity = buildKycAuthRequest(call, relyingPartyId, clientId, kycAuthDto,
+                    claimsMetadataRequired);
+            return call.complete(call.timeAsync(PluginMetrics.STAGE_HTTP,
+                    () -> idaAsyncClient.exchange(OPERATION_KYC_AUTH, requestEntity, KYC_AUTH_RESPONSE_TYPE)).thenApply(responseEntity -> {
+                try {
+                    return call.time(PluginMetrics.STAGE_RESPONSE_PARSE,
+                            () -> getKycAuthResult(responseEntity, claimsMetadataRequired));
+                } catch (KycAuthException e) {
+                    throw new CompletionException(e);
                 }
-                assert responseWrapper.getResponse() != null;
-                log.error("Error response received from IDA KycStatus : {} && Errors: {}",
-                        responseWrapper.getResponse().isKycStatus(), responseWrapper.getErrors());
-                throw new KycAuthException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
-                        ErrorConstants.AUTH_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
-            }
+            }), e -> e instanceof KycAuthException ? ((KycAuthException) e).getErrorCode() : ErrorConstants.AUTH_FAILED);
+        } catch (Exception e) {
+            log.error("Failed to build kyc-auth request with transactionId : {} && clientId : {}",
+                    kycAuthDto.getTransactionId(), clientId, e);
+            call.failure(ErrorConstants.AUTH_FAILED);
+            return CompletableFuture.failedFuture(new KycAuthException(ErrorConstants.AUTH_FAILED));
+        }
+    }
 
-            log.error("Error response received from IDA (Kyc-auth) with status : {}", responseEntity.getStatusCode());
-        } catch (KycAuthException e) { throw e; } catch (Exception e) {
-            log.error("KYC-auth failed with transactionId : {} && clientId : {}", kycAuthDto.getTransactionId(),
-                    clientId, e);
+    private RequestEntity<String> buildKycAuthRequest(PluginMetrics.Call call, String relyingPartyId, String clientId,
+                                                      KycAuthDto kycAuthDto, boolean claimsMetadataRequired) throws Exception {
+        log.info("Started to build kyc-auth request with transactionId : {} && clientId : {}",
+                kycAuthDto.getTransactionId(), clientId);
+        IdaKycAuthRequest idaKycAuthRequest = getIdaKycAuthRequest(kycAuthDto, claimsMetadataRequired);
+        call.run(PluginMetrics.STAGE_CRYPTO, () -> helperService.setAuthRequest(kycAuthDto.getChallengeList(), idaKycAuthRequest));
+
+        //set signature header, body and invoke kyc auth endpoint
+        String requestBody = call.time(PluginMetrics.STAGE_REQUEST_BUILD, () -> objectMapper.writeValueAsString(idaKycAuthRequest));
+        String signature = call.time(PluginMetrics.STAGE_SIGN, () -> helperService.getRequestSignature(requestBody));
+        return RequestEntity
+                .post(UriComponentsBuilder.fromUriString(claimsMetadataRequired ? kycAuthUrlV2 : kycAuthUrl)
+                        .pathSegment(relyingPartyId, clientId).build().toUri())
+                .contentType(MediaType.APPLICATION_JSON_UTF8)
+                .header(SIGNATURE_HEADER_NAME, signature)
+                .header(AUTHORIZATION_HEADER_NAME, AUTHORIZATION_HEADER_NAME)
+                .body(requestBody);
+    }
+
+    private KycAuthResult getKycAuthResult(ResponseEntity<IdaResponseWrapper<IdaKycAuthResponse>> responseEntity,
+                                           boolean claimsMetadataRequired) throws KycAuthException {
+        if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
+            IdaResponseWrapper<IdaKycAuthResponse> responseWrapper = responseEntity.getBody();
+            if(responseWrapper.getResponse() != null && responseWrapper.getResponse().isKycStatus() &&
+                    responseWrapper.getResponse().getKycToken() != null) {
+                return claimsMetadataRequired ? (new KycAuthResult(responseEntity.getBody().getResponse().getKycToken(),
+                        responseEntity.getBody().getResponse().getAuthToken(),
+                        responseEntity.getBody().getResponse().getVerifiedClaims()))
+                        : (new KycAuthResult(responseEntity.getBody().getResponse().getKycToken(),
+                        responseEntity.getBody().getResponse().getAuthToken()));
+            }
+            assert responseWrapper.getResponse() != null;
+            log.error("Error response received from IDA KycStatus : {} && Errors: {}",
+                    responseWrapper.getResponse().isKycStatus(), responseWrapper.getErrors());
+            throw new KycAuthException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
+                    ErrorConstants.AUTH_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
         }
+
+        log.error("Error response received from IDA (Kyc-auth) with status : {}", responseEntity.getStatusCode());
         throw new KycAuthException(ErrorConstants.AUTH_FAILED);
     }
 
@@ -296,4 +470,19 @@ public class IdaAuthenticatorImpl implements Authenticator {
     public KycExchangeResult doVerifiedKycExchange(String relyingPartyId, String clientId, VerifiedKycExchangeDto kycExchangeDto) throws KycExchangeException {
         return doKycExchange(relyingPartyId, clientId, kycExchangeDto); //TODO
     }
+
+    /**
+     * Blocking adapter over the non-blocking calls for the {@link Authenticator} SPI.
+     */
+    private static <T, E extends Exception> T await(CompletableFuture<T> future, Class<E> exceptionType,
+                                                     Supplier<E> defaultException) throws E {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if(exceptionType.isInstance(e.getCause()))
+                throw exceptionType.cast(e.getCause());
+            log.error("IDA request failed", e.getCause());
+            throw defaultException.get();
+        }
+    }
 }
@@ -11,11 +11,16 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.PostConstruct;
+
 import io.mosip.esignet.plugin.mosipid.dto.IdaResponseWrapper;
 import io.mosip.esignet.plugin.mosipid.dto.IdaSendOtpRequest;
 import io.mosip.esignet.plugin.mosipid.dto.KeyBindingRequest;
 import io.mosip.esignet.plugin.mosipid.dto.KeyBindingResponse;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.ParameterizedTypeReference;
@@ -58,6 +63,10 @@ public class IdaKeyBinderImpl implements KeyBinder {
     public static final String AUTHORIZATION_HEADER_NAME = "Authorization";
     public static final String REQUIRED_HEADERS_MISSING = "required_header_missing";
 
+    private static final String OPERATION_SEND_BINDING_OTP = "send-binding-otp";
+    private static final String OPERATION_KEY_BINDING = "key-binding";
+    private static final String OTP_AUTH_FACTOR = "OTP";
+
     @Value("${mosip.esignet.binder.ida.key-binding-url}")
     private String keyBinderUrl;
 
@@ -82,10 +91,25 @@ public class IdaKeyBinderImpl implements KeyBinder {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    @Qualifier("idaRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Autowired
+    @Qualifier("idaPluginMetrics")
+    private PluginMetrics pluginMetrics;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+    }
+
     @Override
     public SendOtpResult sendBindingOtp(String individualId, List<String> otpChannels, Map<String, String> requestHeaders)
             throws SendOtpException {
         log.info("Started to send-binding-otp request");
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_SEND_BINDING_OTP, requestHeaders.get(PARTNER_ID_HEADER),
+                OTP_AUTH_FACTOR);
         try {
             if(StringUtils.isEmpty(requestHeaders.get(PARTNER_ID_HEADER)) || StringUtils.isEmpty(requestHeaders.get(PARTNER_API_KEY_HEADER)))
                 throw new SendOtpException(REQUIRED_HEADERS_MISSING);
@@ -94,22 +118,30 @@ public class IdaKeyBinderImpl implements KeyBinder {
             idaSendOtpRequest.setOtpChannel(otpChannels);
             idaSendOtpRequest.setIndividualId(individualId);
             idaSendOtpRequest.setTransactionID(helperService.getTransactionId(HelperService.generateHash(individualId.trim())));
-            return helperService.sendOTP(requestHeaders.get(PARTNER_ID_HEADER),
-                    requestHeaders.get(PARTNER_API_KEY_HEADER), idaSendOtpRequest);
+            //request is built, signed and sent by the helper service, timed as the http stage
+            return call.success(call.time(PluginMetrics.STAGE_HTTP, () -> helperService.sendOTP(requestHeaders.get(PARTNER_ID_HEADER),
+                    requestHeaders.get(PARTNER_API_KEY_HEADER), idaSendOtpRequest)));
         } catch (SendOtpException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("send-binding-otp failed with requestHeaders : {}", requestHeaders, e);
         }
-        throw new SendOtpException();
+        SendOtpException exception = new SendOtpException();
+        call.failure(exception.getErrorCode());
+        throw exception;
     }
 
     @Override
     public KeyBindingResult doKeyBinding(String individualId, List<AuthChallenge> challengeList, Map<String, Object> publicKeyJWK,
                                          String bindAuthFactorType, Map<String, String> requestHeaders) throws KeyBindingException {
         log.info("Started to key-binding request for auth-factor-type {}", bindAuthFactorType);
-        if(StringUtils.isEmpty(requestHeaders.get(PARTNER_ID_HEADER)) || StringUtils.isEmpty(requestHeaders.get(PARTNER_API_KEY_HEADER)))
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KEY_BINDING, requestHeaders.get(PARTNER_ID_HEADER),
+                PluginMetrics.getAuthFactors(challengeList));
+        if(StringUtils.isEmpty(requestHeaders.get(PARTNER_ID_HEADER)) || StringUtils.isEmpty(requestHeaders.get(PARTNER_API_KEY_HEADER))) {
+            call.failure(REQUIRED_HEADERS_MISSING);
             throw new KeyBindingException(REQUIRED_HEADERS_MISSING);
+        }
 
         try {
             KeyBindingRequest keyBindingRequest = new KeyBindingRequest();
@@ -121,7 +153,7 @@ public class IdaKeyBinderImpl implements KeyBinder {
             keyBindingRequest.setConsentObtained(true);
             keyBindingRequest.setIndividualId(individualId);
             keyBindingRequest.setTransactionID(helperService.getTransactionId(HelperService.generateHash(individualId.trim())));
-            helperService.setAuthRequest(challengeList, keyBindingRequest);
+            call.run(PluginMetrics.STAGE_CRYPTO, () -> helperService.setAuthRequest(challengeList, keyBindingRequest));
 
             KeyBindingRequest.IdentityKeyBinding identityKeyBinding = new KeyBindingRequest.IdentityKeyBinding();
             identityKeyBinding.setPublicKeyJWK(publicKeyJWK);
@@ -129,43 +161,52 @@ public class IdaKeyBinderImpl implements KeyBinder {
             keyBindingRequest.setIdentityKeyBinding(identityKeyBinding);
 
             //set signature header, body and invoke kyc auth endpoint
-            String requestBody = objectMapper.writeValueAsString(keyBindingRequest);
+            String requestBody = call.time(PluginMetrics.STAGE_REQUEST_BUILD, () -> objectMapper.writeValueAsString(keyBindingRequest));
+            String signature = call.time(PluginMetrics.STAGE_SIGN, () -> helperService.getRequestSignature(requestBody));
             RequestEntity requestEntity = RequestEntity
                     .post(UriComponentsBuilder.fromUriString(keyBinderUrl).pathSegment(requestHeaders.getOrDefault(PARTNER_ID_HEADER, PARTNER_ID_HEADER),
                             requestHeaders.getOrDefault(PARTNER_API_KEY_HEADER, PARTNER_API_KEY_HEADER)).build().toUri())
                     .contentType(MediaType.APPLICATION_JSON_UTF8)
-                    .header(SIGNATURE_HEADER_NAME, helperService.getRequestSignature(requestBody))
+                    .header(SIGNATURE_HEADER_NAME, signature)
                     .header(AUTHORIZATION_HEADER_NAME, AUTHORIZATION_HEADER_NAME)
                     .body(requestBody);
-            ResponseEntity<IdaResponseWrapper<KeyBindingResponse>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<IdaResponseWrapper<KeyBindingResponse>>() {});
-
-            if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                IdaResponseWrapper<KeyBindingResponse> responseWrapper = responseEntity.getBody();
-                if(responseWrapper.getResponse() == null) {
-                    log.error("Error response received from IDA (Key-binding) Errors: {}", responseWrapper.getErrors());
-                    throw new KeyBindingException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
-                            ErrorConstants.KEY_BINDING_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
-                }
-
-                log.debug("Binding-Auth-status : {}", responseWrapper.getResponse().isBindingAuthStatus());
-                if(!responseWrapper.getResponse().isBindingAuthStatus()) {
-                    throw new KeyBindingException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
-                            ErrorConstants.BINDING_AUTH_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
-                }
-
-                KeyBindingResult keyBindingResult = new KeyBindingResult();
-                keyBindingResult.setCertificate(responseWrapper.getResponse().getIdentityCertificate());
-                keyBindingResult.setPartnerSpecificUserToken(responseWrapper.getResponse().getAuthToken());
-                return keyBindingResult;
-            }
-
-            log.error("Error response received from IDA (Key-binding) with status : {}", responseEntity.getStatusCode());
+            ResponseEntity<IdaResponseWrapper<KeyBindingResponse>> responseEntity = call.time(PluginMetrics.STAGE_HTTP,
+                    () -> restTemplate.exchange(requestEntity,
+                            new ParameterizedTypeReference<IdaResponseWrapper<KeyBindingResponse>>() {}));
+            return call.success(call.time(PluginMetrics.STAGE_RESPONSE_PARSE, () -> getKeyBindingResult(responseEntity)));
         } catch (KeyBindingException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("Key-binding failed with headers: {}", requestHeaders, e);
         }
+        call.failure(ErrorConstants.KEY_BINDING_FAILED);
+        throw new KeyBindingException(ErrorConstants.KEY_BINDING_FAILED);
+    }
+
+    private KeyBindingResult getKeyBindingResult(ResponseEntity<IdaResponseWrapper<KeyBindingResponse>> responseEntity)
+            throws KeyBindingException {
+        if(responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
+            IdaResponseWrapper<KeyBindingResponse> responseWrapper = responseEntity.getBody();
+            if(responseWrapper.getResponse() == null) {
+                log.error("Error response received from IDA (Key-binding) Errors: {}", responseWrapper.getErrors());
+                throw new KeyBindingException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
+                        ErrorConstants.KEY_BINDING_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
+            }
+
+            log.debug("Binding-Auth-status : {}", responseWrapper.getResponse().isBindingAuthStatus());
+            if(!responseWrapper.getResponse().isBindingAuthStatus()) {
+                throw new KeyBindingException(CollectionUtils.isEmpty(responseWrapper.getErrors()) ?
+                        ErrorConstants.BINDING_AUTH_FAILED : responseWrapper.getErrors().get(0).getErrorCode());
+            }
+
+            KeyBindingResult keyBindingResult = new KeyBindingResult();
+            keyBindingResult.setCertificate(responseWrapper.getResponse().getIdentityCertificate());
+            keyBindingResult.setPartnerSpecificUserToken(responseWrapper.getResponse().getAuthToken());
+            return keyBindingResult;
+        }
+
+        log.error("Error response received from IDA (Key-binding) with status : {}", responseEntity.getStatusCode());
         throw new KeyBindingException(ErrorConstants.KEY_BINDING_FAILED);
     }
 
@@ -0,0 +1,19 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.dto;
+
+import lombok.Data;
+
+@Data
+public class ProfileImportReport {
+
+    private long imported;
+    private long failed;
+    private long skipped;
+    private long checkpoint;
+    private long elapsedMillis;
+    private double recordsPerSecond;
+}
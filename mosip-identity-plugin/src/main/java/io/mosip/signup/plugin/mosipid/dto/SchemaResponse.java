@@ -6,8 +6,10 @@
 package io.mosip.signup.plugin.mosipid.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.JsonNode;
+import io.mosip.signup.plugin.mosipid.util.SchemaValidationPlan;
 import lombok.Data;
 
 @Data
@@ -17,5 +19,7 @@ public class SchemaResponse {
     private double idVersion;
     private String schemaJson;
     private JsonNode parsedSchemaJson;
+    @JsonIgnore
+    private SchemaValidationPlan validationPlan;
 
 }
\ No newline at end of file
@@ -5,15 +5,26 @@
  */
 package io.mosip.signup.plugin.mosipid.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import io.mosip.signup.plugin.mosipid.dto.*;
 import io.mosip.signup.plugin.mosipid.util.ErrorConstants;
+import io.mosip.signup.plugin.mosipid.util.Argon2PasswordHasher;
 import io.mosip.signup.plugin.mosipid.util.ProfileCacheService;
+import io.mosip.signup.plugin.mosipid.util.ProfileStatusTracker;
+import io.mosip.signup.plugin.mosipid.util.SchemaRegistry;
+import io.mosip.signup.plugin.mosipid.util.SchemaValidationPlan;
+import io.mosip.signup.plugin.mosipid.util.UinReservoir;
 import io.mosip.kernel.core.util.HMACUtils2;
 import io.mosip.signup.api.dto.ProfileDto;
 import io.mosip.signup.api.dto.ProfileResult;
@@ -21,7 +32,9 @@ import io.mosip.signup.api.exception.InvalidProfileException;
 import io.mosip.signup.api.exception.ProfileException;
 import io.mosip.signup.api.spi.ProfileRegistryPlugin;
 import io.mosip.signup.api.util.ProfileCreateUpdateStatus;
+import io.mosip.signup.plugin.util.IdentityMatcher;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -35,13 +48,21 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.validation.constraints.NotNull;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.NoSuchAlgorithmException;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
 
 import static io.mosip.signup.api.util.ErrorConstants.SERVER_UNREACHABLE;
 import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
@@ -55,7 +76,7 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
     private static final String UIN = "UIN";
     private static final String SELECTED_HANDLES_FIELD_ID = "selectedHandles";
     private static final String UTC_DATETIME_PATTERN = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
-    private final Map<Double, SchemaResponse> schemaMap = new HashMap<>();
+    private static final double LATEST_SCHEMA_VERSION = 0;
     private static final List<String> ACTIONS = Arrays.asList("CREATE", "UPDATE");
 
     @Value("#{'${mosip.signup.idrepo.default.selected-handles:phone}'.split(',')}")
@@ -112,6 +133,18 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
     @Value("${mosip.signup.idrepo.get-identity-fallback-path}")
     private String getIdentityEndpointFallbackPath;
 
+    @Value("${mosip.signup.idrepo.profile-pipeline.threads:32}")
+    private int profilePipelineThreads;
+
+    @Value("${mosip.signup.idrepo.profile-pipeline.queue-capacity:64}")
+    private int profilePipelineQueueCapacity;
+
+    @Value("${mosip.signup.idrepo.schema-cache.refresh-interval-seconds:3600}")
+    private long schemaRefreshIntervalSeconds;
+
+    @Value("${mosip.signup.idrepo.schema-cache.warm-up:true}")
+    private boolean schemaWarmUpEnabled;
+
     @Autowired
     @Qualifier("selfTokenRestTemplate")
     private RestTemplate restTemplate;
@@ -122,6 +155,55 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
     @Autowired
     private ProfileCacheService profileCacheService;
 
+    @Autowired
+    @Qualifier("idrepoRestTemplateFactory")
+    private PooledRestTemplateFactory idrepoRestTemplateFactory;
+
+    @Autowired
+    private UinReservoir uinReservoir;
+
+    @Autowired
+    @Qualifier("idrepoPluginExecutors")
+    private PluginExecutors idrepoPluginExecutors;
+
+    @Autowired
+    private Argon2PasswordHasher argon2PasswordHasher;
+
+    @Autowired
+    private ProfileStatusTracker profileStatusTracker;
+
+    @Autowired
+    @Qualifier("idrepoIdentityMatcher")
+    private IdentityMatcher identityMatcher;
+
+    @Autowired
+    private ProfileBulkImporter profileBulkImporter;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final SchemaRegistry schemaRegistry = new SchemaRegistry(this::fetchSchemaJson);
+
+    private ExecutorService profilePipelineExecutor;
+
+    @PostConstruct
+    public void init() {
+        restTemplate = idrepoRestTemplateFactory.wrap(restTemplate);
+        schemaRegistry.start(idrepoPluginExecutors.newSingleThreadScheduledExecutor("idschema-refresh"),
+                schemaRefreshIntervalSeconds, meterRegistry);
+        if(schemaWarmUpEnabled)
+            schemaRegistry.warmUp(LATEST_SCHEMA_VERSION);
+        uinReservoir.start(this::getUniqueIdentifier);
+        profilePipelineExecutor = idrepoPluginExecutors.newCallExecutor("idrepo-profile", profilePipelineThreads,
+                profilePipelineQueueCapacity);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        schemaRegistry.destroy();
+        if(profilePipelineExecutor != null)
+            profilePipelineExecutor.shutdownNow();
+    }
 
     @Override
     public void validate(String action, ProfileDto profileDto) throws InvalidProfileException {
@@ -130,27 +212,18 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
         }
 
         JsonNode inputJson = profileDto.getIdentity();
-        double version = inputJson.has(ID_SCHEMA_VERSION_FIELD_ID) ? inputJson.get(ID_SCHEMA_VERSION_FIELD_ID).asDouble() : 0;
+        double version = inputJson.has(ID_SCHEMA_VERSION_FIELD_ID) ? inputJson.get(ID_SCHEMA_VERSION_FIELD_ID).asDouble() : LATEST_SCHEMA_VERSION;
         SchemaResponse schemaResponse = getSchemaJson(version);
-        ((ObjectNode) inputJson).set(ID_SCHEMA_VERSION_FIELD_ID, objectMapper.valueToTree(schemaResponse.getIdVersion()));
+        ((ObjectNode) inputJson).put(ID_SCHEMA_VERSION_FIELD_ID, schemaResponse.getIdVersion());
 
         // check if any required field is missing during the "create" action.
-        JsonNode requiredFieldIds = schemaResponse.getParsedSchemaJson().at("/properties/identity/required");
+        SchemaValidationPlan validationPlan = schemaResponse.getValidationPlan();
         if (action.equals("CREATE")) {
-            Iterator itr = requiredFieldIds.iterator();
-            while (itr.hasNext()) {
-                String fieldName = ((TextNode)itr.next()).textValue();
-                if (inputJson.get(fieldName) == null) {
-                    log.error("Null/Empty value found in the required field of {}, required: {}", fieldName, requiredFieldIds);
-                    throw new InvalidProfileException("invalid_".concat(fieldName.toLowerCase()));
-                }
-            }
+            validationPlan.validateRequiredFields(inputJson);
         }
 
         // validate each entry field with schemaResponse
-        Iterator<Map.Entry<String, JsonNode>> itr = inputJson.fields();
-        JsonNode fields = schemaResponse.getParsedSchemaJson().at("/properties/identity/properties");
-        validateEntryFields(itr, fields);
+        validationPlan.validateFields(inputJson, mandatoryLanguages, optionalLanguages);
     }
 
     @Override
@@ -161,11 +234,9 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
         }
 
         JsonNode inputJson = profileDto.getIdentity();
-        //set UIN
-        ((ObjectNode) inputJson).set(UIN, objectMapper.valueToTree(getUniqueIdentifier()));
-        //Build identity request
-        IdentityRequest identityRequest = buildIdentityRequest(inputJson, false);
-        identityRequest.setRegistrationId(requestId);
+        //schema and password hash are resolved concurrently, identity json is updated only on this thread
+        CompletableFuture<SchemaResponse> schema = resolveSchema(inputJson);
+        CompletableFuture<Password> password = runStage("pwdhash", getPasswordStage(inputJson));
 
         if(!inputJson.has(SELECTED_HANDLES_FIELD_ID) && !CollectionUtils.isEmpty(defaultSelectedHandles)){
             ((ObjectNode) inputJson).set(SELECTED_HANDLES_FIELD_ID, objectMapper.valueToTree(defaultSelectedHandles));
@@ -182,6 +253,15 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
                 }
             }
         }
+
+        await(schema, password);
+        //UIN is taken only once the profile is ready to be added, a taken UIN can't be returned to the idgenerator
+        String uin = timeStage("uin", () -> uinReservoir.take(this::getUniqueIdentifier));
+        ((ObjectNode) inputJson).set(UIN, objectMapper.valueToTree(uin));
+        //Build identity request
+        IdentityRequest identityRequest = buildIdentityRequest(inputJson, schema.join(), password.join());
+        identityRequest.setRegistrationId(requestId);
+
         profileCacheService.setHandleRequestIds(requestId, requestIdsToTrack);
         IdentityResponse identityResponse = addIdentity(identityRequest);
         ProfileResult profileResult = new ProfileResult();
@@ -201,7 +281,10 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
         }
 
         //Build identity request
-        IdentityRequest identityRequest = buildIdentityRequest(inputJson, true);
+        CompletableFuture<SchemaResponse> schema = resolveSchema(inputJson);
+        CompletableFuture<Password> password = runStage("pwdhash", getPasswordStage(inputJson));
+        await(schema, password);
+        IdentityRequest identityRequest = buildIdentityRequest(inputJson, schema.join(), password.join());
         identityRequest.setRegistrationId(requestId);
 
         IdentityResponse identityResponse = updateIdentity(identityRequest);
@@ -212,15 +295,62 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
         return profileResult;
     }
 
+    /**
+     * Imports the profiles of the NDJSON file into id-repo, see {@link ProfileBulkImporter}.
+     * @param source NDJSON file with the profiles to import
+     * @param checkpointFile checkpoint of the import, created if it does not exist
+     * @param errorReportFile NDJSON report of the failed records, appended to if it exists
+     * @return counts and throughput of the import
+     * @throws IOException if the source could not be read or the error report could not be written
+     */
+    public ProfileImportReport importProfiles(Path source, Path checkpointFile, Path errorReportFile) throws IOException {
+        return profileBulkImporter.importProfiles(source, checkpointFile, errorReportFile, this::getUniqueIdentifier,
+                this::validateIdentity, this::importIdentity);
+    }
+
+    /**
+     * Validates the fields of the identity streamed by the bulk import against the latest schema, the required
+     * fields are checked once the identity is read, after the schema version is set.
+     */
+    private void validateIdentity(JsonParser parser) throws ProfileException {
+        getSchemaJson(LATEST_SCHEMA_VERSION).getValidationPlan().validate(parser, false, mandatoryLanguages,
+                optionalLanguages);
+    }
+
+    /**
+     * Adds the identity validated by {@link #validateIdentity(JsonParser)} with a UIN from the supplier, used by the
+     * bulk import. Identity of an older schema version is validated again against its own schema. Handle requests
+     * are not tracked as the imported profiles are not polled for status.
+     */
+    private void importIdentity(String requestId, JsonNode inputJson, Supplier<String> uinSupplier) throws ProfileException {
+        SchemaResponse schemaResponse = getSchemaJson(LATEST_SCHEMA_VERSION);
+        double version = getSchemaVersion(inputJson);
+        if(version == LATEST_SCHEMA_VERSION || version == schemaResponse.getIdVersion()) {
+            ((ObjectNode) inputJson).put(ID_SCHEMA_VERSION_FIELD_ID, schemaResponse.getIdVersion());
+            schemaResponse.getValidationPlan().validateRequiredFields(inputJson);
+        } else {
+            ProfileDto profileDto = new ProfileDto();
+            profileDto.setIdentity(inputJson);
+            validate("CREATE", profileDto);
+        }
+
+        if(!inputJson.has(SELECTED_HANDLES_FIELD_ID) && !CollectionUtils.isEmpty(defaultSelectedHandles)){
+            ((ObjectNode) inputJson).set(SELECTED_HANDLES_FIELD_ID, objectMapper.valueToTree(defaultSelectedHandles));
+        }
+        ((ObjectNode) inputJson).set(UIN, objectMapper.valueToTree(uinSupplier.get()));
+        IdentityRequest identityRequest = buildIdentityRequest(inputJson, getSchemaStage(inputJson).get(),
+                getPasswordStage(inputJson).get());
+        identityRequest.setRegistrationId(requestId);
+        addIdentity(identityRequest);
+    }
+
     @Override
     public ProfileCreateUpdateStatus getProfileCreateUpdateStatus(String requestId) throws ProfileException {
         List<String> handleRequestIds = profileCacheService.getHandleRequestIds(requestId);
         if(handleRequestIds == null || handleRequestIds.isEmpty())
-            return getRequestStatusFromServer(requestId);
+            handleRequestIds = List.of(requestId);
 
-        //TODO - Need to support returning multiple handles status
-        //TODO - Also we should cache the handle create/update status
-        return getRequestStatusFromServer(handleRequestIds.get(0));
+        return profileStatusTracker.getStatus(handleRequestIds, this::getRequestStatusFromServer);
     }
 
     @Override
@@ -266,30 +396,14 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
 
     @Override
     public boolean isMatch(@NotNull JsonNode identity, @NotNull JsonNode inputChallenge) {
-        int matchCount = 0;
-        Iterator itr = inputChallenge.fieldNames();
-        while(itr.hasNext()) {
-            String fieldName = (String) itr.next();
-            if(!identity.has(fieldName))
-                break;
-
-            if(identity.get(fieldName).isArray()) {
-                for (JsonNode jsonNode : identity.get(fieldName)) {
-                    //As of now assumption is we take user input only in single language
-                    matchCount = matchCount + ((jsonNode.equals(inputChallenge.get(fieldName).get(0))) ? 1 : 0);
-                }
-            }
-            else {
-                matchCount = matchCount + ((identity.get(fieldName).equals(inputChallenge.get(fieldName))) ? 1 : 0);
-            }
-        }
-        return !inputChallenge.isEmpty() && matchCount >= inputChallenge.size();
+        return identityMatcher.isMatch(identity, inputChallenge);
     }
 
     private SchemaResponse getSchemaJson(double version) throws ProfileException {
-        if(schemaMap.containsKey(version))
-            return schemaMap.get(version);
+        return schemaRegistry.get(version);
+    }
 
+    private SchemaResponse fetchSchemaJson(double version) throws ProfileException {
         ResponseWrapper<SchemaResponse> responseWrapper = request(schemaUrl+version,
                 HttpMethod.GET, null, new ParameterizedTypeReference<ResponseWrapper<SchemaResponse>>() {});
         if (responseWrapper.getResponse().getSchemaJson()!=null) {
@@ -297,8 +411,8 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
             try {
                 schemaResponse.setParsedSchemaJson(objectMapper.readValue(responseWrapper.getResponse().getSchemaJson(), JsonNode.class));
                 schemaResponse.setIdVersion(responseWrapper.getResponse().getIdVersion());
-                schemaMap.put(version, schemaResponse);
-                return schemaMap.get(version);
+                schemaResponse.setValidationPlan(SchemaValidationPlan.compile(schemaResponse.getParsedSchemaJson()));
+                return schemaResponse;
             } catch (JsonProcessingException e) {
                 log.error("Failed to parse schemaResponse", e);
             }
@@ -320,6 +434,9 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
 
     @Timed(value = "pwdhash.api.timer", percentiles = {0.9})
     private Password generateSaltedHash(String password) throws ProfileException {
+        if(argon2PasswordHasher.isEnabled())
+            return argon2PasswordHasher.hash(password);
+
         RequestWrapper<Password.PasswordPlaintext> requestWrapper = new RequestWrapper<>();
         requestWrapper.setRequesttime(getUTCDateTime());
         requestWrapper.setRequest(new Password.PasswordPlaintext(password));
@@ -415,14 +532,76 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
         return requestId;
     }
 
-    private IdentityRequest buildIdentityRequest(JsonNode inputJson, boolean isUpdate) {
-        double version = inputJson.has(ID_SCHEMA_VERSION_FIELD_ID) ? inputJson.get(ID_SCHEMA_VERSION_FIELD_ID).asDouble() : 0;
-        SchemaResponse schemaResponse = getSchemaJson(version);
-        ((ObjectNode) inputJson).set(ID_SCHEMA_VERSION_FIELD_ID, objectMapper.valueToTree(schemaResponse.getIdVersion()));
+    private Supplier<SchemaResponse> getSchemaStage(JsonNode inputJson) {
+        double version = getSchemaVersion(inputJson);
+        return () -> getSchemaJson(version);
+    }
+
+    private static double getSchemaVersion(JsonNode inputJson) {
+        return inputJson.has(ID_SCHEMA_VERSION_FIELD_ID) ? inputJson.get(ID_SCHEMA_VERSION_FIELD_ID).asDouble() : LATEST_SCHEMA_VERSION;
+    }
 
+    private Supplier<Password> getPasswordStage(JsonNode inputJson) {
         //generate salted hash for password, if exists
-        if(inputJson.has("password")) {
-            Password password = generateSaltedHash(inputJson.get("password").asText());
+        String password = inputJson.has("password") ? inputJson.get("password").asText() : null;
+        return () -> password == null ? null : generateSaltedHash(password);
+    }
+
+    /**
+     * Schema of the version in the identity, completed on this thread when the version is already loaded.
+     */
+    private CompletableFuture<SchemaResponse> resolveSchema(JsonNode inputJson) {
+        double version = getSchemaVersion(inputJson);
+        SchemaResponse schemaResponse = schemaRegistry.getIfLoaded(version);
+        return schemaResponse != null ? CompletableFuture.completedFuture(schemaResponse) :
+                runStage("schema", () -> getSchemaJson(version));
+    }
+
+    /**
+     * Runs the stage on the profile pipeline thread with the MDC of the calling thread.
+     */
+    private <T> CompletableFuture<T> runStage(String stage, Supplier<T> supplier) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return CompletableFuture.supplyAsync(() -> {
+            Map<String, String> previousContext = MDC.getCopyOfContextMap();
+            setContext(context);
+            try {
+                return timeStage(stage, supplier);
+            } finally {
+                setContext(previousContext);
+            }
+        }, profilePipelineExecutor);
+    }
+
+    private <T> T timeStage(String stage, Supplier<T> supplier) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return supplier.get();
+        } finally {
+            sample.stop(meterRegistry.timer("profile.stage.timer", "stage", stage));
+        }
+    }
+
+    private static void setContext(Map<String, String> context) {
+        if(context == null)
+            MDC.clear();
+        else
+            MDC.setContextMap(context);
+    }
+
+    private static void await(CompletableFuture<?>... stages) throws ProfileException {
+        try {
+            CompletableFuture.allOf(stages).join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    private IdentityRequest buildIdentityRequest(JsonNode inputJson, SchemaResponse schemaResponse, Password password) {
+        ((ObjectNode) inputJson).set(ID_SCHEMA_VERSION_FIELD_ID, objectMapper.valueToTree(schemaResponse.getIdVersion()));
+        if(password != null) {
             ((ObjectNode) inputJson).set("password", objectMapper.valueToTree(password));
         }
 
@@ -443,64 +622,4 @@ public class IdrepoProfileRegistryPluginImpl implements ProfileRegistryPlugin {
                 .now(ZoneOffset.UTC)
                 .format(DateTimeFormatter.ofPattern(UTC_DATETIME_PATTERN));
     }
-
-    private void validateValue(String keyName, SchemaFieldValidator validator, String value) {
-        log.info("Validate field : {} with value : {} using validator : {}", keyName, value, validator.getValidator());
-        if(value == null || value.trim().isEmpty())
-            throw new InvalidProfileException("invalid_".concat(keyName.toLowerCase()));
-
-        if( validator != null && "regex".equalsIgnoreCase(validator.getType()) && !value.matches(validator.getValidator()) ) {
-            log.error("Regex of {} does not match value of {}", validator.getValidator(), value);
-            throw new InvalidProfileException("invalid_".concat(keyName.toLowerCase()));
-        }
-    }
-
-    private void validateEntryFields(Iterator<Map.Entry<String, JsonNode>> input, JsonNode schemaFields) {
-        while (input.hasNext()) {
-            Map.Entry<String, JsonNode> entry = input.next();
-            log.debug("started to validate field {}", entry.getKey());
-            JsonNode schemaField = schemaFields.get(entry.getKey());
-
-            if (schemaField == null) {
-                log.error("No field found in the schema with this field name : {}", entry.getKey());
-                throw new InvalidProfileException(ErrorConstants.UNKNOWN_FIELD);
-            }
-
-            if(!schemaField.hasNonNull("validators"))
-                continue;
-
-            SchemaFieldValidator[] validators = objectMapper.convertValue(schemaField.get("validators"), SchemaFieldValidator[].class);
-            if(validators == null || validators.length == 0) continue;
-
-            String datatype = schemaField.get("type") == null ? schemaField.get("$ref").textValue() : schemaField.get("type").textValue();
-            switch (datatype) {
-                case "string" :
-                    validateValue(entry.getKey(), validators[0], entry.getValue().textValue());
-                    break;
-                case "#/definitions/simpleType":
-                    SimpleType[] values = objectMapper.convertValue(entry.getValue(), SimpleType[].class);
-                    Optional<SimpleType> mandatoryLangValue = Arrays.stream(values).filter( v -> mandatoryLanguages.contains(v.getLanguage())).findFirst();
-                    if(mandatoryLangValue.isEmpty())
-                        throw new InvalidProfileException(ErrorConstants.INVALID_LANGUAGE);
-
-                    for(SimpleType value : values) {
-                        validateLanguage(value.getLanguage());
-                        Optional<SchemaFieldValidator> result = Arrays.stream(validators)
-                                .filter(v-> value.getLanguage().equals(v.getLangCode())).findFirst();
-                        if(result.isEmpty()) {
-                            result = Arrays.stream(validators).filter(v-> v.getLangCode() == null).findFirst();
-                        }
-                        result.ifPresent(schemaFieldValidator -> validateValue(entry.getKey(), schemaFieldValidator, value.getValue()));
-                    }
-                    break;
-                default:
-                    log.error("Unhandled datatype found : {}", datatype);
-            }
-        }
-    }
-
-    private void validateLanguage(String language) {
-        if(!mandatoryLanguages.contains(language) && (optionalLanguages != null && !optionalLanguages.contains(language)))
-            throw new InvalidProfileException(ErrorConstants.INVALID_LANGUAGE);
-    }
 }
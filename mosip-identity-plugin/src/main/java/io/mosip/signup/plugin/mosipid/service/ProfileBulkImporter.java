@@ -0,0 +1,475 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.api.exception.InvalidProfileException;
+import io.mosip.signup.api.exception.ProfileException;
+import io.mosip.signup.plugin.mosipid.dto.ProfileImportReport;
+import io.mosip.signup.plugin.mosipid.util.ErrorConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+
+/**
+ * Imports existing profiles into id-repo from an NDJSON file, one {"requestId": "...", "identity": {...}} object
+ * per line. The identity of a record is validated against the compiled ID schema while the line is streamed, so an
+ * invalid record fails without its tree being built, and the valid records are added with bounded concurrency. UINs are
+ * prefetched in batches by a background thread for the records read ahead. The checkpoint is the last line up to
+ * which every record is processed, saved every checkpoint interval with the lines already processed after it, so
+ * an interrupted import is resumed with the same checkpoint file without importing a record twice. Failed records
+ * are appended to the error report with the line number and the error code. Without a requestId in the record,
+ * the registration id is derived from the file name and the line number so that a resumed import uses the same
+ * registration id. Import is started with {@link IdrepoProfileRegistryPluginImpl#importProfiles(Path, Path, Path)}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = "mosip.signup.integration.profile-registry-plugin", havingValue = "MOSIPProfileRegistryPluginImpl")
+public class ProfileBulkImporter {
+
+    @Value("${mosip.signup.idrepo.bulk-import.concurrency:16}")
+    private int concurrency;
+
+    @Value("${mosip.signup.idrepo.bulk-import.uin-batch-size:20}")
+    private int uinBatchSize;
+
+    @Value("${mosip.signup.idrepo.bulk-import.uin-prefetch-size:200}")
+    private int uinPrefetchSize;
+
+    @Value("${mosip.signup.idrepo.bulk-import.checkpoint-interval:1000}")
+    private int checkpointInterval;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("idrepoPluginExecutors")
+    private PluginExecutors idrepoPluginExecutors;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    /**
+     * @param source NDJSON file with the profiles to import
+     * @param checkpointFile checkpoint of the import, created if it does not exist
+     * @param errorReportFile NDJSON report of the failed records, appended to if it exists
+     * @param uinFetcher fetches one UIN from the idgenerator
+     * @param identityValidator validates the identity of a record from the json tokens of the line
+     * @param identityImporter adds the validated identity of a record
+     * @return counts and throughput of the import
+     * @throws IOException if the source could not be read or the error report could not be written
+     */
+    ProfileImportReport importProfiles(Path source, Path checkpointFile, Path errorReportFile, Supplier<String> uinFetcher,
+                                       IdentityValidator identityValidator, IdentityImporter identityImporter) throws IOException {
+        long startTime = System.nanoTime();
+        int maxInFlight = concurrency * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ExecutorService workers = idrepoPluginExecutors.newCallExecutor("idrepo-import", concurrency);
+        UinPrefetcher uinPrefetcher = new UinPrefetcher(uinFetcher);
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8);
+             BufferedWriter errorReport = Files.newBufferedWriter(errorReportFile, StandardCharsets.UTF_8,
+                     StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            ImportProgress progress = new ImportProgress(checkpointFile, errorReport, startTime);
+            log.info("Importing profiles from {}, resuming after line {}", source, progress.resumedFrom);
+            uinPrefetcher.start();
+
+            String line;
+            long lineNumber = 0;
+            while((line = reader.readLine()) != null) {
+                lineNumber++;
+                if(progress.isProcessed(lineNumber)) {
+                    progress.skipped++;
+                    continue;
+                }
+                if(line.isBlank()) {
+                    progress.ignored(lineNumber);
+                    continue;
+                }
+
+                inFlight.acquire();
+                uinPrefetcher.recordRead();
+                String record = line;
+                long recordLineNumber = lineNumber;
+                workers.execute(() -> {
+                    try {
+                        importRecord(source, recordLineNumber, record, identityValidator, identityImporter, uinPrefetcher,
+                                progress);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            uinPrefetcher.endOfInput();
+            inFlight.acquire(maxInFlight);
+            progress.saveCheckpoint();
+
+            ProfileImportReport report = progress.getReport();
+            log.info("Imported profiles from {} : {}", source, report);
+            return report;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Profile import interrupted");
+        } finally {
+            uinPrefetcher.stop();
+            workers.shutdownNow();
+        }
+    }
+
+    private void importRecord(Path source, long lineNumber, String line, IdentityValidator identityValidator,
+                              IdentityImporter identityImporter, UinPrefetcher uinPrefetcher, ImportProgress progress) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String requestId = null;
+        String errorCode = null;
+        AtomicBoolean uinTaken = new AtomicBoolean();
+        try {
+            requestId = validateRecord(line, identityValidator);
+            JsonNode record = objectMapper.readTree(line);
+            if(requestId == null)
+                requestId = getRequestId(source, lineNumber, record);
+            identityImporter.importIdentity(requestId, record.get("identity"), () -> {
+                uinTaken.set(true);
+                return uinPrefetcher.take();
+            });
+        } catch (ProfileException e) {
+            errorCode = e.getErrorCode();
+        } catch (IOException e) {
+            errorCode = ErrorConstants.INVALID_INPUT;
+        } catch (RuntimeException e) {
+            log.error("Failed to import the profile at line {}", lineNumber, e);
+            errorCode = REQUEST_FAILED;
+        }
+        if(!uinTaken.get())
+            uinPrefetcher.cancelDemand();
+        if(errorCode != null && requestId == null)
+            requestId = getRequestId(source, lineNumber, line);
+
+        sample.stop(meterRegistry.timer("signup.import.record", "outcome", errorCode == null ? "success" : "failure"));
+        if(errorCode == null)
+            progress.imported(lineNumber);
+        else
+            progress.failed(lineNumber, requestId, errorCode);
+    }
+
+    /**
+     * Streams the record, validating the identity object with the validator and skipping the other fields.
+     * @return requestId of the record when it precedes the identity, null otherwise
+     */
+    private String validateRecord(String line, IdentityValidator identityValidator) throws IOException, ProfileException {
+        String requestId = null;
+        boolean validated = false;
+        try (JsonParser parser = objectMapper.getFactory().createParser(line)) {
+            if(parser.nextToken() != JsonToken.START_OBJECT)
+                throw new InvalidProfileException(ErrorConstants.INVALID_INPUT);
+            while(parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if("identity".equals(fieldName) && token == JsonToken.START_OBJECT) {
+                    identityValidator.validate(parser);
+                    validated = true;
+                } else if("requestId".equals(fieldName) && !validated && token.isScalarValue() && token != JsonToken.VALUE_NULL) {
+                    requestId = parser.getText();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if(parser.currentToken() != JsonToken.END_OBJECT)
+                throw new InvalidProfileException(ErrorConstants.INVALID_INPUT);
+        }
+        if(!validated)
+            throw new InvalidProfileException(ErrorConstants.INVALID_INPUT);
+        return requestId;
+    }
+
+    private String getRequestId(Path source, long lineNumber, JsonNode record) {
+        return record.hasNonNull("requestId") ? record.get("requestId").asText() :
+                UUID.nameUUIDFromBytes((source.getFileName() + ":" + lineNumber).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    /**
+     * RequestId reported for a failed record, read from the line only when it was not read before the failure
+     */
+    private String getRequestId(Path source, long lineNumber, String line) {
+        JsonNode record;
+        try {
+            record = objectMapper.readTree(line);
+        } catch (IOException e) {
+            record = objectMapper.createObjectNode();
+        }
+        return getRequestId(source, lineNumber, record);
+    }
+
+    /**
+     * Validates the identity object of a record, the parser is positioned at its START_OBJECT token and is read up to
+     * its END_OBJECT token. Identity is not added when the validation fails.
+     */
+    @FunctionalInterface
+    interface IdentityValidator {
+        void validate(JsonParser parser) throws ProfileException;
+    }
+
+    /**
+     * Adds the validated identity to id-repo, the UIN is taken from the supplier only for an identity added.
+     */
+    @FunctionalInterface
+    interface IdentityImporter {
+        void importIdentity(String requestId, JsonNode identity, Supplier<String> uinSupplier) throws ProfileException;
+    }
+
+    /**
+     * Fetches UINs in parallel batches for the records read and not yet given a UIN, blocks when the prefetch queue
+     * is full and stops once all the records are read. A record fetches its UIN directly when no prefetched UIN is
+     * available, taking back its demand from the prefetch.
+     */
+    private final class UinPrefetcher implements Runnable {
+        private final Supplier<String> uinFetcher;
+        private final BlockingQueue<String> uins = new LinkedBlockingQueue<>(uinPrefetchSize);
+        private final Semaphore demand = new Semaphore(0);
+        private ExecutorService fetchExecutor;
+        private Thread thread;
+        private volatile boolean running;
+        private volatile boolean endOfInput;
+
+        private UinPrefetcher(Supplier<String> uinFetcher) {
+            this.uinFetcher = uinFetcher;
+        }
+
+        private void start() {
+            running = true;
+            fetchExecutor = idrepoPluginExecutors.newCallExecutor("idrepo-import-uin", uinBatchSize);
+            thread = idrepoPluginExecutors.threadFactory("idrepo-import-uin-prefetch").newThread(this);
+            thread.start();
+        }
+
+        private void stop() {
+            running = false;
+            if(thread != null)
+                thread.interrupt();
+            if(fetchExecutor != null)
+                fetchExecutor.shutdownNow();
+            String uin;
+            while((uin = uins.poll()) != null)
+                log.warn("Prefetched UIN {} was not used", uin);
+        }
+
+        private void recordRead() {
+            demand.release();
+        }
+
+        private void endOfInput() {
+            endOfInput = true;
+        }
+
+        /**
+         * Called for a record which does not need a UIN
+         */
+        private void cancelDemand() {
+            demand.tryAcquire();
+        }
+
+        private String take() {
+            String uin = uins.poll();
+            meterRegistry.counter("signup.import.uin", "result", uin != null ? "prefetched" : "fetched").increment();
+            if(uin != null)
+                return uin;
+
+            cancelDemand();
+            return uinFetcher.get();
+        }
+
+        /**
+         * Waits for the records needing a UIN, returns at most a batch of them or 0 once all the records are read
+         */
+        private int awaitDemand() throws InterruptedException {
+            while(!demand.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                if(endOfInput)
+                    return 0;
+            }
+            int count = 1;
+            while(count < uinBatchSize && demand.tryAcquire())
+                count++;
+            return count;
+        }
+
+        @Override
+        public void run() {
+            try {
+                int batchSize;
+                while(running && (batchSize = awaitDemand()) > 0) {
+                    List<CompletableFuture<String>> batch = new ArrayList<>(batchSize);
+                    for(int i = 0; i < batchSize; i++)
+                        batch.add(CompletableFuture.supplyAsync(uinFetcher, fetchExecutor));
+
+                    int fetched = 0;
+                    for(CompletableFuture<String> uin : batch) {
+                        try {
+                            uins.put(uin.join());
+                            fetched++;
+                        } catch (CompletionException e) {
+                            log.warn("Failed to prefetch UIN", e.getCause());
+                        }
+                    }
+                    //failed UINs are fetched again, backing off while the idgenerator is failing
+                    demand.release(batchSize - fetched);
+                    if(fetched == 0)
+                        TimeUnit.SECONDS.sleep(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                if(running)
+                    log.error("UIN prefetch stopped, UINs are fetched for each record", e);
+            }
+        }
+    }
+
+    private final class ImportProgress {
+        private final Path checkpointFile;
+        private final Writer errorReport;
+        private final long startTime;
+        private final TreeSet<Long> completedAhead = new TreeSet<>();
+        private final long resumedFrom;
+        private final Set<Long> resumedAhead;
+        private long checkpoint;
+        private long sinceCheckpoint;
+        private long imported;
+        private long failed;
+        private long skipped;
+
+        private ImportProgress(Path checkpointFile, Writer errorReport, long startTime) throws IOException {
+            this.checkpointFile = checkpointFile;
+            this.errorReport = errorReport;
+            this.startTime = startTime;
+            readCheckpoint();
+            this.resumedFrom = checkpoint;
+            this.resumedAhead = Set.copyOf(completedAhead);
+        }
+
+        /**
+         * Checkpoint file holds the checkpoint line on the first line and the lines processed after the checkpoint,
+         * comma separated, on the second line.
+         */
+        private void readCheckpoint() throws IOException {
+            if(!Files.exists(checkpointFile))
+                return;
+            List<String> lines = Files.readAllLines(checkpointFile, StandardCharsets.UTF_8);
+            if(!lines.isEmpty() && !lines.get(0).isBlank())
+                checkpoint = Long.parseLong(lines.get(0).trim());
+            if(lines.size() > 1 && !lines.get(1).isBlank()) {
+                for(String lineNumber : lines.get(1).split(","))
+                    completedAhead.add(Long.parseLong(lineNumber.trim()));
+            }
+        }
+
+        private boolean isProcessed(long lineNumber) {
+            return lineNumber <= resumedFrom || resumedAhead.contains(lineNumber);
+        }
+
+        private synchronized void imported(long lineNumber) {
+            imported++;
+            meterRegistry.counter("signup.import.records", "result", "imported").increment();
+            complete(lineNumber);
+        }
+
+        private synchronized void failed(long lineNumber, String requestId, String errorCode) {
+            failed++;
+            meterRegistry.counter("signup.import.records", "result", "failed").increment();
+            try {
+                errorReport.write(objectMapper.writeValueAsString(objectMapper.createObjectNode()
+                        .put("line", lineNumber)
+                        .put("requestId", requestId)
+                        .put("errorCode", errorCode)));
+                errorReport.write(System.lineSeparator());
+            } catch (IOException e) {
+                log.error("Failed to report the failed profile at line {} with error {}", lineNumber, errorCode, e);
+            }
+            complete(lineNumber);
+        }
+
+        private synchronized void ignored(long lineNumber) {
+            complete(lineNumber);
+        }
+
+        private void complete(long lineNumber) {
+            completedAhead.add(lineNumber);
+            while(!completedAhead.isEmpty() && completedAhead.first() == checkpoint + 1)
+                checkpoint = completedAhead.pollFirst();
+            if(++sinceCheckpoint >= checkpointInterval)
+                saveCheckpoint();
+        }
+
+        private synchronized void saveCheckpoint() {
+            sinceCheckpoint = 0;
+            try {
+                //error report is flushed first, so that no failed record before the checkpoint is missing in the report
+                errorReport.flush();
+                Path tempFile = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+                String completed = completedAhead.isEmpty() ? "" : completedAhead.stream().map(String::valueOf)
+                        .collect(Collectors.joining(",", System.lineSeparator(), ""));
+                Files.writeString(tempFile, checkpoint + completed, StandardCharsets.UTF_8);
+                Files.move(tempFile, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.error("Failed to save the import checkpoint at line {}", checkpoint, e);
+                return;
+            }
+            log.info("Imported {} and failed {} profile(s) at {} records/s, checkpoint at line {}", imported, failed,
+                    Math.round(getRecordsPerSecond()), checkpoint);
+        }
+
+        private double getRecordsPerSecond() {
+            long elapsedNanos = Math.max(1, System.nanoTime() - startTime);
+            return (imported + failed) * 1e9 / elapsedNanos;
+        }
+
+        private synchronized ProfileImportReport getReport() {
+            ProfileImportReport report = new ProfileImportReport();
+            report.setImported(imported);
+            report.setFailed(failed);
+            report.setSkipped(skipped);
+            report.setCheckpoint(checkpoint);
+            report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            report.setRecordsPerSecond(getRecordsPerSecond());
+            return report;
+        }
+    }
+}
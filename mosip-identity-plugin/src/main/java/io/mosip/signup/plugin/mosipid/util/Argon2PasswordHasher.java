@@ -0,0 +1,154 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.api.exception.ProfileException;
+import io.mosip.signup.plugin.mosipid.dto.Password;
+import lombok.extern.slf4j.Slf4j;
+import org.bouncycastle.crypto.generators.Argon2BytesGenerator;
+import org.bouncycastle.crypto.params.Argon2Parameters;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+
+/**
+ * Argon2id password hashing in the plugin, used instead of the keymanager generateArgon2Hash endpoint when the
+ * password hash mode is local. The hash and the salt are url-safe base64 encoded without padding as returned
+ * by the keymanager. Hashes are computed on a dedicated pool of the configured size, so that concurrent sign-ups
+ * do not starve the other plugin threads. Hashing is rejected when the pool queue is full and fails when the hash
+ * is not computed within the timeout. Every busy thread holds the Argon2 memory, so the startup fails when the
+ * pool would need more than half of the max heap.
+ */
+@Slf4j
+@Component
+public class Argon2PasswordHasher {
+
+    public static final String LOCAL_MODE = "local";
+
+    private static final int MAX_HEAP_PERCENT = 50;
+
+    @Value("${mosip.signup.idrepo.password-hash.mode:remote}")
+    private String mode;
+
+    @Value("${mosip.signup.idrepo.password-hash.argon2.iterations:3}")
+    private int iterations;
+
+    @Value("${mosip.signup.idrepo.password-hash.argon2.memory-kib:65536}")
+    private int memoryKib;
+
+    @Value("${mosip.signup.idrepo.password-hash.argon2.parallelism:1}")
+    private int parallelism;
+
+    @Value("${mosip.signup.idrepo.password-hash.argon2.hash-length:32}")
+    private int hashLength;
+
+    @Value("${mosip.signup.idrepo.password-hash.argon2.salt-length:16}")
+    private int saltLength;
+
+    @Value("${mosip.signup.idrepo.password-hash.pool-size:4}")
+    private int poolSize;
+
+    @Value("${mosip.signup.idrepo.password-hash.queue-capacity:500}")
+    private int queueCapacity;
+
+    @Value("${mosip.signup.idrepo.password-hash.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    @Autowired
+    @Qualifier("idrepoPluginExecutors")
+    private PluginExecutors idrepoPluginExecutors;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        if(!isEnabled())
+            return;
+
+        long poolMemoryBytes = (long) poolSize * memoryKib * 1024;
+        long maxHeapBytes = Runtime.getRuntime().maxMemory();
+        if(poolMemoryBytes > maxHeapBytes / 100 * MAX_HEAP_PERCENT)
+            throw new IllegalStateException(String.format("Argon2 hashing on %d thread(s) with %d KiB each needs %d MiB, " +
+                    "more than %d%% of the max heap of %d MiB, reduce mosip.signup.idrepo.password-hash.pool-size",
+                    poolSize, memoryKib, poolMemoryBytes >> 20, MAX_HEAP_PERCENT, maxHeapBytes >> 20));
+
+        executor = idrepoPluginExecutors.newComputeExecutor("argon2-hash", poolSize, queueCapacity);
+        log.info("Password hashing with Argon2id in the plugin on {} thread(s), iterations {}, memory {} KiB, parallelism {}",
+                poolSize, iterations, memoryKib, parallelism);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if(executor != null)
+            executor.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return LOCAL_MODE.equalsIgnoreCase(mode);
+    }
+
+    /**
+     * @param password plain text password
+     * @return Argon2id hash of the password with a random salt
+     * @throws ProfileException if the hashing failed, timed out or the hashing pool is saturated
+     */
+    public Password hash(String password) throws ProfileException {
+        byte[] salt = new byte[saltLength];
+        secureRandom.nextBytes(salt);
+        Future<byte[]> hash = null;
+        try {
+            hash = executor.submit(() -> generateHash(password, salt));
+            return new Password(encoder.encodeToString(hash.get(timeoutMillis, TimeUnit.MILLISECONDS)),
+                    encoder.encodeToString(salt));
+        } catch (TimeoutException e) {
+            hash.cancel(true);
+            log.error("Password hashing timed out after {} ms", timeoutMillis);
+        } catch (RejectedExecutionException e) {
+            log.error("Password hashing rejected, hashing pool is saturated");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while hashing the password");
+        } catch (ExecutionException e) {
+            log.error("Failed to generate salted hash", e.getCause());
+        }
+        throw new ProfileException(REQUEST_FAILED);
+    }
+
+    byte[] generateHash(String password, byte[] salt) {
+        Argon2Parameters parameters = new Argon2Parameters.Builder(Argon2Parameters.ARGON2_id)
+                .withVersion(Argon2Parameters.ARGON2_VERSION_13)
+                .withIterations(iterations)
+                .withMemoryAsKB(memoryKib)
+                .withParallelism(parallelism)
+                .withSalt(salt)
+                .build();
+        Argon2BytesGenerator generator = new Argon2BytesGenerator();
+        generator.init(parameters);
+        byte[] hash = new byte[hashLength];
+        generator.generateBytes(password.getBytes(StandardCharsets.UTF_8), hash);
+        return hash;
+    }
+}
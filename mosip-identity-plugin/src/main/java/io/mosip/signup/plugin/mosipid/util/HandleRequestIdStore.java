@@ -0,0 +1,27 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.mosip.signup.api.exception.ProfileException;
+
+import java.util.List;
+
+/**
+ * Store of the handle request ids of a profile create/update request, selected with
+ * mosip.signup.idrepo.handle-request-ids.store. Without a store, handle request ids are cached in the
+ * request_ids cache of the host cache manager.
+ */
+public interface HandleRequestIdStore {
+
+    String STORE_PROPERTY = "mosip.signup.idrepo.handle-request-ids.store";
+
+    void put(String requestId, List<String> handleRequestIds) throws ProfileException;
+
+    /**
+     * @return handle request ids of the request, null if not found or expired
+     */
+    List<String> get(String requestId) throws ProfileException;
+}
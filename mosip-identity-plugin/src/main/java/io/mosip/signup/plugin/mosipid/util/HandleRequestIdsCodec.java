@@ -0,0 +1,133 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Binary encoding of the handle request ids. Handle request ids are hex encoded HMAC digests, hex ids are stored
+ * as the digest bytes, half the size of the text, other ids are stored as UTF-8. Encoded as a format version, the
+ * number of ids and each id as a type, the length and the bytes, numbers are unsigned varints.
+ */
+public final class HandleRequestIdsCodec {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final int UPPER_HEX = 0;
+    private static final int LOWER_HEX = 1;
+    private static final int UTF8 = 2;
+    private static final char[] UPPER_HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final char[] LOWER_HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private HandleRequestIdsCodec() {
+    }
+
+    public static byte[] encode(List<String> handleRequestIds) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 + handleRequestIds.size() * 34);
+        out.write(FORMAT_VERSION);
+        writeVarint(out, handleRequestIds.size());
+        for (String handleRequestId : handleRequestIds) {
+            int type = getType(handleRequestId);
+            byte[] bytes = type == UTF8 ? handleRequestId.getBytes(StandardCharsets.UTF_8) : fromHex(handleRequestId);
+            out.write(type);
+            writeVarint(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        return out.toByteArray();
+    }
+
+    public static List<String> decode(byte[] encoded) {
+        int[] position = {0};
+        if (encoded.length == 0 || encoded[position[0]++] != FORMAT_VERSION)
+            throw new IllegalArgumentException("Unsupported handle request ids format");
+
+        int count = readVarint(encoded, position);
+        List<String> handleRequestIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (position[0] >= encoded.length)
+                throw new IllegalArgumentException("Truncated handle request ids");
+            int type = encoded[position[0]++];
+            int length = readVarint(encoded, position);
+            if (length < 0 || position[0] + length > encoded.length)
+                throw new IllegalArgumentException("Truncated handle request ids");
+
+            switch (type) {
+                case UPPER_HEX:
+                    handleRequestIds.add(toHex(encoded, position[0], length, UPPER_HEX_DIGITS));
+                    break;
+                case LOWER_HEX:
+                    handleRequestIds.add(toHex(encoded, position[0], length, LOWER_HEX_DIGITS));
+                    break;
+                case UTF8:
+                    handleRequestIds.add(new String(encoded, position[0], length, StandardCharsets.UTF_8));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown handle request id type " + type);
+            }
+            position[0] += length;
+        }
+        return Collections.unmodifiableList(handleRequestIds);
+    }
+
+    private static int getType(String value) {
+        if (value.isEmpty() || value.length() % 2 != 0)
+            return UTF8;
+
+        boolean upper = false;
+        boolean lower = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 'A' && c <= 'F')
+                upper = true;
+            else if (c >= 'a' && c <= 'f')
+                lower = true;
+            else if (c < '0' || c > '9')
+                return UTF8;
+        }
+        return upper && lower ? UTF8 : lower ? LOWER_HEX : UPPER_HEX;
+    }
+
+    private static byte[] fromHex(String value) {
+        byte[] bytes = new byte[value.length() / 2];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) (Character.digit(value.charAt(2 * i), 16) << 4 | Character.digit(value.charAt(2 * i + 1), 16));
+        return bytes;
+    }
+
+    private static String toHex(byte[] bytes, int offset, int length, char[] digits) {
+        char[] chars = new char[length * 2];
+        for (int i = 0; i < length; i++) {
+            int b = bytes[offset + i] & 0xFF;
+            chars[2 * i] = digits[b >>> 4];
+            chars[2 * i + 1] = digits[b & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (position[0] >= bytes.length)
+                throw new IllegalArgumentException("Truncated handle request ids");
+            int b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed varint in handle request ids");
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process Caffeine store of the handle request ids, bounded by max-size and expired after the ttl. Handle
+ * request ids are kept in the compact binary encoding. Suitable only when the status of a request is polled on
+ * the node which created the request.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = HandleRequestIdStore.STORE_PROPERTY, havingValue = "local")
+public class LocalHandleRequestIdStore implements HandleRequestIdStore {
+
+    @Value("${mosip.signup.idrepo.handle-request-ids.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${mosip.signup.idrepo.handle-request-ids.max-size:100000}")
+    private long maxSize;
+
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Cache<String, byte[]> handleRequestIds;
+
+    @PostConstruct
+    public void init() {
+        handleRequestIds = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+        log.info("Handle request ids are stored in-process, max size {} and ttl {}s", maxSize, ttlSeconds);
+    }
+
+    @Override
+    public void put(String requestId, List<String> handleRequestIds) {
+        this.handleRequestIds.put(requestId, HandleRequestIdsCodec.encode(handleRequestIds));
+    }
+
+    @Override
+    public List<String> get(String requestId) {
+        byte[] encoded = handleRequestIds.getIfPresent(requestId);
+        return encoded == null ? null : HandleRequestIdsCodec.decode(encoded);
+    }
+}
@@ -22,12 +22,26 @@ public class ProfileCacheService {
     @Autowired
     private CacheManager cacheManager;
 
-    @Cacheable(value = REQUEST_IDS, key = "#requestId")
+    @Autowired(required = false)
+    private HandleRequestIdStore handleRequestIdStore;
+
+    @Cacheable(value = REQUEST_IDS, key = "#requestId", condition = "#root.target.isCacheManagerStore()")
     public List<String> setHandleRequestIds(String requestId, List<String> handleRequestIds) {
+        if(handleRequestIdStore != null)
+            handleRequestIdStore.put(requestId, handleRequestIds);
         return handleRequestIds;
     }
 
     public  List<String> getHandleRequestIds(String requestId) {
+        if(handleRequestIdStore != null)
+            return handleRequestIdStore.get(requestId);
         return cacheManager.getCache(REQUEST_IDS).get(requestId, List.class);//NOSONAR getCache() will not be returning null here.
     }
-}
\ No newline at end of file
+
+    /**
+     * @return true when the handle request ids are cached in the host cache manager, no store is configured
+     */
+    public boolean isCacheManagerStore() {
+        return handleRequestIdStore == null;
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.api.util.ProfileCreateUpdateStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Tracks the create/update status of the profile handle requests. Terminal statuses (COMPLETED, FAILED) are cached
+ * for the terminal ttl so they are not fetched again, PENDING status is cached for the pending ttl to absorb the
+ * repeated polls. Cache is bounded by the cache size, the least used statuses are evicted first. Concurrent polls
+ * for a request id wait for the same fetch. Status of multiple handle requests are fetched in parallel and combined,
+ * FAILED if any handle request failed, COMPLETED if all completed, otherwise PENDING.
+ */
+@Slf4j
+@Component
+public class ProfileStatusTracker {
+
+    @Value("${mosip.signup.idrepo.status-tracker.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${mosip.signup.idrepo.status-tracker.terminal-ttl-seconds:3600}")
+    private long terminalTtlSeconds;
+
+    @Value("${mosip.signup.idrepo.status-tracker.pending-ttl-millis:1000}")
+    private long pendingTtlMillis;
+
+    @Value("${mosip.signup.idrepo.status-tracker.threads:16}")
+    private int threads;
+
+    @Autowired
+    @Qualifier("idrepoPluginExecutors")
+    private PluginExecutors idrepoPluginExecutors;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Cache<String, ProfileCreateUpdateStatus> statuses;
+
+    private final ConcurrentMap<String, CompletableFuture<ProfileCreateUpdateStatus>> inFlight = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        statuses = Caffeine.newBuilder()
+                .maximumSize(Math.max(cacheSize, 0))
+                .expireAfter(new Expiry<String, ProfileCreateUpdateStatus>() {
+                    @Override
+                    public long expireAfterCreate(String requestId, ProfileCreateUpdateStatus status, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(getTtlMillis(status));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String requestId, ProfileCreateUpdateStatus status, long currentTime,
+                                                  long currentDuration) {
+                        return TimeUnit.MILLISECONDS.toNanos(getTtlMillis(status));
+                    }
+
+                    @Override
+                    public long expireAfterRead(String requestId, ProfileCreateUpdateStatus status, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        executor = idrepoPluginExecutors.newCallExecutor("idrepo-status", threads);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if(executor != null)
+            executor.shutdownNow();
+    }
+
+    /**
+     * @param requestIds handle request ids of a profile create/update request
+     * @param fetcher fetches the status of one handle request id from the server
+     * @return combined status of the handle requests
+     */
+    public ProfileCreateUpdateStatus getStatus(List<String> requestIds, Function<String, ProfileCreateUpdateStatus> fetcher) {
+        List<CompletableFuture<ProfileCreateUpdateStatus>> results = new ArrayList<>(requestIds.size());
+        String ownRequestId = null;
+        CompletableFuture<ProfileCreateUpdateStatus> ownFetch = null;
+        for(String requestId : requestIds) {
+            ProfileCreateUpdateStatus cachedStatus = statuses.getIfPresent(requestId);
+            if(cachedStatus != null) {
+                meterRegistry.counter("signup.profile.status", "source", "cache").increment();
+                results.add(CompletableFuture.completedFuture(cachedStatus));
+                continue;
+            }
+
+            CompletableFuture<ProfileCreateUpdateStatus> fetching = new CompletableFuture<>();
+            CompletableFuture<ProfileCreateUpdateStatus> existing = inFlight.putIfAbsent(requestId, fetching);
+            if(existing != null) {
+                meterRegistry.counter("signup.profile.status", "source", "coalesced").increment();
+                results.add(existing);
+                continue;
+            }
+
+            meterRegistry.counter("signup.profile.status", "source", "server").increment();
+            results.add(fetching);
+            //first fetch runs on the calling thread, the others in parallel on the executor
+            if(ownRequestId == null) {
+                ownRequestId = requestId;
+                ownFetch = fetching;
+            } else
+                fetchAsync(requestId, fetching, fetcher);
+        }
+
+        if(ownRequestId != null)
+            fetch(ownRequestId, ownFetch, fetcher);
+        return combine(results);
+    }
+
+    private void fetchAsync(String requestId, CompletableFuture<ProfileCreateUpdateStatus> fetching,
+                            Function<String, ProfileCreateUpdateStatus> fetcher) {
+        if(executor != null) {
+            try {
+                executor.execute(() -> fetch(requestId, fetching, fetcher));
+                return;
+            } catch (RejectedExecutionException e) {
+                log.debug("Status fetch rejected, fetching {} on the calling thread", requestId);
+            }
+        }
+        fetch(requestId, fetching, fetcher);
+    }
+
+    private void fetch(String requestId, CompletableFuture<ProfileCreateUpdateStatus> fetching,
+                       Function<String, ProfileCreateUpdateStatus> fetcher) {
+        try {
+            ProfileCreateUpdateStatus status = fetcher.apply(requestId);
+            cacheStatus(requestId, status);
+            fetching.complete(status);
+        } catch (RuntimeException | Error e) {
+            fetching.completeExceptionally(e);
+        } finally {
+            inFlight.remove(requestId, fetching);
+        }
+    }
+
+    private ProfileCreateUpdateStatus combine(List<CompletableFuture<ProfileCreateUpdateStatus>> results) {
+        ProfileCreateUpdateStatus combinedStatus = ProfileCreateUpdateStatus.COMPLETED;
+        RuntimeException failure = null;
+        for(CompletableFuture<ProfileCreateUpdateStatus> result : results) {
+            try {
+                ProfileCreateUpdateStatus status = result.join();
+                if(status == ProfileCreateUpdateStatus.FAILED)
+                    return status;
+                if(status != ProfileCreateUpdateStatus.COMPLETED && combinedStatus == ProfileCreateUpdateStatus.COMPLETED)
+                    combinedStatus = status;
+            } catch (CompletionException e) {
+                if(failure == null)
+                    failure = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        if(failure != null)
+            throw failure;
+        return combinedStatus;
+    }
+
+    private void cacheStatus(String requestId, ProfileCreateUpdateStatus status) {
+        if(status != null && getTtlMillis(status) > 0 && cacheSize > 0)
+            statuses.put(requestId, status);
+    }
+
+    private long getTtlMillis(ProfileCreateUpdateStatus status) {
+        return isTerminal(status) ? TimeUnit.SECONDS.toMillis(terminalTtlSeconds) : pendingTtlMillis;
+    }
+
+    private static boolean isTerminal(ProfileCreateUpdateStatus status) {
+        return status == ProfileCreateUpdateStatus.COMPLETED || status == ProfileCreateUpdateStatus.FAILED;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.mosip.signup.api.exception.ProfileException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+
+/**
+ * Store of the handle request ids shared by all the signup nodes through a Redis protocol server, using the
+ * redis connection factory of the host. Handle request ids of a request are stored as one value in the compact
+ * binary encoding under the key prefix and expire after the ttl, so that the status poll landing on any node
+ * finds the handle request ids.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(value = HandleRequestIdStore.STORE_PROPERTY, havingValue = "redis")
+public class RedisHandleRequestIdStore implements HandleRequestIdStore {
+
+    @Value("${mosip.signup.idrepo.handle-request-ids.ttl-seconds:86400}")
+    private long ttlSeconds;
+
+    @Value("${mosip.signup.idrepo.handle-request-ids.key-prefix:signup:handle-request-ids:}")
+    private String keyPrefix;
+
+    @Autowired
+    private RedisConnectionFactory redisConnectionFactory;
+
+    @Override
+    public void put(String requestId, List<String> handleRequestIds) throws ProfileException {
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            connection.set(getKey(requestId), HandleRequestIdsCodec.encode(handleRequestIds),
+                    Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.UPSERT);
+        } catch (DataAccessException e) {
+            log.error("Failed to store the handle request ids of {}", requestId, e);
+            throw new ProfileException(REQUEST_FAILED);
+        }
+    }
+
+    @Override
+    public List<String> get(String requestId) throws ProfileException {
+        try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+            byte[] encoded = connection.get(getKey(requestId));
+            return encoded == null ? null : HandleRequestIdsCodec.decode(encoded);
+        } catch (DataAccessException | IllegalArgumentException e) {
+            log.error("Failed to read the handle request ids of {}", requestId, e);
+            throw new ProfileException(REQUEST_FAILED);
+        }
+    }
+
+    private byte[] getKey(String requestId) {
+        return keyPrefix.concat(requestId).getBytes(StandardCharsets.UTF_8);
+    }
+}
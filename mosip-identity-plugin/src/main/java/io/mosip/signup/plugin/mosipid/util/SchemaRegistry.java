@@ -0,0 +1,171 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.signup.plugin.mosipid.dto.SchemaResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleFunction;
+
+/**
+ * Cache of the ID schema by schema version. A version is loaded only once, requests for a version which is
+ * being loaded wait for the same load. Loaded versions are reloaded by a background thread every refresh
+ * interval and swapped in place, a failed reload keeps serving the previously loaded schema. Schema loaded
+ * for a requested version is also cached under the version returned in the schema, so the "latest" lookup
+ * and the lookups with the resolved version share the same load, and a refresh fetches each schema once.
+ */
+@Slf4j
+public class SchemaRegistry {
+
+    private final DoubleFunction<SchemaResponse> loader;
+
+    private final ConcurrentMap<Double, CompletableFuture<SchemaResponse>> schemas = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * @param loader fetches the schema of the version, used on a cache miss and for the background refresh
+     */
+    public SchemaRegistry(DoubleFunction<SchemaResponse> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Starts the background refresh of the loaded versions.
+     * @param executor executor running the warm-up and the refresh, shut down on {@link #destroy()}
+     * @param refreshIntervalSeconds 0 disables the refresh
+     * @param meterRegistry registry of the cache and load metrics
+     */
+    public void start(ScheduledExecutorService executor, long refreshIntervalSeconds, MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        if(refreshIntervalSeconds > 0)
+            executor.scheduleWithFixedDelay(this::refresh, refreshIntervalSeconds, refreshIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    public void destroy() {
+        if(executor != null)
+            executor.shutdownNow();
+    }
+
+    /**
+     * Loads the schema version in the background, on failure the version is loaded on its first use.
+     */
+    public void warmUp(double version) {
+        if(executor == null)
+            return;
+
+        executor.execute(() -> {
+            try {
+                get(version);
+                log.info("Loaded ID schema version {} on startup", version);
+            } catch (RuntimeException e) {
+                log.warn("Failed to load ID schema version {} on startup", version, e);
+            }
+        });
+    }
+
+    /**
+     * @param version schema version
+     * @return cached schema of the version
+     */
+    public SchemaResponse get(double version) {
+        SchemaResponse loaded = getIfLoaded(version);
+        if(loaded != null)
+            return loaded;
+
+        meterRegistry.counter("signup.idschema.cache", "result", "miss").increment();
+        CompletableFuture<SchemaResponse> schema = schemas.get(version);
+        if(schema == null) {
+            CompletableFuture<SchemaResponse> loading = new CompletableFuture<>();
+            schema = schemas.putIfAbsent(version, loading);
+            if(schema == null)
+                return load(version, loading);
+        }
+
+        try {
+            return schema.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * @param version schema version
+     * @return cached schema of the version, or null if the version is not loaded yet
+     */
+    public SchemaResponse getIfLoaded(double version) {
+        CompletableFuture<SchemaResponse> schema = schemas.get(version);
+        if(schema == null || !schema.isDone() || schema.isCompletedExceptionally())
+            return null;
+
+        meterRegistry.counter("signup.idschema.cache", "result", "hit").increment();
+        return schema.join();
+    }
+
+    /**
+     * Reloads the loaded versions, lowest version first so that the "latest" lookup (version 0) is reloaded
+     * before the version it resolves to. The reloaded schema replaces both the requested and the resolved version,
+     * a version already replaced in this run is not fetched again.
+     */
+    void refresh() {
+        List<Double> versions = new ArrayList<>(schemas.keySet());
+        versions.sort(null);
+        Set<Double> refreshed = new HashSet<>();
+        for(Double version : versions) {
+            CompletableFuture<SchemaResponse> current = schemas.get(version);
+            if(refreshed.contains(version) || current == null || !current.isDone())
+                continue;
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                SchemaResponse schemaResponse = loader.apply(version);
+                sample.stop(meterRegistry.timer("signup.idschema.load", "outcome", "success"));
+                CompletableFuture<SchemaResponse> reloaded = CompletableFuture.completedFuture(schemaResponse);
+                schemas.replace(version, current, reloaded);
+                schemas.put(schemaResponse.getIdVersion(), reloaded);
+                refreshed.add(version);
+                refreshed.add(schemaResponse.getIdVersion());
+            } catch (RuntimeException e) {
+                sample.stop(meterRegistry.timer("signup.idschema.load", "outcome", "failure"));
+                log.warn("Failed to refresh ID schema version {}, keeping the loaded schema", version, e);
+            }
+        }
+    }
+
+    private SchemaResponse load(double version, CompletableFuture<SchemaResponse> loading) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            SchemaResponse schemaResponse = loader.apply(version);
+            sample.stop(meterRegistry.timer("signup.idschema.load", "outcome", "success"));
+            loading.complete(schemaResponse);
+            schemas.putIfAbsent(schemaResponse.getIdVersion(), loading);
+            return schemaResponse;
+        } catch (RuntimeException | Error e) {
+            sample.stop(meterRegistry.timer("signup.idschema.load", "outcome", "failure"));
+            schemas.remove(version, loading);
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+}
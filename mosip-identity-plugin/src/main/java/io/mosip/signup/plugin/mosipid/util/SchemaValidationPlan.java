@@ -0,0 +1,372 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.mosip.signup.api.exception.InvalidProfileException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Validation of the identity fields compiled once from the ID schema json. Holds the schema fields by name
+ * with their datatype and the validator regex compiled per language, and the required fields of the identity.
+ * Plan is immutable and shared by all the requests validated with the same schema version.
+ *
+ * Identity not yet parsed can be validated in a single pass over the json tokens, failing on the first violation
+ * in the document order. Values are matched in place in the parser buffer and the values of the fields without
+ * validators are skipped without being read, so an identity read from a stream is validated with bounded memory.
+ */
+@Slf4j
+public final class SchemaValidationPlan {
+
+    private static final String STRING_TYPE = "string";
+    private static final String SIMPLE_TYPE = "#/definitions/simpleType";
+    private static final String LANGUAGE = "language";
+    private static final String VALUE = "value";
+
+    private enum DataType { STRING, SIMPLE_TYPE, UNHANDLED }
+
+    private final List<String> requiredFields;
+    private final Map<String, FieldPlan> fields;
+
+    private SchemaValidationPlan(List<String> requiredFields, Map<String, FieldPlan> fields) {
+        this.requiredFields = requiredFields;
+        this.fields = fields;
+    }
+
+    /**
+     * @param schemaJson parsed ID schema json
+     * @return validation plan of the identity fields in the schema
+     */
+    public static SchemaValidationPlan compile(JsonNode schemaJson) {
+        List<String> requiredFields = new ArrayList<>();
+        for (JsonNode fieldName : schemaJson.at("/properties/identity/required")) {
+            if (!requiredFields.contains(fieldName.textValue()))
+                requiredFields.add(fieldName.textValue());
+        }
+
+        Map<String, FieldPlan> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> itr = schemaJson.at("/properties/identity/properties").fields();
+        while (itr.hasNext()) {
+            Map.Entry<String, JsonNode> entry = itr.next();
+            fields.put(entry.getKey(), compileField(entry.getKey(), entry.getValue(), requiredFields.indexOf(entry.getKey())));
+        }
+        return new SchemaValidationPlan(Collections.unmodifiableList(requiredFields), Collections.unmodifiableMap(fields));
+    }
+
+    /**
+     * Fails with invalid_<field> error for the first required field missing in the identity.
+     */
+    public void validateRequiredFields(JsonNode identity) throws InvalidProfileException {
+        for (String fieldName : requiredFields) {
+            if (identity.get(fieldName) == null) {
+                log.error("Null/Empty value found in the required field of {}, required: {}", fieldName, requiredFields);
+                throw new InvalidProfileException(getErrorCode(fieldName));
+            }
+        }
+    }
+
+    /**
+     * Validates each field of the identity against its schema field.
+     * @param identity identity json
+     * @param mandatoryLanguages one of the values of a multi-lingual field should be in one of these languages
+     * @param optionalLanguages other languages allowed in a multi-lingual field
+     */
+    public void validateFields(JsonNode identity, List<String> mandatoryLanguages, List<String> optionalLanguages)
+            throws InvalidProfileException {
+        Iterator<Map.Entry<String, JsonNode>> itr = identity.fields();
+        while (itr.hasNext()) {
+            Map.Entry<String, JsonNode> entry = itr.next();
+            getFieldPlan(entry.getKey()).validate(entry.getValue(), mandatoryLanguages, optionalLanguages);
+        }
+    }
+
+    /**
+     * Validates the identity object read from the parser in a single pass, without building the json tree. Used
+     * when the identity is not yet parsed, the identity already parsed to a tree is validated faster with
+     * {@link #validateFields(JsonNode, List, List)}. Parser is read up to the end of the identity object.
+     * @param parser parser positioned before or at the start of the identity object
+     * @param checkRequired fail with invalid_<field> error for the first required field missing in the identity
+     * @param mandatoryLanguages one of the values of a multi-lingual field should be in one of these languages
+     * @param optionalLanguages other languages allowed in a multi-lingual field
+     */
+    public void validate(JsonParser parser, boolean checkRequired, List<String> mandatoryLanguages,
+                         List<String> optionalLanguages) throws InvalidProfileException {
+        try {
+            JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+            if (token != JsonToken.START_OBJECT)
+                throw new InvalidProfileException(ErrorConstants.INVALID_INPUT);
+
+            BitSet presentFields = checkRequired ? new BitSet(requiredFields.size()) : null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                FieldPlan fieldPlan = getFieldPlan(parser.getCurrentName());
+                if (presentFields != null && fieldPlan.requiredIndex >= 0)
+                    presentFields.set(fieldPlan.requiredIndex);
+
+                parser.nextToken();
+                fieldPlan.validate(parser, mandatoryLanguages, optionalLanguages);
+            }
+
+            if (presentFields != null && presentFields.cardinality() < requiredFields.size()) {
+                String fieldName = requiredFields.get(presentFields.nextClearBit(0));
+                log.error("Null/Empty value found in the required field of {}, required: {}", fieldName, requiredFields);
+                throw new InvalidProfileException(getErrorCode(fieldName));
+            }
+        } catch (IOException e) {
+            log.error("Failed to read the identity", e);
+            throw new InvalidProfileException(ErrorConstants.INVALID_INPUT);
+        }
+    }
+
+    private FieldPlan getFieldPlan(String fieldName) {
+        FieldPlan fieldPlan = fields.get(fieldName);
+        if (fieldPlan == null) {
+            log.error("No field found in the schema with this field name : {}", fieldName);
+            throw new InvalidProfileException(ErrorConstants.UNKNOWN_FIELD);
+        }
+        return fieldPlan;
+    }
+
+    private static FieldPlan compileField(String name, JsonNode schemaField, int requiredIndex) {
+        JsonNode validators = schemaField.get("validators");
+        if (validators == null || validators.isNull() || validators.size() == 0)
+            return new FieldPlan(name, requiredIndex, null, null, null, Collections.emptyMap());
+
+        JsonNode datatypeNode = schemaField.get("type") == null ? schemaField.get("$ref") : schemaField.get("type");
+        String datatype = datatypeNode == null ? null : datatypeNode.textValue();
+        DataType dataType = STRING_TYPE.equals(datatype) ? DataType.STRING :
+                SIMPLE_TYPE.equals(datatype) ? DataType.SIMPLE_TYPE : DataType.UNHANDLED;
+        if (dataType == DataType.UNHANDLED)
+            log.error("Unhandled datatype found : {} for the field {}", datatype, name);
+
+        FieldValidator firstValidator = null;
+        FieldValidator defaultValidator = null;
+        Map<String, FieldValidator> languageValidators = new HashMap<>();
+        for (JsonNode validator : validators) {
+            FieldValidator fieldValidator = compileValidator(name, validator);
+            String langCode = validator.hasNonNull("langCode") ? validator.get("langCode").asText() : null;
+            if (firstValidator == null)
+                firstValidator = fieldValidator;
+            if (langCode == null && defaultValidator == null)
+                defaultValidator = fieldValidator;
+            if (langCode != null)
+                languageValidators.putIfAbsent(langCode, fieldValidator);
+        }
+        return new FieldPlan(name, requiredIndex, dataType, firstValidator, defaultValidator, languageValidators);
+    }
+
+    private static FieldValidator compileValidator(String name, JsonNode validator) {
+        String type = validator.hasNonNull("type") ? validator.get("type").asText() : null;
+        String regex = validator.hasNonNull("validator") ? validator.get("validator").asText() : null;
+        if (!"regex".equalsIgnoreCase(type) || regex == null)
+            return new FieldValidator(regex, null, false);
+
+        try {
+            return new FieldValidator(regex, Pattern.compile(regex), false);
+        } catch (PatternSyntaxException e) {
+            log.error("Invalid regex {} in the schema field {}, all the values will be rejected", regex, name, e);
+            return new FieldValidator(regex, null, true);
+        }
+    }
+
+    /**
+     * Text of the current scalar token, read in place from the parser buffer when the parser has one. Returned
+     * text is valid only until the parser is advanced.
+     */
+    private static CharSequence getText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null || token == JsonToken.VALUE_NULL || !token.isScalarValue())
+            return null;
+        return parser.hasTextCharacters() ?
+                CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()) :
+                parser.getText();
+    }
+
+    private static String getText(JsonNode node, String fieldName) {
+        JsonNode value = node.get(fieldName);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static boolean isBlank(CharSequence value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ')
+                return false;
+        }
+        return true;
+    }
+
+    private static String getErrorCode(String fieldName) {
+        return "invalid_".concat(fieldName.toLowerCase(Locale.ROOT));
+    }
+
+    private static final class FieldPlan {
+        private final String name;
+        private final int requiredIndex;
+        private final String errorCode;
+        private final DataType dataType;
+        private final FieldValidator firstValidator;
+        private final FieldValidator defaultValidator;
+        private final Map<String, FieldValidator> languageValidators;
+
+        private FieldPlan(String name, int requiredIndex, DataType dataType, FieldValidator firstValidator,
+                          FieldValidator defaultValidator, Map<String, FieldValidator> languageValidators) {
+            this.name = name;
+            this.requiredIndex = requiredIndex;
+            this.errorCode = getErrorCode(name);
+            this.dataType = dataType;
+            this.firstValidator = firstValidator;
+            this.defaultValidator = defaultValidator;
+            this.languageValidators = languageValidators;
+        }
+
+        private void validate(JsonNode value, List<String> mandatoryLanguages, List<String> optionalLanguages) {
+            if (dataType == null || dataType == DataType.UNHANDLED)
+                return;
+
+            if (dataType == DataType.STRING) {
+                validateValue(firstValidator, value.textValue());
+                return;
+            }
+
+            if (!value.isArray())
+                throw new InvalidProfileException(errorCode);
+            if (!hasMandatoryLanguage(value, mandatoryLanguages))
+                throw new InvalidProfileException(ErrorConstants.INVALID_LANGUAGE);
+
+            for (JsonNode languageValue : value) {
+                String language = getText(languageValue, LANGUAGE);
+                validateLanguage(language, mandatoryLanguages, optionalLanguages);
+                validateValue(getValidator(language), getText(languageValue, VALUE));
+            }
+        }
+
+        /**
+         * Validates the value at the current token and leaves the parser at the last token of the value.
+         */
+        private void validate(JsonParser parser, List<String> mandatoryLanguages, List<String> optionalLanguages)
+                throws IOException {
+            if (dataType == null || dataType == DataType.UNHANDLED) {
+                parser.skipChildren();
+                return;
+            }
+
+            if (dataType == DataType.STRING) {
+                validateValue(firstValidator, parser.currentToken() == JsonToken.VALUE_STRING ? getText(parser) : null);
+                return;
+            }
+
+            if (parser.currentToken() != JsonToken.START_ARRAY)
+                throw new InvalidProfileException(errorCode);
+
+            boolean hasMandatoryLanguage = false;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() != JsonToken.START_OBJECT)
+                    throw new InvalidProfileException(errorCode);
+                hasMandatoryLanguage |= validateLanguageValue(parser, mandatoryLanguages, optionalLanguages);
+            }
+            if (!hasMandatoryLanguage)
+                throw new InvalidProfileException(ErrorConstants.INVALID_LANGUAGE);
+        }
+
+        /**
+         * Validates a {"language", "value"} object of a multi-lingual field. Value is checked in place when the
+         * language is read first, otherwise the value is copied and checked once the language is known.
+         * @return true if the value is in one of the mandatory languages
+         */
+        private boolean validateLanguageValue(JsonParser parser, List<String> mandatoryLanguages,
+                                              List<String> optionalLanguages) throws IOException {
+            String language = null;
+            boolean languageFound = false;
+            boolean valueFound = false;
+            boolean valuePending = false;
+            String pendingValue = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if (LANGUAGE.equals(fieldName) && !languageFound) {
+                    CharSequence text = getText(parser);
+                    language = text == null ? null : text.toString();
+                    languageFound = true;
+                    validateLanguage(language, mandatoryLanguages, optionalLanguages);
+                } else if (VALUE.equals(fieldName) && !valueFound) {
+                    valueFound = true;
+                    if (languageFound) {
+                        validateValue(getValidator(language), getText(parser));
+                    } else {
+                        CharSequence text = getText(parser);
+                        pendingValue = text == null ? null : text.toString();
+                        valuePending = true;
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (!languageFound)
+                validateLanguage(null, mandatoryLanguages, optionalLanguages);
+            if (!valueFound || valuePending)
+                validateValue(getValidator(language), pendingValue);
+            return mandatoryLanguages.contains(language);
+        }
+
+        private FieldValidator getValidator(String language) {
+            return language == null ? defaultValidator : languageValidators.getOrDefault(language, defaultValidator);
+        }
+
+        private void validateValue(FieldValidator validator, CharSequence value) {
+            if (validator == null)
+                return;
+            if (log.isDebugEnabled())
+                log.debug("Validate field : {} with value : {} using validator : {}", name, value, validator.regex);
+            if (value == null || isBlank(value))
+                throw new InvalidProfileException(errorCode);
+
+            if (validator.invalid || (validator.pattern != null && !validator.pattern.matcher(value).matches())) {
+                log.error("Regex of {} does not match value of {}", validator.regex, value);
+                throw new InvalidProfileException(errorCode);
+            }
+        }
+
+        private static boolean hasMandatoryLanguage(JsonNode value, List<String> mandatoryLanguages) {
+            for (JsonNode languageValue : value) {
+                if (mandatoryLanguages.contains(getText(languageValue, LANGUAGE)))
+                    return true;
+            }
+            return false;
+        }
+
+        private static void validateLanguage(String language, List<String> mandatoryLanguages, List<String> optionalLanguages) {
+            if (!mandatoryLanguages.contains(language) && (optionalLanguages != null && !optionalLanguages.contains(language)))
+                throw new InvalidProfileException(ErrorConstants.INVALID_LANGUAGE);
+        }
+    }
+
+    private static final class FieldValidator {
+        private final String regex;
+        private final Pattern pattern;
+        private final boolean invalid;
+
+        private FieldValidator(String regex, Pattern pattern, boolean invalid) {
+            this.regex = regex;
+            this.pattern = pattern;
+            this.invalid = invalid;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bounded queue of UINs fetched ahead from the idgenerator, so that the profile creation takes a reserved UIN
+ * instead of calling the idgenerator. A background worker fetches batches of UINs whenever the queue drops
+ * below the low-water mark. The UIN is fetched synchronously when the queue is empty or the reservoir is disabled.
+ *
+ * Reserved UINs are kept until used unless a ttl is set. The idgenerator has no endpoint to return an issued UIN,
+ * so the UINs expired in the reservoir, and the UINs left in it on shutdown, are logged at WARN for reconciliation.
+ */
+@Slf4j
+@Component
+public class UinReservoir {
+
+    @Value("${mosip.signup.idrepo.uin-reservoir.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.signup.idrepo.uin-reservoir.capacity:200}")
+    private int capacity;
+
+    @Value("${mosip.signup.idrepo.uin-reservoir.low-water-mark:50}")
+    private int lowWaterMark;
+
+    @Value("${mosip.signup.idrepo.uin-reservoir.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mosip.signup.idrepo.uin-reservoir.ttl-seconds:0}")
+    private long ttlSeconds;
+
+    @Value("${mosip.signup.idrepo.uin-reservoir.check-interval-seconds:10}")
+    private long checkIntervalSeconds;
+
+    @Autowired
+    @Qualifier("idrepoPluginExecutors")
+    private PluginExecutors idrepoPluginExecutors;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Clock clock = Clock.systemUTC();
+
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    private volatile BlockingQueue<ReservedUin> reservedUins;
+
+    private ScheduledExecutorService executor;
+
+    private volatile Supplier<String> uinSupplier;
+
+    /**
+     * Starts the background worker filling the reservoir with the UINs from the supplier.
+     * @param uinSupplier fetches one UIN from the idgenerator
+     */
+    public synchronized void start(Supplier<String> uinSupplier) {
+        this.uinSupplier = uinSupplier;
+        if(!enabled || executor != null)
+            return;
+
+        executor = idrepoPluginExecutors.newSingleThreadScheduledExecutor("uin-reservoir");
+        BlockingQueue<ReservedUin> queue = new LinkedBlockingQueue<>(capacity);
+        Gauge.builder("signup.uin.reservoir.size", queue, BlockingQueue::size).register(meterRegistry);
+        reservedUins = queue;
+        executor.scheduleWithFixedDelay(this::refill, 0, checkIntervalSeconds, TimeUnit.SECONDS);
+        log.info("Started UIN reservoir with capacity {}, low-water mark {} and batch size {}", capacity,
+                lowWaterMark, batchSize);
+    }
+
+    @PreDestroy
+    public synchronized void destroy() {
+        if(executor == null)
+            return;
+
+        executor.shutdownNow();
+        try {
+            if(!executor.awaitTermination(5, TimeUnit.SECONDS))
+                log.warn("UIN reservoir refill did not stop on shutdown");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        ReservedUin reservedUin;
+        while((reservedUin = reservedUins.poll()) != null)
+            discard(reservedUin, "unused");
+    }
+
+    /**
+     * @param uinSupplier fetches one UIN from the idgenerator, used when no reserved UIN is available
+     * @return reserved UIN, or a UIN fetched from the supplier
+     */
+    public String take(Supplier<String> uinSupplier) {
+        if(reservedUins != null) {
+            ReservedUin reservedUin;
+            while((reservedUin = reservedUins.poll()) != null) {
+                if(!isExpired(reservedUin)) {
+                    meterRegistry.counter("signup.uin.reservoir", "result", "hit").increment();
+                    triggerRefill();
+                    return reservedUin.uin;
+                }
+                discard(reservedUin, "expired");
+            }
+            meterRegistry.counter("signup.uin.reservoir", "result", "miss").increment();
+            triggerRefill();
+        }
+        return uinSupplier.get();
+    }
+
+    void refill() {
+        if(!refilling.compareAndSet(false, true))
+            return;
+
+        try {
+            for(ReservedUin reservedUin : reservedUins) {
+                if(isExpired(reservedUin) && reservedUins.remove(reservedUin))
+                    discard(reservedUin, "expired");
+            }
+            if(reservedUins.size() >= lowWaterMark)
+                return;
+
+            int count = 0;
+            while(count < batchSize && reservedUins.remainingCapacity() > 0) {
+                ReservedUin reservedUin = new ReservedUin(uinSupplier.get(), clock.millis());
+                if(!reservedUins.offer(reservedUin))
+                    break;
+                count++;
+            }
+            log.debug("Reserved {} UIN(s), {} UIN(s) available", count, reservedUins.size());
+        } catch (RuntimeException e) {
+            log.warn("Failed to reserve UINs, {} UIN(s) available", reservedUins.size(), e);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private void triggerRefill() {
+        if(reservedUins.size() >= lowWaterMark || refilling.get())
+            return;
+
+        try {
+            executor.execute(this::refill);
+        } catch (RejectedExecutionException e) {
+            log.debug("UIN reservoir is stopped");
+        }
+    }
+
+    private boolean isExpired(ReservedUin reservedUin) {
+        return ttlSeconds > 0 && clock.millis() - reservedUin.reservedAt > TimeUnit.SECONDS.toMillis(ttlSeconds);
+    }
+
+    private void discard(ReservedUin reservedUin, String reason) {
+        meterRegistry.counter("signup.uin.reservoir", "result", reason).increment();
+        log.warn("Discarded {} reserved UIN {}", reason, reservedUin.uin);
+    }
+
+    private static final class ReservedUin {
+        private final String uin;
+        private final long reservedAt;
+
+        private ReservedUin(String uin, long reservedAt) {
+            this.uin = uin;
+            this.reservedAt = reservedAt;
+        }
+    }
+}
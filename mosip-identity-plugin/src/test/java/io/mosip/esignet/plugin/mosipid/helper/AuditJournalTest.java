@@ -0,0 +1,68 @@
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class AuditJournalTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void read_withAppendedRecords_thenReturnInOrder() throws Exception {
+        AuditJournal auditJournal = new AuditJournal(temporaryFolder.getRoot().toPath(), 1024, 2);
+        Assert.assertTrue(auditJournal.isEmpty());
+        Assert.assertTrue(auditJournal.append("event-1".getBytes()));
+        Assert.assertTrue(auditJournal.append("event-2".getBytes()));
+
+        List<AuditJournal.Entry> entries = auditJournal.read(10);
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals("event-1", new String(entries.get(0).getData()));
+        Assert.assertEquals("event-2", new String(entries.get(1).getData()));
+        Assert.assertEquals(1, auditJournal.read(1).size());
+        Assert.assertFalse(auditJournal.isEmpty());
+    }
+
+    @Test
+    public void read_afterReopen_thenResumeFromCheckpoint() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        AuditJournal auditJournal = new AuditJournal(directory, 1024, 2);
+        auditJournal.append("event-1".getBytes());
+        auditJournal.append("event-2".getBytes());
+        auditJournal.acknowledge(auditJournal.read(1).get(0));
+        auditJournal.close();
+
+        auditJournal = new AuditJournal(directory, 1024, 2);
+        auditJournal.append("event-3".getBytes());
+        List<AuditJournal.Entry> entries = auditJournal.read(10);
+        Assert.assertEquals(2, entries.size());
+        Assert.assertEquals("event-2", new String(entries.get(0).getData()));
+        Assert.assertEquals("event-3", new String(entries.get(1).getData()));
+
+        auditJournal.acknowledge(entries.get(1));
+        Assert.assertTrue(auditJournal.isEmpty());
+        Assert.assertTrue(auditJournal.read(10).isEmpty());
+    }
+
+    @Test
+    public void append_withFullSegments_thenRollAndReject() throws Exception {
+        Path directory = temporaryFolder.getRoot().toPath();
+        AuditJournal auditJournal = new AuditJournal(directory, 32, 2);
+        for (int i = 0; i < 4; i++)
+            Assert.assertTrue(auditJournal.append(("event-" + i + "-00").getBytes()));
+        Assert.assertFalse(auditJournal.append("event-4-00".getBytes()));
+        Assert.assertFalse(auditJournal.append(new byte[64]));
+
+        List<AuditJournal.Entry> entries = auditJournal.read(10);
+        Assert.assertEquals(4, entries.size());
+        auditJournal.acknowledge(entries.get(2));
+        Assert.assertEquals(2, Files.list(directory).count());
+        Assert.assertTrue(auditJournal.append("event-4-00".getBytes()));
+    }
+}
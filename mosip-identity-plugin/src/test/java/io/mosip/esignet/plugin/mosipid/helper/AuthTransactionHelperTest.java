@@ -13,7 +13,16 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -43,4 +52,88 @@ public class AuthTransactionHelperTest {
         String authToken = authTransactionHelper.getAuthToken();
         Assert.assertEquals(expectedAuthToken, authToken);
     }
+
+    @Test
+    public void getAuthToken_withHeldToken_thenNoFetch() throws Exception {
+        ReflectionTestUtils.setField(authTransactionHelper, "authTokenUrl", "test");
+        ReflectionTestUtils.setField(authTransactionHelper, "defaultTtlSeconds", 60L);
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.ok()
+                .header("authorization", "testAuthToken")
+                .build();
+        when(restTemplate.exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(responseEntity);
+
+        Assert.assertEquals("testAuthToken", authTransactionHelper.getAuthToken());
+        Assert.assertEquals("testAuthToken", authTransactionHelper.getAuthToken());
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class));
+
+        authTransactionHelper.purgeAuthTokenCache();
+        Assert.assertEquals("testAuthToken", authTransactionHelper.getAuthToken());
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void getAuthToken_withConcurrentCallers_thenSingleFetch() throws Exception {
+        ReflectionTestUtils.setField(authTransactionHelper, "authTokenUrl", "test");
+        ReflectionTestUtils.setField(authTransactionHelper, "defaultTtlSeconds", 60L);
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.ok()
+                .header("authorization", "testAuthToken")
+                .build();
+        when(restTemplate.exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return responseEntity;
+                });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++)
+            results.add(executorService.submit(() -> authTransactionHelper.getAuthToken()));
+        for (Future<String> result : results)
+            Assert.assertEquals("testAuthToken", result.get());
+        executorService.shutdown();
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void getAuthToken_withTransientFailure_thenRetry() throws Exception {
+        ReflectionTestUtils.setField(authTransactionHelper, "authTokenUrl", "test");
+        ReflectionTestUtils.setField(authTransactionHelper, "defaultTtlSeconds", 60L);
+        ReflectionTestUtils.setField(authTransactionHelper, "maxAttempts", 2);
+        ReflectionTestUtils.setField(authTransactionHelper, "retryBackoffMs", 1L);
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.ok()
+                .header("authorization", "testAuthToken")
+                .build();
+        when(restTemplate.exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class)))
+                .thenThrow(new RestClientException("connection refused"))
+                .thenReturn(responseEntity);
+
+        Assert.assertEquals("testAuthToken", authTransactionHelper.getAuthToken());
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class));
+    }
+
+    @Test
+    public void refreshIfRequired_withTokenAboutToExpire_thenFetchNewToken() throws Exception {
+        ReflectionTestUtils.setField(authTransactionHelper, "authTokenUrl", "test");
+        ReflectionTestUtils.setField(authTransactionHelper, "refreshAheadSeconds", 120L);
+        long exp = System.currentTimeMillis() / 1000 + 60;
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString(("{\"exp\":" + exp + "}").getBytes());
+        String jwt = "header." + payload + ".signature";
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.ok()
+                .header("authorization", jwt)
+                .build();
+        when(restTemplate.exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class)))
+                .thenReturn(responseEntity);
+        when(objectMapper.readTree(Mockito.anyString())).thenReturn(new ObjectMapper().readTree("{\"exp\":" + exp + "}"));
+
+        authTransactionHelper.refreshIfRequired();
+        Mockito.verify(restTemplate, Mockito.never()).exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class));
+
+        Assert.assertEquals(jwt, authTransactionHelper.getAuthToken());
+        Assert.assertEquals(jwt, authTransactionHelper.getAuthToken());
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class));
+
+        authTransactionHelper.refreshIfRequired();
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(Mockito.any(RequestEntity.class), Mockito.any(ParameterizedTypeReference.class));
+    }
 }
@@ -0,0 +1,184 @@
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.plugin.mosipid.dto.IdaKycAuthResponse;
+import io.mosip.esignet.plugin.mosipid.dto.IdaResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the async client against a local stub IDA server. The throughput comparison with the blocking
+ * RestTemplate is skipped unless started with -Dida.stub.benchmark=true
+ */
+@Slf4j
+public class IdaAsyncClientTest {
+
+    private static final String KYC_AUTH_RESPONSE = "{\"response\":{\"kycStatus\":true,\"kycToken\":\"kycToken1234\",\"authToken\":\"authToken1234\"}}";
+    private static final ParameterizedTypeReference<IdaResponseWrapper<IdaKycAuthResponse>> KYC_AUTH_RESPONSE_TYPE =
+            new ParameterizedTypeReference<IdaResponseWrapper<IdaKycAuthResponse>>() {};
+
+    private final IdaAsyncClient idaAsyncClient = new IdaAsyncClient();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer stubServer;
+
+    private ExecutorService stubExecutor;
+
+    private volatile long stubDelayMs;
+
+    @Before
+    public void setUp() throws IOException {
+        stubExecutor = Executors.newCachedThreadPool();
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 1000);
+        stubServer.setExecutor(stubExecutor);
+        stubServer.createContext("/kyc-auth", exchange -> respond(exchange, 200, KYC_AUTH_RESPONSE));
+        stubServer.createContext("/unavailable", exchange -> respond(exchange, 503, "unavailable"));
+        stubServer.createContext("/non-standard", exchange -> respond(exchange, 599, "non-standard"));
+        stubServer.start();
+
+        ReflectionTestUtils.setField(idaAsyncClient, "enabled", true);
+        ReflectionTestUtils.setField(idaAsyncClient, "connectTimeoutMs", 2000L);
+        ReflectionTestUtils.setField(idaAsyncClient, "requestTimeoutMs", 10000L);
+        ReflectionTestUtils.setField(idaAsyncClient, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(idaAsyncClient, "pluginExecutors", new PluginExecutors());
+        ReflectionTestUtils.setField(idaAsyncClient, "meterRegistry", meterRegistry);
+        idaAsyncClient.init();
+    }
+
+    @After
+    public void tearDown() {
+        idaAsyncClient.destroy();
+        stubServer.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    public void exchange_withSuccessResponse_thenReturnParsedBody() throws Exception {
+        ResponseEntity<IdaResponseWrapper<IdaKycAuthResponse>> responseEntity = idaAsyncClient
+                .exchange("kyc-auth", getRequest("/kyc-auth"), KYC_AUTH_RESPONSE_TYPE).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
+        Assert.assertTrue(responseEntity.getBody().getResponse().isKycStatus());
+        Assert.assertEquals("kycToken1234", responseEntity.getBody().getResponse().getKycToken());
+        Assert.assertEquals(1, meterRegistry.get("ida.async.client.requests").tag("operation", "kyc-auth")
+                .tag("status", "200").timer().count());
+    }
+
+    @Test
+    public void exchange_withErrorResponse_thenReturnStatusWithoutBody() throws Exception {
+        ResponseEntity<IdaResponseWrapper<IdaKycAuthResponse>> responseEntity = idaAsyncClient
+                .exchange("kyc-auth", getRequest("/unavailable"), KYC_AUTH_RESPONSE_TYPE).get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        Assert.assertNull(responseEntity.getBody());
+    }
+
+    @Test
+    public void exchange_withNonStandardStatus_thenFailWithUnknownStatus() throws Exception {
+        try {
+            idaAsyncClient.exchange("kyc-auth", getRequest("/non-standard"), KYC_AUTH_RESPONSE_TYPE).get(5, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof UnknownHttpStatusCodeException);
+            Assert.assertEquals(599, ((UnknownHttpStatusCodeException) e.getCause()).getRawStatusCode());
+        }
+    }
+
+    @Test
+    public void exchange_withLicenseKeyInPath_thenTagWithOperationOnly() throws Exception {
+        String licenseKey = "mispLicenseKey1234";
+        idaAsyncClient.exchange("kyc-auth", getRequest("/kyc-auth/delegated/" + licenseKey + "/partner-1/client-1"),
+                KYC_AUTH_RESPONSE_TYPE).get(5, TimeUnit.SECONDS);
+
+        Timer timer = meterRegistry.get("ida.async.client.requests").timer();
+        Assert.assertEquals(1, timer.count());
+        Assert.assertEquals("kyc-auth", timer.getId().getTag("operation"));
+        for(Tag tag : timer.getId().getTags())
+            Assert.assertFalse(tag.getValue().contains(licenseKey));
+    }
+
+    @Test
+    public void compareThroughput_withBlockingRestTemplate() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("ida.stub.benchmark"));
+        stubDelayMs = 50;
+        int requests = 2000;
+        int blockingThreads = 64;
+
+        RestTemplate restTemplate = new RestTemplate();
+        ExecutorService blockingExecutor = Executors.newFixedThreadPool(blockingThreads);
+        long start = System.nanoTime();
+        List<Future<?>> blockingResults = new ArrayList<>();
+        for(int i = 0; i < requests; i++)
+            blockingResults.add(blockingExecutor.submit(() -> restTemplate.exchange(getRequest("/kyc-auth"), KYC_AUTH_RESPONSE_TYPE)));
+        for(Future<?> result : blockingResults)
+            result.get();
+        long blockingNanos = System.nanoTime() - start;
+        blockingExecutor.shutdownNow();
+
+        start = System.nanoTime();
+        List<CompletableFuture<?>> asyncResults = new ArrayList<>();
+        for(int i = 0; i < requests; i++)
+            asyncResults.add(idaAsyncClient.exchange("kyc-auth", getRequest("/kyc-auth"), KYC_AUTH_RESPONSE_TYPE));
+        CompletableFuture.allOf(asyncResults.toArray(new CompletableFuture[0])).get(2, TimeUnit.MINUTES);
+        long asyncNanos = System.nanoTime() - start;
+
+        log.info("{} kyc-auth requests with {}ms stub delay, blocking ({} threads) : {} req/s, async ({} threads) : {} req/s",
+                requests, stubDelayMs, blockingThreads, requests * 1e9 / blockingNanos,
+                Runtime.getRuntime().availableProcessors(), requests * 1e9 / asyncNanos);
+    }
+
+    private RequestEntity<String> getRequest(String path) {
+        return RequestEntity.post(URI.create("http://localhost:" + stubServer.getAddress().getPort() + path))
+                .contentType(MediaType.APPLICATION_JSON)
+                .header("signature", "header..signature")
+                .body("{\"id\":\"mosip.identity.kycauth\"}");
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            if(stubDelayMs > 0)
+                Thread.sleep(stubDelayMs);
+            byte[] response = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.plugin.mosipid.service.TestUtil;
+import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.security.cert.Certificate;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdaCertificateHolderTest {
+
+    @InjectMocks
+    private IdaCertificateHolder idaCertificateHolder;
+
+    @Mock
+    private KeymanagerUtil keymanagerUtil;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(idaCertificateHolder, "idaPartnerCertificateUrl", "https://test/test");
+        ReflectionTestUtils.setField(idaCertificateHolder, "refreshIntervalSeconds", 3600L);
+        ReflectionTestUtils.setField(idaCertificateHolder, "refreshAheadSeconds", 60L);
+        Mockito.when(restTemplate.getForObject("https://test/test", String.class)).thenReturn("test-certificate");
+    }
+
+    @Test
+    public void get_withHeldValidCertificate_thenNoDownload() throws Exception {
+        Certificate certificate = TestUtil.getCertificate();
+        Mockito.when(keymanagerUtil.convertToCertificate(Mockito.any(String.class))).thenReturn(certificate);
+        idaCertificateHolder.refreshIfRequired();
+
+        IdaCertificateHolder.PartnerCertificate partnerCertificate = idaCertificateHolder.get();
+        Assert.assertEquals(certificate, partnerCertificate.getCertificate());
+        Assert.assertEquals(32, partnerCertificate.getThumbprint().length);
+        Assert.assertNotNull(partnerCertificate.getEncodedThumbprint());
+        Assert.assertSame(partnerCertificate, idaCertificateHolder.get());
+        Mockito.verify(restTemplate, Mockito.times(1)).getForObject("https://test/test", String.class);
+    }
+
+    @Test
+    public void refreshIfRequired_withRecentRefresh_thenSkipDownload() throws Exception {
+        Mockito.when(keymanagerUtil.convertToCertificate(Mockito.any(String.class))).thenReturn(TestUtil.getCertificate());
+        idaCertificateHolder.refreshIfRequired();
+        idaCertificateHolder.refreshIfRequired();
+        Mockito.verify(restTemplate, Mockito.times(1)).getForObject("https://test/test", String.class);
+    }
+
+    @Test
+    public void refresh_withExpiredCertificate_thenKeepHeldCertificate() throws Exception {
+        Certificate certificate = TestUtil.getCertificate();
+        Mockito.when(keymanagerUtil.convertToCertificate(Mockito.any(String.class)))
+                .thenReturn(certificate, TestUtil.getExpiredCertificate());
+        Assert.assertTrue(idaCertificateHolder.refresh());
+        Assert.assertFalse(idaCertificateHolder.refresh());
+        Assert.assertEquals(certificate, idaCertificateHolder.get().getCertificate());
+    }
+
+    @Test
+    public void get_withOnlyExpiredCertificates_thenFail() throws Exception {
+        Mockito.when(keymanagerUtil.convertToCertificate(Mockito.any(String.class))).thenReturn(TestUtil.getExpiredCertificate());
+        Assert.assertThrows(KycAuthException.class, () -> idaCertificateHolder.get());
+        Mockito.verify(restTemplate, Mockito.times(2)).getForObject("https://test/test", String.class);
+    }
+}
@@ -0,0 +1,108 @@
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.kernel.keymanagerservice.dto.CertificateEntry;
+import io.mosip.kernel.keymanagerservice.dto.SignatureCertificate;
+import io.mosip.kernel.keymanagerservice.service.KeymanagerService;
+import org.bouncycastle.x509.X509V3CertificateGenerator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.security.auth.x500.X500Principal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Date;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdaRequestSignerTest {
+
+    @InjectMocks
+    private IdaRequestSigner idaRequestSigner;
+
+    @Mock
+    private KeymanagerService keymanagerService;
+
+    @Test
+    public void sign_withValidKey_thenReturnDetachedJws() throws Exception {
+        ReflectionTestUtils.setField(idaRequestSigner, "keyRefreshIntervalSeconds", 300L);
+        KeyPair keyPair = generateKeyPair();
+        X509Certificate certificate = getCertificate(keyPair);
+        Mockito.when(keymanagerService.getSignatureCertificate(Mockito.eq("OIDC_PARTNER"), Mockito.any(), Mockito.anyString()))
+                .thenReturn(getSignatureCertificate(keyPair.getPrivate(), certificate));
+
+        String jws = idaRequestSigner.sign("{\"id\":\"test\"}");
+        String[] parts = jws.split("\\.", -1);
+        Assert.assertEquals(3, parts.length);
+        Assert.assertTrue(parts[1].isEmpty());
+
+        JsonNode header = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(parts[0]));
+        Assert.assertEquals("RS256", header.get("alg").asText());
+        Assert.assertEquals(Base64.getEncoder().encodeToString(certificate.getEncoded()), header.get("x5c").get(0).asText());
+
+        String payload = Base64.getUrlEncoder().withoutPadding().encodeToString("{\"id\":\"test\"}".getBytes(StandardCharsets.UTF_8));
+        Signature signature = Signature.getInstance("SHA256withRSA");
+        signature.initVerify(certificate);
+        signature.update((parts[0] + "." + payload).getBytes(StandardCharsets.US_ASCII));
+        Assert.assertTrue(signature.verify(Base64.getUrlDecoder().decode(parts[2])));
+
+        idaRequestSigner.sign("second-request");
+        Mockito.verify(keymanagerService, Mockito.times(1)).getSignatureCertificate(Mockito.anyString(), Mockito.any(), Mockito.anyString());
+    }
+
+    @Test
+    public void sign_withStaleKey_thenResolveRotatedKey() throws Exception {
+        ReflectionTestUtils.setField(idaRequestSigner, "keyRefreshIntervalSeconds", 0L);
+        KeyPair keyPair = generateKeyPair();
+        KeyPair rotatedKeyPair = generateKeyPair();
+        X509Certificate rotatedCertificate = getCertificate(rotatedKeyPair);
+        Mockito.when(keymanagerService.getSignatureCertificate(Mockito.eq("OIDC_PARTNER"), Mockito.any(), Mockito.anyString()))
+                .thenReturn(getSignatureCertificate(keyPair.getPrivate(), getCertificate(keyPair)),
+                        getSignatureCertificate(rotatedKeyPair.getPrivate(), rotatedCertificate));
+
+        idaRequestSigner.sign("first-request");
+        String jws = idaRequestSigner.sign("second-request");
+        JsonNode header = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(jws.split("\\.")[0]));
+        Assert.assertEquals(Base64.getEncoder().encodeToString(rotatedCertificate.getEncoded()), header.get("x5c").get(0).asText());
+    }
+
+    private SignatureCertificate getSignatureCertificate(PrivateKey privateKey, X509Certificate certificate) {
+        CertificateEntry<X509Certificate, PrivateKey> certificateEntry = new CertificateEntry<>();
+        certificateEntry.setPrivateKey(privateKey);
+        certificateEntry.setChain(new X509Certificate[]{certificate});
+        SignatureCertificate signatureCertificate = new SignatureCertificate();
+        signatureCertificate.setCertificateEntry(certificateEntry);
+        return signatureCertificate;
+    }
+
+    private KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+
+    private X509Certificate getCertificate(KeyPair keyPair) throws Exception {
+        X509V3CertificateGenerator generator = new X509V3CertificateGenerator();
+        X500Principal dnName = new X500Principal("CN=Test");
+        generator.setSubjectDN(dnName);
+        generator.setIssuerDN(dnName);
+        generator.setNotBefore(new Date(System.currentTimeMillis() - 24 * 60 * 60 * 1000));
+        generator.setNotAfter(new Date(System.currentTimeMillis() + 24 * 60 * 60 * 1000));
+        generator.setPublicKey(keyPair.getPublic());
+        generator.setSignatureAlgorithm("SHA256WITHRSA");
+        generator.setSerialNumber(new BigInteger(String.valueOf(System.nanoTime())));
+        return generator.generate(keyPair.getPrivate());
+    }
+}
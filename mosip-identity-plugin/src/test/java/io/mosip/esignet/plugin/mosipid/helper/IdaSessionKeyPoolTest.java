@@ -0,0 +1,85 @@
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import io.mosip.esignet.plugin.mosipid.service.TestUtil;
+import io.mosip.kernel.crypto.jce.core.CryptoCore;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.cert.Certificate;
+import java.util.concurrent.ArrayBlockingQueue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdaSessionKeyPoolTest {
+
+    @InjectMocks
+    private IdaSessionKeyPool sessionKeyPool;
+
+    @Mock
+    private CryptoCore cryptoCore;
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(sessionKeyPool, "symmetricAlgorithm", "AES");
+        ReflectionTestUtils.setField(sessionKeyPool, "symmetricKeyLength", 256);
+        ReflectionTestUtils.setField(sessionKeyPool, "ttlSeconds", 300L);
+        Mockito.when(cryptoCore.asymmetricEncrypt(Mockito.any(), Mockito.any())).thenReturn("wrapped-key".getBytes());
+    }
+
+    @Test
+    public void take_withDisabledPool_thenGenerateOnCallerThread() throws Exception {
+        Certificate certificate = TestUtil.getCertificate();
+        IdaSessionKeyPool.SessionKey sessionKey = sessionKeyPool.take(certificate);
+        Assert.assertNotNull(sessionKey.getSecretKey());
+        Assert.assertArrayEquals("wrapped-key".getBytes(), sessionKey.getEncryptedKey());
+        Assert.assertEquals(0, sessionKeyPool.size());
+        Mockito.verify(cryptoCore, Mockito.times(1)).asymmetricEncrypt(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void take_withFilledPool_thenReturnPooledKey() throws Exception {
+        ReflectionTestUtils.setField(sessionKeyPool, "pool", new ArrayBlockingQueue<>(5));
+        Certificate certificate = TestUtil.getCertificate();
+        sessionKeyPool.take(certificate);
+        sessionKeyPool.refill();
+        Assert.assertEquals(5, sessionKeyPool.size());
+
+        IdaSessionKeyPool.SessionKey sessionKey = sessionKeyPool.take(certificate);
+        Assert.assertEquals(certificate, sessionKey.getCertificate());
+        Assert.assertEquals(4, sessionKeyPool.size());
+        Mockito.verify(cryptoCore, Mockito.times(6)).asymmetricEncrypt(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void take_withChangedCertificate_thenDiscardPooledKeys() throws Exception {
+        ReflectionTestUtils.setField(sessionKeyPool, "pool", new ArrayBlockingQueue<>(5));
+        sessionKeyPool.take(TestUtil.getCertificate());
+        sessionKeyPool.refill();
+        Assert.assertEquals(5, sessionKeyPool.size());
+
+        Certificate newCertificate = TestUtil.getCertificate();
+        IdaSessionKeyPool.SessionKey sessionKey = sessionKeyPool.take(newCertificate);
+        Assert.assertEquals(newCertificate, sessionKey.getCertificate());
+        Assert.assertEquals(0, sessionKeyPool.size());
+    }
+
+    @Test
+    public void take_withExpiredPooledKeys_thenGenerateNewKey() throws Exception {
+        ReflectionTestUtils.setField(sessionKeyPool, "pool", new ArrayBlockingQueue<>(2));
+        Certificate certificate = TestUtil.getCertificate();
+        sessionKeyPool.take(certificate);
+        sessionKeyPool.refill();
+        ReflectionTestUtils.setField(sessionKeyPool, "ttlSeconds", -1L);
+
+        IdaSessionKeyPool.SessionKey sessionKey = sessionKeyPool.take(certificate);
+        Assert.assertNotNull(sessionKey);
+        Assert.assertEquals(0, sessionKeyPool.size());
+        Mockito.verify(cryptoCore, Mockito.times(4)).asymmetricEncrypt(Mockito.any(), Mockito.any());
+    }
+}
@@ -0,0 +1,155 @@
+package io.mosip.esignet.plugin.mosipid.helper;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PluginExecutorsTest {
+
+    @Test
+    public void threadFactory_withVirtualThreadsDisabled_thenCreateDaemonPlatformThreads() {
+        PluginExecutors pluginExecutors = new PluginExecutors();
+        pluginExecutors.init();
+
+        ThreadFactory threadFactory = pluginExecutors.threadFactory("ida-audit-sender");
+        Thread thread = threadFactory.newThread(() -> {});
+        Assert.assertFalse(pluginExecutors.isVirtualThreadsEnabled());
+        Assert.assertTrue(thread.isDaemon());
+        Assert.assertEquals("ida-audit-sender", thread.getName());
+        Assert.assertFalse(isVirtual(thread));
+        Assert.assertEquals("ida-audit-sender-2", threadFactory.newThread(() -> {}).getName());
+    }
+
+    @Test
+    public void init_withVirtualThreadsEnabled_thenUseVirtualThreadsWhenSupported() throws Exception {
+        PluginExecutors pluginExecutors = getVirtualThreadExecutors();
+        boolean supported = Runtime.version().feature() >= 21;
+        Assert.assertEquals(supported, pluginExecutors.isVirtualThreadsEnabled());
+
+        ScheduledExecutorService executor = pluginExecutors.newSingleThreadScheduledExecutor("ida-auth-token-refresh");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            Assert.assertEquals(supported, isVirtual(thread));
+            Assert.assertTrue(thread.getName().startsWith("ida-auth-token-refresh"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void newCallExecutor_withVirtualThreadsDisabled_thenRunOnlyPlatformThreadsConcurrently() throws Exception {
+        ExecutorService executor = new PluginExecutors().newCallExecutor("ida-call", 2);
+        try {
+            Assert.assertEquals(2, getMaxConcurrency(executor, 5));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void newCallExecutor_withVirtualThreadsEnabled_thenRunAllBlockingCallsConcurrently() throws Exception {
+        PluginExecutors pluginExecutors = getVirtualThreadExecutors();
+        Assume.assumeTrue(pluginExecutors.isVirtualThreadsEnabled());
+
+        ExecutorService executor = pluginExecutors.newCallExecutor("ida-call", 2);
+        try {
+            Assert.assertEquals(1000, getMaxConcurrency(executor, 1000));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void newCallExecutor_withQueueCapacity_whenQueueFull_thenRunOnCallingThread() throws Exception {
+        ExecutorService executor = new PluginExecutors().newCallExecutor("idrepo-profile", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            executor.submit(() -> {
+                release.await();
+                return null;
+            });
+            executor.submit(() -> {});
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            Assert.assertSame(Thread.currentThread(), thread);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        Assert.assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> {}));
+    }
+
+    @Test
+    public void newComputeExecutor_whenQueueFull_thenRejectTask() throws Exception {
+        PluginExecutors pluginExecutors = getVirtualThreadExecutors();
+        ExecutorService executor = pluginExecutors.newComputeExecutor("argon2-hash", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            Future<Thread> running = executor.submit(() -> {
+                release.await();
+                return Thread.currentThread();
+            });
+            executor.submit(() -> {});
+            Assert.assertThrows(RejectedExecutionException.class, () -> executor.submit(() -> {}));
+
+            release.countDown();
+            Thread thread = running.get(5, TimeUnit.SECONDS);
+            Assert.assertFalse(isVirtual(thread));
+            Assert.assertTrue(thread.isDaemon());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits the blocking tasks and returns the number of tasks that were running at the same time.
+     */
+    private int getMaxConcurrency(ExecutorService executor, int tasks) throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>(tasks);
+        for(int i = 0; i < tasks; i++) {
+            results.add(executor.submit(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                release.await(2, TimeUnit.SECONDS);
+                running.decrementAndGet();
+                return null;
+            }));
+        }
+        long deadline = System.currentTimeMillis() + 1000;
+        while(maxRunning.get() < tasks && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        release.countDown();
+        for(Future<?> result : results)
+            result.get(10, TimeUnit.SECONDS);
+        return maxRunning.get();
+    }
+
+    private PluginExecutors getVirtualThreadExecutors() {
+        PluginExecutors pluginExecutors = new PluginExecutors();
+        ReflectionTestUtils.setField(pluginExecutors, "virtualThreadsEnabled", true);
+        pluginExecutors.init();
+        return pluginExecutors;
+    }
+
+    private boolean isVirtual(Thread thread) {
+        try {
+            return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+}
@@ -7,6 +7,9 @@ import io.mosip.esignet.api.dto.SendOtpResult;
 import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.esignet.plugin.mosipid.dto.*;
 import io.mosip.esignet.plugin.mosipid.dto.Error;
+import io.mosip.esignet.plugin.mosipid.helper.IdaCertificateHolder;
+import io.mosip.esignet.plugin.mosipid.helper.IdaRequestSigner;
+import io.mosip.esignet.plugin.mosipid.helper.IdaSessionKeyPool;
 import io.mosip.kernel.crypto.jce.core.CryptoCore;
 import io.mosip.kernel.keymanagerservice.util.KeymanagerUtil;
 import io.mosip.kernel.signature.dto.JWTSignatureResponseDto;
@@ -27,6 +30,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.security.SignatureException;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -51,6 +55,9 @@ public class HelperServiceTest {
     @Mock
     private CryptoCore cryptoCore;
 
+    @Mock
+    private IdaRequestSigner idaRequestSigner;
+
     String partnerId = "test";
     String partnerAPIKey = "test-api-key";
 
@@ -61,10 +68,19 @@ public class HelperServiceTest {
     public void setUp() {
         MockitoAnnotations.initMocks(this);
         ReflectionTestUtils.setField(helperService, "sendOtpUrl", "https://test/test");
-        ReflectionTestUtils.setField(helperService, "idaPartnerCertificateUrl", "https://test/test");
-        ReflectionTestUtils.setField(helperService, "symmetricAlgorithm", "AES");
-        ReflectionTestUtils.setField(helperService, "symmetricKeyLength", 256);
         ReflectionTestUtils.setField(helperService, "objectMapper", objectMapper);
+
+        IdaSessionKeyPool sessionKeyPool = new IdaSessionKeyPool();
+        ReflectionTestUtils.setField(sessionKeyPool, "symmetricAlgorithm", "AES");
+        ReflectionTestUtils.setField(sessionKeyPool, "symmetricKeyLength", 256);
+        ReflectionTestUtils.setField(sessionKeyPool, "cryptoCore", cryptoCore);
+        ReflectionTestUtils.setField(helperService, "sessionKeyPool", sessionKeyPool);
+
+        IdaCertificateHolder idaCertificateHolder = new IdaCertificateHolder();
+        ReflectionTestUtils.setField(idaCertificateHolder, "idaPartnerCertificateUrl", "https://test/test");
+        ReflectionTestUtils.setField(idaCertificateHolder, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(idaCertificateHolder, "keymanagerUtil", keymanagerUtil);
+        ReflectionTestUtils.setField(helperService, "idaCertificateHolder", idaCertificateHolder);
     }
 
     @Test
@@ -284,6 +300,24 @@ public class HelperServiceTest {
         Assert.assertEquals("test-jwt", helperService.getRequestSignature("test-request-value"));
     }
 
+    @Test
+    public void getRequestSignature_withRequestSignerEnabled_thenPass() throws Exception {
+        Mockito.when(idaRequestSigner.isEnabled()).thenReturn(true);
+        Mockito.when(idaRequestSigner.sign("test-request-value")).thenReturn("header..signature");
+        Assert.assertEquals("header..signature", helperService.getRequestSignature("test-request-value"));
+        Mockito.verifyNoInteractions(signatureService);
+    }
+
+    @Test
+    public void getRequestSignature_withRequestSignerFailure_thenFallbackToSignatureService() throws Exception {
+        Mockito.when(idaRequestSigner.isEnabled()).thenReturn(true);
+        Mockito.when(idaRequestSigner.sign("test-request-value")).thenThrow(new SignatureException("failed"));
+        JWTSignatureResponseDto jwtSignatureResponseDto = new JWTSignatureResponseDto();
+        jwtSignatureResponseDto.setJwtSignedData("test-jwt");
+        Mockito.when(signatureService.jwtSign(Mockito.any())).thenReturn(jwtSignatureResponseDto);
+        Assert.assertEquals("test-jwt", helperService.getRequestSignature("test-request-value"));
+    }
+
     @Test
     public void getTransactionId_test() {
         Assert.assertNotNull(helperService.getTransactionId("idhash"));
@@ -1,12 +1,19 @@
 package io.mosip.esignet.plugin.mosipid.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.mosip.esignet.api.dto.AuditDTO;
 import io.mosip.esignet.api.util.Action;
 import io.mosip.esignet.api.util.ActionStatus;
+import io.mosip.esignet.plugin.mosipid.dto.AuditRequest;
 import io.mosip.esignet.plugin.mosipid.dto.AuditResponse;
+import io.mosip.esignet.plugin.mosipid.helper.AuditJournal;
 import io.mosip.esignet.plugin.mosipid.helper.AuthTransactionHelper;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -17,10 +24,16 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+
 import static org.mockito.ArgumentMatchers.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class IdaAuditPluginImplTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
     @InjectMocks
     private IdaAuditPluginImpl idaAuditPlugin;
     @Mock
@@ -29,6 +42,11 @@ public class IdaAuditPluginImplTest {
     private ObjectMapper objectMapper;
     @Mock
     private RestTemplate restTemplate;
+    @Spy
+    private PooledRestTemplateFactory pooledRestTemplateFactory = new PooledRestTemplateFactory();
+
+    @Spy
+    private PluginExecutors pluginExecutors = new PluginExecutors();
     @Test
     public void logAudit_WithValidDetails_ThenPass() {
         Action action = Action.AUTHENTICATE;
@@ -157,4 +175,136 @@ public class IdaAuditPluginImplTest {
             Assert.fail();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void logAudit_WithAsyncEnabled_ThenSendInBatch() throws Exception {
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditManagerUrl", "auditManagerUrl");
+        ReflectionTestUtils.setField(idaAuditPlugin, "asyncEnabled", true);
+        ReflectionTestUtils.setField(idaAuditPlugin, "queueCapacity", 10);
+        ReflectionTestUtils.setField(idaAuditPlugin, "flushSize", 2);
+        ReflectionTestUtils.setField(idaAuditPlugin, "flushIntervalMs", 1000L);
+        ReflectionTestUtils.setField(idaAuditPlugin, "overflowPolicy", IdaAuditPluginImpl.OverflowPolicy.DROP);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(idaAuditPlugin, "meterRegistry", meterRegistry);
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.ok(new ResponseWrapper<AuditResponse>());
+        Mockito.when(authTransactionHelper.getAuthToken()).thenReturn("authToken");
+        Mockito.when(objectMapper.writeValueAsString(any())).thenReturn("requestBody");
+        Mockito.when(restTemplate.exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}))).thenReturn(responseEntity);
+
+        idaAuditPlugin.init();
+        idaAuditPlugin.logAudit("username", Action.SAVE_CONSENT, ActionStatus.SUCCESS, new AuditDTO(), null);
+        idaAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        idaAuditPlugin.destroy();
+
+        Mockito.verify(authTransactionHelper, Mockito.times(1)).getAuthToken();
+        Mockito.verify(restTemplate, Mockito.times(2)).exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}));
+        Assert.assertEquals(2, meterRegistry.counter("ida.audit.events", "outcome", "queued").count(), 0);
+        Assert.assertEquals(2, meterRegistry.counter("ida.audit.events", "outcome", "sent").count(), 0);
+    }
+
+    @Test
+    public void logAudit_WithFullQueueAndDropPolicy_ThenDropEvent() {
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditQueue", new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(idaAuditPlugin, "overflowPolicy", IdaAuditPluginImpl.OverflowPolicy.DROP);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(idaAuditPlugin, "meterRegistry", meterRegistry);
+
+        idaAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        idaAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+
+        Mockito.verifyNoInteractions(restTemplate);
+        Assert.assertEquals(1, meterRegistry.counter("ida.audit.events", "outcome", "queued").count(), 0);
+        Assert.assertEquals(1, meterRegistry.counter("ida.audit.events", "outcome", "dropped").count(), 0);
+    }
+
+    @Test
+    public void logAudit_WithFullQueueAndCallerRunsPolicy_ThenSendOnCallerThread() throws Exception {
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditManagerUrl", "auditManagerUrl");
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditQueue", new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(idaAuditPlugin, "overflowPolicy", IdaAuditPluginImpl.OverflowPolicy.CALLER_RUNS);
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.ok(new ResponseWrapper<AuditResponse>());
+        Mockito.when(authTransactionHelper.getAuthToken()).thenReturn("authToken");
+        Mockito.when(objectMapper.writeValueAsString(any())).thenReturn("requestBody");
+        Mockito.when(restTemplate.exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}))).thenReturn(responseEntity);
+
+        idaAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        idaAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}));
+    }
+
+    @Test
+    public void logAudit_WithFullQueueAndSpillPolicy_ThenReplayFromJournal() throws Exception {
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditManagerUrl", "auditManagerUrl");
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditQueue", new ArrayBlockingQueue<>(1));
+        ReflectionTestUtils.setField(idaAuditPlugin, "overflowPolicy", IdaAuditPluginImpl.OverflowPolicy.SPILL);
+        ReflectionTestUtils.setField(idaAuditPlugin, "replayRatePerSecond", 1000);
+        AuditJournal auditJournal = new AuditJournal(temporaryFolder.getRoot().toPath(), 1024, 2);
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditJournal", auditJournal);
+        AuditRequest journaledRequest = new AuditRequest();
+        Mockito.when(objectMapper.writeValueAsBytes(any())).thenReturn("auditRequest".getBytes());
+        Mockito.when(objectMapper.readValue(Mockito.any(byte[].class), Mockito.eq(AuditRequest.class))).thenReturn(journaledRequest);
+        Mockito.when(objectMapper.writeValueAsString(any())).thenReturn("requestBody");
+        Mockito.when(authTransactionHelper.getAuthToken()).thenReturn("authToken");
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.ok(new ResponseWrapper<AuditResponse>());
+        Mockito.when(restTemplate.exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}))).thenReturn(responseEntity);
+
+        idaAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        idaAuditPlugin.logAudit(Action.AUTHENTICATE, ActionStatus.SUCCESS, new AuditDTO(), null);
+        Assert.assertFalse(auditJournal.isEmpty());
+
+        ReflectionTestUtils.invokeMethod(idaAuditPlugin, "replayJournal");
+        Assert.assertTrue(auditJournal.isEmpty());
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}));
+    }
+
+    @Test
+    public void sendBatch_WithAuditManagerDown_ThenSpillRemainingEventsWithoutSending() throws Exception {
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditManagerUrl", "auditManagerUrl");
+        AuditJournal auditJournal = new AuditJournal(temporaryFolder.getRoot().toPath(), 1024, 2);
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditJournal", auditJournal);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(idaAuditPlugin, "meterRegistry", meterRegistry);
+        Mockito.when(objectMapper.writeValueAsBytes(any())).thenReturn("auditRequest".getBytes());
+        Mockito.when(objectMapper.writeValueAsString(any())).thenReturn("requestBody");
+        Mockito.when(authTransactionHelper.getAuthToken()).thenReturn("authToken");
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        Mockito.when(restTemplate.exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}))).thenReturn(responseEntity);
+
+        ReflectionTestUtils.invokeMethod(idaAuditPlugin, "sendBatch",
+                List.of(new AuditRequest(), new AuditRequest(), new AuditRequest()));
+
+        Mockito.verify(authTransactionHelper, Mockito.times(1)).getAuthToken();
+        Mockito.verify(restTemplate, Mockito.times(1)).exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}));
+        Assert.assertEquals(3, auditJournal.read(10).size());
+        Assert.assertEquals(3, meterRegistry.counter("ida.audit.events", "outcome", "spilled").count(), 0);
+        Assert.assertEquals(3, meterRegistry.counter("ida.audit.events", "outcome", "failed").count(), 0);
+    }
+
+    @Test
+    public void replayJournal_WithAuditManagerDown_ThenKeepJournaledEvents() throws Exception {
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditManagerUrl", "auditManagerUrl");
+        ReflectionTestUtils.setField(idaAuditPlugin, "replayRatePerSecond", 1000);
+        AuditJournal auditJournal = new AuditJournal(temporaryFolder.getRoot().toPath(), 1024, 2);
+        ReflectionTestUtils.setField(idaAuditPlugin, "auditJournal", auditJournal);
+        auditJournal.append("auditRequest".getBytes());
+        Mockito.when(objectMapper.readValue(Mockito.any(byte[].class), Mockito.eq(AuditRequest.class))).thenReturn(new AuditRequest());
+        Mockito.when(objectMapper.writeValueAsString(any())).thenReturn("requestBody");
+        Mockito.when(authTransactionHelper.getAuthToken()).thenReturn("authToken");
+        ResponseEntity<ResponseWrapper> responseEntity = ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        Mockito.when(restTemplate.exchange(Mockito.any(RequestEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper>() {}))).thenReturn(responseEntity);
+
+        ReflectionTestUtils.invokeMethod(idaAuditPlugin, "replayJournal");
+        Assert.assertFalse(auditJournal.isEmpty());
+        Assert.assertEquals(1, auditJournal.read(10).size());
+    }
+}
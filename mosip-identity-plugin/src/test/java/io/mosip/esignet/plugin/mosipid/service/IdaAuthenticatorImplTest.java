@@ -8,6 +8,7 @@ package io.mosip.esignet.plugin.mosipid.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.mosip.esignet.api.dto.*;
 import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.exception.KycExchangeException;
@@ -16,6 +17,8 @@ import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.esignet.api.util.ErrorConstants;
 import io.mosip.esignet.plugin.mosipid.dto.*;
 import io.mosip.esignet.plugin.mosipid.helper.AuthTransactionHelper;
+import io.mosip.esignet.plugin.mosipid.helper.IdaAsyncClient;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
 import io.mosip.kernel.core.exception.ServiceError;
 import io.mosip.kernel.core.http.ResponseWrapper;
 import org.junit.Assert;
@@ -26,6 +29,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.ParameterizedTypeReference;
@@ -35,7 +39,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 
@@ -58,15 +64,22 @@ public class IdaAuthenticatorImplTest {
 	@Mock
     AuthTransactionHelper authTransactionHelper;
 
+	@Mock
+	IdaAsyncClient idaAsyncClient;
+
+	@Spy
+	PluginMetrics pluginMetrics = new PluginMetrics("mosip-identity-plugin");
+
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
 	@Before
 	public void setUp() {
 		MockitoAnnotations.initMocks(this);
+		ReflectionTestUtils.setField(pluginMetrics, "enabled", true);
+		ReflectionTestUtils.setField(pluginMetrics, "stagesEnabled", true);
+		ReflectionTestUtils.setField(pluginMetrics, "meterRegistry", meterRegistry);
 
 		ReflectionTestUtils.setField(helperService, "sendOtpUrl", "https:/");
-		ReflectionTestUtils.setField(helperService, "idaPartnerCertificateUrl", "https://test");
-		ReflectionTestUtils.setField(helperService, "symmetricAlgorithm", "AES");
-		ReflectionTestUtils.setField(helperService, "symmetricKeyLength", 256);
 
 		ReflectionTestUtils.setField(idaAuthenticatorImpl, "kycExchangeUrl", "https://dev.mosip.net");
 		ReflectionTestUtils.setField(idaAuthenticatorImpl, "idaVersion", "VersionIDA");
@@ -149,6 +162,13 @@ public class IdaAuthenticatorImplTest {
 		KycAuthResult kycAuthResult = idaAuthenticatorImpl.doKycAuth("relyingId", "clientId", kycAuthDto);
 
 		Assert.assertEquals(kycAuthResult.getKycToken(), kycAuthResult.getKycToken());
+		Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("plugin", "mosip-identity-plugin")
+				.tag("operation", "kyc-auth").tag("relying_party", "relyingId").tag("auth_factor", "OTP")
+				.tag("outcome", "success").timer().count());
+		for (String stage : List.of(PluginMetrics.STAGE_CRYPTO, PluginMetrics.STAGE_REQUEST_BUILD, PluginMetrics.STAGE_SIGN,
+				PluginMetrics.STAGE_HTTP, PluginMetrics.STAGE_RESPONSE_PARSE))
+			Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", stage)
+					.tag("outcome", "success").timer().count());
 	}
 
 
@@ -567,4 +587,98 @@ public class IdaAuthenticatorImplTest {
 				() -> idaAuthenticatorImpl.getAllKycSigningCertificates());
 	}
 
+	@Test
+	public void doKycAuth_withAsyncClient_thenPass() throws Exception {
+		KycAuthDto kycAuthDto = new KycAuthDto();
+		kycAuthDto.setIndividualId("IND1234");
+		kycAuthDto.setTransactionId("TRAN1234");
+		AuthChallenge authChallenge = new AuthChallenge();
+		authChallenge.setAuthFactorType("OTP");
+		authChallenge.setChallenge("111111");
+		kycAuthDto.setChallengeList(List.of(authChallenge));
+
+		IdaKycAuthResponse idaKycAuthResponse = new IdaKycAuthResponse();
+		idaKycAuthResponse.setAuthToken("authToken1234");
+		idaKycAuthResponse.setKycToken("kycToken1234");
+		idaKycAuthResponse.setKycStatus(true);
+		IdaResponseWrapper<IdaKycAuthResponse> idaResponseWrapper = new IdaResponseWrapper<>();
+		idaResponseWrapper.setResponse(idaKycAuthResponse);
+
+		Mockito.when(idaAsyncClient.isEnabled()).thenReturn(true);
+		Mockito.when(idaAsyncClient.exchange(Mockito.anyString(), Mockito.<RequestEntity<String>>any(),
+				Mockito.<ParameterizedTypeReference<IdaResponseWrapper<IdaKycAuthResponse>>>any()))
+				.thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(idaResponseWrapper, HttpStatus.OK)));
+
+		KycAuthResult kycAuthResult = idaAuthenticatorImpl.doKycAuth("relyingId", "clientId", kycAuthDto);
+		Assert.assertEquals("kycToken1234", kycAuthResult.getKycToken());
+		Mockito.verifyNoInteractions(restTemplate);
+		Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_HTTP)
+				.tag("outcome", "success").timer().count());
+		Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("operation", "kyc-auth")
+				.tag("outcome", "success").timer().count());
+	}
+
+	@Test
+	public void doKycAuth_withAsyncClientFailure_throwsException() throws Exception {
+		KycAuthDto kycAuthDto = new KycAuthDto();
+		kycAuthDto.setIndividualId("IND1234");
+		kycAuthDto.setTransactionId("TRAN1234");
+		AuthChallenge authChallenge = new AuthChallenge();
+		authChallenge.setAuthFactorType("PIN");
+		authChallenge.setChallenge("111111");
+		kycAuthDto.setChallengeList(List.of(authChallenge));
+
+		Mockito.when(idaAsyncClient.isEnabled()).thenReturn(true);
+		Mockito.when(idaAsyncClient.exchange(Mockito.anyString(), Mockito.<RequestEntity<String>>any(),
+				Mockito.<ParameterizedTypeReference<IdaResponseWrapper<IdaKycAuthResponse>>>any()))
+				.thenReturn(CompletableFuture.failedFuture(new IOException("connection reset")));
+
+		KycAuthException exception = Assert.assertThrows(KycAuthException.class,
+				() -> idaAuthenticatorImpl.doKycAuth("relyingId", "clientId", kycAuthDto));
+		Assert.assertEquals(ErrorConstants.AUTH_FAILED, exception.getErrorCode());
+		Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_HTTP)
+				.tag("outcome", "failure").timer().count());
+		Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("operation", "kyc-auth")
+				.tag("auth_factor", "PIN").tag("outcome", "failure").tag("error_code", ErrorConstants.AUTH_FAILED)
+				.timer().count());
+	}
+
+	@Test
+	public void doKycExchange_withAsyncClientErrorResponse_throwsException() throws Exception {
+		KycExchangeDto kycExchangeDto = new KycExchangeDto();
+		kycExchangeDto.setIndividualId("IND1234");
+		kycExchangeDto.setTransactionId("TRAN1234");
+		kycExchangeDto.setKycToken("kycToken1234");
+
+		IdaError idaError = new IdaError();
+		idaError.setErrorCode("IDA-MLC-018");
+		IdaResponseWrapper<IdaKycExchangeResponse> idaResponseWrapper = new IdaResponseWrapper<>();
+		idaResponseWrapper.setErrors(List.of(idaError));
+
+		Mockito.when(idaAsyncClient.isEnabled()).thenReturn(true);
+		Mockito.when(idaAsyncClient.exchange(Mockito.anyString(), Mockito.<RequestEntity<String>>any(),
+				Mockito.<ParameterizedTypeReference<IdaResponseWrapper<IdaKycExchangeResponse>>>any()))
+				.thenReturn(CompletableFuture.completedFuture(new ResponseEntity<>(idaResponseWrapper, HttpStatus.OK)));
+
+		KycExchangeException exception = Assert.assertThrows(KycExchangeException.class,
+				() -> idaAuthenticatorImpl.doKycExchange("relyingId", "clientId", kycExchangeDto));
+		Assert.assertEquals("IDA-MLC-018", exception.getErrorCode());
+	}
+
+	@Test
+	public void sendOtp_withAsyncClientFailure_throwsException() {
+		SendOtpDto sendOtpDto = new SendOtpDto();
+		sendOtpDto.setTransactionId("TRAN1234");
+		sendOtpDto.setIndividualId("IND1234");
+		sendOtpDto.setOtpChannels(List.of("email"));
+
+		Mockito.when(idaAsyncClient.isEnabled()).thenReturn(true);
+		Mockito.when(helperService.sendOTPAsync(Mockito.anyString(), Mockito.anyString(), Mockito.any()))
+				.thenReturn(CompletableFuture.failedFuture(new SendOtpException("otp_error")));
+
+		SendOtpException exception = Assert.assertThrows(SendOtpException.class,
+				() -> idaAuthenticatorImpl.sendOtp("relyingId", "clientId", sendOtpDto));
+		Assert.assertEquals("otp_error", exception.getErrorCode());
+	}
+
 }
@@ -10,6 +10,7 @@ import io.mosip.esignet.api.util.ErrorConstants;
 import io.mosip.esignet.plugin.mosipid.dto.IdaError;
 import io.mosip.esignet.plugin.mosipid.dto.IdaResponseWrapper;
 import io.mosip.esignet.plugin.mosipid.dto.KeyBindingResponse;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -18,6 +19,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
@@ -42,6 +44,9 @@ public class IdaKeyBinderImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private PluginMetrics pluginMetrics = new PluginMetrics("mosip-identity-plugin");
+
     private ObjectMapper objectMapper = new ObjectMapper();
     private static final String PARTNER_ID_HEADER = "partner-id";
     private static final String PARTNER_API_KEY_HEADER = "partner-api-key";
@@ -2,15 +2,23 @@ package io.mosip.signup.plugin.mosipid.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
 import io.mosip.signup.api.dto.ProfileDto;
 import io.mosip.signup.api.dto.ProfileResult;
 import io.mosip.signup.api.exception.InvalidProfileException;
 import io.mosip.signup.api.exception.ProfileException;
+import io.mosip.signup.api.util.ErrorConstants;
 import io.mosip.signup.api.util.ProfileCreateUpdateStatus;
 import io.mosip.signup.plugin.mosipid.dto.*;
 import io.mosip.signup.plugin.mosipid.dto.Error;
+import io.mosip.signup.plugin.mosipid.util.Argon2PasswordHasher;
 import io.mosip.signup.plugin.mosipid.util.ProfileCacheService;
+import io.mosip.signup.plugin.mosipid.util.ProfileStatusTracker;
+import io.mosip.signup.plugin.mosipid.util.UinReservoir;
+import io.mosip.signup.plugin.util.IdentityMatcher;
+import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -19,13 +27,20 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.slf4j.MDC;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(MockitoJUnitRunner.class)
 public class IdrepoProfileRegistryPluginImplTest {
@@ -39,8 +54,22 @@ public class IdrepoProfileRegistryPluginImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    @Spy
+    private UinReservoir uinReservoir = new UinReservoir();
+
+    @Spy
+    private Argon2PasswordHasher argon2PasswordHasher = new Argon2PasswordHasher();
+
+    @Spy
+    private ProfileStatusTracker profileStatusTracker = new ProfileStatusTracker();
+
+    @Spy
+    private IdentityMatcher identityMatcher = new IdentityMatcher(true, false, false, List.of());
+
     private  ObjectMapper objectMapper;
 
+    private ExecutorService profilePipelineExecutor;
+
     private static final String schemaSchemaJson="{\"$schema\":\"http://json-schema.org/draft-07/schema#\",\"description\":\"Identity schema for sign up\",\"additionalProperties\":false,\"title\":\"signup identity\",\"type\":\"object\",\"definitions\":{\"simpleType\":{\"uniqueItems\":true,\"additionalItems\":false,\"type\":\"array\",\"items\":{\"additionalProperties\":false,\"type\":\"object\",\"required\":[\"language\",\"value\"],\"properties\":{\"language\":{\"type\":\"string\"},\"value\":{\"type\":\"string\"}}}},\"documentType\":{\"additionalProperties\":false,\"type\":\"object\",\"properties\":{\"format\":{\"type\":\"string\"},\"type\":{\"type\":\"string\"},\"value\":{\"type\":\"string\"}}},\"biometricsType\":{\"additionalProperties\":false,\"type\":\"object\",\"properties\":{\"format\":{\"type\":\"string\"},\"version\":{\"type\":\"number\",\"minimum\":0},\"value\":{\"type\":\"string\"}}},\"hashType\":{\"additionalProperties\":false,\"type\":\"object\",\"properties\":{\"hash\":{\"type\":\"string\"},\"salt\":{\"type\":\"string\"}}}},\"properties\":{\"identity\":{\"additionalProperties\":false,\"type\":\"object\",\"required\":[\"IDSchemaVersion\",\"phone\"],\"properties\":{\"UIN\":{\"bioAttributes\":[],\"fieldCategory\":\"none\",\"format\":\"none\",\"type\":\"string\",\"fieldType\":\"default\"},\"IDSchemaVersion\":{\"bioAttributes\":[],\"fieldCategory\":\"none\",\"format\":\"none\",\"type\":\"number\",\"fieldType\":\"default\",\"minimum\":0},\"selectedHandles\":{\"fieldCategory\":\"none\",\"format\":\"none\",\"type\":\"array\",\"items\":{\"type\":\"string\"},\"fieldType\":\"default\"},\"fullName\":{\"bioAttributes\":[],\"validators\":[{\"validator\":\"^(.{3,50})$\",\"arguments\":[],\"type\":\"regex\"}],\"fieldCategory\":\"pvt\",\"format\":\"none\",\"fieldType\":\"default\",\"$ref\":\"#/definitions/simpleType\"},\"phone\":{\"bioAttributes\":[],\"validators\":[{\"validator\":\"^[+]91([0-9]{8,9})$\",\"arguments\":[],\"type\":\"regex\"}],\"fieldCategory\":\"pvt\",\"format\":\"none\",\"type\":\"string\",\"fieldType\":\"default\",\"requiredOn\":\"\",\"handle\":true},\"password\":{\"bioAttributes\":[],\"validators\":[],\"fieldCategory\":\"pvt\",\"format\":\"none\",\"fieldType\":\"default\",\"$ref\":\"#/definitions/hashType\"},\"preferredLang\":{\"bioAttributes\":[],\"validators\":[{\"validator\":\"(^eng$)\",\"arguments\":[],\"type\":\"regex\"}],\"fieldCategory\":\"pvt\",\"format\":\"none\",\"fieldType\":\"default\",\"type\":\"string\"},\"registrationType\":{\"bioAttributes\":[],\"validators\":[{\"validator\":\"^L[1-2]{1}$\",\"arguments\":[],\"type\":\"regex\"}],\"fieldCategory\":\"pvt\",\"format\":\"none\",\"fieldType\":\"default\",\"type\":\"string\"},\"phoneVerified\":{\"bioAttributes\":[],\"validators\":[],\"fieldCategory\":\"pvt\",\"format\":\"none\",\"fieldType\":\"default\",\"type\":\"boolean\"},\"updatedAt\":{\"bioAttributes\":[],\"validators\":[],\"fieldCategory\":\"pvt\",\"format\":\"none\",\"fieldType\":\"default\",\"type\":\"number\"}}}}}";
 
 
@@ -61,6 +90,17 @@ public class IdrepoProfileRegistryPluginImplTest {
         ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "mandatoryLanguages",List.of("eng"));
         ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "getIdentityEndpointMethod", "POST");
         ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "getStatusEndpoint","http://localhost:8080/identity/v1/identity/");
+        profilePipelineExecutor = Executors.newFixedThreadPool(3);
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "profilePipelineExecutor", profilePipelineExecutor);
+        ReflectionTestUtils.setField(profileStatusTracker, "threads", 2);
+        ReflectionTestUtils.setField(profileStatusTracker, "idrepoPluginExecutors", new PluginExecutors());
+        profileStatusTracker.init();
+    }
+
+    @After
+    public void afterEach() {
+        profilePipelineExecutor.shutdownNow();
+        profileStatusTracker.destroy();
     }
 
     @Test
@@ -211,6 +251,107 @@ public class IdrepoProfileRegistryPluginImplTest {
         Assert.assertEquals(profileResult.getStatus(),"SUCCESS");
     }
 
+    @Test
+    public void createProfile_withValidProfileDetails_thenResolveSchemaAndPasswordConcurrently()  {
+        JsonNode mockIdentity = createIdentity();
+        ((ObjectNode) mockIdentity).put("password", "Password@123");
+        ProfileDto profileDto = new ProfileDto();
+        profileDto.setIndividualId("ind-456");
+        profileDto.setIdentity(mockIdentity);
+        MDC.put("traceId", "trace-123");
+
+        //each call waits for the other one to start, sequential calls would time out
+        CountDownLatch latch = new CountDownLatch(2);
+        List<String> traceIds = Collections.synchronizedList(new ArrayList<>());
+        ResponseWrapper<SchemaResponse> responseWrapper2 = new ResponseWrapper<>();
+        SchemaResponse schemaResponse = new SchemaResponse();
+        schemaResponse.setIdVersion(0.0);
+        schemaResponse.setSchemaJson(schemaSchemaJson);
+        responseWrapper2.setResponse(schemaResponse);
+        Mockito.when(restTemplate.exchange(
+                "http://localhost:8080/identity/v1/schema/"+0.0,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ResponseWrapper<SchemaResponse>>() {}
+        )).thenAnswer(invocation -> {
+            traceIds.add(MDC.get("traceId"));
+            latch.countDown();
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            return new ResponseEntity<>(responseWrapper2, HttpStatus.OK);
+        });
+
+        ResponseWrapper<Password.PasswordHash> responseWrapper4 = new ResponseWrapper<>();
+        Password.PasswordHash passwordHash = new Password.PasswordHash();
+        passwordHash.setHashValue("123456");
+        passwordHash.setSalt("123456");
+        responseWrapper4.setResponse(passwordHash);
+        Mockito.when(restTemplate.exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<Password.PasswordHash>>() {
+                }))).thenAnswer(invocation -> {
+            traceIds.add(MDC.get("traceId"));
+            latch.countDown();
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            return new ResponseEntity<>(responseWrapper4, HttpStatus.OK);
+        });
+
+        ResponseWrapper<UINResponse> responseWrapper = new ResponseWrapper<>();
+        UINResponse uinResponse = new UINResponse();
+        uinResponse.setUIN("1234567890");
+        responseWrapper.setResponse(uinResponse);
+        Mockito.when(restTemplate.exchange(
+                "http://localhost:8080/identity/v1/uin",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ResponseWrapper<UINResponse>>() {}
+        )).thenReturn(new ResponseEntity<>(responseWrapper, HttpStatus.OK));
+
+        ResponseWrapper<IdentityResponse> responseWrapper3 = new ResponseWrapper<>();
+        IdentityResponse identityResponse = new IdentityResponse();
+        identityResponse.setStatus("SUCCESS");
+        responseWrapper3.setResponse(identityResponse);
+        Mockito.when(restTemplate.exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<IdentityResponse>>() {
+                }))).thenReturn(new ResponseEntity<>(responseWrapper3, HttpStatus.OK));
+
+        try {
+            ProfileResult profileResult = idrepoProfileRegistryPlugin.createProfile("req-123", profileDto);
+            Assert.assertEquals("SUCCESS", profileResult.getStatus());
+        } finally {
+            MDC.clear();
+        }
+        Assert.assertEquals("1234567890", mockIdentity.get("UIN").textValue());
+        Assert.assertEquals(0, latch.getCount());
+        Assert.assertEquals(List.of("trace-123", "trace-123"), traceIds);
+    }
+
+    @Test
+    public void createProfile_whenSchemaFetchFails_thenDoNotTakeUin()  {
+        ProfileDto profileDto = new ProfileDto();
+        profileDto.setIndividualId("ind-456");
+        profileDto.setIdentity(createIdentity());
+
+        Mockito.when(restTemplate.exchange(
+                "http://localhost:8080/identity/v1/schema/"+0.0,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ResponseWrapper<SchemaResponse>>() {}
+        )).thenThrow(new RestClientException("unreachable"));
+
+        try {
+            idrepoProfileRegistryPlugin.createProfile("req-123", profileDto);
+            Assert.fail();
+        } catch (ProfileException e) {
+            Assert.assertEquals(ErrorConstants.SERVER_UNREACHABLE, e.getErrorCode());
+        }
+        Mockito.verify(uinReservoir, Mockito.never()).take(Mockito.any());
+    }
+
     @Test
     public void createProfile_withInValidProfileDetails_thenFail()  {
         String requestId = "req-123";
@@ -332,6 +473,66 @@ public class IdrepoProfileRegistryPluginImplTest {
             Assert.assertEquals(profileResult.getStatus(),"SUCCESS");
     }
 
+    @Test
+    public void updateProfile_withLocalPasswordHashMode_thenHashPasswordInPlugin()  {
+        ReflectionTestUtils.setField(argon2PasswordHasher, "mode", "local");
+        ReflectionTestUtils.setField(argon2PasswordHasher, "iterations", 1);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "memoryKib", 64);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "parallelism", 1);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "hashLength", 32);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "saltLength", 16);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "poolSize", 1);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "queueCapacity", 10);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "idrepoPluginExecutors", new PluginExecutors());
+        argon2PasswordHasher.init();
+
+        Map<String, Object> identityData = new HashMap<>();
+        identityData.put("email","123@email.com");
+        identityData.put("password","123456");
+        JsonNode mockIdentity = objectMapper.valueToTree(identityData);
+        ProfileDto profileDto = new ProfileDto();
+        profileDto.setIndividualId("ind-456");
+        profileDto.setIdentity(mockIdentity);
+
+        ResponseWrapper<SchemaResponse> responseWrapper= new ResponseWrapper<>();
+        SchemaResponse schemaResponse = new SchemaResponse();
+        schemaResponse.setIdVersion(0.0);
+        schemaResponse.setSchemaJson(schemaSchemaJson);
+        responseWrapper.setResponse(schemaResponse);
+        Mockito.when(restTemplate.exchange(
+                "http://localhost:8080/identity/v1/schema/"+0.0,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ResponseWrapper<SchemaResponse>>() {}
+        )).thenReturn(new ResponseEntity<>(responseWrapper, HttpStatus.OK));
+
+        ResponseWrapper<IdentityResponse> responseWrapper2 = new ResponseWrapper<>();
+        IdentityResponse identityResponse = new IdentityResponse();
+        identityResponse.setStatus("SUCCESS");
+        responseWrapper2.setResponse(identityResponse);
+        Mockito.when(restTemplate.exchange(
+                Mockito.anyString(),
+                Mockito.any(HttpMethod.class),
+                Mockito.any(HttpEntity.class),
+                Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<IdentityResponse>>() {
+                }))).thenReturn(new ResponseEntity<>(responseWrapper2, HttpStatus.OK));
+
+        try {
+            ProfileResult profileResult = idrepoProfileRegistryPlugin.updateProfile("req-123", profileDto);
+            Assert.assertEquals("SUCCESS", profileResult.getStatus());
+            Assert.assertEquals(43, mockIdentity.get("password").get("hash").textValue().length());
+            Assert.assertEquals(22, mockIdentity.get("password").get("salt").textValue().length());
+            Mockito.verify(restTemplate, Mockito.never()).exchange(
+                    Mockito.anyString(),
+                    Mockito.any(HttpMethod.class),
+                    Mockito.any(HttpEntity.class),
+                    Mockito.eq(new ParameterizedTypeReference<ResponseWrapper<Password.PasswordHash>>() {}));
+        } finally {
+            argon2PasswordHasher.destroy();
+        }
+    }
+
     @Test
     public void getProfile_withValidDetails_thenPass()  {
         String individualId = "1234567890";
@@ -476,6 +677,38 @@ public class IdrepoProfileRegistryPluginImplTest {
         Assert.assertEquals(profileCreateUpdateStatus,ProfileCreateUpdateStatus.COMPLETED);
     }
 
+    @Test
+    public void getProfileCreateUpdateStatus_withMultipleHandles_thenReturnCombinedStatus(){
+        Mockito.when(profileCacheService.getHandleRequestIds(ArgumentMatchers.anyString())).thenReturn(List.of("handleRequestId1", "handleRequestId2"));
+
+        IdentityStatusResponse storedResponse = new IdentityStatusResponse();
+        storedResponse.setStatusCode("STORED");
+        ResponseWrapper<IdentityStatusResponse> responseWrapper = new ResponseWrapper<>();
+        responseWrapper.setResponse(storedResponse);
+        Mockito.when(restTemplate.exchange(
+                "http://localhost:8080/identity/v1/identity/handleRequestId1",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ResponseWrapper<IdentityStatusResponse>>() {}
+        )).thenReturn(new ResponseEntity<>(responseWrapper, HttpStatus.OK));
+
+        IdentityStatusResponse issuedResponse = new IdentityStatusResponse();
+        issuedResponse.setStatusCode("ISSUED");
+        ResponseWrapper<IdentityStatusResponse> responseWrapper2 = new ResponseWrapper<>();
+        responseWrapper2.setResponse(issuedResponse);
+        Mockito.when(restTemplate.exchange(
+                "http://localhost:8080/identity/v1/identity/handleRequestId2",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ResponseWrapper<IdentityStatusResponse>>() {}
+        )).thenReturn(new ResponseEntity<>(responseWrapper2, HttpStatus.OK));
+
+        Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, idrepoProfileRegistryPlugin.getProfileCreateUpdateStatus("requestId"));
+
+        issuedResponse.setStatusCode("FAILED");
+        Assert.assertEquals(ProfileCreateUpdateStatus.FAILED, idrepoProfileRegistryPlugin.getProfileCreateUpdateStatus("requestId"));
+    }
+
     @Test
     public void getProfileCreateUpdateStatus_withInvalidStatusCode_thenFail(){
         Mockito.when(profileCacheService.getHandleRequestIds(ArgumentMatchers.anyString())).thenReturn(List.of("requestId"));
@@ -533,6 +766,23 @@ public class IdrepoProfileRegistryPluginImplTest {
         Assert.assertFalse(matched);
     }
 
+    @Test
+    public void isMatch_withMultilingualField_thenMatchAnyLanguage() {
+        Map<String, Object> identityData = new LinkedHashMap<>();
+        identityData.put("fullName", List.of(Map.of("language", "eng", "value", "John Doe"),
+                Map.of("language", "ara", "value", "جون دو")));
+        identityData.put("UIN", "1234567890");
+        JsonNode mockIdentity = objectMapper.valueToTree(identityData);
+
+        Map<String, Object> inputChallengeMap = new LinkedHashMap<>();
+        inputChallengeMap.put("fullName", List.of(Map.of("value", "جون دو", "language", "ara")));
+        inputChallengeMap.put("UIN", "1234567890");
+        Assert.assertTrue(idrepoProfileRegistryPlugin.isMatch(mockIdentity, objectMapper.valueToTree(inputChallengeMap)));
+
+        inputChallengeMap.put("fullName", List.of(Map.of("language", "ara", "value", "John Doe")));
+        Assert.assertFalse(idrepoProfileRegistryPlugin.isMatch(mockIdentity, objectMapper.valueToTree(inputChallengeMap)));
+    }
+
     private JsonNode createIdentity() {
         Map<String, Object> identityData = new HashMap<>();
         identityData.put("email","123@email.com");
@@ -0,0 +1,256 @@
+package io.mosip.signup.plugin.mosipid.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.plugin.mosipid.dto.ProfileImportReport;
+import io.mosip.signup.plugin.mosipid.util.Argon2PasswordHasher;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Imports the profiles against a local stub of the idgenerator, schema and identity endpoints of id-repo.
+ */
+public class ProfileBulkImporterTest {
+
+    private static final String SCHEMA_JSON = ("{'properties':{'identity':{'type':'object','required':['IDSchemaVersion','phone']," +
+            "'properties':{'UIN':{'type':'string'},'IDSchemaVersion':{'type':'number'},'selectedHandles':{'type':'array'}," +
+            "'phone':{'type':'string','validators':[{'type':'regex','validator':'^[+]91([0-9]{8,9})$'}]}," +
+            "'fullName':{'$ref':'#/definitions/simpleType','validators':[{'type':'regex','validator':'^(.{3,50})$'}]}}}}}")
+            .replace('\'', '"');
+
+    private static final String FAILING_PHONE = "+91841987999";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicInteger uinCount = new AtomicInteger();
+
+    private final Map<String, JsonNode> addedIdentities = new ConcurrentHashMap<>();
+
+    private HttpServer stubServer;
+
+    private ExecutorService stubExecutor;
+
+    private IdrepoProfileRegistryPluginImpl idrepoProfileRegistryPlugin;
+
+    @Before
+    public void setUp() throws IOException {
+        stubExecutor = Executors.newFixedThreadPool(8);
+        stubServer = HttpServer.create(new InetSocketAddress("localhost", 0), 100);
+        stubServer.setExecutor(stubExecutor);
+        stubServer.createContext("/v1/uin", exchange -> respond(exchange,
+                "{\"response\":{\"uin\":\"" + (1000000000 + uinCount.incrementAndGet()) + "\"}}"));
+        stubServer.createContext("/v1/schema/", exchange -> respond(exchange, objectMapper.writeValueAsString(
+                objectMapper.createObjectNode().set("response", objectMapper.createObjectNode()
+                        .put("idVersion", 0.1).put("schemaJson", SCHEMA_JSON)))));
+        stubServer.createContext("/v1/identity", exchange -> {
+            JsonNode request = objectMapper.readTree(exchange.getRequestBody()).get("request");
+            if(FAILING_PHONE.equals(request.at("/identity/phone").textValue())) {
+                respond(exchange, "{\"errors\":[{\"errorCode\":\"IDR-IDC-001\"}]}");
+                return;
+            }
+            addedIdentities.put(request.get("registrationId").textValue(), request.get("identity"));
+            respond(exchange, "{\"response\":{\"status\":\"ACTIVATED\"}}");
+        });
+        stubServer.start();
+        String baseUrl = "http://localhost:" + stubServer.getAddress().getPort() + "/v1";
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        idrepoProfileRegistryPlugin = new IdrepoProfileRegistryPluginImpl();
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "restTemplate", new RestTemplate());
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "argon2PasswordHasher", new Argon2PasswordHasher());
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "getUinEndpoint", baseUrl + "/uin");
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "schemaUrl", baseUrl + "/schema/");
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "identityEndpoint", baseUrl + "/identity");
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "addIdentityRequestID", "mosip.id.create");
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "identityRequestVersion", "v1");
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "defaultSelectedHandles", List.of("phone"));
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "mandatoryLanguages", List.of("eng"));
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "optionalLanguages", List.of("ara"));
+
+        ProfileBulkImporter profileBulkImporter = new ProfileBulkImporter();
+        ReflectionTestUtils.setField(profileBulkImporter, "concurrency", 4);
+        ReflectionTestUtils.setField(profileBulkImporter, "uinBatchSize", 5);
+        ReflectionTestUtils.setField(profileBulkImporter, "uinPrefetchSize", 10);
+        ReflectionTestUtils.setField(profileBulkImporter, "checkpointInterval", 5);
+        ReflectionTestUtils.setField(profileBulkImporter, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(profileBulkImporter, "idrepoPluginExecutors", new PluginExecutors());
+        ReflectionTestUtils.setField(profileBulkImporter, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(idrepoProfileRegistryPlugin, "profileBulkImporter", profileBulkImporter);
+    }
+
+    @After
+    public void tearDown() {
+        stubServer.stop(0);
+        stubExecutor.shutdownNow();
+    }
+
+    @Test
+    public void importProfiles_withValidAndInvalidRecords_thenImportValidAndReportInvalid() throws IOException {
+        List<String> records = getRecords(20);
+        records.set(4, "{\"identity\":{\"phone\":\"123\"}}");
+        records.set(9, "{\"identity\":");
+        records.set(14, "{\"identity\":{\"phone\":\"" + FAILING_PHONE + "\"}}");
+        Path source = write("profiles.ndjson", records);
+        Path checkpoint = temporaryFolder.getRoot().toPath().resolve("profiles.checkpoint");
+        Path errorReport = temporaryFolder.getRoot().toPath().resolve("profiles.errors");
+
+        ProfileImportReport report = idrepoProfileRegistryPlugin.importProfiles(source, checkpoint, errorReport);
+
+        Assert.assertEquals(17, report.getImported());
+        Assert.assertEquals(3, report.getFailed());
+        Assert.assertEquals(0, report.getSkipped());
+        Assert.assertEquals(20, report.getCheckpoint());
+        Assert.assertEquals("20", Files.readString(checkpoint));
+
+        Assert.assertEquals(17, addedIdentities.size());
+        Set<String> uins = addedIdentities.values().stream().map(identity -> identity.get("UIN").textValue())
+                .collect(Collectors.toSet());
+        Assert.assertEquals(17, uins.size());
+        JsonNode identity = addedIdentities.get("request-1");
+        Assert.assertEquals(0.1, identity.get("IDSchemaVersion").asDouble(), 0);
+        Assert.assertEquals("phone", identity.get("selectedHandles").get(0).textValue());
+
+        Map<Long, String> errors = new ConcurrentHashMap<>();
+        for(String line : Files.readAllLines(errorReport)) {
+            JsonNode error = objectMapper.readTree(line);
+            errors.put(error.get("line").asLong(), error.get("errorCode").textValue());
+        }
+        Assert.assertEquals(Map.of(5L, "invalid_phone", 10L, "invalid_input", 15L, "IDR-IDC-001"), errors);
+    }
+
+    @Test
+    public void importProfiles_withCheckpoint_thenResumeAfterCheckpoint() throws IOException {
+        Path source = write("profiles.ndjson", getRecords(20));
+        Path checkpoint = temporaryFolder.getRoot().toPath().resolve("profiles.checkpoint");
+        Files.writeString(checkpoint, "15");
+        Path errorReport = temporaryFolder.getRoot().toPath().resolve("profiles.errors");
+
+        ProfileImportReport report = idrepoProfileRegistryPlugin.importProfiles(source, checkpoint, errorReport);
+
+        Assert.assertEquals(5, report.getImported());
+        Assert.assertEquals(15, report.getSkipped());
+        Assert.assertEquals(20, report.getCheckpoint());
+        Assert.assertEquals(Set.of("request-16", "request-17", "request-18", "request-19", "request-20"),
+                new HashSet<>(addedIdentities.keySet()));
+        Assert.assertEquals(0, Files.readAllLines(errorReport).size());
+    }
+
+    @Test
+    public void importProfiles_withRecordsCompletedAfterCheckpoint_thenImportOnlyPendingRecords() throws IOException {
+        Path source = write("profiles.ndjson", getRecords(20));
+        Path checkpoint = temporaryFolder.getRoot().toPath().resolve("profiles.checkpoint");
+        Files.writeString(checkpoint, "15" + System.lineSeparator() + "17,19");
+        Path errorReport = temporaryFolder.getRoot().toPath().resolve("profiles.errors");
+
+        ProfileImportReport report = idrepoProfileRegistryPlugin.importProfiles(source, checkpoint, errorReport);
+
+        Assert.assertEquals(3, report.getImported());
+        Assert.assertEquals(17, report.getSkipped());
+        Assert.assertEquals(20, report.getCheckpoint());
+        Assert.assertEquals("20", Files.readString(checkpoint));
+        Assert.assertEquals(Set.of("request-16", "request-18", "request-20"), new HashSet<>(addedIdentities.keySet()));
+    }
+
+    @Test
+    public void importProfiles_withFewerRecordsThanPrefetchSize_thenFetchUinsOnlyForRecords() throws IOException {
+        Path source = write("profiles.ndjson", getRecords(3));
+        Path errorReport = temporaryFolder.getRoot().toPath().resolve("profiles.errors");
+
+        ProfileImportReport report = idrepoProfileRegistryPlugin.importProfiles(source,
+                temporaryFolder.getRoot().toPath().resolve("profiles.checkpoint"), errorReport);
+
+        Assert.assertEquals(3, report.getImported());
+        //each record's UIN is either prefetched or fetched directly, at worst both when they race
+        Assert.assertTrue(uinCount.get() <= 6);
+    }
+
+    @Test
+    public void importProfiles_withoutRequestId_thenUseSameRegistrationIdOnResume() throws IOException {
+        Path source = write("profiles.ndjson", List.of("{\"identity\":{\"phone\":\"+91841987001\"}}"));
+        Path errorReport = temporaryFolder.getRoot().toPath().resolve("profiles.errors");
+
+        idrepoProfileRegistryPlugin.importProfiles(source, temporaryFolder.getRoot().toPath().resolve("first.checkpoint"), errorReport);
+        idrepoProfileRegistryPlugin.importProfiles(source, temporaryFolder.getRoot().toPath().resolve("second.checkpoint"), errorReport);
+
+        Assert.assertEquals(1, addedIdentities.size());
+    }
+
+    @Test
+    public void importProfiles_withRequestIdAfterIdentity_thenReportAndImportWithRequestId() throws IOException {
+        Path source = write("profiles.ndjson", List.of(
+                "{\"identity\":{\"phone\":\"123\"},\"requestId\":\"request-1\"}",
+                "{\"source\":{\"system\":\"legacy\"},\"identity\":{\"phone\":\"+91841987002\"},\"requestId\":\"request-2\"}",
+                "{\"requestId\":\"request-3\"}"));
+        Path errorReport = temporaryFolder.getRoot().toPath().resolve("profiles.errors");
+
+        ProfileImportReport report = idrepoProfileRegistryPlugin.importProfiles(source,
+                temporaryFolder.getRoot().toPath().resolve("profiles.checkpoint"), errorReport);
+
+        Assert.assertEquals(1, report.getImported());
+        Assert.assertEquals(2, report.getFailed());
+        Assert.assertEquals(Set.of("request-2"), addedIdentities.keySet());
+        Assert.assertEquals(0.1, addedIdentities.get("request-2").get("IDSchemaVersion").asDouble(), 0);
+
+        Map<String, String> errors = new ConcurrentHashMap<>();
+        for(String line : Files.readAllLines(errorReport)) {
+            JsonNode error = objectMapper.readTree(line);
+            errors.put(error.get("requestId").textValue(), error.get("errorCode").textValue());
+        }
+        Assert.assertEquals(Map.of("request-1", "invalid_phone", "request-3", "invalid_input"), errors);
+    }
+
+    private List<String> getRecords(int count) {
+        List<String> records = new ArrayList<>();
+        for(int i = 1; i <= count; i++) {
+            records.add(String.format("{\"requestId\":\"request-%d\",\"identity\":{\"phone\":\"+91841987%03d\"," +
+                    "\"fullName\":[{\"language\":\"eng\",\"value\":\"John Doe\"}]}}", i, i));
+        }
+        return records;
+    }
+
+    private Path write(String fileName, List<String> records) throws IOException {
+        return Files.write(temporaryFolder.getRoot().toPath().resolve(fileName), records, StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] response = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+}
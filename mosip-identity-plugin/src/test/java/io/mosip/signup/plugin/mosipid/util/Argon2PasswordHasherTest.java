@@ -0,0 +1,137 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.api.exception.ProfileException;
+import io.mosip.signup.plugin.mosipid.dto.Password;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+
+public class Argon2PasswordHasherTest {
+
+    private Argon2PasswordHasher argon2PasswordHasher;
+
+    @Before
+    public void setUp() {
+        argon2PasswordHasher = new Argon2PasswordHasher();
+        ReflectionTestUtils.setField(argon2PasswordHasher, "mode", "local");
+        ReflectionTestUtils.setField(argon2PasswordHasher, "iterations", 2);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "memoryKib", 256);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "parallelism", 1);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "hashLength", 32);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "saltLength", 16);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "poolSize", 1);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "timeoutMillis", 5000L);
+        ReflectionTestUtils.setField(argon2PasswordHasher, "idrepoPluginExecutors", new PluginExecutors());
+        argon2PasswordHasher.init();
+    }
+
+    @After
+    public void tearDown() {
+        argon2PasswordHasher.destroy();
+    }
+
+    @Test
+    public void isEnabled_withPasswordHashMode_thenEnableOnlyLocalMode() {
+        Assert.assertTrue(argon2PasswordHasher.isEnabled());
+        ReflectionTestUtils.setField(argon2PasswordHasher, "mode", "remote");
+        Assert.assertFalse(argon2PasswordHasher.isEnabled());
+        ReflectionTestUtils.setField(argon2PasswordHasher, "mode", null);
+        Assert.assertFalse(argon2PasswordHasher.isEnabled());
+    }
+
+    @Test
+    public void hash_withPassword_thenReturnUrlSafeHashAndSalt() {
+        Password password = argon2PasswordHasher.hash("Password@123");
+
+        byte[] hash = Base64.getUrlDecoder().decode(password.getHash());
+        byte[] salt = Base64.getUrlDecoder().decode(password.getSalt());
+        Assert.assertEquals(32, hash.length);
+        Assert.assertEquals(16, salt.length);
+        Assert.assertFalse(password.getHash().endsWith("="));
+        Assert.assertArrayEquals(argon2PasswordHasher.generateHash("Password@123", salt), hash);
+    }
+
+    @Test
+    public void hash_withSamePassword_thenUseNewSalt() {
+        Password password1 = argon2PasswordHasher.hash("Password@123");
+        Password password2 = argon2PasswordHasher.hash("Password@123");
+
+        Assert.assertNotEquals(password1.getSalt(), password2.getSalt());
+        Assert.assertNotEquals(password1.getHash(), password2.getHash());
+    }
+
+    @Test
+    public void generateHash_withDifferentParameters_thenReturnDifferentHash() {
+        byte[] salt = new byte[16];
+        byte[] hash = argon2PasswordHasher.generateHash("Password@123", salt);
+        Assert.assertArrayEquals(hash, argon2PasswordHasher.generateHash("Password@123", salt));
+
+        ReflectionTestUtils.setField(argon2PasswordHasher, "iterations", 3);
+        Assert.assertFalse(Arrays.equals(hash, argon2PasswordHasher.generateHash("Password@123", salt)));
+    }
+
+    @Test
+    public void hash_withSaturatedPool_thenFail() throws Exception {
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(argon2PasswordHasher, "executor");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            started.countDown();
+            release.await();
+            return null;
+        });
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.submit(() -> null);
+
+        try {
+            argon2PasswordHasher.hash("Password@123");
+            Assert.fail();
+        } catch (ProfileException e) {
+            Assert.assertEquals(REQUEST_FAILED, e.getErrorCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void hash_whenNotCompletedWithinTimeout_thenFail() throws Exception {
+        ReflectionTestUtils.setField(argon2PasswordHasher, "timeoutMillis", 100L);
+        ExecutorService executor = (ExecutorService) ReflectionTestUtils.getField(argon2PasswordHasher, "executor");
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> {
+            release.await();
+            return null;
+        });
+
+        try {
+            argon2PasswordHasher.hash("Password@123");
+            Assert.fail();
+        } catch (ProfileException e) {
+            Assert.assertEquals(REQUEST_FAILED, e.getErrorCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void init_withPoolMemoryOverHalfOfHeap_thenFail() {
+        Argon2PasswordHasher hasher = new Argon2PasswordHasher();
+        ReflectionTestUtils.setField(hasher, "mode", "local");
+        ReflectionTestUtils.setField(hasher, "memoryKib", 65536);
+        ReflectionTestUtils.setField(hasher, "poolSize", (int) (Runtime.getRuntime().maxMemory() / (64L << 20)) + 1);
+        ReflectionTestUtils.setField(hasher, "idrepoPluginExecutors", new PluginExecutors());
+        Assert.assertThrows(IllegalStateException.class, hasher::init);
+    }
+}
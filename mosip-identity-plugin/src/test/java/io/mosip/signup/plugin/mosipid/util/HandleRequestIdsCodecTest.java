@@ -0,0 +1,51 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class HandleRequestIdsCodecTest {
+
+    private static final String UPPER_HEX_ID = "9F2C4B7A61D0E3F58A4C2B1D0E9F8A7B6C5D4E3F2A1B0C9D8E7F6A5B4C3D2E1F";
+    private static final String LOWER_HEX_ID = "9f2c4b7a61d0e3f58a4c2b1d0e9f8a7b6c5d4e3f2a1b0c9d8e7f6a5b4c3d2e1f";
+
+    @Test
+    public void encode_withHexAndTextIds_thenDecodeSameIds() {
+        List<String> handleRequestIds = Arrays.asList(UPPER_HEX_ID, LOWER_HEX_ID, "0123", "RID1", "AbCd", "abc",
+                "", "rid-\u0b86");
+
+        Assert.assertEquals(handleRequestIds, HandleRequestIdsCodec.decode(HandleRequestIdsCodec.encode(handleRequestIds)));
+    }
+
+    @Test
+    public void encode_withHexIds_thenStoreDigestBytes() {
+        List<String> handleRequestIds = Arrays.asList(UPPER_HEX_ID, LOWER_HEX_ID);
+
+        byte[] encoded = HandleRequestIdsCodec.encode(handleRequestIds);
+
+        Assert.assertEquals(2 + 2 * (2 + 32), encoded.length);
+    }
+
+    @Test
+    public void encode_withNoIds_thenDecodeEmptyList() {
+        Assert.assertEquals(List.of(), HandleRequestIdsCodec.decode(HandleRequestIdsCodec.encode(List.of())));
+    }
+
+    @Test
+    public void decode_withInvalidBytes_thenFail() {
+        byte[] encoded = HandleRequestIdsCodec.encode(List.of(UPPER_HEX_ID));
+        List<byte[]> invalidInputs = Arrays.asList(new byte[0], new byte[]{9, 1},
+                Arrays.copyOf(encoded, encoded.length - 1), Arrays.copyOf(encoded, 2), new byte[]{1, 1, 7, 0});
+
+        for (byte[] invalidInput : invalidInputs) {
+            try {
+                HandleRequestIdsCodec.decode(invalidInput);
+                Assert.fail();
+            } catch (IllegalArgumentException e) {
+                Assert.assertNotNull(e.getMessage());
+            }
+        }
+    }
+}
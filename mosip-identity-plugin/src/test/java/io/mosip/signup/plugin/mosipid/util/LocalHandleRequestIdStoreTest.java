@@ -0,0 +1,59 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LocalHandleRequestIdStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private LocalHandleRequestIdStore localHandleRequestIdStore;
+
+    @Before
+    public void setUp() {
+        localHandleRequestIdStore = new LocalHandleRequestIdStore();
+        ReflectionTestUtils.setField(localHandleRequestIdStore, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(localHandleRequestIdStore, "maxSize", 10L);
+        ReflectionTestUtils.setField(localHandleRequestIdStore, "ticker", (Ticker) nanos::get);
+        localHandleRequestIdStore.init();
+    }
+
+    @Test
+    public void get_withStoredIds_thenReturnIdsUntilTtl() {
+        localHandleRequestIdStore.put("request-1", List.of("RID1", "9F2C4B7A"));
+
+        Assert.assertEquals(List.of("RID1", "9F2C4B7A"), localHandleRequestIdStore.get("request-1"));
+        Assert.assertNull(localHandleRequestIdStore.get("request-2"));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        Assert.assertNull(localHandleRequestIdStore.get("request-1"));
+    }
+
+    @Test
+    public void put_beyondMaxSize_thenEvictIds() {
+        for (int i = 0; i < 50; i++)
+            localHandleRequestIdStore.put("request-" + i, List.of("RID" + i));
+
+        Cache<?, ?> cache = (Cache<?, ?>) ReflectionTestUtils.getField(localHandleRequestIdStore, "handleRequestIds");
+        cache.cleanUp();
+        Assert.assertTrue(cache.estimatedSize() <= 10);
+    }
+
+    @Test
+    public void profileCacheService_withStore_thenDelegateToStore() {
+        ProfileCacheService profileCacheService = new ProfileCacheService();
+        ReflectionTestUtils.setField(profileCacheService, "handleRequestIdStore", localHandleRequestIdStore);
+
+        Assert.assertFalse(profileCacheService.isCacheManagerStore());
+        Assert.assertEquals(List.of("RID1", "RID2"), profileCacheService.setHandleRequestIds("request-1", List.of("RID1", "RID2")));
+        Assert.assertEquals(List.of("RID1", "RID2"), profileCacheService.getHandleRequestIds("request-1"));
+    }
+}
@@ -0,0 +1,200 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.api.exception.ProfileException;
+import io.mosip.signup.api.util.ProfileCreateUpdateStatus;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+
+public class ProfileStatusTrackerTest {
+
+    private ProfileStatusTracker profileStatusTracker;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final Map<String, ProfileCreateUpdateStatus> serverStatuses = new ConcurrentHashMap<>();
+
+    private final AtomicInteger fetchCount = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        profileStatusTracker = new ProfileStatusTracker();
+        ReflectionTestUtils.setField(profileStatusTracker, "cacheSize", 100);
+        ReflectionTestUtils.setField(profileStatusTracker, "terminalTtlSeconds", 3600L);
+        ReflectionTestUtils.setField(profileStatusTracker, "pendingTtlMillis", 0L);
+        ReflectionTestUtils.setField(profileStatusTracker, "threads", 4);
+        ReflectionTestUtils.setField(profileStatusTracker, "idrepoPluginExecutors", new PluginExecutors());
+        ReflectionTestUtils.setField(profileStatusTracker, "meterRegistry", meterRegistry);
+        profileStatusTracker.init();
+    }
+
+    @After
+    public void tearDown() {
+        profileStatusTracker.destroy();
+    }
+
+    @Test
+    public void getStatus_withTerminalStatus_thenFetchOnlyOnce() {
+        serverStatuses.put("requestId", ProfileCreateUpdateStatus.COMPLETED);
+
+        for(int i = 0; i < 3; i++)
+            Assert.assertEquals(ProfileCreateUpdateStatus.COMPLETED, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+        Assert.assertEquals(1, fetchCount.get());
+        Assert.assertEquals(2.0, meterRegistry.counter("signup.profile.status", "source", "cache").count(), 0);
+    }
+
+    @Test
+    public void getStatus_withPendingStatus_thenFetchUntilTerminal() {
+        serverStatuses.put("requestId", ProfileCreateUpdateStatus.PENDING);
+        Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+        Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+
+        serverStatuses.put("requestId", ProfileCreateUpdateStatus.FAILED);
+        Assert.assertEquals(ProfileCreateUpdateStatus.FAILED, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+        Assert.assertEquals(ProfileCreateUpdateStatus.FAILED, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+        Assert.assertEquals(3, fetchCount.get());
+    }
+
+    @Test
+    public void getStatus_withPendingTtl_thenReusePendingStatus() {
+        ReflectionTestUtils.setField(profileStatusTracker, "pendingTtlMillis", 60000L);
+        serverStatuses.put("requestId", ProfileCreateUpdateStatus.PENDING);
+
+        Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+        Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+        Assert.assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    public void getStatus_withMoreStatusesThanCacheSize_thenKeepCacheBounded() {
+        profileStatusTracker.destroy();
+        ReflectionTestUtils.setField(profileStatusTracker, "cacheSize", 2);
+        profileStatusTracker.init();
+        for(int i = 0; i < 10; i++) {
+            serverStatuses.put("requestId" + i, ProfileCreateUpdateStatus.COMPLETED);
+            profileStatusTracker.getStatus(List.of("requestId" + i), this::fetch);
+        }
+
+        Cache<?, ?> statuses = (Cache<?, ?>) ReflectionTestUtils.getField(profileStatusTracker, "statuses");
+        statuses.cleanUp();
+        Assert.assertTrue(statuses.estimatedSize() <= 2);
+    }
+
+    @Test
+    public void getStatus_withConcurrentPolls_thenFetchOnce() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pollers = Executors.newFixedThreadPool(2);
+        try {
+            Future<ProfileCreateUpdateStatus> first = pollers.submit(() -> profileStatusTracker.getStatus(List.of("requestId"),
+                    requestId -> {
+                        fetchCount.incrementAndGet();
+                        fetchStarted.countDown();
+                        await(release);
+                        return ProfileCreateUpdateStatus.PENDING;
+                    }));
+            Assert.assertTrue(fetchStarted.await(5, TimeUnit.SECONDS));
+            Future<ProfileCreateUpdateStatus> second = pollers.submit(() -> profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+            waitFor(() -> meterRegistry.counter("signup.profile.status", "source", "coalesced").count() == 1);
+            release.countDown();
+
+            Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, first.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, second.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, fetchCount.get());
+        } finally {
+            pollers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void getStatus_withMultipleHandles_thenFetchInParallel() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        ProfileCreateUpdateStatus status = profileStatusTracker.getStatus(List.of("handle1", "handle2", "handle3"),
+                requestId -> {
+                    allStarted.countDown();
+                    await(allStarted);
+                    return ProfileCreateUpdateStatus.COMPLETED;
+                });
+        Assert.assertEquals(ProfileCreateUpdateStatus.COMPLETED, status);
+        Assert.assertEquals(0, allStarted.getCount());
+    }
+
+    @Test
+    public void getStatus_withMultipleHandles_thenCombineStatus() {
+        serverStatuses.put("handle1", ProfileCreateUpdateStatus.COMPLETED);
+        serverStatuses.put("handle2", ProfileCreateUpdateStatus.PENDING);
+        Assert.assertEquals(ProfileCreateUpdateStatus.PENDING, profileStatusTracker.getStatus(List.of("handle1", "handle2"), this::fetch));
+
+        serverStatuses.put("handle2", ProfileCreateUpdateStatus.COMPLETED);
+        Assert.assertEquals(ProfileCreateUpdateStatus.COMPLETED, profileStatusTracker.getStatus(List.of("handle1", "handle2"), this::fetch));
+
+        serverStatuses.put("handle3", ProfileCreateUpdateStatus.FAILED);
+        Assert.assertEquals(ProfileCreateUpdateStatus.FAILED, profileStatusTracker.getStatus(List.of("handle1", "handle2", "handle3"), this::fetch));
+    }
+
+    @Test
+    public void getStatus_withFetchFailure_thenFailAndFetchAgain() {
+        try {
+            profileStatusTracker.getStatus(List.of("requestId"), requestId -> {
+                throw new ProfileException(REQUEST_FAILED);
+            });
+            Assert.fail();
+        } catch (ProfileException e) {
+            Assert.assertEquals(REQUEST_FAILED, e.getErrorCode());
+        }
+
+        serverStatuses.put("requestId", ProfileCreateUpdateStatus.COMPLETED);
+        Assert.assertEquals(ProfileCreateUpdateStatus.COMPLETED, profileStatusTracker.getStatus(List.of("requestId"), this::fetch));
+    }
+
+    @Test
+    public void getStatus_withFetchFailureAndFailedHandle_thenReturnFailed() {
+        serverStatuses.put("handle2", ProfileCreateUpdateStatus.FAILED);
+        ProfileCreateUpdateStatus status = profileStatusTracker.getStatus(List.of("handle1", "handle2"), requestId -> {
+            if("handle1".equals(requestId))
+                throw new ProfileException(REQUEST_FAILED);
+            return fetch(requestId);
+        });
+        Assert.assertEquals(ProfileCreateUpdateStatus.FAILED, status);
+    }
+
+    private ProfileCreateUpdateStatus fetch(String requestId) {
+        fetchCount.incrementAndGet();
+        return serverStatuses.get(requestId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while(!condition.getAsBoolean() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,100 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.mosip.signup.api.exception.ProfileException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+import static org.mockito.ArgumentMatchers.any;
+
+/**
+ * Two stores, the signup nodes, share an in-memory stand-in of the redis server.
+ */
+public class RedisHandleRequestIdStoreTest {
+
+    private final Map<ByteBuffer, byte[]> server = new ConcurrentHashMap<>();
+
+    private final Map<ByteBuffer, Expiration> expirations = new ConcurrentHashMap<>();
+
+    private RedisConnectionFactory redisConnectionFactory;
+
+    private RedisConnection redisConnection;
+
+    @Before
+    public void setUp() {
+        redisConnection = Mockito.mock(RedisConnection.class);
+        Mockito.when(redisConnection.set(any(byte[].class), any(byte[].class), any(Expiration.class),
+                any(RedisStringCommands.SetOption.class))).thenAnswer(invocation -> {
+            ByteBuffer key = ByteBuffer.wrap(invocation.getArgument(0));
+            server.put(key, invocation.getArgument(1));
+            expirations.put(key, invocation.getArgument(2));
+            return true;
+        });
+        Mockito.when(redisConnection.get(any(byte[].class)))
+                .thenAnswer(invocation -> server.get(ByteBuffer.wrap(invocation.getArgument(0))));
+        redisConnectionFactory = Mockito.mock(RedisConnectionFactory.class);
+        Mockito.when(redisConnectionFactory.getConnection()).thenReturn(redisConnection);
+    }
+
+    @Test
+    public void get_withIdsPutOnAnotherNode_thenReturnSameIds() {
+        RedisHandleRequestIdStore firstNode = getStore();
+        RedisHandleRequestIdStore secondNode = getStore();
+        List<String> handleRequestIds = List.of("9F2C4B7A61D0E3F5", "RID1");
+
+        firstNode.put("request-1", handleRequestIds);
+
+        Assert.assertEquals(handleRequestIds, secondNode.get("request-1"));
+        Assert.assertNull(secondNode.get("request-2"));
+        ByteBuffer key = ByteBuffer.wrap("signup:handle-request-ids:request-1".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(2 + (2 + 8) + (2 + 4), server.get(key).length);
+        Assert.assertEquals(300, expirations.get(key).getExpirationTimeInSeconds());
+        Mockito.verify(redisConnection, Mockito.times(3)).close();
+    }
+
+    @Test
+    public void put_withServerUnavailable_thenFail() {
+        Mockito.when(redisConnectionFactory.getConnection()).thenThrow(new RedisConnectionFailureException("unavailable"));
+
+        try {
+            getStore().put("request-1", List.of("RID1"));
+            Assert.fail();
+        } catch (ProfileException e) {
+            Assert.assertEquals(REQUEST_FAILED, e.getErrorCode());
+        }
+    }
+
+    @Test
+    public void get_withCorruptValue_thenFail() {
+        server.put(ByteBuffer.wrap("signup:handle-request-ids:request-1".getBytes(StandardCharsets.UTF_8)), new byte[]{9});
+
+        try {
+            getStore().get("request-1");
+            Assert.fail();
+        } catch (ProfileException e) {
+            Assert.assertEquals(REQUEST_FAILED, e.getErrorCode());
+        }
+    }
+
+    private RedisHandleRequestIdStore getStore() {
+        RedisHandleRequestIdStore store = new RedisHandleRequestIdStore();
+        ReflectionTestUtils.setField(store, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(store, "keyPrefix", "signup:handle-request-ids:");
+        ReflectionTestUtils.setField(store, "redisConnectionFactory", redisConnectionFactory);
+        return store;
+    }
+}
@@ -0,0 +1,199 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.api.exception.ProfileException;
+import io.mosip.signup.plugin.mosipid.dto.SchemaResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+
+public class SchemaRegistryTest {
+
+    private SchemaRegistry schemaRegistry;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private final Map<Double, AtomicInteger> versionLoadCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Version returned by the loader for the "latest" (0) request
+     */
+    private volatile double latestVersion = 0.3;
+
+    private volatile boolean loadFailing;
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        schemaRegistry = new SchemaRegistry(this::load);
+        schemaRegistry.start(new PluginExecutors().newSingleThreadScheduledExecutor("idschema-refresh"), 0,
+                meterRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        schemaRegistry.destroy();
+    }
+
+    @Test
+    public void get_withCachedVersion_thenLoadOnce() {
+        SchemaResponse schemaResponse = schemaRegistry.get(0.2);
+        Assert.assertSame(schemaResponse, schemaRegistry.get(0.2));
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, meterRegistry.counter("signup.idschema.cache", "result", "hit").count(), 0);
+        Assert.assertEquals(1, meterRegistry.counter("signup.idschema.cache", "result", "miss").count(), 0);
+        Assert.assertEquals(1, meterRegistry.timer("signup.idschema.load", "outcome", "success").count());
+    }
+
+    @Test
+    public void get_withLatestVersion_thenCacheUnderResolvedVersion() {
+        SchemaResponse latest = schemaRegistry.get(0);
+        Assert.assertSame(latest, schemaRegistry.get(0.3));
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void getIfLoaded_thenReturnOnlyLoadedVersion() {
+        Assert.assertNull(schemaRegistry.getIfLoaded(0.2));
+        Assert.assertEquals(0, loadCount.get());
+
+        SchemaResponse schemaResponse = schemaRegistry.get(0.2);
+        Assert.assertSame(schemaResponse, schemaRegistry.getIfLoaded(0.2));
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, meterRegistry.counter("signup.idschema.cache", "result", "hit").count(), 0);
+    }
+
+    @Test
+    public void get_withConcurrentRequests_thenLoadOnce() throws Exception {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        schemaRegistry.destroy();
+        schemaRegistry = new SchemaRegistry(version -> {
+            loadStarted.countDown();
+            try {
+                releaseLoad.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(version);
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<SchemaResponse>> results = new ArrayList<>();
+            for(int i = 0; i < 8; i++)
+                results.add(executorService.submit(() -> schemaRegistry.get(0.2)));
+            Assert.assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            releaseLoad.countDown();
+
+            SchemaResponse schemaResponse = results.get(0).get(5, TimeUnit.SECONDS);
+            for(Future<SchemaResponse> result : results)
+                Assert.assertSame(schemaResponse, result.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, loadCount.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void get_withLoadFailure_thenLoadAgainOnNextRequest() {
+        loadFailing = true;
+        try {
+            schemaRegistry.get(0.2);
+            Assert.fail();
+        } catch (ProfileException e) {
+            Assert.assertEquals(REQUEST_FAILED, e.getErrorCode());
+        }
+        Assert.assertEquals(1, meterRegistry.timer("signup.idschema.load", "outcome", "failure").count());
+
+        loadFailing = false;
+        Assert.assertNotNull(schemaRegistry.get(0.2));
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void refresh_withUpdatedSchema_thenReplaceLoadedSchema() {
+        SchemaResponse schemaResponse = schemaRegistry.get(0.2);
+        schemaRegistry.refresh();
+
+        SchemaResponse refreshed = schemaRegistry.get(0.2);
+        Assert.assertNotSame(schemaResponse, refreshed);
+        Assert.assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    public void refresh_withLatestAndResolvedVersion_thenFetchOnce() {
+        schemaRegistry.get(0);
+        schemaRegistry.get(0.3);
+        Assert.assertEquals(1, loadCount.get());
+
+        schemaRegistry.refresh();
+        Assert.assertEquals(2, loadCount.get());
+        Assert.assertEquals(2, versionLoadCounts.get(0.0).get());
+        Assert.assertNull(versionLoadCounts.get(0.3));
+        Assert.assertSame(schemaRegistry.get(0), schemaRegistry.get(0.3));
+    }
+
+    @Test
+    public void refresh_withNewLatestVersion_thenPointLatestAtNewVersion() {
+        SchemaResponse previous = schemaRegistry.get(0);
+        latestVersion = 0.4;
+        schemaRegistry.refresh();
+
+        SchemaResponse latest = schemaRegistry.get(0);
+        Assert.assertEquals(0.4, latest.getIdVersion(), 0);
+        Assert.assertSame(latest, schemaRegistry.get(0.4));
+        Assert.assertEquals(3, loadCount.get());
+        Assert.assertEquals(1, versionLoadCounts.get(0.3).get());
+        Assert.assertNotSame(previous, schemaRegistry.get(0.3));
+    }
+
+    @Test
+    public void refresh_withLoadFailure_thenKeepLoadedSchema() {
+        SchemaResponse schemaResponse = schemaRegistry.get(0.2);
+        loadFailing = true;
+        schemaRegistry.refresh();
+
+        loadFailing = false;
+        Assert.assertSame(schemaResponse, schemaRegistry.get(0.2));
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    public void warmUp_withLatestVersion_thenLoadInBackground() throws Exception {
+        schemaRegistry.warmUp(0);
+        long deadline = System.currentTimeMillis() + 5000;
+        while(loadCount.get() == 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+
+        Assert.assertNotNull(schemaRegistry.get(0.3));
+        Assert.assertEquals(1, loadCount.get());
+    }
+
+    private SchemaResponse load(double version) {
+        if(loadFailing)
+            throw new ProfileException(REQUEST_FAILED);
+        loadCount.incrementAndGet();
+        versionLoadCounts.computeIfAbsent(version, v -> new AtomicInteger()).incrementAndGet();
+        SchemaResponse schemaResponse = new SchemaResponse();
+        schemaResponse.setIdVersion(version == 0 ? latestVersion : version);
+        return schemaResponse;
+    }
+}
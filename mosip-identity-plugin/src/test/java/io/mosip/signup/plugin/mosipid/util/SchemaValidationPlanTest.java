@@ -0,0 +1,190 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.signup.api.exception.InvalidProfileException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class SchemaValidationPlanTest {
+
+    private static final String SCHEMA_JSON = "{\"properties\":{\"identity\":{\"required\":[\"IDSchemaVersion\",\"phone\",\"fullName\"],\"properties\":{" +
+            "\"IDSchemaVersion\":{\"type\":\"number\",\"minimum\":0}," +
+            "\"phone\":{\"validators\":[{\"validator\":\"^[+]91([0-9]{8,9})$\",\"arguments\":[],\"type\":\"regex\"}],\"type\":\"string\"}," +
+            "\"fullName\":{\"validators\":[{\"validator\":\"^[\\\\u0600-\\\\u06FF ]{3,50}$\",\"type\":\"regex\",\"langCode\":\"ara\"}," +
+            "{\"validator\":\"^[A-Za-z ]{3,50}$\",\"type\":\"regex\"}],\"$ref\":\"#/definitions/simpleType\"}," +
+            "\"gender\":{\"validators\":[],\"$ref\":\"#/definitions/simpleType\"}," +
+            "\"email\":{\"validators\":[{\"validator\":\"\",\"type\":\"none\"}],\"type\":\"string\"}," +
+            "\"consent\":{\"validators\":[{\"validator\":\"^(true|false)$\",\"type\":\"regex\"}],\"type\":\"boolean\"}," +
+            "\"proofOfAddress\":{\"validators\":[],\"$ref\":\"#/definitions/documentType\"}}}}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final List<String> mandatoryLanguages = List.of("eng");
+
+    private final List<String> optionalLanguages = List.of("ara");
+
+    private SchemaValidationPlan validationPlan;
+
+    @Before
+    public void setUp() throws Exception {
+        validationPlan = SchemaValidationPlan.compile(objectMapper.readTree(SCHEMA_JSON));
+    }
+
+    @Test
+    public void validate_withValidIdentity_thenPass() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"IDSchemaVersion\":0.2,\"phone\":\"+91841987567\"," +
+                "\"fullName\":[{\"language\":\"eng\",\"value\":\"John Doe\"},{\"language\":\"ara\",\"value\":\"\\u062c\\u0648\\u0646\"}]," +
+                "\"gender\":[{\"language\":\"eng\",\"value\":\"Male\"}],\"email\":\"john@example.com\",\"consent\":true}");
+        validationPlan.validateRequiredFields(identity);
+        validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages);
+    }
+
+    @Test
+    public void validateRequiredFields_withMissingField_thenFail() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"IDSchemaVersion\":0.2,\"phone\":\"+91841987567\"}");
+        assertErrorCode("invalid_fullname", () -> validationPlan.validateRequiredFields(identity));
+    }
+
+    @Test
+    public void validateFields_withUnknownField_thenFail() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"nickName\":\"John\"}");
+        assertErrorCode(ErrorConstants.UNKNOWN_FIELD, () -> validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages));
+    }
+
+    @Test
+    public void validateFields_withRegexMismatch_thenFail() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"phone\":\"841987567\"}");
+        assertErrorCode("invalid_phone", () -> validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages));
+    }
+
+    @Test
+    public void validateFields_withBlankValue_thenFail() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"email\":\" \"}");
+        assertErrorCode("invalid_email", () -> validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages));
+    }
+
+    @Test
+    public void validateFields_withLanguageSpecificValidator_thenUseValidatorOfValueLanguage() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"fullName\":[{\"language\":\"eng\",\"value\":\"John Doe\"}," +
+                "{\"language\":\"ara\",\"value\":\"John Doe\"}]}");
+        assertErrorCode("invalid_fullname", () -> validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages));
+    }
+
+    @Test
+    public void validateFields_withoutMandatoryLanguage_thenFail() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"fullName\":[{\"language\":\"ara\",\"value\":\"\\u062c\\u0648\\u0646\"}]}");
+        assertErrorCode(ErrorConstants.INVALID_LANGUAGE, () -> validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages));
+    }
+
+    @Test
+    public void validateFields_withUnsupportedLanguage_thenFail() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"fullName\":[{\"language\":\"eng\",\"value\":\"John Doe\"}," +
+                "{\"language\":\"fra\",\"value\":\"Jean\"}]}");
+        assertErrorCode(ErrorConstants.INVALID_LANGUAGE, () -> validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages));
+    }
+
+    @Test
+    public void validateFields_withSingleValueForMultiLingualField_thenFail() throws Exception {
+        JsonNode identity = objectMapper.readTree("{\"fullName\":\"John Doe\"}");
+        assertErrorCode("invalid_fullname", () -> validationPlan.validateFields(identity, mandatoryLanguages, optionalLanguages));
+    }
+
+    @Test
+    public void validate_withIdentityStream_thenPass() throws Exception {
+        validate("{\"IDSchemaVersion\":0.2,\"phone\":\"+91841987567\",\"fullName\":[{\"value\":\"\\u062c\\u0648\\u0646\",\"language\":\"ara\"}," +
+                "{\"language\":\"eng\",\"value\":\"John Doe\"}],\"proofOfAddress\":{\"format\":\"pdf\",\"value\":\"JVBERi0=\"}}");
+    }
+
+    @Test
+    public void validate_withValueBeforeLanguage_thenUseValidatorOfValueLanguage() {
+        assertErrorCode("invalid_fullname", () -> validate("{\"fullName\":[{\"language\":\"eng\",\"value\":\"John Doe\"}," +
+                "{\"value\":\"John Doe\",\"language\":\"ara\"}]}"));
+    }
+
+    @Test
+    public void validate_withMissingValue_thenFail() {
+        assertErrorCode("invalid_fullname", () -> validate("{\"fullName\":[{\"language\":\"eng\"}]}"));
+    }
+
+    @Test
+    public void validate_withMissingRequiredField_thenFailAfterFieldsAreValidated() {
+        assertErrorCode("invalid_fullname", () -> validate("{\"IDSchemaVersion\":0.2,\"phone\":\"+91841987567\"}"));
+        assertErrorCode("invalid_phone", () -> validate("{\"IDSchemaVersion\":0.2,\"phone\":\"+91\"}"));
+    }
+
+    @Test
+    public void validate_withMalformedIdentity_thenFail() {
+        assertErrorCode(ErrorConstants.INVALID_INPUT, () -> validate("{\"phone\":\"+91841987567\","));
+        assertErrorCode(ErrorConstants.INVALID_INPUT, () -> validate("[]"));
+    }
+
+    @Test
+    public void validate_withLargeValueInFieldWithoutValidators_thenSkipValue() throws Exception {
+        String prefix = "{\"IDSchemaVersion\":0.2,\"phone\":\"+91841987567\",\"fullName\":[{\"language\":\"eng\",\"value\":\"John Doe\"}]," +
+                "\"proofOfAddress\":{\"format\":\"pdf\",\"value\":\"";
+        InputStream largeValue = new SequenceInputStream(Collections.enumeration(List.of(
+                new ByteArrayInputStream(prefix.getBytes(StandardCharsets.UTF_8)),
+                new RepeatingInputStream('A', 64 * 1024 * 1024),
+                new ByteArrayInputStream("\"}}".getBytes(StandardCharsets.UTF_8)))));
+        try (JsonParser parser = objectMapper.getFactory().createParser(largeValue)) {
+            validationPlan.validate(parser, true, mandatoryLanguages, optionalLanguages);
+        }
+    }
+
+    private void validate(String identity) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(identity)) {
+            validationPlan.validate(parser, true, mandatoryLanguages, optionalLanguages);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void assertErrorCode(String errorCode, Runnable validation) {
+        try {
+            validation.run();
+            Assert.fail();
+        } catch (InvalidProfileException e) {
+            Assert.assertEquals(errorCode, e.getErrorCode());
+        }
+    }
+
+    private static class RepeatingInputStream extends InputStream {
+        private final int value;
+        private long remaining;
+
+        private RepeatingInputStream(int value, long length) {
+            this.value = value;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() {
+            if (remaining == 0)
+                return -1;
+            remaining--;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (remaining == 0)
+                return -1;
+            int count = (int) Math.min(len, remaining);
+            Arrays.fill(b, off, off + count, (byte) value);
+            remaining -= count;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.mosip.signup.plugin.mosipid.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.plugin.mosipid.helper.PluginExecutors;
+import io.mosip.signup.api.exception.ProfileException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static io.mosip.signup.plugin.mosipid.util.ErrorConstants.REQUEST_FAILED;
+
+public class UinReservoirTest {
+
+    private UinReservoir uinReservoir;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final AtomicInteger fetchCount = new AtomicInteger();
+
+    private final Supplier<String> uinSupplier = () -> "reserved-" + fetchCount.incrementAndGet();
+
+    private final Supplier<String> fallbackSupplier = () -> "fetched";
+
+    private final Clock clock = Clock.systemUTC();
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        uinReservoir = new UinReservoir();
+        ReflectionTestUtils.setField(uinReservoir, "enabled", true);
+        ReflectionTestUtils.setField(uinReservoir, "capacity", 10);
+        ReflectionTestUtils.setField(uinReservoir, "lowWaterMark", 4);
+        ReflectionTestUtils.setField(uinReservoir, "batchSize", 5);
+        ReflectionTestUtils.setField(uinReservoir, "ttlSeconds", 0L);
+        ReflectionTestUtils.setField(uinReservoir, "checkIntervalSeconds", 3600L);
+        ReflectionTestUtils.setField(uinReservoir, "idrepoPluginExecutors", new PluginExecutors());
+        ReflectionTestUtils.setField(uinReservoir, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(uinReservoir, "clock", clock);
+    }
+
+    @After
+    public void tearDown() {
+        uinReservoir.destroy();
+    }
+
+    @Test
+    public void take_withReservoirDisabled_thenFetchUin() {
+        ReflectionTestUtils.setField(uinReservoir, "enabled", false);
+        uinReservoir.start(uinSupplier);
+        Assert.assertEquals("fetched", uinReservoir.take(fallbackSupplier));
+        Assert.assertEquals(0, fetchCount.get());
+    }
+
+    @Test
+    public void take_withReservedUins_thenReturnReservedUin() throws Exception {
+        uinReservoir.start(uinSupplier);
+        waitUntil(() -> getReservedCount() == 5);
+
+        Assert.assertEquals("reserved-1", uinReservoir.take(fallbackSupplier));
+        Assert.assertEquals(1, meterRegistry.counter("signup.uin.reservoir", "result", "hit").count(), 0);
+        Assert.assertEquals(4, getReservedCount());
+        Assert.assertEquals(5, fetchCount.get());
+    }
+
+    @Test
+    public void take_belowLowWaterMark_thenRefillInBackground() throws Exception {
+        uinReservoir.start(uinSupplier);
+        waitUntil(() -> getReservedCount() == 5);
+
+        uinReservoir.take(fallbackSupplier);
+        uinReservoir.take(fallbackSupplier);
+        waitUntil(() -> getReservedCount() == 8);
+        Assert.assertEquals(10, fetchCount.get());
+    }
+
+    @Test
+    public void take_withoutTtl_thenKeepReservedUins() throws Exception {
+        uinReservoir.start(uinSupplier);
+        waitUntil(() -> getReservedCount() == 5);
+        ReflectionTestUtils.setField(uinReservoir, "clock", Clock.offset(clock, Duration.ofDays(30)));
+
+        Assert.assertEquals("reserved-1", uinReservoir.take(fallbackSupplier));
+        Assert.assertEquals(0, meterRegistry.counter("signup.uin.reservoir", "result", "expired").count(), 0);
+    }
+
+    @Test
+    public void take_withExpiredUins_thenFetchUin() throws Exception {
+        ReflectionTestUtils.setField(uinReservoir, "ttlSeconds", 60L);
+        uinReservoir.start(uinSupplier);
+        waitUntil(() -> getReservedCount() == 5);
+        ReflectionTestUtils.setField(uinReservoir, "clock", Clock.offset(clock, Duration.ofSeconds(61)));
+
+        Assert.assertEquals("fetched", uinReservoir.take(fallbackSupplier));
+        Assert.assertEquals(5, meterRegistry.counter("signup.uin.reservoir", "result", "expired").count(), 0);
+        Assert.assertEquals(1, meterRegistry.counter("signup.uin.reservoir", "result", "miss").count(), 0);
+    }
+
+    @Test
+    public void take_withIdgeneratorFailure_thenFetchUin() throws Exception {
+        uinReservoir.start(() -> {
+            fetchCount.incrementAndGet();
+            throw new ProfileException(REQUEST_FAILED);
+        });
+        waitUntil(() -> fetchCount.get() >= 1);
+
+        Assert.assertEquals("fetched", uinReservoir.take(fallbackSupplier));
+    }
+
+    @Test
+    public void destroy_withReservedUins_thenDiscardUnusedUins() throws Exception {
+        uinReservoir.start(uinSupplier);
+        waitUntil(() -> getReservedCount() == 5);
+
+        uinReservoir.destroy();
+        Assert.assertEquals(0, getReservedCount());
+        Assert.assertEquals(5, meterRegistry.counter("signup.uin.reservoir", "result", "unused").count(), 0);
+    }
+
+    private int getReservedCount() {
+        return (int) meterRegistry.get("signup.uin.reservoir.size").gauge().value();
+    }
+
+    private void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while(!condition.getAsBoolean() && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.helper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.esignet.api.dto.AuthChallenge;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Timers of the plugin SPI calls and of the stages of each call: request build, crypto, sign, http and response
+ * parse. esignet.plugin.operation is recorded once per call with the outcome and the error code,
+ * esignet.plugin.stage once per stage with the outcome of the stage. Both are tagged with the plugin, the
+ * operation, the relying party and the auth factors of the call. Count of the timers is the number of calls by
+ * outcome and error code.
+ *
+ * Not a component, each plugin registers it as a bean with its plugin name, the settings are injected from the
+ * mosip.esignet.plugin.metrics properties.
+ */
+public class PluginMetrics {
+
+    public static final String STAGE_REQUEST_BUILD = "request_build";
+    public static final String STAGE_CRYPTO = "crypto";
+    public static final String STAGE_SIGN = "sign";
+    public static final String STAGE_HTTP = "http";
+    public static final String STAGE_RESPONSE_PARSE = "response_parse";
+    public static final String NONE = "none";
+
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+    private static final Call NOOP = new Call(null, null);
+
+    @Value("${mosip.esignet.plugin.metrics.enabled:true}")
+    private boolean enabled;
+
+    @Value("${mosip.esignet.plugin.metrics.stages-enabled:true}")
+    private boolean stagesEnabled;
+
+    @Value("${mosip.esignet.plugin.metrics.relying-party-tag:true}")
+    private boolean relyingPartyTag;
+
+    @Value("${mosip.esignet.plugin.metrics.percentile-histogram:false}")
+    private boolean percentileHistogram;
+
+    @Value("#{'${mosip.esignet.plugin.metrics.percentiles:0.9}'.split(',')}")
+    private List<String> percentiles;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final String plugin;
+
+    private double[] percentileValues = new double[0];
+
+    /**
+     * @param plugin value of the plugin tag
+     */
+    public PluginMetrics(String plugin) {
+        this.plugin = plugin;
+    }
+
+    @PostConstruct
+    public void init() {
+        if(percentiles != null)
+            percentileValues = percentiles.stream().map(String::trim).filter(percentile -> !percentile.isEmpty())
+                    .mapToDouble(Double::parseDouble).toArray();
+    }
+
+    /**
+     * @param operation SPI operation
+     * @param relyingPartyId relying party of the call, null if not known
+     * @param authFactor auth factors of the call, {@link #NONE} if the call is not an authentication
+     * @return call to time the stages of and to record the outcome of
+     */
+    public Call start(String operation, String relyingPartyId, String authFactor) {
+        if(!enabled)
+            return NOOP;
+        return new Call(this, Tags.of("plugin", plugin, "operation", operation,
+                "relying_party", relyingPartyTag && relyingPartyId != null ? relyingPartyId : NONE,
+                "auth_factor", authFactor == null ? NONE : authFactor));
+    }
+
+    /**
+     * @return distinct auth factor types of the challenges, sorted and comma separated, {@link #NONE} if no challenge
+     */
+    public static String getAuthFactors(List<AuthChallenge> challengeList) {
+        if(challengeList == null || challengeList.isEmpty())
+            return NONE;
+        TreeSet<String> authFactors = new TreeSet<>();
+        for(AuthChallenge authChallenge : challengeList)
+            authFactors.add(String.valueOf(authChallenge.getAuthFactorType()));
+        return String.join(",", authFactors);
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags)
+                .publishPercentileHistogram(percentileHistogram)
+                .publishPercentiles(percentileValues)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface Stage<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    @FunctionalInterface
+    public interface StageRunnable<E extends Exception> {
+        void run() throws E;
+    }
+
+    public static final class Call {
+        private final PluginMetrics metrics;
+        private final Tags tags;
+        private final Timer.Sample sample;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private Call(PluginMetrics metrics, Tags tags) {
+            this.metrics = metrics;
+            this.tags = tags;
+            this.sample = metrics == null ? null : Timer.start(metrics.meterRegistry);
+        }
+
+        public <T, E extends Exception> T time(String stage, Stage<T, E> callable) throws E {
+            if(metrics == null || !metrics.stagesEnabled)
+                return callable.call();
+
+            Timer.Sample stageSample = Timer.start(metrics.meterRegistry);
+            String outcome = FAILURE;
+            try {
+                T result = callable.call();
+                outcome = SUCCESS;
+                return result;
+            } finally {
+                stageSample.stop(metrics.timer("esignet.plugin.stage", tags.and("stage", stage, "outcome", outcome)));
+            }
+        }
+
+        public <E extends Exception> void run(String stage, StageRunnable<E> runnable) throws E {
+            time(stage, () -> {
+                runnable.run();
+                return null;
+            });
+        }
+
+        /**
+         * Times the stage till the future completes.
+         */
+        public <T> CompletableFuture<T> timeAsync(String stage, Supplier<CompletableFuture<T>> supplier) {
+            if(metrics == null || !metrics.stagesEnabled)
+                return supplier.get();
+
+            Timer.Sample stageSample = Timer.start(metrics.meterRegistry);
+            CompletableFuture<T> future;
+            try {
+                future = supplier.get();
+            } catch (RuntimeException e) {
+                stageSample.stop(metrics.timer("esignet.plugin.stage", tags.and("stage", stage, "outcome", FAILURE)));
+                throw e;
+            }
+            return future.whenComplete((result, error) -> stageSample.stop(metrics.timer("esignet.plugin.stage",
+                    tags.and("stage", stage, "outcome", error == null ? SUCCESS : FAILURE))));
+        }
+
+        public <T> T success(T result) {
+            record(SUCCESS, NONE);
+            return result;
+        }
+
+        public void failure(String errorCode) {
+            record(FAILURE, errorCode == null ? NONE : errorCode);
+        }
+
+        /**
+         * Records the outcome of the call when the future completes.
+         * @param errorCode error code of the exception the future is completed with
+         */
+        public <T> CompletableFuture<T> complete(CompletableFuture<T> future, Function<Throwable, String> errorCode) {
+            if(metrics == null)
+                return future;
+            return future.whenComplete((result, error) -> {
+                if(error == null)
+                    success(result);
+                else
+                    failure(errorCode.apply(error instanceof CompletionException && error.getCause() != null ?
+                            error.getCause() : error));
+            });
+        }
+
+        private void record(String outcome, String errorCode) {
+            if(metrics == null || !recorded.compareAndSet(false, true))
+                return;
+            sample.stop(metrics.timer("esignet.plugin.operation", tags.and("outcome", outcome, "error_code", errorCode)));
+        }
+    }
+}
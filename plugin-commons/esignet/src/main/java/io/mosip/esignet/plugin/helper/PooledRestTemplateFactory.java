@@ -0,0 +1,207 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.helper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Builds the RestTemplate used by the plugin on a pooled Apache HttpClient owned by the plugin. Each
+ * configured destination gets its own connection limit and timeouts, so a slow destination can only hold
+ * its own share of the pool. Interceptors, message converters and error handler of the host RestTemplate
+ * are retained, only the request factory is replaced. HttpClient 4 supports only HTTP/1.1, connections are
+ * kept alive and reused instead.
+ * <p>
+ * Disabled by default: replacing the request factory drops the TLS, proxy and timeout settings of the host
+ * request factory, so the plugin calls use the RestTemplate of the host as is until the pool is enabled.
+ * Not a Spring component, each plugin registers it from its plugin config.
+ */
+@Slf4j
+public class PooledRestTemplateFactory {
+
+    private static final String DESTINATION_URL = "url";
+    private static final String DESTINATION_MAX_CONNECTIONS = "max-connections";
+    private static final String DESTINATION_CONNECT_TIMEOUT = "connect-timeout-ms";
+    private static final String DESTINATION_READ_TIMEOUT = "read-timeout-ms";
+
+    @Value("${mosip.plugin.http-client.enabled:false}")
+    private boolean enabled;
+
+    @Value("${mosip.plugin.http-client.max-total:200}")
+    private int maxTotal;
+
+    @Value("${mosip.plugin.http-client.default-max-per-route:20}")
+    private int defaultMaxPerRoute;
+
+    @Value("${mosip.plugin.http-client.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${mosip.plugin.http-client.read-timeout-ms:10000}")
+    private int readTimeoutMs;
+
+    @Value("${mosip.plugin.http-client.connection-request-timeout-ms:1000}")
+    private int connectionRequestTimeoutMs;
+
+    @Value("${mosip.plugin.http-client.keep-alive-ms:30000}")
+    private long keepAliveMs;
+
+    @Value("#{${mosip.plugin.http-client.destinations:{:}}}")
+    private Map<String, Map<String, Object>> destinations = Collections.emptyMap();
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final Map<RestTemplate, RestTemplate> pooledRestTemplates = new ConcurrentHashMap<>();
+
+    private final Map<HttpHost, RequestConfig> routeRequestConfigs = new HashMap<>();
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private CloseableHttpClient httpClient;
+
+    @PostConstruct
+    public void init() {
+        if(!enabled)
+            return;
+
+        connectionManager = new PoolingHttpClientConnectionManager(keepAliveMs, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(defaultMaxPerRoute);
+        registerPoolGauges("all", connectionManager::getTotalStats);
+
+        for(Map.Entry<String, Map<String, Object>> destination : destinations.entrySet()) {
+            Map<String, Object> properties = destination.getValue();
+            HttpHost host = getHttpHost(URI.create(String.valueOf(properties.get(DESTINATION_URL))));
+            HttpRoute route = new HttpRoute(host, null, "https".equalsIgnoreCase(host.getSchemeName()));
+            int maxConnections = getInt(properties, DESTINATION_MAX_CONNECTIONS, defaultMaxPerRoute);
+            connectionManager.setMaxPerRoute(route, maxConnections);
+            routeRequestConfigs.put(host, RequestConfig.custom()
+                    .setConnectTimeout(getInt(properties, DESTINATION_CONNECT_TIMEOUT, connectTimeoutMs))
+                    .setSocketTimeout(getInt(properties, DESTINATION_READ_TIMEOUT, readTimeoutMs))
+                    .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+                    .build());
+            registerPoolGauges(destination.getKey(), () -> connectionManager.getStats(route));
+            log.info("Configured http connection pool for {} ({}) with max connections : {}", destination.getKey(),
+                    host, maxConnections);
+        }
+
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMs)
+                        .setSocketTimeout(readTimeoutMs)
+                        .setConnectionRequestTimeout(connectionRequestTimeoutMs)
+                        .build())
+                .setKeepAliveStrategy((response, context) -> {
+                    long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return keepAlive > 0 ? Math.min(keepAlive, keepAliveMs) : keepAliveMs;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        if(httpClient != null)
+            httpClient.close();
+    }
+
+    /**
+     * Returns the RestTemplate backed by the plugin connection pool with the interceptors, message converters
+     * and error handler of the provided RestTemplate. Provided RestTemplate is returned as is if the pooled
+     * http client is not enabled.
+     * @param restTemplate RestTemplate autowired from the host
+     * @return pooled RestTemplate
+     */
+    public RestTemplate wrap(RestTemplate restTemplate) {
+        if(!enabled || restTemplate == null)
+            return restTemplate;
+        return pooledRestTemplates.computeIfAbsent(restTemplate, source -> {
+            RestTemplate pooledRestTemplate = new RestTemplate(new PooledRequestFactory());
+            pooledRestTemplate.setMessageConverters(source.getMessageConverters());
+            pooledRestTemplate.setInterceptors(source.getInterceptors());
+            pooledRestTemplate.setErrorHandler(source.getErrorHandler());
+            pooledRestTemplate.setUriTemplateHandler(source.getUriTemplateHandler());
+            return pooledRestTemplate;
+        });
+    }
+
+    private void registerPoolGauges(String destination, Supplier<PoolStats> stats) {
+        registerPoolGauge("plugin.http.pool.leased", destination, stats, PoolStats::getLeased);
+        registerPoolGauge("plugin.http.pool.pending", destination, stats, PoolStats::getPending);
+        registerPoolGauge("plugin.http.pool.available", destination, stats, PoolStats::getAvailable);
+    }
+
+    private void registerPoolGauge(String name, String destination, Supplier<PoolStats> stats,
+                                   Function<PoolStats, Integer> value) {
+        Gauge.builder(name, stats, s -> value.apply(s.get()))
+                .tag("destination", destination)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    private static int getInt(Map<String, Object> properties, String key, int defaultValue) {
+        Object value = properties.get(key);
+        return value == null ? defaultValue : Integer.parseInt(String.valueOf(value));
+    }
+
+    private static HttpHost getHttpHost(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return new HttpHost(uri.getHost(), port, uri.getScheme());
+    }
+
+    private class PooledRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+        PooledRequestFactory() {
+            super(httpClient);
+        }
+
+        @Override
+        protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+            RequestConfig requestConfig = routeRequestConfigs.get(getHttpHost(uri));
+            if(requestConfig == null)
+                return null;
+            HttpClientContext context = HttpClientContext.create();
+            context.setRequestConfig(requestConfig);
+            return context;
+        }
+
+        @Override
+        public void destroy() {
+            //http client is shared by all the pooled RestTemplates and is closed by the factory
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package io.mosip.esignet.plugin.helper;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.api.dto.AuthChallenge;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.util.ErrorConstants;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class PluginMetricsTest {
+
+    private final PluginMetrics pluginMetrics = new PluginMetrics("test-plugin");
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(pluginMetrics, "enabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "stagesEnabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "relyingPartyTag", true);
+        ReflectionTestUtils.setField(pluginMetrics, "percentiles", List.of("0.9"));
+        ReflectionTestUtils.setField(pluginMetrics, "meterRegistry", meterRegistry);
+        pluginMetrics.init();
+    }
+
+    @Test
+    public void start_whenDisabled_thenRecordNothing() throws Exception {
+        ReflectionTestUtils.setField(pluginMetrics, "enabled", false);
+        PluginMetrics.Call call = pluginMetrics.start("kyc-auth", "rp-1", "OTP");
+        Assert.assertEquals("body", call.time(PluginMetrics.STAGE_REQUEST_BUILD, () -> "body"));
+        Assert.assertEquals("result", call.success("result"));
+        Assert.assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    @Test
+    public void success_withStages_thenRecordStageAndOperationTimers() throws Exception {
+        PluginMetrics.Call call = pluginMetrics.start("kyc-auth", "rp-1", "OTP");
+        call.run(PluginMetrics.STAGE_CRYPTO, () -> {});
+        call.time(PluginMetrics.STAGE_HTTP, () -> "response");
+        Assert.assertEquals("result", call.success("result"));
+
+        Assert.assertEquals(1, stage(PluginMetrics.STAGE_CRYPTO, "success").count());
+        Assert.assertEquals(1, stage(PluginMetrics.STAGE_HTTP, "success").count());
+        Timer operation = meterRegistry.get("esignet.plugin.operation").tag("plugin", "test-plugin")
+                .tag("operation", "kyc-auth").tag("relying_party", "rp-1").tag("auth_factor", "OTP")
+                .tag("outcome", "success").tag("error_code", PluginMetrics.NONE).timer();
+        Assert.assertEquals(1, operation.count());
+    }
+
+    @Test
+    public void time_whenStageFails_thenRecordFailedStage() {
+        PluginMetrics.Call call = pluginMetrics.start("kyc-auth", "rp-1", "OTP");
+        try {
+            call.time(PluginMetrics.STAGE_SIGN, () -> {
+                throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+            });
+            Assert.fail();
+        } catch (KycAuthException e) {
+            Assert.assertEquals(ErrorConstants.AUTH_FAILED, e.getErrorCode());
+        }
+        Assert.assertEquals(1, stage(PluginMetrics.STAGE_SIGN, "failure").count());
+    }
+
+    @Test
+    public void failure_thenRecordErrorCodeOnce() {
+        PluginMetrics.Call call = pluginMetrics.start("kyc-auth", "rp-1", "OTP");
+        call.failure("invalid_otp");
+        call.success("result");
+
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("outcome", "failure")
+                .tag("error_code", "invalid_otp").timer().count());
+        Assert.assertNull(meterRegistry.find("esignet.plugin.operation").tag("outcome", "success").timer());
+    }
+
+    @Test
+    public void start_whenRelyingPartyTagDisabled_thenTagNone() {
+        ReflectionTestUtils.setField(pluginMetrics, "relyingPartyTag", false);
+        pluginMetrics.start("kyc-exchange", "rp-1", PluginMetrics.NONE).success(null);
+
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation")
+                .tag("relying_party", PluginMetrics.NONE).timer().count());
+    }
+
+    @Test
+    public void complete_withFailedFuture_thenRecordErrorCodeOfCause() {
+        PluginMetrics.Call call = pluginMetrics.start("kyc-auth", "rp-1", "OTP");
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> completed = call.complete(call.timeAsync(PluginMetrics.STAGE_HTTP, () -> future),
+                e -> e instanceof KycAuthException ? ((KycAuthException) e).getErrorCode() : null);
+        future.completeExceptionally(new CompletionException(new KycAuthException("invalid_otp")));
+
+        Assert.assertTrue(completed.isCompletedExceptionally());
+        Assert.assertEquals(1, stage(PluginMetrics.STAGE_HTTP, "failure").count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("outcome", "failure")
+                .tag("error_code", "invalid_otp").timer().count());
+    }
+
+    @Test
+    public void getAuthFactors_thenReturnSortedDistinctTypes() {
+        List<AuthChallenge> challengeList = new ArrayList<>();
+        for (String authFactorType : List.of("PIN", "OTP", "PIN")) {
+            AuthChallenge authChallenge = new AuthChallenge();
+            authChallenge.setAuthFactorType(authFactorType);
+            challengeList.add(authChallenge);
+        }
+        Assert.assertEquals("OTP,PIN", PluginMetrics.getAuthFactors(challengeList));
+        Assert.assertEquals(PluginMetrics.NONE, PluginMetrics.getAuthFactors(null));
+        Assert.assertEquals(PluginMetrics.NONE, PluginMetrics.getAuthFactors(List.of()));
+    }
+
+    private Timer stage(String stage, String outcome) {
+        return meterRegistry.get("esignet.plugin.stage").tag("stage", stage).tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,94 @@
+package io.mosip.esignet.plugin.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+public class PooledRestTemplateFactoryTest {
+
+    private final PooledRestTemplateFactory pooledRestTemplateFactory = new PooledRestTemplateFactory();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @After
+    public void tearDown() throws IOException {
+        pooledRestTemplateFactory.destroy();
+    }
+
+    @Test
+    public void wrap_whenDisabled_thenReturnSameRestTemplate() {
+        pooledRestTemplateFactory.init();
+        RestTemplate restTemplate = new RestTemplate();
+        Assert.assertSame(restTemplate, pooledRestTemplateFactory.wrap(restTemplate));
+    }
+
+    @Test
+    public void wrap_whenEnabled_thenRetainHostCustomizations() {
+        enable(Map.of());
+        RestTemplate restTemplate = new RestTemplate();
+        ClientHttpRequestInterceptor interceptor = mock(ClientHttpRequestInterceptor.class);
+        ResponseErrorHandler errorHandler = mock(ResponseErrorHandler.class);
+        restTemplate.setInterceptors(List.of(interceptor));
+        restTemplate.setErrorHandler(errorHandler);
+
+        RestTemplate pooledRestTemplate = pooledRestTemplateFactory.wrap(restTemplate);
+        Assert.assertNotSame(restTemplate, pooledRestTemplate);
+        Assert.assertEquals(List.of(interceptor), pooledRestTemplate.getInterceptors());
+        Assert.assertSame(errorHandler, pooledRestTemplate.getErrorHandler());
+        Assert.assertEquals(restTemplate.getMessageConverters(), pooledRestTemplate.getMessageConverters());
+    }
+
+    @Test
+    public void wrap_sameRestTemplate_thenReturnSamePooledRestTemplate() {
+        enable(Map.of());
+        RestTemplate restTemplate = new RestTemplate();
+        Assert.assertSame(pooledRestTemplateFactory.wrap(restTemplate), pooledRestTemplateFactory.wrap(restTemplate));
+    }
+
+    @Test
+    public void init_withDestinations_thenApplyRouteLimitsAndRegisterGauges() {
+        enable(Map.of("ida-auth", Map.of("url", "http://ida-auth.ida", "max-connections", 50),
+                "idrepo", Map.of("url", "https://identity.idrepo:8443/idrepository")));
+
+        PoolingHttpClientConnectionManager connectionManager = (PoolingHttpClientConnectionManager)
+                ReflectionTestUtils.getField(pooledRestTemplateFactory, "connectionManager");
+        Assert.assertEquals(50, connectionManager.getMaxPerRoute(
+                new HttpRoute(new HttpHost("ida-auth.ida", 80, "http"))));
+        Assert.assertEquals(20, connectionManager.getMaxPerRoute(
+                new HttpRoute(new HttpHost("identity.idrepo", 8443, "https"), null, true)));
+        Assert.assertEquals(200, connectionManager.getMaxTotal());
+
+        Assert.assertEquals(0.0, meterRegistry.get("plugin.http.pool.leased").tag("destination", "ida-auth")
+                .gauge().value(), 0.0);
+        Assert.assertEquals(0.0, meterRegistry.get("plugin.http.pool.pending").tag("destination", "all")
+                .gauge().value(), 0.0);
+        Assert.assertNotNull(meterRegistry.find("plugin.http.pool.available").tag("destination", "idrepo").gauge());
+    }
+
+    private void enable(Map<String, Map<String, Object>> destinations) {
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "enabled", true);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "maxTotal", 200);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "defaultMaxPerRoute", 20);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "connectTimeoutMs", 2000);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "readTimeoutMs", 10000);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "connectionRequestTimeoutMs", 1000);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "keepAliveMs", 30000L);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "destinations", destinations);
+        ReflectionTestUtils.setField(pooledRestTemplateFactory, "meterRegistry", meterRegistry);
+        pooledRestTemplateFactory.init();
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.signup.plugin.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Matches the input challenge against the identity fields. Values are compared on their normalized form instead of
+ * comparing the json nodes against every element of the multilingual arrays. Text values are normalized to Unicode
+ * NFC, optionally with the whitespace collapsed and the case ignored. Values of the sensitive fields are compared in
+ * constant time against all the values of the field.
+ *
+ * A single challenge normalizes only the identity fields it names, an identity matched against many challenges is
+ * indexed once with {@link #index(JsonNode)}.
+ *
+ * As with the json comparison, challenge of an array field is its first element, matched against any element of
+ * the identity field, and the challenge of any other field is matched against the whole value.
+ *
+ * Shared by the signup plugins, each plugin creates the matcher from its own match properties.
+ */
+public class IdentityMatcher {
+
+    private final boolean unicodeNfc;
+
+    private final boolean normalizeWhitespace;
+
+    private final boolean ignoreCase;
+
+    private final Set<String> sensitiveFields;
+
+    /**
+     * @param unicodeNfc normalize the text to Unicode NFC
+     * @param normalizeWhitespace trim and collapse the whitespace of the text
+     * @param ignoreCase compare the text ignoring the case
+     * @param sensitiveFields fields compared in constant time
+     */
+    public IdentityMatcher(boolean unicodeNfc, boolean normalizeWhitespace, boolean ignoreCase, List<String> sensitiveFields) {
+        this.unicodeNfc = unicodeNfc;
+        this.normalizeWhitespace = normalizeWhitespace;
+        this.ignoreCase = ignoreCase;
+        this.sensitiveFields = sensitiveFields == null ? Collections.emptySet() : new HashSet<>(sensitiveFields);
+    }
+
+    /**
+     * @param identity identity json
+     * @param inputChallenge challenge fields
+     * @return true if the challenge has fields and every field matches the identity
+     */
+    public boolean isMatch(JsonNode identity, JsonNode inputChallenge) {
+        return isMatch(inputChallenge, fieldName -> getFieldValues(fieldName, identity.get(fieldName)));
+    }
+
+    /**
+     * @param identity identity json
+     * @return normalized values of the identity fields, to match any number of challenges
+     */
+    public IdentityIndex index(JsonNode identity) {
+        Map<String, FieldValues> fields = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> itr = identity.fields();
+        while (itr.hasNext()) {
+            Map.Entry<String, JsonNode> field = itr.next();
+            FieldValues fieldValues = getFieldValues(field.getKey(), field.getValue());
+            if (fieldValues != null)
+                fields.put(field.getKey(), fieldValues);
+        }
+        return new IdentityIndex(fields);
+    }
+
+    private boolean isMatch(JsonNode inputChallenge, Function<String, FieldValues> identityFields) {
+        if (inputChallenge.isEmpty())
+            return false;
+
+        boolean matched = true;
+        Iterator<Map.Entry<String, JsonNode>> itr = inputChallenge.fields();
+        while (itr.hasNext()) {
+            Map.Entry<String, JsonNode> challenge = itr.next();
+            FieldValues fieldValues = identityFields.apply(challenge.getKey());
+            if (fieldValues == null)
+                return false;
+
+            //As of now assumption is we take user input only in single language
+            JsonNode value = fieldValues.array ? challenge.getValue().get(0) : challenge.getValue();
+            //Every field is compared, a mismatch of a sensitive field is not told apart by the time taken
+            matched &= value != null && fieldValues.contains(normalize(value));
+        }
+        return matched;
+    }
+
+    /**
+     * @return normalized values of the identity field, or null if the identity has no value for the field
+     */
+    private FieldValues getFieldValues(String fieldName, JsonNode field) {
+        if (field == null || field.isNull())
+            return null;
+
+        List<String> values = new ArrayList<>();
+        if (field.isArray()) {
+            for (JsonNode element : field)
+                values.add(normalize(element));
+        } else {
+            values.add(normalize(field));
+        }
+        return new FieldValues(field.isArray(), sensitiveFields.contains(fieldName), values);
+    }
+
+    /**
+     * Canonical text of the value, type tagged, object fields sorted by name and the nested values length prefixed,
+     * so that two values are equal only when the json values are equal after the text normalization.
+     */
+    private String normalize(JsonNode value) {
+        switch (value.getNodeType()) {
+            case STRING:
+                return "S".concat(normalizeText(value.textValue()));
+            case NUMBER:
+                return "N".concat(value.decimalValue().stripTrailingZeros().toPlainString());
+            case BOOLEAN:
+                return value.booleanValue() ? "T" : "F";
+            case NULL:
+                return "Z";
+            case ARRAY:
+                StringBuilder array = new StringBuilder("A");
+                for (JsonNode element : value)
+                    appendPrefixed(array, normalize(element));
+                return array.toString();
+            case OBJECT:
+                List<String> fieldNames = new ArrayList<>(value.size());
+                value.fieldNames().forEachRemaining(fieldNames::add);
+                Collections.sort(fieldNames);
+                StringBuilder object = new StringBuilder("O");
+                for (String fieldName : fieldNames) {
+                    appendPrefixed(object, fieldName);
+                    appendPrefixed(object, normalize(value.get(fieldName)));
+                }
+                return object.toString();
+            default:
+                return "X".concat(value.toString());
+        }
+    }
+
+    private String normalizeText(String text) {
+        if (unicodeNfc && !Normalizer.isNormalized(text, Normalizer.Form.NFC))
+            text = Normalizer.normalize(text, Normalizer.Form.NFC);
+        if (normalizeWhitespace)
+            text = text.trim().replaceAll("\\s+", " ");
+        if (ignoreCase)
+            text = text.toLowerCase(Locale.ROOT);
+        return text;
+    }
+
+    private static void appendPrefixed(StringBuilder builder, String value) {
+        builder.append(value.length()).append(':').append(value);
+    }
+
+    private static final class FieldValues {
+        private final boolean array;
+        private final Set<String> values;
+        private final byte[][] sensitiveValues;
+
+        private FieldValues(boolean array, boolean sensitive, List<String> values) {
+            this.array = array;
+            this.values = sensitive ? Collections.emptySet() : new HashSet<>(values);
+            this.sensitiveValues = sensitive ? new byte[values.size()][] : null;
+            for (int i = 0; sensitive && i < values.size(); i++)
+                this.sensitiveValues[i] = values.get(i).getBytes(StandardCharsets.UTF_8);
+        }
+
+        private boolean contains(String value) {
+            if (sensitiveValues == null)
+                return values.contains(value);
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            boolean matched = false;
+            for (byte[] sensitiveValue : sensitiveValues)
+                matched |= MessageDigest.isEqual(sensitiveValue, bytes);
+            return matched;
+        }
+    }
+
+    public final class IdentityIndex {
+
+        private final Map<String, FieldValues> fields;
+
+        private IdentityIndex(Map<String, FieldValues> fields) {
+            this.fields = fields;
+        }
+
+        /**
+         * @param inputChallenge challenge fields
+         * @return true if the challenge has fields and every field matches the identity
+         */
+        public boolean isMatch(JsonNode inputChallenge) {
+            return IdentityMatcher.this.isMatch(inputChallenge, fields::get);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.mosip.signup.plugin.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class IdentityMatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private IdentityMatcher identityMatcher;
+
+    private JsonNode identity;
+
+    @Before
+    public void setUp() throws IOException {
+        identityMatcher = new IdentityMatcher(true, false, false, List.of(""));
+        identity = read("{'UIN':'1234567890','phone':'+91841987567','IDSchemaVersion':0.1,'email':null," +
+                "'fullName':[{'language':'eng','value':'John  Doe'},{'language':'fra','value':'Jos\u00e9'}]}");
+    }
+
+    @Test
+    public void isMatch_withMatchingFields_thenPass() throws IOException {
+        Assert.assertTrue(identityMatcher.isMatch(identity, read("{'UIN':'1234567890'}")));
+        Assert.assertTrue(identityMatcher.isMatch(identity, read("{'IDSchemaVersion':0.10}")));
+        Assert.assertTrue(identityMatcher.isMatch(identity, read("{'UIN':'1234567890'," +
+                "'fullName':[{'value':'John  Doe','language':'eng'}]}")));
+    }
+
+    @Test
+    public void isMatch_withMismatchingFields_thenFail() throws IOException {
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'UIN':'1234567890','phone':'+91841987568'}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'UIN':1234567890}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'UIN':'1234567890','password':'123456'}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'email':null}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'fullName':{'language':'eng','value':'John  Doe'}}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'fullName':[{'language':'eng','value':'john doe'}]}")));
+    }
+
+    @Test
+    public void isMatch_withDuplicateLanguageValues_thenMatchEachFieldOnce() throws IOException {
+        JsonNode duplicateIdentity = read("{'fullName':[{'language':'eng','value':'John'},{'language':'eng','value':'John'}]}");
+
+        Assert.assertFalse(identityMatcher.isMatch(duplicateIdentity,
+                read("{'fullName':[{'language':'eng','value':'John'}],'UIN':'1234567890'}")));
+    }
+
+    @Test
+    public void isMatch_withNormalization_thenMatchNormalizedText() throws IOException {
+        JsonNode decomposed = read("{'fullName':[{'language':'fra','value':'Jose\u0301'}]}");
+        Assert.assertTrue(identityMatcher.isMatch(identity, decomposed));
+
+        JsonNode challenge = read("{'fullName':[{'language':'ENG','value':' john doe '}]}");
+        Assert.assertFalse(identityMatcher.isMatch(identity, challenge));
+
+        identityMatcher = new IdentityMatcher(true, true, true, List.of(""));
+        Assert.assertTrue(identityMatcher.isMatch(identity, challenge));
+        Assert.assertTrue(identityMatcher.index(identity).isMatch(challenge));
+    }
+
+    @Test
+    public void isMatch_withSensitiveFields_thenMatchSameAsOtherFields() throws IOException {
+        identityMatcher = new IdentityMatcher(true, false, false, List.of("UIN", "fullName"));
+
+        Assert.assertTrue(identityMatcher.isMatch(identity, read("{'UIN':'1234567890'," +
+                "'fullName':[{'language':'fra','value':'Jos\u00e9'}]}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'UIN':'1234567891'}")));
+        Assert.assertFalse(identityMatcher.isMatch(identity, read("{'UIN':'123456789'}")));
+    }
+
+    @Test
+    public void index_withManyChallenges_thenMatchEachAgainstSameIndex() throws IOException {
+        IdentityMatcher.IdentityIndex identityIndex = identityMatcher.index(identity);
+
+        Assert.assertTrue(identityIndex.isMatch(read("{'phone':'+91841987567'}")));
+        Assert.assertFalse(identityIndex.isMatch(read("{'phone':'+91841987568'}")));
+        Assert.assertTrue(identityIndex.isMatch(read("{'UIN':'1234567890'}")));
+        Assert.assertFalse(identityIndex.isMatch(read("{'email':null}")));
+        Assert.assertFalse(identityIndex.isMatch(read("{'fullName':[{'language':'eng','value':'john doe'}]}")));
+    }
+
+    private JsonNode read(String json) throws IOException {
+        return objectMapper.readTree(json.replace('\'', '"'));
+    }
+}
@@ -0,0 +1,602 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Local read-only index of the registry entities for the KBI lookups in the registry mirror mode, so the
+ * authentication does not search the registry. Index is built on startup from the registry export, one entity json
+ * per line, into an open addressing hash table in a memory mapped file, the table is sized from the export file
+ * length and grown while the export is read. Entities are keyed by the HMAC of the field-details values in the field
+ * order of the search template, with a random key generated on startup, so no value of the field-details is held in
+ * the index. Values are normalized by the search template on both the export and the challenge side, and a number is
+ * the same value as a text of the same number.
+ *
+ * Change feed files in the change feed directory, entities in the same format as the export, are applied in the
+ * order of the file names on top of the index, once the done marker of the file is written. Entity in a change feed
+ * replaces the entity in the export, an entity with the deleted field set to true is removed. Changed entities are
+ * held in memory until their count reaches the compaction threshold, the index is then rebuilt with the changes into
+ * a new mapped file and swapped in. As with the registry search, a lookup matching more than one entity is no match.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "mosip.esignet.authenticator.sunbird-rc.kbi.mirror.enabled", havingValue = "true")
+public class RegistryMirrorIndex {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String CHANGE_FEED_SUFFIX = ".ndjson";
+    private static final String DONE_SUFFIX = ".done";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+    private static final int KEY_SIZE = 16;
+    //Slot is the key and the file offset of the last entity with the key, 0 if the slot is empty
+    private static final int SLOT_SIZE = KEY_SIZE + 4;
+    //Entity is the file offset of the previous entity with the same key, the entity id length and the entity id
+    private static final int ENTITY_HEADER_SIZE = 6;
+    private static final int MAX_ENTITY_ID_LENGTH = 0xFFFF;
+    //Export bytes per entity assumed to size the table, the table grows if the export has more entities
+    private static final int ESTIMATED_ENTITY_SIZE = 256;
+    private static final ByteBuffer REMOVED = ByteBuffer.allocate(0);
+
+    @Value("#{${mosip.esignet.authenticator.sunbird-rc.auth-factor.kbi.field-details}}")
+    private List<Map<String,String>> fieldDetailList;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.auth-factor.kbi.individual-id-field}")
+    private String idField;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.ignore-case:false}")
+    private boolean ignoreCase;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.entity-id-field}")
+    private String entityIdField;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.mirror.export-file}")
+    private String exportFile;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.mirror.index-file:}")
+    private String indexFile;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.mirror.change-feed-dir:}")
+    private String changeFeedDir;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.mirror.change-feed-poll-seconds:30}")
+    private long changeFeedPollSeconds;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.mirror.deleted-field:_deleted}")
+    private String deletedField;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.mirror.compaction-threshold:100000}")
+    private int compactionThreshold;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    //Size and modified time of the applied change feeds, by file name
+    private final Map<String, String> appliedChangeFeeds = new HashMap<>();
+
+    private final SecretKeySpec hmacKey;
+
+    private final ThreadLocal<Mac> hmac = ThreadLocal.withInitial(this::newMac);
+
+    private RegistrySearchTemplate registrySearchTemplate;
+
+    private volatile Index index;
+
+    private ScheduledExecutorService executor;
+
+    public RegistryMirrorIndex() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        registrySearchTemplate = RegistrySearchTemplate.compile(fieldDetailList, idField, ignoreCase);
+        build(Paths.get(exportFile));
+        applyChangeFeeds();
+
+        Gauge.builder("sunbird.kbi.mirror.entities", this, mirror -> mirror.index.table.entityCount).register(meterRegistry);
+        Gauge.builder("sunbird.kbi.mirror.changed.entities", this, mirror -> mirror.index.changedEntities.size())
+                .register(meterRegistry);
+        if(!changeFeedDir.isEmpty() && changeFeedPollSeconds > 0) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "kbi-mirror-change-feed");
+                thread.setDaemon(true);
+                return thread;
+            });
+            executor.scheduleWithFixedDelay(this::pollChangeFeeds, changeFeedPollSeconds, changeFeedPollSeconds,
+                    TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() throws IOException {
+        if(executor != null)
+            executor.shutdownNow();
+        if(index != null && indexFile.isEmpty())
+            Files.deleteIfExists(index.path);
+    }
+
+    /**
+     * @param filterValues registry search filter values in the field order of the search template
+     * @return entity id of the single matching entity, null if no match or more than one match
+     */
+    public String lookup(String[] filterValues) {
+        byte[] key = getKey(filterValues);
+        Set<String> entityIds = new HashSet<>(4);
+        Index current = index;
+        int offset = current.table.find(key);
+        while(offset >= 0 && entityIds.size() < 2) {
+            String entityId = current.table.getEntityId(offset);
+            if(!current.changedEntities.containsKey(entityId))
+                entityIds.add(entityId);
+            offset = current.table.getPreviousOffset(offset);
+        }
+
+        ByteBuffer changedKey = ByteBuffer.wrap(key);
+        for(String entityId : current.changedKeys.getOrDefault(changedKey, Collections.emptySet())) {
+            if(changedKey.equals(current.changedEntities.get(entityId)))
+                entityIds.add(entityId);
+        }
+
+        String entityId = entityIds.size() == 1 ? entityIds.iterator().next() : null;
+        meterRegistry.counter("sunbird.kbi.mirror.lookup", "result", entityId == null ? "no_match" : "match").increment();
+        return entityId;
+    }
+
+    /**
+     * Applies the complete change feed files, with a done marker, not applied yet in the order of the file names.
+     * A change feed replaced after it was applied is applied again. Index is compacted once the changed entities
+     * reach the compaction threshold.
+     * @return number of change feed files applied
+     */
+    public synchronized int applyChangeFeeds() throws IOException {
+        if(changeFeedDir.isEmpty())
+            return 0;
+
+        Map<Path, String> changeFeeds = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(changeFeedDir), "*" + CHANGE_FEED_SUFFIX)) {
+            for(Path changeFeed : stream) {
+                String fileName = changeFeed.getFileName().toString();
+                if(!Files.exists(changeFeed.resolveSibling(fileName + DONE_SUFFIX)))
+                    continue;
+                String version = Files.size(changeFeed) + "@" + Files.getLastModifiedTime(changeFeed).toMillis();
+                String appliedVersion = appliedChangeFeeds.get(fileName);
+                if(version.equals(appliedVersion))
+                    continue;
+                if(appliedVersion != null)
+                    log.warn("Registry change feed {} was replaced after it was applied, applying it again", fileName);
+                changeFeeds.put(changeFeed, version);
+            }
+        }
+
+        Index current = index;
+        for(Map.Entry<Path, String> changeFeed : changeFeeds.entrySet()) {
+            int changes = read(changeFeed.getKey(), entity -> applyChange(current, entity));
+            appliedChangeFeeds.put(changeFeed.getKey().getFileName().toString(), changeFeed.getValue());
+            log.info("Applied {} changes of the registry change feed {}", changes, changeFeed.getKey().getFileName());
+        }
+        if(compactionThreshold > 0 && current.changedEntities.size() >= compactionThreshold)
+            compact();
+        return changeFeeds.size();
+    }
+
+    private void pollChangeFeeds() {
+        try {
+            applyChangeFeeds();
+        } catch (Exception e) {
+            log.error("Failed to apply the registry change feeds", e);
+        }
+    }
+
+    private void build(Path export) throws IOException {
+        Path path = indexFile.isEmpty() ? Files.createTempFile("kbi-mirror", ".idx") : Paths.get(indexFile);
+        Table table;
+        int indexed;
+        try (FileChannel channel = open(path)) {
+            TableBuilder builder = new TableBuilder(channel, Files.size(export) / ESTIMATED_ENTITY_SIZE);
+            indexed = read(export, entity -> builder.add(entity.entityId, entity.key));
+            table = builder.build();
+        }
+        index = new Index(table, path);
+        log.info("Built the KBI registry mirror index of {} entities from {}", indexed, export);
+    }
+
+    /**
+     * Rebuilds the index with the changed entities into a new file and swaps it in, the lookups in progress keep
+     * reading the previous file which stays mapped until it is no longer used.
+     */
+    private void compact() throws IOException {
+        Index current = index;
+        Path path = indexFile.isEmpty() ? Files.createTempFile("kbi-mirror", ".idx") : Paths.get(indexFile + COMPACTING_SUFFIX);
+        Table table;
+        try (FileChannel channel = open(path)) {
+            TableBuilder builder = new TableBuilder(channel, current.table.entityCount + current.changedEntities.size());
+            current.table.forEach((entityId, key) -> {
+                if(!current.changedEntities.containsKey(entityId))
+                    builder.add(entityId, key);
+            });
+            for(Map.Entry<String, ByteBuffer> changedEntity : current.changedEntities.entrySet()) {
+                if(changedEntity.getValue() != REMOVED)
+                    builder.add(changedEntity.getKey(), changedEntity.getValue().array());
+            }
+            table = builder.build();
+        }
+        if(!indexFile.isEmpty())
+            path = Files.move(path, Paths.get(indexFile), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        index = new Index(table, path);
+        if(indexFile.isEmpty())
+            Files.deleteIfExists(current.path);
+        log.info("Compacted the KBI registry mirror index with {} changed entities, {} entities", current.changedEntities.size(),
+                table.entityCount);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Reads the entities of the ndjson file, lines that are not an entity json are logged and skipped.
+     * @return number of entities read
+     */
+    private int read(Path file, EntityConsumer consumer) throws IOException {
+        int count = 0;
+        int lineNumber = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                lineNumber++;
+                if(line.isBlank())
+                    continue;
+                Entity entity = parse(line);
+                if(entity == null) {
+                    log.warn("Skipped line {} of {}, not an entity with the entity id", lineNumber, file.getFileName());
+                    continue;
+                }
+                consumer.accept(entity);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Entity parse(String line) throws IOException {
+        String[] values = new String[registrySearchTemplate.getFieldCount()];
+        String entityId = null;
+        boolean deleted = false;
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if(parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+            while(parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if(!value.isScalarValue()) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if(fieldName.equals(entityIdField) && value != JsonToken.VALUE_NULL)
+                    entityId = parser.getText();
+                if(fieldName.equals(deletedField))
+                    deleted = value == JsonToken.VALUE_TRUE;
+                int index = registrySearchTemplate.getFieldIndex(fieldName);
+                if(index >= 0)
+                    values[index] = registrySearchTemplate.toLiteral(value, parser.getText());
+            }
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        if(entityId == null)
+            return null;
+
+        for(String value : values) {
+            //Entity without all the field-details values is never matched by the search
+            if(value == null)
+                return new Entity(entityId, null);
+        }
+        return new Entity(entityId, deleted ? null : getKey(values));
+    }
+
+    private void applyChange(Index current, Entity entity) {
+        if(entity.key != null)
+            current.changedKeys.computeIfAbsent(ByteBuffer.wrap(entity.key), key -> ConcurrentHashMap.newKeySet()).add(entity.entityId);
+        ByteBuffer previousKey = current.changedEntities.put(entity.entityId, entity.key == null ? REMOVED : ByteBuffer.wrap(entity.key));
+        if(previousKey != null && previousKey != REMOVED && !previousKey.equals(current.changedEntities.get(entity.entityId))) {
+            current.changedKeys.computeIfPresent(previousKey, (key, entityIds) -> {
+                entityIds.remove(entity.entityId);
+                return entityIds.isEmpty() ? null : entityIds;
+            });
+        }
+    }
+
+    /**
+     * First 16 bytes of the HMAC of the filter values, each value is length prefixed so that different values
+     * cannot have the same canonical form.
+     */
+    private byte[] getKey(String[] filterValues) {
+        Mac mac = hmac.get();
+        for(String filterValue : filterValues) {
+            byte[] bytes = getKeyValue(filterValue).getBytes(StandardCharsets.UTF_8);
+            mac.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+            mac.update(bytes);
+        }
+        byte[] key = new byte[KEY_SIZE];
+        System.arraycopy(mac.doFinal(), 0, key, 0, KEY_SIZE);
+        return key;
+    }
+
+    /**
+     * Value of the filter literal in the key, a text holding a number is the same value as the number, as exported
+     * registries do not always keep the type of the values. Text with leading zeros is not a number.
+     */
+    private static String getKeyValue(String literal) {
+        String value = literal;
+        if(literal.startsWith("\""))
+            value = literal.substring(1, literal.length() - 1);
+        else if(!NUMBER.matcher(literal).matches())
+            return "L".concat(literal);
+        return NUMBER.matcher(value).matches() ? "N".concat(new BigDecimal(value).stripTrailingZeros().toPlainString()) :
+                "S".concat(value);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface EntityConsumer {
+        void accept(Entity entity) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface TableEntryConsumer {
+        void accept(String entityId, byte[] key) throws IOException;
+    }
+
+    private static final class Entity {
+        private final String entityId;
+        //null if the entity is deleted or cannot be searched
+        private final byte[] key;
+
+        private Entity(String entityId, byte[] key) {
+            this.entityId = entityId;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Table with the changes applied on top of it, swapped as a whole on compaction so a lookup never reads a table
+     * with the changes of another table.
+     */
+    private static final class Index {
+        private final Table table;
+        private final Path path;
+        //Entities changed by the change feeds, to the key of the entity, REMOVED if deleted or not searchable
+        private final ConcurrentMap<String, ByteBuffer> changedEntities = new ConcurrentHashMap<>();
+        private final ConcurrentMap<ByteBuffer, Set<String>> changedKeys = new ConcurrentHashMap<>();
+
+        private Index(Table table, Path path) {
+            this.table = table;
+            this.path = path;
+        }
+    }
+
+    /**
+     * Writes the slots and the entities to the index file, entities through a buffer, the slots are updated in place.
+     * Table is kept at most half full, when full the slots are rehashed into a region twice the size at the end of
+     * the file, the previous region is left unused.
+     */
+    private static final class TableBuilder {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(1 << 17);
+        private MappedByteBuffer slots;
+        private int slotMask;
+        //Length of the file written, the buffered entities are written at this offset
+        private long written;
+        private int keyCount;
+        private int entityCount;
+
+        private TableBuilder(FileChannel channel, long expectedEntities) throws IOException {
+            this.channel = channel;
+            this.slots = map(Long.highestOneBit(Math.max(16, expectedEntities * 2 - 1)) << 1);
+        }
+
+        private void add(String entityId, byte[] key) throws IOException {
+            byte[] id = entityId.getBytes(StandardCharsets.UTF_8);
+            if(key == null || id.length > MAX_ENTITY_ID_LENGTH)
+                return;
+
+            int position = findSlot(slots, slotMask, key) * SLOT_SIZE;
+            int previousOffset = slots.getInt(position + KEY_SIZE);
+            if(previousOffset == 0) {
+                if(++keyCount > (slotMask + 1) / 2) {
+                    grow();
+                    position = findSlot(slots, slotMask, key) * SLOT_SIZE;
+                }
+                slots.position(position);
+                slots.put(key);
+            }
+            if(buffer.remaining() < ENTITY_HEADER_SIZE + id.length)
+                flush();
+            long offset = written + buffer.position();
+            checkSize(offset + ENTITY_HEADER_SIZE + id.length);
+
+            buffer.putInt(previousOffset).putShort((short) id.length).put(id);
+            slots.putInt(position + KEY_SIZE, (int) offset + 1);
+            entityCount++;
+        }
+
+        private void grow() throws IOException {
+            MappedByteBuffer previousSlots = slots;
+            int previousSlotCount = slotMask + 1;
+            slots = map(previousSlotCount * 2L);
+            byte[] key = new byte[KEY_SIZE];
+            for(int slot = 0; slot < previousSlotCount; slot++) {
+                int position = slot * SLOT_SIZE;
+                int offset = previousSlots.getInt(position + KEY_SIZE);
+                if(offset == 0)
+                    continue;
+                previousSlots.position(position);
+                previousSlots.get(key);
+                int newPosition = findSlot(slots, slotMask, key) * SLOT_SIZE;
+                slots.position(newPosition);
+                slots.put(key);
+                slots.putInt(newPosition + KEY_SIZE, offset);
+            }
+        }
+
+        /**
+         * Maps a new slot region at the end of the file
+         */
+        private MappedByteBuffer map(long slotCount) throws IOException {
+            flush();
+            long size = slotCount * SLOT_SIZE;
+            checkSize(written + size);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, written, size);
+            slotMask = (int) slotCount - 1;
+            written += size;
+            return mapped;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while(buffer.hasRemaining())
+                written += channel.write(buffer, written);
+            buffer.clear();
+        }
+
+        private static void checkSize(long size) {
+            if(size >= Integer.MAX_VALUE)
+                throw new IllegalStateException("Registry export is too large to be indexed");
+        }
+
+        private Table build() throws IOException {
+            flush();
+            return new Table(slots, slotMask, channel.map(FileChannel.MapMode.READ_ONLY, 0, written), entityCount);
+        }
+    }
+
+    private static int findSlot(ByteBuffer slots, int slotMask, byte[] key) {
+        int slot = ((key[0] & 0xFF) << 24 | (key[1] & 0xFF) << 16 | (key[2] & 0xFF) << 8 | (key[3] & 0xFF)) & slotMask;
+        while(true) {
+            int position = slot * SLOT_SIZE;
+            if(slots.getInt(position + KEY_SIZE) == 0 || isKey(slots, position, key))
+                return slot;
+            slot = (slot + 1) & slotMask;
+        }
+    }
+
+    private static boolean isKey(ByteBuffer slots, int position, byte[] key) {
+        for(int i = 0; i < KEY_SIZE; i++) {
+            if(slots.get(position + i) != key[i])
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hash table of the index, read only once built, read with the absolute gets so it is shared by all the threads.
+     * Entities are read at their offset in the file.
+     */
+    private static final class Table {
+        private final ByteBuffer slots;
+        private final int slotMask;
+        private final ByteBuffer data;
+        private final int entityCount;
+
+        private Table(ByteBuffer slots, int slotMask, ByteBuffer data, int entityCount) {
+            this.slots = slots;
+            this.slotMask = slotMask;
+            this.data = data;
+            this.entityCount = entityCount;
+        }
+
+        /**
+         * @return offset of the last entity with the key, -1 if no entity has the key
+         */
+        private int find(byte[] key) {
+            return slots.getInt(findSlot(slots, slotMask, key) * SLOT_SIZE + KEY_SIZE) - 1;
+        }
+
+        private int getPreviousOffset(int offset) {
+            return data.getInt(offset) - 1;
+        }
+
+        private String getEntityId(int offset) {
+            byte[] entityId = new byte[data.getShort(offset + 4) & 0xFFFF];
+            for(int i = 0; i < entityId.length; i++)
+                entityId[i] = data.get(offset + ENTITY_HEADER_SIZE + i);
+            return new String(entityId, StandardCharsets.UTF_8);
+        }
+
+        private void forEach(TableEntryConsumer consumer) throws IOException {
+            for(int slot = 0; slot <= slotMask; slot++) {
+                int position = slot * SLOT_SIZE;
+                int offset = slots.getInt(position + KEY_SIZE) - 1;
+                if(offset < 0)
+                    continue;
+                byte[] key = new byte[KEY_SIZE];
+                for(int i = 0; i < KEY_SIZE; i++)
+                    key[i] = slots.get(position + i);
+                for(; offset >= 0; offset = getPreviousOffset(offset))
+                    consumer.accept(getEntityId(offset), key);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.util.ErrorConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short lived cache of the KBI registry search results, so the retried logins and the logins to several relying
+ * parties with the same challenge do not search the registry again. Searches are keyed by the HMAC of the filter
+ * values in the field order of the search template, normalized by the template as for the registry search, so the
+ * challenges differing only in the whitespace, the Unicode form or the case (if ignored) share the cached result.
+ * HMAC key is random and generated on startup, so no challenge value is held in memory. Entity id of a single match
+ * is cached for the ttl, no match or an ambiguous match for the negative ttl. Concurrent searches with the same
+ * filters wait for the same registry search. Failed searches are not cached.
+ */
+@Component
+@Slf4j
+public class RegistrySearchCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final String SOURCE = "source";
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.search-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.search-cache.negative-ttl-seconds:10}")
+    private long negativeTtlSeconds;
+
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.search-cache.max-size:10000}")
+    private int maxSize;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private final ConcurrentMap<String, CachedResult> results = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final SecretKeySpec hmacKey;
+
+    private final ThreadLocal<Mac> hmac = ThreadLocal.withInitial(this::newMac);
+
+    public RegistrySearchCache() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+    }
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("sunbird.kbi.search.cache.size", results, Map::size).register(meterRegistry);
+        log.info("KBI registry search results are cached for {}s, no match for {}s, max size {}", ttlSeconds,
+                negativeTtlSeconds, maxSize);
+    }
+
+    /**
+     * @param filterValues normalized registry search filter values, from {@link RegistrySearchTemplate#getFilterValues(byte[], String)}
+     * @param registrySearch searches the registry, returns the entity id of the single match, null otherwise
+     * @return entity id of the single match, null if no match or more than one match
+     */
+    public String search(String[] filterValues, RegistrySearch registrySearch) throws KycAuthException {
+        String key = getKey(filterValues);
+        CachedResult cachedResult = results.get(key);
+        if(cachedResult != null) {
+            if(!cachedResult.isExpired(System.currentTimeMillis())) {
+                meterRegistry.counter("sunbird.kbi.search", SOURCE, "cache").increment();
+                return cachedResult.entityId;
+            }
+            results.remove(key, cachedResult);
+        }
+
+        CompletableFuture<String> searching = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, searching);
+        if(existing != null) {
+            meterRegistry.counter("sunbird.kbi.search", SOURCE, "coalesced").increment();
+            return join(existing);
+        }
+
+        meterRegistry.counter("sunbird.kbi.search", SOURCE, "registry").increment();
+        try {
+            String entityId = registrySearch.search();
+            meterRegistry.counter("sunbird.kbi.search.registry", "result", entityId == null ? "no_match" : "match").increment();
+            cache(key, entityId);
+            searching.complete(entityId);
+            return entityId;
+        } catch (KycAuthException | RuntimeException e) {
+            searching.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, searching);
+        }
+    }
+
+    private String join(CompletableFuture<String> searching) throws KycAuthException {
+        try {
+            return searching.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof KycAuthException)
+                throw (KycAuthException) e.getCause();
+            throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+        }
+    }
+
+    private void cache(String key, String entityId) {
+        long ttlMillis = TimeUnit.SECONDS.toMillis(entityId == null ? negativeTtlSeconds : ttlSeconds);
+        if(ttlMillis <= 0 || maxSize <= 0)
+            return;
+
+        long now = System.currentTimeMillis();
+        if(results.size() >= maxSize) {
+            results.values().removeIf(cachedResult -> cachedResult.isExpired(now));
+            if(results.size() >= maxSize) {
+                log.debug("KBI registry search cache is full, search result is not cached");
+                return;
+            }
+        }
+        results.put(key, new CachedResult(entityId, now + ttlMillis));
+    }
+
+    /**
+     * HMAC of the filter values, each value is length prefixed so that different values cannot have the same
+     * canonical form.
+     */
+    private String getKey(String[] filterValues) {
+        Mac mac = hmac.get();
+        for(String filterValue : filterValues)
+            update(mac, filterValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal());
+    }
+
+    private static void update(Mac mac, String value) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        int length = value == null ? -1 : bytes.length;
+        mac.update(new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length});
+        mac.update(bytes);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to initialize " + HMAC_ALGORITHM, e);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RegistrySearch {
+        String search() throws KycAuthException;
+    }
+
+    private static final class CachedResult {
+        private final String entityId;
+        private final long expiresAt;
+
+        private CachedResult(String entityId, long expiresAt) {
+            this.entityId = entityId;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads the registry search response, a json array of the matched entities, as a stream of json tokens. Only the
+ * number of matches and the entity id field of the first match are read, all the other attributes are skipped
+ * without being decoded, so large attributes like photos or documents are never held in memory. Reading stops on
+ * the second match, as the search is then known to be ambiguous.
+ */
+public final class RegistrySearchResponseReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private RegistrySearchResponseReader() {
+    }
+
+    /**
+     * @param response registry search response body
+     * @param entityIdField name of the entity id field
+     * @return number of matches, counted up to 2, and the entity id of the first match
+     * @throws IOException if the response cannot be read or is not a json array
+     */
+    public static SearchResult read(InputStream response, String entityIdField) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(response)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+                throw new JsonParseException(parser, "Registry search response is not an array");
+
+            int matchCount = 0;
+            String entityId = null;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null)
+                    throw new JsonParseException(parser, "Registry search response is truncated");
+                if (++matchCount > 1)
+                    return new SearchResult(matchCount, null);
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String fieldName = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if (entityIdField.equals(fieldName) && value.isScalarValue() && value != JsonToken.VALUE_NULL)
+                        entityId = parser.getText();
+                    else
+                        parser.skipChildren();
+                }
+            }
+            return new SearchResult(matchCount, entityId);
+        }
+    }
+
+    public static final class SearchResult {
+        private final int matchCount;
+        private final String entityId;
+
+        private SearchResult(int matchCount, String entityId) {
+            this.matchCount = matchCount;
+            this.entityId = entityId;
+        }
+
+        /**
+         * @return number of matches, 2 for two or more matches
+         */
+        public int getMatchCount() {
+            return matchCount;
+        }
+
+        /**
+         * @return entity id of the single match, null if no match, more than one match or the match has no entity id
+         */
+        public String getEntityId() {
+            return matchCount == 1 ? entityId : null;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.util.ErrorConstants;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * KBI registry search request compiled once from the field-details configuration. Filter fields are in a fixed
+ * order and the json of the request around the filter values is pre-serialized, so a search request is written by
+ * streaming the filter values between the fragments. Filter values are read from the challenge json as a stream
+ * of tokens, fields not in the field-details are skipped. Values are held as normalized json literals, in the field
+ * order, so the same values always make the same request and the same search cache key: text is trimmed and
+ * normalized to Unicode NFC, optionally lowercased, and numbers are in their plain form without trailing zeros.
+ */
+@Slf4j
+public final class RegistrySearchTemplate {
+
+    private static final String FIELD_ID_KEY = "id";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final byte[] REQUEST_END = "}}}".getBytes(StandardCharsets.UTF_8);
+
+    private final String[] fieldIds;
+    private final int idFieldIndex;
+    private final Map<String, Integer> fieldIndexes;
+    private final Map<String, Integer> challengeFields;
+    private final byte[][] fieldPrefixes;
+    private final boolean ignoreCase;
+
+    private RegistrySearchTemplate(String[] fieldIds, int idFieldIndex, Map<String, Integer> fieldIndexes,
+                                   Map<String, Integer> challengeFields, byte[][] fieldPrefixes, boolean ignoreCase) {
+        this.fieldIds = fieldIds;
+        this.idFieldIndex = idFieldIndex;
+        this.fieldIndexes = fieldIndexes;
+        this.challengeFields = challengeFields;
+        this.fieldPrefixes = fieldPrefixes;
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * @param fieldDetails configured KBI field details, in the order of the filters, at least one field
+     * @param idField field holding the individual id, null or empty if all the fields are read from the challenge
+     * @return search request template of the fields, text values are not lowercased
+     */
+    public static RegistrySearchTemplate compile(List<Map<String, String>> fieldDetails, String idField) {
+        return compile(fieldDetails, idField, false);
+    }
+
+    /**
+     * @param fieldDetails configured KBI field details, in the order of the filters, at least one field
+     * @param idField field holding the individual id, null or empty if all the fields are read from the challenge
+     * @param ignoreCase lowercase the text values, for a registry holding the field-details values in lowercase
+     * @return search request template of the fields
+     */
+    public static RegistrySearchTemplate compile(List<Map<String, String>> fieldDetails, String idField, boolean ignoreCase) {
+        LinkedHashSet<String> uniqueFieldIds = new LinkedHashSet<>();
+        for (Map<String, String> fieldDetail : fieldDetails)
+            uniqueFieldIds.add(fieldDetail.get(FIELD_ID_KEY));
+        String[] fieldIds = uniqueFieldIds.toArray(new String[0]);
+
+        int idFieldIndex = -1;
+        Map<String, Integer> fieldIndexes = new HashMap<>();
+        Map<String, Integer> challengeFields = new HashMap<>();
+        byte[][] fieldPrefixes = new byte[fieldIds.length][];
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        for (int i = 0; i < fieldIds.length; i++) {
+            fieldIndexes.put(fieldIds[i], i);
+            if (idField != null && !idField.isEmpty() && fieldIds[i].equals(idField))
+                idFieldIndex = i;
+            else
+                challengeFields.put(fieldIds[i], i);
+
+            String prefix = (i == 0 ? "{\"offset\":0,\"limit\":2,\"filters\":{" : "},") +
+                    "\"" + new String(encoder.quoteAsString(fieldIds[i])) + "\":{\"eq\":";
+            fieldPrefixes[i] = prefix.getBytes(StandardCharsets.UTF_8);
+        }
+        return new RegistrySearchTemplate(fieldIds, idFieldIndex, fieldIndexes, challengeFields, fieldPrefixes, ignoreCase);
+    }
+
+    /**
+     * @return number of filter fields
+     */
+    public int getFieldCount() {
+        return fieldIds.length;
+    }
+
+    /**
+     * @param fieldId field id
+     * @return index of the field in the filter values, -1 if the field is not in the field-details
+     */
+    public int getFieldIndex(String fieldId) {
+        Integer index = fieldIndexes.get(fieldId);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * @param challenge KBI challenge json
+     * @param individualId individual id, the value of the id field
+     * @return filter values as json literals in the field order
+     * @throws KycAuthException if the challenge is not a json object of values or a field is missing
+     */
+    public String[] getFilterValues(byte[] challenge, String individualId) throws KycAuthException {
+        String[] values = new String[fieldIds.length];
+        if (idFieldIndex >= 0)
+            values[idFieldIndex] = toLiteral(individualId == null ? JsonToken.VALUE_NULL : JsonToken.VALUE_STRING, individualId);
+
+        try (JsonParser parser = JSON_FACTORY.createParser(challenge)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                log.error("KBI challenge is not a json object");
+                throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Integer index = challengeFields.get(parser.getCurrentName());
+                JsonToken value = parser.nextToken();
+                if (index == null) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (!value.isScalarValue()) {
+                    log.error("Field '{}' in the challenge is not a value.", fieldIds[index]);
+                    throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+                }
+                values[index] = toLiteral(value, parser.getText());
+            }
+        } catch (IOException e) {
+            log.error("Failed to read the KBI challenge", e);
+            throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                log.error("Field '{}' is missing in the challenge.", fieldIds[i]);
+                throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Writes the search request json with the filter values.
+     * @param filterValues filter values returned by {@link #getFilterValues(byte[], String)}
+     * @param out request body
+     */
+    public void write(String[] filterValues, OutputStream out) throws IOException {
+        for (int i = 0; i < fieldPrefixes.length; i++) {
+            out.write(fieldPrefixes[i]);
+            out.write(filterValues[i].getBytes(StandardCharsets.UTF_8));
+        }
+        out.write(REQUEST_END);
+    }
+
+    /**
+     * @return normalized json literal of the scalar value, as held in the filter values
+     */
+    String toLiteral(JsonToken token, String text) {
+        switch (token) {
+            case VALUE_STRING:
+                return "\"" + new String(JsonStringEncoder.getInstance().quoteAsString(normalizeText(text))) + "\"";
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return new BigDecimal(text).stripTrailingZeros().toPlainString();
+            case VALUE_NULL:
+                return "null";
+            default:
+                return text;
+        }
+    }
+
+    private String normalizeText(String text) {
+        text = text.trim();
+        if (!Normalizer.isNormalized(text, Normalizer.Form.NFC))
+            text = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return ignoreCase ? text.toLowerCase(Locale.ROOT) : text;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at https://mozilla.org/MPL/2.0/.
+ */
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the plugin helpers shared with the other plugins, see plugin-commons. Beans are qualified so they do not
+ * clash with the helpers registered by another plugin deployed on the same host.
+ */
+@Configuration
+public class SunbirdRCPluginConfig {
+
+    @Bean("sunbirdRCPluginMetrics")
+    public PluginMetrics sunbirdRCPluginMetrics() {
+        return new PluginMetrics("sunbird-rc-plugin");
+    }
+
+    @Bean("sunbirdRCRestTemplateFactory")
+    public PooledRestTemplateFactory sunbirdRCRestTemplateFactory() {
+        return new PooledRestTemplateFactory();
+    }
+}
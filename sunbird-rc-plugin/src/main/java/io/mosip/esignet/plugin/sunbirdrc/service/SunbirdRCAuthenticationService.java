@@ -5,25 +5,26 @@
  */
 package io.mosip.esignet.plugin.sunbirdrc.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.mosip.esignet.api.dto.*;
 import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.exception.KycExchangeException;
 import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.esignet.api.spi.Authenticator;
 import io.mosip.esignet.api.util.ErrorConstants;
-import io.mosip.esignet.plugin.sunbirdrc.dto.RegistrySearchRequestDto;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
+import io.mosip.esignet.plugin.sunbirdrc.helper.RegistryMirrorIndex;
+import io.mosip.esignet.plugin.sunbirdrc.helper.RegistrySearchCache;
+import io.mosip.esignet.plugin.sunbirdrc.helper.RegistrySearchResponseReader;
+import io.mosip.esignet.plugin.sunbirdrc.helper.RegistrySearchTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.RequestEntity;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -32,7 +33,6 @@ import javax.annotation.PostConstruct;
 import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 
@@ -41,10 +41,11 @@ import java.util.*;
 @Slf4j
 public class SunbirdRCAuthenticationService implements Authenticator {
 
-    private final String FILTER_EQUALS_OPERATOR="eq";
-
     private final String FIELD_ID_KEY="id";
 
+    private static final String OPERATION_KYC_AUTH = "kyc-auth";
+    private static final String STAGE_MIRROR_LOOKUP = "mirror_lookup";
+
     @Value("#{${mosip.esignet.authenticator.sunbird-rc.auth-factor.kbi.field-details}}")
     private List<Map<String,String>> fieldDetailList;
 
@@ -54,19 +55,38 @@ public class SunbirdRCAuthenticationService implements Authenticator {
     @Value("${mosip.esignet.authenticator.sunbird-rc.auth-factor.kbi.individual-id-field}")
     private String idField;
 
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.ignore-case:false}")
+    private boolean ignoreCase;
+
     @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.entity-id-field}")
     private String entityIdField;
 
+    @Value("${mosip.esignet.authenticator.sunbird-rc.kbi.mirror.fallback-to-registry:false}")
+    private boolean mirrorFallbackToRegistry;
+
     @Autowired
     private RestTemplate restTemplate;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    @Qualifier("sunbirdRCRestTemplateFactory")
+    private PooledRestTemplateFactory pooledRestTemplateFactory;
+
+    @Autowired
+    private RegistrySearchCache registrySearchCache;
+
+    @Autowired(required = false)
+    private RegistryMirrorIndex registryMirrorIndex;
+
+    @Autowired
+    @Qualifier("sunbirdRCPluginMetrics")
+    private PluginMetrics pluginMetrics;
 
+    private RegistrySearchTemplate registrySearchTemplate;
 
     @PostConstruct
     public void initialize() throws KycAuthException {
         log.info("Started to setup Sunbird-RC Authenticator");
+        restTemplate = pooledRestTemplateFactory.wrap(restTemplate);
         boolean individualIdFieldIsValid = false;
         if(fieldDetailList==null || fieldDetailList.isEmpty()){
             log.error("Invalid configuration for field-details");
@@ -82,6 +102,7 @@ public class SunbirdRCAuthenticationService implements Authenticator {
             log.error("Invalid configuration: The 'individual-id-field' '{}' is not available in 'field-details'.", idField);
             throw new KycAuthException("Invalid configuration: individual-id-field is not available in field-details.");
         }
+        registrySearchTemplate = RegistrySearchTemplate.compile(fieldDetailList, idField, ignoreCase);
     }
 
     @Validated
@@ -91,19 +112,23 @@ public class SunbirdRCAuthenticationService implements Authenticator {
 
         log.info("Started to build kyc-auth request with transactionId : {} && clientId : {}",
                 kycAuthDto.getTransactionId(), clientId);
+        PluginMetrics.Call call = pluginMetrics.start(OPERATION_KYC_AUTH, relyingPartyId,
+                PluginMetrics.getAuthFactors(kycAuthDto.getChallengeList()));
         try {
             for (AuthChallenge authChallenge : kycAuthDto.getChallengeList()) {
                 if(Objects.equals(authChallenge.getAuthFactorType(),"KBI")){
-                    return validateKnowledgeBasedAuth(kycAuthDto.getIndividualId(),authChallenge);
+                    return call.success(validateKnowledgeBasedAuth(call, kycAuthDto.getIndividualId(),authChallenge));
                 }
                 throw new KycAuthException("invalid_challenge_format");
             }
         } catch (KycAuthException e) {
+            call.failure(e.getErrorCode());
             throw e;
         } catch (Exception e) {
             log.error("KYC-auth failed with transactionId : {} && clientId : {}", kycAuthDto.getTransactionId(),
                     clientId, e);
         }
+        call.failure(ErrorConstants.AUTH_FAILED);
         throw new KycAuthException(ErrorConstants.AUTH_FAILED);
     }
 
@@ -129,71 +154,61 @@ public class SunbirdRCAuthenticationService implements Authenticator {
         return new ArrayList<>();
     }
 
-    private KycAuthResult validateKnowledgeBasedAuth(String individualId, AuthChallenge authChallenge) throws KycAuthException {
+    private KycAuthResult validateKnowledgeBasedAuth(PluginMetrics.Call call, String individualId, AuthChallenge authChallenge)
+            throws KycAuthException {
 
         KycAuthResult  kycAuthResult= new KycAuthResult();
-        RegistrySearchRequestDto registrySearchRequestDto =new RegistrySearchRequestDto();
         String encodedChallenge=authChallenge.getChallenge();
 
-        byte[] decodedBytes = Base64.getUrlDecoder().decode(encodedChallenge);
-        String challenge = new String(decodedBytes, StandardCharsets.UTF_8);
+        byte[] challenge = Base64.getUrlDecoder().decode(encodedChallenge);
 
         try {
-            registrySearchRequestDto =createRegistrySearchRequestDto(challenge,individualId);
-            String requestBody = objectMapper.writeValueAsString(registrySearchRequestDto);
-            RequestEntity requestEntity = RequestEntity
-                    .post(UriComponentsBuilder.fromUriString(registrySearchUrl).build().toUri())
-                    .contentType(MediaType.APPLICATION_JSON_UTF8)
-                    .body(requestBody);
-            ResponseEntity<List<Map<String,Object>>> responseEntity = restTemplate.exchange(requestEntity,
-                    new ParameterizedTypeReference<List<Map<String,Object>>>() {});
-            if (responseEntity.getStatusCode().is2xxSuccessful() && responseEntity.getBody() != null) {
-                List<Map<String,Object>> responseList = responseEntity.getBody();
-                if(responseList.size()==1){
-                    //TODO  This need to be removed since it can contain PII
-                    log.debug("getting response {}", responseEntity);
-                    kycAuthResult.setKycToken((String)responseList.get(0).get(entityIdField));
-                    kycAuthResult.setPartnerSpecificUserToken((String)responseList.get(0).get(entityIdField));
-                    return kycAuthResult;
-                }else{
-                    log.error("Registry search returns more than one match, so authentication is considered as failed. Result size: " + responseList.size());
-                    throw new KycAuthException(ErrorConstants.AUTH_FAILED );
-                }
-            }else {
-                log.error("Sunbird service is not running. Status Code: " ,responseEntity.getStatusCode());
-                throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+            String[] filterValues = call.time(PluginMetrics.STAGE_REQUEST_BUILD,
+                    () -> registrySearchTemplate.getFilterValues(challenge, individualId));
+            //In the registry mirror mode the registry is searched only if enabled, for the entities not yet mirrored
+            String entityId = registryMirrorIndex == null ? null :
+                    call.time(STAGE_MIRROR_LOOKUP, () -> registryMirrorIndex.lookup(filterValues));
+            //Search response is parsed as it is streamed, so the http stage includes the response parse
+            if(entityId == null && (registryMirrorIndex == null || mirrorFallbackToRegistry))
+                entityId = call.time(PluginMetrics.STAGE_HTTP,
+                        () -> registrySearchCache.search(filterValues, () -> searchRegistry(filterValues)));
+            if(entityId == null) {
+                throw new KycAuthException(ErrorConstants.AUTH_FAILED );
             }
-
+            kycAuthResult.setKycToken(entityId);
+            kycAuthResult.setPartnerSpecificUserToken(entityId);
+            return kycAuthResult;
         } catch (Exception e) {
             log.error("Failed to do the Authentication: {}",e);
             throw new KycAuthException(ErrorConstants.AUTH_FAILED );
         }
     }
 
-    private RegistrySearchRequestDto createRegistrySearchRequestDto(String challenge, String individualId) throws KycAuthException, JsonProcessingException {
-        RegistrySearchRequestDto registrySearchRequestDto =new RegistrySearchRequestDto();
-        registrySearchRequestDto.setLimit(2);
-        registrySearchRequestDto.setOffset(0);
-        Map<String,Map<String,String>> filter=new HashMap<>();
-
-        Map<String, String> challengeMap = objectMapper.readValue(challenge, Map.class);
-
-
-        for(Map<String,String> fieldDetailMap: fieldDetailList) {
-            Map<String,String> hashMap=new HashMap<>();
-            if(!StringUtils.isEmpty(idField) && fieldDetailMap.get(FIELD_ID_KEY).equals(idField)){
-                hashMap.put(FILTER_EQUALS_OPERATOR,individualId);
-            }else{
-                if(!challengeMap.containsKey(fieldDetailMap.get(FIELD_ID_KEY)))
-                {
-                    log.error("Field '{}' is missing in the challenge.", fieldDetailMap.get(FIELD_ID_KEY));
-                    throw new KycAuthException(ErrorConstants.AUTH_FAILED );
-                }
-                hashMap.put(FILTER_EQUALS_OPERATOR,challengeMap.get(fieldDetailMap.get(FIELD_ID_KEY)));
-            }
-            filter.put(fieldDetailMap.get(FIELD_ID_KEY),hashMap);
+    /**
+     * @return entity id of the single match, null if the registry returns no match or more than one match
+     */
+    private String searchRegistry(String[] filterValues) throws KycAuthException {
+        //Response is read as a stream of json tokens, only the match count and the entity id are read
+        RegistrySearchResponseReader.SearchResult searchResult = restTemplate.execute(
+                UriComponentsBuilder.fromUriString(registrySearchUrl).build().toUri(), HttpMethod.POST,
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    registrySearchTemplate.write(filterValues, request.getBody());
+                },
+                response -> {
+                    if(!response.getStatusCode().is2xxSuccessful()) {
+                        log.error("Sunbird service is not running. Status Code: {}", response.getStatusCode());
+                        return null;
+                    }
+                    return RegistrySearchResponseReader.read(response.getBody(), entityIdField);
+                });
+        if(searchResult == null) {
+            throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+        }
+        if(searchResult.getMatchCount() != 1) {
+            log.error("Registry search returns no match or more than one match, so authentication is considered as failed. Result size: {}",
+                    searchResult.getMatchCount());
         }
-        registrySearchRequestDto.setFilters(filter);
-        return registrySearchRequestDto;
+        return searchResult.getEntityId();
     }
 }
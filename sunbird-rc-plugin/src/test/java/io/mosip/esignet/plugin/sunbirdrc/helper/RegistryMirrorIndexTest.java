@@ -0,0 +1,202 @@
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+public class RegistryMirrorIndexTest {
+
+    private Path directory;
+
+    private Path changeFeedDir;
+
+    private RegistryMirrorIndex registryMirrorIndex;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("kbi-mirror-test");
+        changeFeedDir = Files.createDirectory(directory.resolve("changes"));
+        write(directory.resolve("export.ndjson"),
+                "{'osid':'entity-1','policyNumber':'000001','fullName':'Zaid Siddique','dob':'2000-07-26','photo':{'data':'iVBORw0KGgo'}}",
+                "",
+                "{'osid':'entity-2','policyNumber':'000002','fullName':'Sara Ali','dob':'1995-01-02'}",
+                "{'osid':'entity-3','policyNumber':'000003','fullName':'Twin','dob':'2001-01-01'}",
+                "{'osid':'entity-4','policyNumber':'000003','fullName':'Twin','dob':'2001-01-01'}",
+                "{'osid':'entity-5','policyNumber':'000005','fullName':'No Dob'}",
+                "{'policyNumber':'000006','fullName':'No Id','dob':'2001-01-01'}",
+                "{'osid':'entity-7','policyNumber':'000007',",
+                "['entity-8']");
+
+        registryMirrorIndex = new RegistryMirrorIndex();
+        ReflectionTestUtils.setField(registryMirrorIndex, "fieldDetailList", List.of(
+                Map.of("id", "policyNumber", "type", "text", "format", ""),
+                Map.of("id", "fullName", "type", "text", "format", ""),
+                Map.of("id", "dob", "type", "date", "format", "dd/mm/yyyy")));
+        ReflectionTestUtils.setField(registryMirrorIndex, "idField", "policyNumber");
+        ReflectionTestUtils.setField(registryMirrorIndex, "entityIdField", "osid");
+        ReflectionTestUtils.setField(registryMirrorIndex, "exportFile", directory.resolve("export.ndjson").toString());
+        ReflectionTestUtils.setField(registryMirrorIndex, "indexFile", directory.resolve("kbi.idx").toString());
+        ReflectionTestUtils.setField(registryMirrorIndex, "changeFeedDir", changeFeedDir.toString());
+        ReflectionTestUtils.setField(registryMirrorIndex, "changeFeedPollSeconds", 0L);
+        ReflectionTestUtils.setField(registryMirrorIndex, "deletedField", "_deleted");
+        ReflectionTestUtils.setField(registryMirrorIndex, "compactionThreshold", 0);
+        registryMirrorIndex.init();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        registryMirrorIndex.destroy();
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    public void lookup_withExportedEntity_thenReturnEntityId() {
+        Assert.assertEquals("entity-1", registryMirrorIndex.lookup(values("000001", "Zaid Siddique", "2000-07-26")));
+        Assert.assertEquals("entity-2", registryMirrorIndex.lookup(values("000002", "Sara Ali", "1995-01-02")));
+    }
+
+    @Test
+    public void lookup_withUnknownValues_thenNoMatch() {
+        Assert.assertNull(registryMirrorIndex.lookup(values("000001", "Zaid Siddique", "2000-07-27")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000002", "Zaid Siddique", "2000-07-26")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000005", "No Dob", "null")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000006", "No Id", "2001-01-01")));
+    }
+
+    @Test
+    public void lookup_withTwoEntitiesOfSameValues_thenNoMatch() {
+        Assert.assertNull(registryMirrorIndex.lookup(values("000003", "Twin", "2001-01-01")));
+    }
+
+    @Test
+    public void applyChangeFeeds_withChangedEntities_thenLookupChanges() throws IOException {
+        write(changeFeedDir.resolve("0001.ndjson"),
+                "{'osid':'entity-1','policyNumber':'000001','fullName':'Zaid S','dob':'2000-07-26'}",
+                "{'osid':'entity-2','_deleted':true}",
+                "{'osid':'entity-4','policyNumber':'000004','fullName':'Twin','dob':'2001-01-01'}",
+                "{'osid':'entity-9','policyNumber':'000009','fullName':'New','dob':'2010-10-10'}");
+        write(changeFeedDir.resolve("0001.ndjson.done"));
+        write(changeFeedDir.resolve("0002.ndjson"),
+                "{'osid':'entity-9','_deleted':true}");
+
+        Assert.assertEquals(1, registryMirrorIndex.applyChangeFeeds());
+
+        Assert.assertNull(registryMirrorIndex.lookup(values("000001", "Zaid Siddique", "2000-07-26")));
+        Assert.assertEquals("entity-1", registryMirrorIndex.lookup(values("000001", "Zaid S", "2000-07-26")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000002", "Sara Ali", "1995-01-02")));
+        Assert.assertEquals("entity-3", registryMirrorIndex.lookup(values("000003", "Twin", "2001-01-01")));
+        Assert.assertEquals("entity-4", registryMirrorIndex.lookup(values("000004", "Twin", "2001-01-01")));
+        Assert.assertEquals("entity-9", registryMirrorIndex.lookup(values("000009", "New", "2010-10-10")));
+        Assert.assertEquals(0, registryMirrorIndex.applyChangeFeeds());
+    }
+
+    @Test
+    public void applyChangeFeeds_withEntityChangedAgain_thenLookupLastChange() throws IOException {
+        write(changeFeedDir.resolve("0001.ndjson"),
+                "{'osid':'entity-1','policyNumber':'000001','fullName':'Zaid S','dob':'2000-07-26'}");
+        write(changeFeedDir.resolve("0002.ndjson"),
+                "{'osid':'entity-1','policyNumber':'000001','fullName':'Zaid Siddique','dob':'2000-07-26'}",
+                "{'osid':'entity-3','_deleted':true}",
+                "{'osid':'entity-10','policyNumber':'000002','fullName':'Sara Ali','dob':'1995-01-02'}");
+        write(changeFeedDir.resolve("0001.ndjson.done"));
+        write(changeFeedDir.resolve("0002.ndjson.done"));
+
+        Assert.assertEquals(2, registryMirrorIndex.applyChangeFeeds());
+
+        Assert.assertEquals("entity-1", registryMirrorIndex.lookup(values("000001", "Zaid Siddique", "2000-07-26")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000001", "Zaid S", "2000-07-26")));
+        Assert.assertEquals("entity-4", registryMirrorIndex.lookup(values("000003", "Twin", "2001-01-01")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000002", "Sara Ali", "1995-01-02")));
+    }
+
+    @Test
+    public void applyChangeFeeds_withReplacedChangeFeed_thenApplyAgain() throws IOException {
+        write(changeFeedDir.resolve("0001.ndjson"),
+                "{'osid':'entity-1','policyNumber':'000001','fullName':'Zaid S','dob':'2000-07-26'}");
+        write(changeFeedDir.resolve("0001.ndjson.done"));
+        Assert.assertEquals(1, registryMirrorIndex.applyChangeFeeds());
+
+        write(changeFeedDir.resolve("0001.ndjson"),
+                "{'osid':'entity-1','policyNumber':'000001','fullName':'Zaid Sid','dob':'2000-07-26'}");
+        Assert.assertEquals(1, registryMirrorIndex.applyChangeFeeds());
+        Assert.assertEquals(0, registryMirrorIndex.applyChangeFeeds());
+        Assert.assertEquals("entity-1", registryMirrorIndex.lookup(values("000001", "Zaid Sid", "2000-07-26")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000001", "Zaid S", "2000-07-26")));
+    }
+
+    @Test
+    public void applyChangeFeeds_whenCompactionThresholdReached_thenLookupCompactedIndex() throws IOException {
+        ReflectionTestUtils.setField(registryMirrorIndex, "compactionThreshold", 3);
+        write(changeFeedDir.resolve("0001.ndjson"),
+                "{'osid':'entity-1','policyNumber':'000001','fullName':'Zaid S','dob':'2000-07-26'}",
+                "{'osid':'entity-2','_deleted':true}",
+                "{'osid':'entity-4','policyNumber':'000004','fullName':'Twin','dob':'2001-01-01'}");
+        write(changeFeedDir.resolve("0001.ndjson.done"));
+        Assert.assertEquals(1, registryMirrorIndex.applyChangeFeeds());
+        Assert.assertTrue(Files.exists(directory.resolve("kbi.idx")));
+        Assert.assertFalse(Files.exists(directory.resolve("kbi.idx.compacting")));
+
+        write(changeFeedDir.resolve("0002.ndjson"),
+                "{'osid':'entity-9','policyNumber':'000009','fullName':'New','dob':'2010-10-10'}");
+        write(changeFeedDir.resolve("0002.ndjson.done"));
+        Assert.assertEquals(1, registryMirrorIndex.applyChangeFeeds());
+
+        Assert.assertNull(registryMirrorIndex.lookup(values("000001", "Zaid Siddique", "2000-07-26")));
+        Assert.assertEquals("entity-1", registryMirrorIndex.lookup(values("000001", "Zaid S", "2000-07-26")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("000002", "Sara Ali", "1995-01-02")));
+        Assert.assertEquals("entity-3", registryMirrorIndex.lookup(values("000003", "Twin", "2001-01-01")));
+        Assert.assertEquals("entity-4", registryMirrorIndex.lookup(values("000004", "Twin", "2001-01-01")));
+        Assert.assertEquals("entity-9", registryMirrorIndex.lookup(values("000009", "New", "2010-10-10")));
+    }
+
+    @Test
+    public void init_withMoreEntitiesThanEstimated_thenGrowTable() throws IOException {
+        registryMirrorIndex.destroy();
+        String[] lines = new String[5000];
+        for (int i = 0; i < lines.length; i++)
+            lines[i] = "{'osid':'entity-" + i + "','policyNumber':'" + i + "','fullName':'N','dob':'2000-01-01'}";
+        write(directory.resolve("export.ndjson"), lines);
+        registryMirrorIndex.init();
+
+        for (int i = 0; i < lines.length; i++)
+            Assert.assertEquals("entity-" + i, registryMirrorIndex.lookup(values(String.valueOf(i), "N", "2000-01-01")));
+        Assert.assertNull(registryMirrorIndex.lookup(values("5000", "N", "2000-01-01")));
+    }
+
+    @Test
+    public void lookup_withNumberOfTextValue_thenMatchSameValue() throws IOException {
+        write(changeFeedDir.resolve("0001.ndjson"),
+                "{'osid':'entity-11','policyNumber':123,'fullName':'Number','dob':'2000-01-01'}",
+                "{'osid':'entity-12','policyNumber':'2.50','fullName':'Number','dob':'2000-01-01'}");
+        write(changeFeedDir.resolve("0001.ndjson.done"));
+        registryMirrorIndex.applyChangeFeeds();
+
+        Assert.assertEquals("entity-11", registryMirrorIndex.lookup(values("123", "Number", "2000-01-01")));
+        Assert.assertEquals("entity-11", registryMirrorIndex.lookup(new String[]{"123.0", "\"Number\"", "\"2000-01-01\""}));
+        Assert.assertEquals("entity-12", registryMirrorIndex.lookup(new String[]{"2.5", "\"Number\"", "\"2000-01-01\""}));
+        Assert.assertNull(registryMirrorIndex.lookup(values("0123", "Number", "2000-01-01")));
+        Assert.assertNull(registryMirrorIndex.lookup(new String[]{"null", "\"Number\"", "\"2000-01-01\""}));
+    }
+
+    private static String[] values(String policyNumber, String fullName, String dob) {
+        return new String[]{"\"" + policyNumber + "\"", "\"" + fullName + "\"", "null".equals(dob) ? dob : "\"" + dob + "\""};
+    }
+
+    private static void write(Path file, String... lines) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (String line : lines)
+            content.append(line.replace('\'', '"')).append('\n');
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,165 @@
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.util.ErrorConstants;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RegistrySearchCacheTest {
+
+    private RegistrySearchCache registrySearchCache;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final AtomicInteger searchCount = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        registrySearchCache = new RegistrySearchCache();
+        ReflectionTestUtils.setField(registrySearchCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(registrySearchCache, "negativeTtlSeconds", 60L);
+        ReflectionTestUtils.setField(registrySearchCache, "maxSize", 100);
+        ReflectionTestUtils.setField(registrySearchCache, "meterRegistry", meterRegistry);
+        registrySearchCache.init();
+    }
+
+    @Test
+    public void search_withSameFilters_thenSearchRegistryOnce() throws KycAuthException {
+        Assert.assertEquals("entity-1", registrySearchCache.search(getFilters("000000", "Zaid"), () -> search("entity-1")));
+        Assert.assertEquals("entity-1", registrySearchCache.search(getFilters("000000", "Zaid"), () -> search("entity-2")));
+
+        Assert.assertEquals(1, searchCount.get());
+        Assert.assertEquals(1, meterRegistry.counter("sunbird.kbi.search", "source", "cache").count(), 0);
+        Assert.assertEquals(1, meterRegistry.get("sunbird.kbi.search.cache.size").gauge().value(), 0);
+    }
+
+    @Test
+    public void search_withValuesInOtherFields_thenSearchRegistryAgain() throws KycAuthException {
+        registrySearchCache.search(getFilters("000000", "Zaid"), () -> search("entity-1"));
+
+        Assert.assertEquals("entity-2", registrySearchCache.search(getFilters("Zaid", "000000"), () -> search("entity-2")));
+        Assert.assertEquals(2, searchCount.get());
+    }
+
+    @Test
+    public void search_withDifferentFilters_thenSearchRegistryAgain() throws KycAuthException {
+        registrySearchCache.search(getFilters("000000", "Zaid"), () -> search("entity-1"));
+
+        Assert.assertEquals("entity-2", registrySearchCache.search(getFilters("000000", "Zai"), () -> search("entity-2")));
+        Assert.assertEquals("entity-3", registrySearchCache.search(getFilters("000000Zaid", ""), () -> search("entity-3")));
+        Assert.assertEquals(3, searchCount.get());
+    }
+
+    @Test
+    public void search_withUnnormalizedChallenge_thenUseCachedResultOfNormalizedValues() throws KycAuthException {
+        RegistrySearchTemplate registrySearchTemplate = RegistrySearchTemplate.compile(List.of(Map.of("id", "policyNumber"),
+                Map.of("id", "fullName")), "policyNumber", true);
+        String[] filterValues = registrySearchTemplate.getFilterValues(
+                "{\"fullName\":\"Jos\u00e9\"}".getBytes(StandardCharsets.UTF_8), "000000");
+        String[] unnormalizedFilterValues = registrySearchTemplate.getFilterValues(
+                "{\"fullName\":\" JOSE\u0301 \"}".getBytes(StandardCharsets.UTF_8), " 000000");
+
+        Assert.assertEquals("entity-1", registrySearchCache.search(filterValues, () -> search("entity-1")));
+        Assert.assertEquals("entity-1", registrySearchCache.search(unnormalizedFilterValues, () -> search("entity-2")));
+        Assert.assertEquals(1, searchCount.get());
+    }
+
+    @Test
+    public void search_withNoMatch_thenCacheNoMatch() throws KycAuthException {
+        Assert.assertNull(registrySearchCache.search(getFilters("000000", "Zaid"), () -> search(null)));
+        Assert.assertNull(registrySearchCache.search(getFilters("000000", "Zaid"), () -> search("entity-1")));
+        Assert.assertEquals(1, searchCount.get());
+
+        ReflectionTestUtils.setField(registrySearchCache, "negativeTtlSeconds", 0L);
+        Assert.assertNull(registrySearchCache.search(getFilters("000001", "Zaid"), () -> search(null)));
+        Assert.assertEquals("entity-1", registrySearchCache.search(getFilters("000001", "Zaid"), () -> search("entity-1")));
+        Assert.assertEquals(3, searchCount.get());
+    }
+
+    @Test
+    public void search_withFailedSearch_thenNotCacheFailure() throws KycAuthException {
+        try {
+            registrySearchCache.search(getFilters("000000", "Zaid"), () -> {
+                searchCount.incrementAndGet();
+                throw new KycAuthException(ErrorConstants.AUTH_FAILED);
+            });
+            Assert.fail();
+        } catch (KycAuthException e) {
+            Assert.assertEquals(ErrorConstants.AUTH_FAILED, e.getErrorCode());
+        }
+
+        Assert.assertEquals("entity-1", registrySearchCache.search(getFilters("000000", "Zaid"), () -> search("entity-1")));
+        Assert.assertEquals(2, searchCount.get());
+    }
+
+    @Test
+    public void search_withFullCache_thenNotCacheResult() throws KycAuthException {
+        ReflectionTestUtils.setField(registrySearchCache, "maxSize", 2);
+
+        for (int i = 0; i < 3; i++)
+            registrySearchCache.search(getFilters("00000" + i, "Zaid"), () -> search("entity"));
+        registrySearchCache.search(getFilters("000002", "Zaid"), () -> search("entity"));
+
+        Assert.assertEquals(4, searchCount.get());
+        Assert.assertEquals(2, meterRegistry.get("sunbird.kbi.search.cache.size").gauge().value(), 0);
+    }
+
+    @Test
+    public void search_withConcurrentSameFilters_thenWaitForSameSearch() throws Exception {
+        CountDownLatch searchStarted = new CountDownLatch(1);
+        CountDownLatch releaseSearch = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executorService.submit(() -> registrySearchCache.search(getFilters("000000", "Zaid"), () -> {
+                searchStarted.countDown();
+                awaitUninterruptibly(releaseSearch);
+                return search("entity-1");
+            }));
+            Assert.assertTrue(searchStarted.await(5, TimeUnit.SECONDS));
+            Future<String> second = executorService.submit(() -> registrySearchCache.search(getFilters("000000", "Zaid"),
+                    () -> search("entity-2")));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (meterRegistry.counter("sunbird.kbi.search", "source", "coalesced").count() == 0
+                    && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            releaseSearch.countDown();
+
+            Assert.assertEquals("entity-1", first.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals("entity-1", second.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, searchCount.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String search(String entityId) {
+        searchCount.incrementAndGet();
+        return entityId;
+    }
+
+    private static String[] getFilters(String policyNumber, String fullName) {
+        return new String[]{"\"" + policyNumber + "\"", "\"" + fullName + "\""};
+    }
+}
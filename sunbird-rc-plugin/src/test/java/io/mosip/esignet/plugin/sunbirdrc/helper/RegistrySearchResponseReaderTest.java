@@ -0,0 +1,62 @@
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class RegistrySearchResponseReaderTest {
+
+    @Test
+    public void read_withSingleMatch_thenReturnEntityId() throws IOException {
+        RegistrySearchResponseReader.SearchResult searchResult = read("[{'photo':{'data':'iVBORw0KGgo','meta':[1,2,{'a':null}]}," +
+                "'documents':[{'osid':'nested'}],'osid':'1-b7c9','dob':'2000-07-26'}]");
+
+        Assert.assertEquals(1, searchResult.getMatchCount());
+        Assert.assertEquals("1-b7c9", searchResult.getEntityId());
+    }
+
+    @Test
+    public void read_withNoMatch_thenReturnNoEntityId() throws IOException {
+        RegistrySearchResponseReader.SearchResult searchResult = read("[]");
+
+        Assert.assertEquals(0, searchResult.getMatchCount());
+        Assert.assertNull(searchResult.getEntityId());
+    }
+
+    @Test
+    public void read_withMatchWithoutEntityId_thenReturnNoEntityId() throws IOException {
+        Assert.assertNull(read("[{'policyNumber':'000000'}]").getEntityId());
+        Assert.assertNull(read("[{'osid':null}]").getEntityId());
+        Assert.assertNull(read("[{'osid':{'value':'1-b7c9'}}]").getEntityId());
+    }
+
+    @Test
+    public void read_withMoreThanOneMatch_thenStopOnSecondMatch() throws IOException {
+        //Anything after the start of the second match is not read, here left malformed
+        RegistrySearchResponseReader.SearchResult searchResult = read("[{'osid':'1-b7c9'},{'osid': ,,,");
+
+        Assert.assertEquals(2, searchResult.getMatchCount());
+        Assert.assertNull(searchResult.getEntityId());
+    }
+
+    @Test
+    public void read_withInvalidResponse_thenFail() {
+        for (String response : new String[]{"{'errors':[]}", "[{'osid':'1-b7c9'}", ""}) {
+            try {
+                read(response);
+                Assert.fail();
+            } catch (IOException e) {
+                Assert.assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+    private static RegistrySearchResponseReader.SearchResult read(String response) throws IOException {
+        InputStream inputStream = new ByteArrayInputStream(response.replace('\'', '"').getBytes(StandardCharsets.UTF_8));
+        return RegistrySearchResponseReader.read(inputStream, "osid");
+    }
+}
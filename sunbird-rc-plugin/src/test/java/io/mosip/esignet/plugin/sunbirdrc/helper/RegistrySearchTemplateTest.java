@@ -0,0 +1,102 @@
+package io.mosip.esignet.plugin.sunbirdrc.helper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mosip.esignet.api.exception.KycAuthException;
+import io.mosip.esignet.api.util.ErrorConstants;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class RegistrySearchTemplateTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RegistrySearchTemplate registrySearchTemplate = RegistrySearchTemplate.compile(List.of(
+            Map.of("id", "policyNumber", "type", "text", "format", ""),
+            Map.of("id", "fullName", "type", "text", "format", ""),
+            Map.of("id", "dob", "type", "date", "format", "dd/mm/yyyy")), "policyNumber");
+
+    @Test
+    public void getFilterValues_withChallenge_thenReturnValuesInFieldOrder() throws KycAuthException {
+        String[] filterValues = registrySearchTemplate.getFilterValues(
+                bytes("{'dob':'2000-07-26','photo':{'data':'iVBORw0KGgo'},'fullName':'Zaid \\'Z\\' Siddique'}"), "000000");
+
+        Assert.assertArrayEquals(new String[]{"\"000000\"", "\"Zaid \\\"Z\\\" Siddique\"", "\"2000-07-26\""}, filterValues);
+        Assert.assertArrayEquals(filterValues, registrySearchTemplate.getFilterValues(
+                bytes("{'fullName':'Zaid \\'Z\\' Siddique','dob':'2000-07-26'}"), "000000"));
+    }
+
+    @Test
+    public void getFilterValues_withNonTextValues_thenReturnJsonLiterals() throws KycAuthException {
+        String[] filterValues = registrySearchTemplate.getFilterValues(bytes("{'fullName':null,'dob':20000726}"), "000000");
+
+        Assert.assertArrayEquals(new String[]{"\"000000\"", "null", "20000726"}, filterValues);
+    }
+
+    @Test
+    public void getFilterValues_withUnnormalizedValues_thenReturnNormalizedLiterals() throws KycAuthException {
+        String[] filterValues = registrySearchTemplate.getFilterValues(bytes("{'fullName':' Jose\u0301 ','dob':2000.10}"), "000000 ");
+
+        Assert.assertArrayEquals(new String[]{"\"000000\"", "\"Jos\u00e9\"", "2000.1"}, filterValues);
+        Assert.assertArrayEquals(filterValues, registrySearchTemplate.getFilterValues(
+                bytes("{'fullName':'Jos\u00e9','dob':2000.100}"), "000000"));
+        Assert.assertArrayEquals(new String[]{"\"000000\"", "\"JOS\u00c9\"", "2000.1"}, registrySearchTemplate.getFilterValues(
+                bytes("{'fullName':'JOS\u00c9','dob':2000.1}"), "000000"));
+    }
+
+    @Test
+    public void getFilterValues_withIgnoreCase_thenReturnLowercaseText() throws KycAuthException {
+        RegistrySearchTemplate template = RegistrySearchTemplate.compile(List.of(Map.of("id", "policyNumber"),
+                Map.of("id", "fullName")), "policyNumber", true);
+
+        Assert.assertArrayEquals(new String[]{"\"ab000000\"", "\"jos\u00e9\""},
+                template.getFilterValues(bytes("{'fullName':'JOSE\u0301'}"), "AB000000"));
+    }
+
+    @Test
+    public void getFilterValues_withInvalidChallenge_thenFail() {
+        for (String challenge : new String[]{"{'fullName':'Zaid'}", "{'fullName':'Zaid','dob':['2000-07-26']}",
+                "['Zaid','2000-07-26']", "{'fullName':'Zaid','dob':", ""}) {
+            try {
+                registrySearchTemplate.getFilterValues(bytes(challenge), "000000");
+                Assert.fail();
+            } catch (KycAuthException e) {
+                Assert.assertEquals(ErrorConstants.AUTH_FAILED, e.getErrorCode());
+            }
+        }
+    }
+
+    @Test
+    public void write_withFilterValues_thenWriteSearchRequest() throws Exception {
+        String[] filterValues = registrySearchTemplate.getFilterValues(
+                bytes("{'fullName':'Zaid \\'Z\\' Siddique','dob':'2000-07-26'}"), "000000");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        registrySearchTemplate.write(filterValues, out);
+
+        Assert.assertEquals(objectMapper.readTree(bytes("{'offset':0,'limit':2,'filters':{'policyNumber':{'eq':'000000'}," +
+                        "'fullName':{'eq':'Zaid \\'Z\\' Siddique'},'dob':{'eq':'2000-07-26'}}}")),
+                objectMapper.readTree(out.toByteArray()));
+    }
+
+    @Test
+    public void write_withoutIdField_thenReadAllFieldsFromChallenge() throws KycAuthException, IOException {
+        RegistrySearchTemplate template = RegistrySearchTemplate.compile(List.of(Map.of("id", "policyNumber"),
+                Map.of("id", "fullName")), "");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        template.write(template.getFilterValues(bytes("{'fullName':'Zaid','policyNumber':'000001'}"), "000000"), out);
+
+        Assert.assertEquals(objectMapper.readTree(bytes("{'offset':0,'limit':2,'filters':{'policyNumber':{'eq':'000001'}," +
+                "'fullName':{'eq':'Zaid'}}}")), objectMapper.readTree(out.toByteArray()));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.replace("\\'", "\u0001").replace('\'', '"').replace("\u0001", "\\\"").getBytes(StandardCharsets.UTF_8);
+    }
+}
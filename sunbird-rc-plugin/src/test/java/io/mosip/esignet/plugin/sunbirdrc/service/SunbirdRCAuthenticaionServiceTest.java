@@ -1,27 +1,36 @@
 package io.mosip.esignet.plugin.sunbirdrc.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.mosip.esignet.api.dto.*;
 import io.mosip.esignet.api.exception.KycAuthException;
 import io.mosip.esignet.api.exception.KycExchangeException;
 import io.mosip.esignet.api.exception.SendOtpException;
 import io.mosip.esignet.api.util.ErrorConstants;
+import io.mosip.esignet.plugin.helper.PluginMetrics;
+import io.mosip.esignet.plugin.helper.PooledRestTemplateFactory;
+import io.mosip.esignet.plugin.sunbirdrc.helper.RegistryMirrorIndex;
+import io.mosip.esignet.plugin.sunbirdrc.helper.RegistrySearchCache;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Assert;
+import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
-import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.RequestEntity;
-import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -34,12 +43,26 @@ public class SunbirdRCAuthenticaionServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
-    @Mock
-    private ObjectMapper objectMapper;
+    @Spy
+    private PooledRestTemplateFactory pooledRestTemplateFactory = new PooledRestTemplateFactory();
+
+    @Spy
+    private RegistrySearchCache registrySearchCache = new RegistrySearchCache();
+
+    @Spy
+    private PluginMetrics pluginMetrics = new PluginMetrics("sunbird-rc-plugin");
 
     @InjectMocks
     private SunbirdRCAuthenticationService sunbirdRCAuthenticationService;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Before
+    public void setUp() {
+        ReflectionTestUtils.setField(pluginMetrics, "enabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "stagesEnabled", true);
+        ReflectionTestUtils.setField(pluginMetrics, "meterRegistry", meterRegistry);
+    }
 
 
     @Test
@@ -80,7 +103,7 @@ public class SunbirdRCAuthenticaionServiceTest {
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "idField", "policyNumber");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registrySearchUrl", "url");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "entityIdField", "policyNumber");
-        ReflectionTestUtils.setField(sunbirdRCAuthenticationService,"objectMapper",new ObjectMapper());
+        sunbirdRCAuthenticationService.initialize();
 
         // Arrange
         String relyingPartyId = "validRelayingPartyId";
@@ -97,11 +120,7 @@ public class SunbirdRCAuthenticaionServiceTest {
         List<Map<String,Object>> responseMap=new ArrayList<>();
         Map<String,Object> map=Map.of("policyNumber","000000","dob","2000-07-26");
         responseMap.add(map);
-        ResponseEntity<List<Map<String,Object>>>  responseEntity = new ResponseEntity(responseMap, HttpStatus.OK);
-        Mockito.when(restTemplate.exchange(
-                Mockito.any(RequestEntity.class),
-                Mockito.eq(new ParameterizedTypeReference<List<Map<String,Object>>>() {})
-        )).thenReturn(responseEntity);
+        mockRegistryResponse(responseMap, HttpStatus.OK);
 
         Map<String,String> mockChallengMap=new HashMap<>();
         mockChallengMap.put("fullName","Zaid Siddique");
@@ -112,13 +131,116 @@ public class SunbirdRCAuthenticaionServiceTest {
     }
 
     @Test
-    public void doKycAuthWithInValidChallenge_thenFail() throws IOException {
+    public void doKycAuthWithSameChallenge_thenSearchRegistryOnce() throws KycAuthException, IOException {
+        List<Map<String,String>> fieldDetailList = List.of(Map.of("id","policyNumber","type","string","format","string"),Map.of("id","fullName","type","string","format","string"));
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "fieldDetailList", fieldDetailList);
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "idField", "policyNumber");
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registrySearchUrl", "url");
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "entityIdField", "policyNumber");
+        sunbirdRCAuthenticationService.initialize();
+        ReflectionTestUtils.setField(registrySearchCache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(registrySearchCache, "maxSize", 100);
+
+        KycAuthDto kycAuthDto = new KycAuthDto();
+        AuthChallenge authChallenge=new AuthChallenge();
+        authChallenge.setFormat("string");
+        authChallenge.setAuthFactorType("KBI");
+        authChallenge.setChallenge("eyJmdWxsTmFtZSI6IlphaWQgU2lkZGlxdWUiLCJkb2IiOiIyMDAwLTA3LTI2In0=");
+        kycAuthDto.setChallengeList(List.of(authChallenge));
+        kycAuthDto.setIndividualId("000000");
 
+        List<Map<String,Object>> responseMap=new ArrayList<>();
+        responseMap.add(Map.of("policyNumber","000000","dob","2000-07-26"));
+        mockRegistryResponse(responseMap, HttpStatus.OK);
+
+        KycAuthResult result = sunbirdRCAuthenticationService.doKycAuth("relyingPartyId", "clientId", kycAuthDto);
+        KycAuthResult retryResult = sunbirdRCAuthenticationService.doKycAuth("otherRelyingPartyId", "otherClientId", kycAuthDto);
+
+        Assert.assertEquals("000000", result.getKycToken());
+        Assert.assertEquals("000000", retryResult.getKycToken());
+        Mockito.verify(restTemplate, Mockito.times(1)).execute(Mockito.any(URI.class), Mockito.eq(HttpMethod.POST),
+                Mockito.any(RequestCallback.class), Mockito.any(ResponseExtractor.class));
+    }
+
+    @Test
+    public void doKycAuthWithRegistryMirror_thenLookupLocally() throws KycAuthException {
+        List<Map<String,String>> fieldDetailList = List.of(Map.of("id","policyNumber","type","string","format","string"),Map.of("id","fullName","type","string","format","string"));
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "fieldDetailList", fieldDetailList);
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "idField", "policyNumber");
+        sunbirdRCAuthenticationService.initialize();
+        RegistryMirrorIndex registryMirrorIndex = Mockito.mock(RegistryMirrorIndex.class);
+        Mockito.when(registryMirrorIndex.lookup(new String[]{"\"000000\"", "\"Zaid Siddique\""})).thenReturn("entity-1");
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registryMirrorIndex", registryMirrorIndex);
+
+        KycAuthDto kycAuthDto = new KycAuthDto();
+        AuthChallenge authChallenge=new AuthChallenge();
+        authChallenge.setFormat("string");
+        authChallenge.setAuthFactorType("KBI");
+        authChallenge.setChallenge("eyJmdWxsTmFtZSI6IlphaWQgU2lkZGlxdWUiLCJkb2IiOiIyMDAwLTA3LTI2In0=");
+        kycAuthDto.setChallengeList(List.of(authChallenge));
+        kycAuthDto.setIndividualId("000000");
+
+        KycAuthResult result = sunbirdRCAuthenticationService.doKycAuth("relyingPartyId", "clientId", kycAuthDto);
+        Assert.assertEquals("entity-1", result.getKycToken());
+
+        kycAuthDto.setIndividualId("000001");
+        try{
+            sunbirdRCAuthenticationService.doKycAuth("relyingPartyId", "clientId", kycAuthDto);
+            Assert.fail();
+        }catch (KycAuthException e){
+            Assert.assertEquals(ErrorConstants.AUTH_FAILED, e.getErrorCode());
+        }
+        Mockito.verify(restTemplate, Mockito.never()).execute(Mockito.any(URI.class), Mockito.eq(HttpMethod.POST),
+                Mockito.any(RequestCallback.class), Mockito.any(ResponseExtractor.class));
+        Assert.assertEquals(2, meterRegistry.get("esignet.plugin.stage").tag("plugin", "sunbird-rc-plugin")
+                .tag("stage", "mirror_lookup").tag("outcome", "success").timer().count());
+        Assert.assertNull(meterRegistry.find("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_HTTP).timer());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("operation", "kyc-auth")
+                .tag("auth_factor", "KBI").tag("outcome", "success").timer().count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.operation").tag("operation", "kyc-auth")
+                .tag("outcome", "failure").tag("error_code", ErrorConstants.AUTH_FAILED).timer().count());
+    }
+
+    @Test
+    public void doKycAuthWithRegistryMirrorFallback_thenSearchRegistry() throws KycAuthException {
         List<Map<String,String>> fieldDetailList = List.of(Map.of("id","policyNumber","type","string","format","string"),Map.of("id","fullName","type","string","format","string"));
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "fieldDetailList", fieldDetailList);
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "idField", "policyNumber");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registrySearchUrl", "url");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "entityIdField", "policyNumber");
+        sunbirdRCAuthenticationService.initialize();
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registryMirrorIndex", Mockito.mock(RegistryMirrorIndex.class));
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "mirrorFallbackToRegistry", true);
+
+        KycAuthDto kycAuthDto = new KycAuthDto();
+        AuthChallenge authChallenge=new AuthChallenge();
+        authChallenge.setFormat("string");
+        authChallenge.setAuthFactorType("KBI");
+        authChallenge.setChallenge("eyJmdWxsTmFtZSI6IlphaWQgU2lkZGlxdWUiLCJkb2IiOiIyMDAwLTA3LTI2In0=");
+        kycAuthDto.setChallengeList(List.of(authChallenge));
+        kycAuthDto.setIndividualId("000000");
+
+        List<Map<String,Object>> responseMap=new ArrayList<>();
+        responseMap.add(Map.of("policyNumber","000000","dob","2000-07-26"));
+        mockRegistryResponse(responseMap, HttpStatus.OK);
+
+        KycAuthResult result = sunbirdRCAuthenticationService.doKycAuth("relyingPartyId", "clientId", kycAuthDto);
+        Assert.assertEquals("000000", result.getKycToken());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", "mirror_lookup")
+                .tag("outcome", "success").timer().count());
+        Assert.assertEquals(1, meterRegistry.get("esignet.plugin.stage").tag("stage", PluginMetrics.STAGE_HTTP)
+                .tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void doKycAuthWithInValidChallenge_thenFail() throws KycAuthException, IOException {
+
+        List<Map<String,String>> fieldDetailList = List.of(Map.of("id","policyNumber","type","string","format","string"),Map.of("id","fullName","type","string","format","string"));
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "fieldDetailList", fieldDetailList);
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "idField", "policyNumber");
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registrySearchUrl", "url");
+        ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "entityIdField", "policyNumber");
+        sunbirdRCAuthenticationService.initialize();
 
         String relyingPartyId = "validRelayingPartyId";
         String clientId = "validClientId";
@@ -131,11 +253,6 @@ public class SunbirdRCAuthenticaionServiceTest {
         kycAuthDto.setChallengeList(List.of(authChallenge));
         kycAuthDto.setIndividualId("000000");
 
-        Map<String,String> mockChallengMap=new HashMap<>();
-        mockChallengMap.put("fullName","Zaid");
-        mockChallengMap.put("dob","2000-07-26");
-        Mockito.when(objectMapper.readValue(Mockito.anyString(),Mockito.eq(Map.class))).thenReturn(mockChallengMap);
-
         try{
             sunbirdRCAuthenticationService.doKycAuth(relyingPartyId, clientId, kycAuthDto);
             Assert.fail();
@@ -147,12 +264,13 @@ public class SunbirdRCAuthenticaionServiceTest {
 
 
     @Test
-    public void doKycAuthWithInValidResponse_thenFail() {
+    public void doKycAuthWithInValidResponse_thenFail() throws KycAuthException, IOException {
         List<Map<String,String>> fieldDetailList = List.of(Map.of("id","policyNumber","type","string","format","string"));
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "fieldDetailList", fieldDetailList);
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "idField", "policyNumber");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registrySearchUrl", "url");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "entityIdField", "policyNumber");
+        sunbirdRCAuthenticationService.initialize();
         // Arrange
         String relyingPartyId = "validRelayingPartyId";
         String clientId = "validClientId";
@@ -167,11 +285,7 @@ public class SunbirdRCAuthenticaionServiceTest {
 
         List<Map<String,Object>> responseMap=new ArrayList<>();Map<String,Object> map=Map.of("policyNumber","654321","dob","654321");
         responseMap.add(map);
-        ResponseEntity<List<Map<String,Object>>>  responseEntity = new ResponseEntity(responseMap, HttpStatus.FORBIDDEN);
-        Mockito.when(restTemplate.exchange(
-                Mockito.any(RequestEntity.class),
-                Mockito.eq(new ParameterizedTypeReference<List<Map<String,Object>>>() {})
-        )).thenReturn(responseEntity);
+        mockRegistryResponse(responseMap, HttpStatus.FORBIDDEN);
 
         try{
             sunbirdRCAuthenticationService.doKycAuth(relyingPartyId, clientId, kycAuthDto);
@@ -182,12 +296,13 @@ public class SunbirdRCAuthenticaionServiceTest {
     }
 
     @Test
-    public void doKycAuthWithResponseSizeMoreThenOne_thenFail() throws IOException {
+    public void doKycAuthWithResponseSizeMoreThenOne_thenFail() throws KycAuthException, IOException {
         List<Map<String,String>> fieldDetailList = List.of(Map.of("id","policyNumber","type","string","format","string"),Map.of("id","fullName","type","string","format","string"));
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "fieldDetailList", fieldDetailList);
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "idField", "policyNumber");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "registrySearchUrl", "url");
         ReflectionTestUtils.setField(sunbirdRCAuthenticationService, "entityIdField", "policyNumber");
+        sunbirdRCAuthenticationService.initialize();
         // Arrange
         String relyingPartyId = "validRelayingPartyId";
         String clientId = "validClientId";
@@ -205,16 +320,7 @@ public class SunbirdRCAuthenticaionServiceTest {
         Map<String,Object> response2=Map.of("response2","654321");
         responseList.add(response1);
         responseList.add(response2);
-        ResponseEntity<List<Map<String,Object>>>  responseEntity = new ResponseEntity(responseList, HttpStatus.OK);
-        Mockito.when(restTemplate.exchange(
-                Mockito.any(RequestEntity.class),
-                Mockito.eq(new ParameterizedTypeReference<List<Map<String,Object>>>() {})
-        )).thenReturn(responseEntity);
-
-        Map<String,String> mockChallengMap=new HashMap<>();
-        mockChallengMap.put("fullName","Zaid Siddique");
-        mockChallengMap.put("dob","2000-07-26");
-        Mockito.when(objectMapper.readValue(Mockito.anyString(),Mockito.eq(Map.class))).thenReturn(mockChallengMap);
+        mockRegistryResponse(responseList, HttpStatus.OK);
 
         try{
             sunbirdRCAuthenticationService.doKycAuth(relyingPartyId, clientId, kycAuthDto);
@@ -288,4 +394,11 @@ public class SunbirdRCAuthenticaionServiceTest {
         Assert.assertFalse(result);
     }
 
+    private void mockRegistryResponse(List<Map<String,Object>> responseList, HttpStatus status) throws IOException {
+        byte[] responseBody = new ObjectMapper().writeValueAsBytes(responseList);
+        Mockito.when(restTemplate.execute(Mockito.any(URI.class), Mockito.eq(HttpMethod.POST),
+                Mockito.any(RequestCallback.class), Mockito.any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> invocation.<ResponseExtractor<?>>getArgument(3)
+                        .extractData(new MockClientHttpResponse(responseBody, status)));
+    }
 }